@@ -42,6 +42,7 @@ import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.concurrent.SingleThreadContext;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.net.Address;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -123,7 +124,11 @@ public class AtomixCluster implements BootstrapService, Managed<Void> {
     communicationService =
         buildClusterMessagingService(
             getMembershipService(), getMessagingService(), getUnicastService());
-    eventService = buildClusterEventService(getMembershipService(), getMessagingService());
+    eventService =
+        buildClusterEventService(
+            getMembershipService(),
+            getMessagingService(),
+            config.getMessagingConfig().getEventBatchingDelay());
   }
 
   /**
@@ -352,7 +357,9 @@ public class AtomixCluster implements BootstrapService, Managed<Void> {
 
   /** Builds a cluster event service. */
   protected static ManagedClusterEventService buildClusterEventService(
-      final ClusterMembershipService membershipService, final MessagingService messagingService) {
-    return new DefaultClusterEventService(membershipService, messagingService);
+      final ClusterMembershipService membershipService,
+      final MessagingService messagingService,
+      final Duration eventBatchingDelay) {
+    return new DefaultClusterEventService(membershipService, messagingService, eventBatchingDelay);
   }
 }
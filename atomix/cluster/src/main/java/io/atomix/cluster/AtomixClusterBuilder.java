@@ -16,14 +16,18 @@
  */
 package io.atomix.cluster;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Lists;
 import io.atomix.cluster.discovery.NodeDiscoveryProvider;
+import io.atomix.cluster.messaging.ChannelSelectionStrategy;
 import io.atomix.cluster.protocol.GroupMembershipProtocol;
 import io.atomix.utils.Builder;
 import io.atomix.utils.net.Address;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -188,6 +192,91 @@ public class AtomixClusterBuilder implements Builder<AtomixCluster> {
     return this;
   }
 
+  /**
+   * Sets whether message payloads are compressed before they are sent to other nodes which support
+   * it. Disabled by default.
+   *
+   * @param compressionEnabled whether message payloads are compressed
+   * @return the cluster builder
+   */
+  public AtomixClusterBuilder withMessagingCompression(final boolean compressionEnabled) {
+    config.getMessagingConfig().setCompressionEnabled(compressionEnabled);
+    return this;
+  }
+
+  /**
+   * Sets the minimum size in bytes of message payloads which are compressed, if compression is
+   * enabled.
+   *
+   * @param compressionThreshold the minimum size of compressed payloads
+   * @return the cluster builder
+   */
+  public AtomixClusterBuilder withMessagingCompressionThreshold(final int compressionThreshold) {
+    checkArgument(compressionThreshold >= 0, "compressionThreshold must be positive or zero");
+    config.getMessagingConfig().setCompressionThreshold(compressionThreshold);
+    return this;
+  }
+
+  /**
+   * Sets the number of connections which are pooled per remote node. Default is 8.
+   *
+   * @param connectionPoolSize the number of pooled connections per node
+   * @return the cluster builder
+   */
+  public AtomixClusterBuilder withMessagingConnectionPoolSize(final int connectionPoolSize) {
+    checkArgument(connectionPoolSize > 0, "connectionPoolSize must be positive");
+    config.getMessagingConfig().setConnectionPoolSize(connectionPoolSize);
+    return this;
+  }
+
+  /**
+   * Sets the strategy by which a pooled connection is selected for a message. Default is {@link
+   * ChannelSelectionStrategy#SUBJECT}.
+   *
+   * @param channelSelectionStrategy the channel selection strategy
+   * @return the cluster builder
+   */
+  public AtomixClusterBuilder withMessagingChannelSelectionStrategy(
+      final ChannelSelectionStrategy channelSelectionStrategy) {
+    config
+        .getMessagingConfig()
+        .setChannelSelectionStrategy(
+            checkNotNull(channelSelectionStrategy, "channelSelectionStrategy cannot be null"));
+    return this;
+  }
+
+  /**
+   * Sets the prefixes of the subjects whose messages may be sent over any pooled connection with
+   * the {@link ChannelSelectionStrategy#LEAST_LOADED} strategy. Subjects which rely on the order of
+   * their messages, like the Raft replication, must not be listed. Default is none.
+   *
+   * @param reroutableSubjectPrefixes the prefixes of the reroutable subjects
+   * @return the cluster builder
+   */
+  public AtomixClusterBuilder withMessagingReroutableSubjectPrefixes(
+      final List<String> reroutableSubjectPrefixes) {
+    config
+        .getMessagingConfig()
+        .setReroutableSubjectPrefixes(
+            checkNotNull(reroutableSubjectPrefixes, "reroutableSubjectPrefixes cannot be null"));
+    return this;
+  }
+
+  /**
+   * Sets the delay for which cluster events broadcast to the same topic are collected before they
+   * are sent as a single message to each subscriber. Default is zero, which sends every event on
+   * its own.
+   *
+   * @param eventBatchingDelay the event batching delay
+   * @return the cluster builder
+   */
+  public AtomixClusterBuilder withEventBatchingDelay(final Duration eventBatchingDelay) {
+    checkNotNull(eventBatchingDelay, "eventBatchingDelay cannot be null");
+    checkArgument(!eventBatchingDelay.isNegative(), "eventBatchingDelay must be positive or zero");
+    config.getMessagingConfig().setEventBatchingDelay(eventBatchingDelay);
+    return this;
+  }
+
   /**
    * Sets the cluster membership protocol.
    *
@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging;
+
+/** Strategy by which a pooled connection to another node is selected for a message. */
+public enum ChannelSelectionStrategy {
+
+  /**
+   * Always sends the messages of a subject over the same connection, selected by the hash of the
+   * subject. Messages of the same subject are received in the order in which they were sent.
+   */
+  SUBJECT,
+
+  /**
+   * Sends the messages of a subject over the connection selected by the hash of the subject as long
+   * as that connection has no pending writes. Otherwise, messages of reroutable subjects use the
+   * established connection which can take the most bytes before it becomes unwritable, which
+   * spreads the traffic of busy subjects over all connections and their event loops. Messages of a
+   * reroutable subject may then be received out of order; all other subjects behave as with {@link
+   * #SUBJECT}.
+   *
+   * @see MessagingConfig#setReroutableSubjectPrefixes(java.util.List)
+   */
+  LEAST_LOADED
+}
@@ -17,6 +17,7 @@
 package io.atomix.cluster.messaging;
 
 import io.atomix.utils.config.Config;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,7 +25,12 @@ import java.util.List;
 public class MessagingConfig implements Config {
   private List<String> interfaces = new ArrayList<>();
   private Integer port;
-  private final int connectionPoolSize = 8;
+  private int connectionPoolSize = 8;
+  private ChannelSelectionStrategy channelSelectionStrategy = ChannelSelectionStrategy.SUBJECT;
+  private List<String> reroutableSubjectPrefixes = new ArrayList<>();
+  private boolean compressionEnabled = false;
+  private int compressionThreshold = 1024;
+  private Duration eventBatchingDelay = Duration.ZERO;
 
   /**
    * Returns the local interfaces to which to bind the node.
@@ -74,4 +80,126 @@ public class MessagingConfig implements Config {
   public int getConnectionPoolSize() {
     return connectionPoolSize;
   }
+
+  /**
+   * Sets the number of connections which are pooled per remote node. Default is 8.
+   *
+   * @param connectionPoolSize the connection pool size
+   * @return the messaging configuration
+   */
+  public MessagingConfig setConnectionPoolSize(final int connectionPoolSize) {
+    this.connectionPoolSize = connectionPoolSize;
+    return this;
+  }
+
+  /**
+   * Returns the strategy by which a pooled connection is selected for a message.
+   *
+   * @return the channel selection strategy
+   */
+  public ChannelSelectionStrategy getChannelSelectionStrategy() {
+    return channelSelectionStrategy;
+  }
+
+  /**
+   * Sets the strategy by which a pooled connection is selected for a message. Default is {@link
+   * ChannelSelectionStrategy#SUBJECT}, which keeps the messages of a subject in order.
+   *
+   * @param channelSelectionStrategy the channel selection strategy
+   * @return the messaging configuration
+   */
+  public MessagingConfig setChannelSelectionStrategy(
+      final ChannelSelectionStrategy channelSelectionStrategy) {
+    this.channelSelectionStrategy = channelSelectionStrategy;
+    return this;
+  }
+
+  /**
+   * Returns the prefixes of the subjects whose messages may be sent over any pooled connection.
+   *
+   * @return the prefixes of the reroutable subjects
+   */
+  public List<String> getReroutableSubjectPrefixes() {
+    return reroutableSubjectPrefixes;
+  }
+
+  /**
+   * Sets the prefixes of the subjects whose messages may be sent over any pooled connection with
+   * the {@link ChannelSelectionStrategy#LEAST_LOADED} strategy. Messages of all other subjects are
+   * always sent over the connection of their subject, and are received in order. Default is none.
+   *
+   * @param reroutableSubjectPrefixes the prefixes of the reroutable subjects
+   * @return the messaging configuration
+   */
+  public MessagingConfig setReroutableSubjectPrefixes(
+      final List<String> reroutableSubjectPrefixes) {
+    this.reroutableSubjectPrefixes = reroutableSubjectPrefixes;
+    return this;
+  }
+
+  /**
+   * Returns whether message payloads are compressed before they are sent.
+   *
+   * @return whether message payloads are compressed
+   */
+  public boolean isCompressionEnabled() {
+    return compressionEnabled;
+  }
+
+  /**
+   * Sets whether message payloads are compressed before they are sent. Compression is only used for
+   * connections to nodes which support it, and payloads are only compressed if they are at least as
+   * large as the compression threshold. Payloads which do not become smaller are sent uncompressed.
+   *
+   * @param compressionEnabled whether message payloads are compressed
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressionEnabled(final boolean compressionEnabled) {
+    this.compressionEnabled = compressionEnabled;
+    return this;
+  }
+
+  /**
+   * Returns the minimum size in bytes of message payloads which are compressed.
+   *
+   * @return the compression threshold
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets the minimum size in bytes of message payloads which are compressed, if compression is
+   * enabled. Smaller payloads are always sent uncompressed. Default is 1 KB.
+   *
+   * @param compressionThreshold the compression threshold
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressionThreshold(final int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  /**
+   * Returns the delay for which cluster events of the same topic are collected before they are
+   * sent.
+   *
+   * @return the event batching delay
+   */
+  public Duration getEventBatchingDelay() {
+    return eventBatchingDelay;
+  }
+
+  /**
+   * Sets the delay for which cluster events broadcast to the same topic are collected before they
+   * are sent as a single message to each subscriber. Default is zero, which sends every event on
+   * its own.
+   *
+   * @param eventBatchingDelay the event batching delay
+   * @return the messaging configuration
+   */
+  public MessagingConfig setEventBatchingDelay(final Duration eventBatchingDelay) {
+    this.eventBatchingDelay = eventBatchingDelay;
+    return this;
+  }
 }
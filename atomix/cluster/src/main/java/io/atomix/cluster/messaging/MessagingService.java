@@ -17,6 +17,8 @@
 package io.atomix.cluster.messaging;
 
 import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
@@ -167,6 +169,45 @@ public interface MessagingService {
       Duration timeout,
       Executor executor);
 
+  /**
+   * Sends a message asynchronously to the specified communication address. Unlike {@link
+   * #sendAsync(Address, String, byte[], boolean)}, the payload can be written into a pooled buffer
+   * and is sent without copying it into an intermediate array. The service takes over the ownership
+   * of the payload and releases it once it was sent or could not be sent.
+   *
+   * @param address address to send the message to.
+   * @param type type of message.
+   * @param payload message payload, which is released by the service
+   * @param keepAlive whether to keep the connection alive after usage
+   * @return future that is completed when the message is sent
+   */
+  default CompletableFuture<Void> sendAsync(
+      final Address address, final String type, final ByteBuf payload, final boolean keepAlive) {
+    return sendAsync(address, type, releaseToBytes(payload), keepAlive);
+  }
+
+  /**
+   * Sends a message asynchronously and expects a response. Unlike {@link #sendAndReceive(Address,
+   * String, byte[], boolean, Duration)}, the payload can be written into a pooled buffer and is
+   * sent without copying it into an intermediate array. The service takes over the ownership of the
+   * payload and releases it once it was sent or could not be sent.
+   *
+   * @param address address to send the message to.
+   * @param type type of message.
+   * @param payload message payload, which is released by the service
+   * @param keepAlive whether to keep the connection alive after usage
+   * @param timeout response timeout
+   * @return a response future
+   */
+  default CompletableFuture<byte[]> sendAndReceive(
+      final Address address,
+      final String type,
+      final ByteBuf payload,
+      final boolean keepAlive,
+      final Duration timeout) {
+    return sendAndReceive(address, type, releaseToBytes(payload), keepAlive, timeout);
+  }
+
   /**
    * Registers a new message handler for message type.
    *
@@ -193,10 +234,38 @@ public interface MessagingService {
    */
   void registerHandler(String type, BiFunction<Address, byte[], CompletableFuture<byte[]>> handler);
 
+  /**
+   * Registers a new message handler for message type, which replies with a payload written into a
+   * pooled buffer. The service takes over the ownership of the replies and releases them once they
+   * were sent. The received payload is still passed as an array.
+   *
+   * @param type message type.
+   * @param handler message handler
+   */
+  default void registerBufferHandler(
+      final String type, final BiFunction<Address, byte[], CompletableFuture<ByteBuf>> handler) {
+    registerHandler(
+        type,
+        (address, payload) ->
+            handler.apply(address, payload).thenApply(MessagingService::releaseToBytes));
+  }
+
   /**
    * Unregister current handler, if one exists for message type.
    *
    * @param type message type
    */
   void unregisterHandler(String type);
+
+  private static byte[] releaseToBytes(final ByteBuf payload) {
+    if (payload == null) {
+      return null;
+    }
+
+    try {
+      return ByteBufUtil.getBytes(payload);
+    } finally {
+      payload.release();
+    }
+  }
 }
@@ -18,6 +18,7 @@ package io.atomix.cluster.messaging.impl;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.atomix.cluster.messaging.ChannelSelectionStrategy;
 import io.atomix.utils.net.Address;
 import io.netty.channel.Channel;
 import java.net.InetSocketAddress;
@@ -35,12 +36,20 @@ class ChannelPool {
 
   private final Function<Address, CompletableFuture<Channel>> factory;
   private final int size;
+  private final ChannelSelectionStrategy strategy;
+  private final List<String> reroutableSubjectPrefixes;
   private final Map<InetSocketAddress, List<CompletableFuture<Channel>>> channels =
       Maps.newConcurrentMap();
 
-  ChannelPool(final Function<Address, CompletableFuture<Channel>> factory, final int size) {
+  ChannelPool(
+      final Function<Address, CompletableFuture<Channel>> factory,
+      final int size,
+      final ChannelSelectionStrategy strategy,
+      final List<String> reroutableSubjectPrefixes) {
     this.factory = factory;
     this.size = size;
+    this.strategy = strategy;
+    this.reroutableSubjectPrefixes = List.copyOf(reroutableSubjectPrefixes);
   }
 
   /**
@@ -76,6 +85,122 @@ class ChannelPool {
     return Math.abs(messageType.hashCode() % size);
   }
 
+  /**
+   * Returns whether messages of the given type may be sent over another channel than the one of
+   * their type. Only message types which start with one of the configured prefixes may be rerouted;
+   * all others must be received in the order in which they were sent.
+   *
+   * @param messageType the message type
+   * @return true if the message type may be sent over any channel of the pool
+   */
+  private boolean isReroutable(final String messageType) {
+    for (final String prefix : reroutableSubjectPrefixes) {
+      if (messageType.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the offset of the channel over which a message of the given type is sent. With the
+   * {@link ChannelSelectionStrategy#LEAST_LOADED} strategy, the channel of a reroutable message
+   * type is only replaced by another established channel if that one can take more bytes before it
+   * becomes unwritable. Channels which were not yet opened are connected in the background, so that
+   * they can take over load of later messages.
+   *
+   * @param channelPool the channel pool of the target address
+   * @param address the target address
+   * @param messageType the message type for which to select the channel
+   * @return the offset of the selected channel
+   */
+  private int selectChannelOffset(
+      final List<CompletableFuture<Channel>> channelPool,
+      final Address address,
+      final String messageType) {
+    final int offset = getChannelOffset(messageType);
+    final CompletableFuture<Channel> channelFuture = channelPool.get(offset);
+    if (strategy != ChannelSelectionStrategy.LEAST_LOADED
+        || !isEstablished(channelFuture)
+        || !isReroutable(messageType)) {
+      // the channel of the message type must be (re)connected before it can be compared
+      return offset;
+    }
+
+    final Channel channel = channelFuture.join();
+    long maxWritableBytes = getWritableBytes(channel);
+    if (maxWritableBytes >= channel.config().getWriteBufferHighWaterMark()) {
+      // nothing is pending on the channel of the message type
+      return offset;
+    }
+
+    int selectedOffset = offset;
+    for (int i = 0; i < size; i++) {
+      final CompletableFuture<Channel> otherChannelFuture = channelPool.get(i);
+      if (otherChannelFuture == null) {
+        connect(channelPool, address, i);
+      } else if (isEstablished(otherChannelFuture)) {
+        final long writableBytes = getWritableBytes(otherChannelFuture.join());
+        if (writableBytes > maxWritableBytes) {
+          maxWritableBytes = writableBytes;
+          selectedOffset = i;
+        }
+      }
+    }
+    return selectedOffset;
+  }
+
+  /**
+   * Returns the number of bytes which can be written to the given channel before it becomes
+   * unwritable. Channels which are not active or not writable can take no bytes, as messages would
+   * have to wait for them.
+   *
+   * @param channel the channel
+   * @return the number of bytes which can be written to the channel before it becomes unwritable
+   */
+  private long getWritableBytes(final Channel channel) {
+    if (!channel.isActive() || !channel.isWritable()) {
+      return 0;
+    }
+    return channel.bytesBeforeUnwritable();
+  }
+
+  private boolean isEstablished(final CompletableFuture<Channel> channelFuture) {
+    return channelFuture != null
+        && channelFuture.isDone()
+        && !channelFuture.isCompletedExceptionally();
+  }
+
+  /**
+   * Opens a channel to the given address at the given offset of the pool, unless one was opened
+   * concurrently.
+   *
+   * @param channelPool the channel pool of the address
+   * @param address the address to connect to
+   * @param offset the offset of the channel in the pool
+   * @return the future of the channel at the offset
+   */
+  private CompletableFuture<Channel> connect(
+      final List<CompletableFuture<Channel>> channelPool, final Address address, final int offset) {
+    synchronized (channelPool) {
+      CompletableFuture<Channel> channelFuture = channelPool.get(offset);
+      if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
+        LOGGER.debug("Connecting to {}", address);
+        channelFuture = factory.apply(address);
+        channelFuture.whenComplete(
+            (channel, error) -> {
+              if (error == null) {
+                LOGGER.debug("Connected to {}", channel.remoteAddress());
+              } else {
+                LOGGER.debug("Failed to connect to {}", address, error);
+              }
+            });
+        channelPool.set(offset, channelFuture);
+      }
+      return channelFuture;
+    }
+  }
+
   /**
    * Gets or creates a pooled channel to the given address for the given message type.
    *
@@ -85,26 +210,11 @@ class ChannelPool {
    */
   CompletableFuture<Channel> getChannel(final Address address, final String messageType) {
     final List<CompletableFuture<Channel>> channelPool = getChannelPool(address);
-    final int offset = getChannelOffset(messageType);
+    final int offset = selectChannelOffset(channelPool, address, messageType);
 
     CompletableFuture<Channel> channelFuture = channelPool.get(offset);
     if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
-      synchronized (channelPool) {
-        channelFuture = channelPool.get(offset);
-        if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
-          LOGGER.debug("Connecting to {}", address);
-          channelFuture = factory.apply(address);
-          channelFuture.whenComplete(
-              (channel, error) -> {
-                if (error == null) {
-                  LOGGER.debug("Connected to {}", channel.remoteAddress());
-                } else {
-                  LOGGER.debug("Failed to connect to {}", address, error);
-                }
-              });
-          channelPool.set(offset, channelFuture);
-        }
-      }
+      channelFuture = connect(channelPool, address, offset);
     }
 
     final CompletableFuture<Channel> future = new CompletableFuture<>();
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.prometheus.client.Counter;
+
+/** Metrics of the compression of message payloads. */
+final class CompressionMetrics {
+  private static final String NAMESPACE = "atomix";
+  private static final String OPERATION_LABEL = "operation";
+  private static final String COMPRESS = "compress";
+  private static final String DECOMPRESS = "decompress";
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private static final Counter UNCOMPRESSED_BYTES =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .labelNames(OPERATION_LABEL)
+          .help("Number of uncompressed payload bytes which were compressed or decompressed")
+          .name("messaging_compression_uncompressed_bytes")
+          .register();
+  private static final Counter COMPRESSED_BYTES =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .labelNames(OPERATION_LABEL)
+          .help("Number of compressed payload bytes which were produced or decompressed")
+          .name("messaging_compression_compressed_bytes")
+          .register();
+  private static final Counter TIME =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .labelNames(OPERATION_LABEL)
+          .help("Time spent compressing or decompressing message payloads in seconds")
+          .name("messaging_compression_time_seconds")
+          .register();
+
+  private CompressionMetrics() {}
+
+  static void observeCompression(
+      final int uncompressedBytes, final int compressedBytes, final long nanos) {
+    observe(COMPRESS, uncompressedBytes, compressedBytes, nanos);
+  }
+
+  static void observeDecompression(
+      final int compressedBytes, final int uncompressedBytes, final long nanos) {
+    observe(DECOMPRESS, uncompressedBytes, compressedBytes, nanos);
+  }
+
+  private static void observe(
+      final String operation,
+      final int uncompressedBytes,
+      final int compressedBytes,
+      final long nanos) {
+    UNCOMPRESSED_BYTES.labels(operation).inc(uncompressedBytes);
+    COMPRESSED_BYTES.labels(operation).inc(compressedBytes);
+    TIME.labels(operation).inc(nanos / NANOS_PER_SECOND);
+  }
+}
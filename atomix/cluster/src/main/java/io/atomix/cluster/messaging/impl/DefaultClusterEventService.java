@@ -38,6 +38,8 @@ import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.time.LogicalTimestamp;
 import io.atomix.utils.time.WallClockTimestamp;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
@@ -48,10 +50,12 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,18 +75,39 @@ public class DefaultClusterEventService
               .build());
 
   private static final String SUBSCRIPTION_PROPERTY_NAME = "event-service-topics-subscribed";
+  private static final String BATCHING_PROPERTY_NAME = "event-service-batching-supported";
+  private static final String BATCH_TOPIC_PREFIX = "event-service-batch-";
   private final ClusterMembershipService membershipService;
   private final MessagingService messagingService;
   private final MemberId localMemberId;
+  private final Duration batchingDelay;
   private final Map<String, InternalTopic> topics = Maps.newConcurrentMap();
   private final Map<MemberId, Set<String>> remoteMemberSubscriptions = Maps.newConcurrentMap();
+  // only accessed from the event service executor
+  private final Map<String, List<byte[]>> pendingEvents = Maps.newHashMap();
   private final AtomicBoolean started = new AtomicBoolean();
   private ScheduledExecutorService eventServiceExecutor;
 
   public DefaultClusterEventService(
       final ClusterMembershipService membershipService, final MessagingService messagingService) {
+    this(membershipService, messagingService, Duration.ZERO);
+  }
+
+  /**
+   * Creates a cluster event service which collects the events broadcast to a topic for up to the
+   * given delay, and sends them as a single message to each subscriber which supports it.
+   *
+   * @param membershipService the cluster membership service
+   * @param messagingService the messaging service
+   * @param batchingDelay the delay for which events are collected; zero sends each event on its own
+   */
+  public DefaultClusterEventService(
+      final ClusterMembershipService membershipService,
+      final MessagingService messagingService,
+      final Duration batchingDelay) {
     this.membershipService = membershipService;
     this.messagingService = messagingService;
+    this.batchingDelay = batchingDelay;
     localMemberId = membershipService.getLocalMember().id();
   }
 
@@ -90,16 +115,56 @@ public class DefaultClusterEventService
   public <M> void broadcast(
       final String topic, final M message, final Function<M, byte[]> encoder) {
     final byte[] payload = encoder.apply(message);
+    if (batchingDelay.isZero() || !started.get()) {
+      sendEvents(topic, List.of(payload));
+    } else {
+      eventServiceExecutor.execute(() -> addPendingEvent(topic, payload));
+    }
+  }
+
+  private void addPendingEvent(final String topic, final byte[] payload) {
+    List<byte[]> events = pendingEvents.get(topic);
+    if (events == null) {
+      events = new ArrayList<>();
+      pendingEvents.put(topic, events);
+      eventServiceExecutor.schedule(
+          () -> sendEvents(topic, pendingEvents.remove(topic)),
+          batchingDelay.toMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+    events.add(payload);
+  }
+
+  /**
+   * Sends the given events to all members which subscribed to the topic. Several events are sent as
+   * a single batch to the members which support it, and one by one to all others.
+   *
+   * @param topic the topic of the events
+   * @param events the encoded events
+   */
+  private void sendEvents(final String topic, final List<byte[]> events) {
+    final byte[] batch = events.size() > 1 ? SERIALIZER.encode(new ArrayList<>(events)) : null;
     getSubscriberNodes(topic)
         .forEach(
             memberId -> {
               final Member member = membershipService.getMember(memberId);
-              if (member != null && member.isReachable()) {
-                messagingService.sendAsync(member.address(), topic, payload);
+              if (member == null || !member.isReachable()) {
+                return;
+              }
+
+              if (batch != null && supportsBatches(member)) {
+                messagingService.sendAsync(member.address(), BATCH_TOPIC_PREFIX + topic, batch);
+              } else {
+                events.forEach(
+                    payload -> messagingService.sendAsync(member.address(), topic, payload));
               }
             });
   }
 
+  private boolean supportsBatches(final Member member) {
+    return Boolean.parseBoolean(member.properties().getProperty(BATCHING_PROPERTY_NAME));
+  }
+
   @Override
   public <M, R> CompletableFuture<Subscription> subscribe(
       final String topic,
@@ -162,9 +227,14 @@ public class DefaultClusterEventService
     return getSubscribers(topicName).stream();
   }
 
-  /** Updates all active peers with a given subscription. */
+  /** Updates all active peers with the topics to which this node subscribed. */
   private CompletableFuture<Void> updateNodes() {
-    final String topicSubscribed = topicsAsString(new HashSet<>(topics.keySet()));
+    final Set<String> localTopics =
+        topics.values().stream()
+            .filter(InternalTopic::hasLocalSubscriptions)
+            .map(topic -> topic.topic)
+            .collect(Collectors.toCollection(HashSet::new));
+    final String topicSubscribed = topicsAsString(localTopics);
     membershipService
         .getLocalMember()
         .properties()
@@ -189,6 +259,10 @@ public class DefaultClusterEventService
       eventServiceExecutor =
           Executors.newSingleThreadScheduledExecutor(
               namedThreads("atomix-cluster-event-executor-%d", LOGGER));
+      membershipService
+          .getLocalMember()
+          .properties()
+          .setProperty(BATCHING_PROPERTY_NAME, Boolean.TRUE.toString());
       membershipService.addListener(this);
       // Listener doesn't receive notification about the Members added before the listener is added.
       membershipService
@@ -249,13 +323,21 @@ public class DefaultClusterEventService
     final String topicSubscribedAsString =
         event.subject().properties().getProperty(SUBSCRIPTION_PROPERTY_NAME);
     if (topicSubscribedAsString != null) {
+      final MemberId memberId = event.subject().id();
       final Set<String> topicsSubscribed = topicsFromString(topicSubscribedAsString);
       topicsSubscribed.forEach(
           topic ->
               topics
                   .computeIfAbsent(topic, t -> new InternalTopic(topic))
-                  .addRemoteSubscription(event.subject().id()));
-      remoteMemberSubscriptions.put(event.subject().id(), topicsSubscribed);
+                  .addRemoteSubscription(memberId));
+
+      final Set<String> prevSubscriptions =
+          remoteMemberSubscriptions.put(memberId, topicsSubscribed);
+      if (prevSubscriptions != null) {
+        prevSubscriptions.stream()
+            .filter(topic -> !topicsSubscribed.contains(topic))
+            .forEach(topic -> topics.get(topic).removeRemoteSubscription(memberId));
+      }
     } else {
       removeAllSubscription(event.subject().id());
     }
@@ -283,6 +365,19 @@ public class DefaultClusterEventService
       return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * Handles a batch of events, as if each of them was received on its own.
+     *
+     * @param address the address of the sender
+     * @param batch the encoded batch of events
+     * @return a future completed once the events were handed to the subscriptions
+     */
+    CompletableFuture<byte[]> applyBatch(final Address address, final byte[] batch) {
+      final List<byte[]> events = SERIALIZER.decode(batch);
+      events.forEach(payload -> apply(address, payload));
+      return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Adds a local subscription.
      *
@@ -321,6 +416,15 @@ public class DefaultClusterEventService
       return localSubscribers;
     }
 
+    /**
+     * Returns whether this node subscribed to the topic.
+     *
+     * @return true if there is at least one local subscription for the topic
+     */
+    boolean hasLocalSubscriptions() {
+      return !localSubscribers.subscriptions.isEmpty();
+    }
+
     /**
      * Returns the list of remote subscriptions for the topic.
      *
@@ -399,6 +503,8 @@ public class DefaultClusterEventService
         final InternalSubscription subscription) {
       if (localSubscribers.subscriptions.isEmpty()) {
         messagingService.registerHandler(subscription.topic(), localSubscribers);
+        messagingService.registerHandler(
+            BATCH_TOPIC_PREFIX + subscription.topic(), localSubscribers::applyBatch);
       }
       localSubscribers.add(subscription);
       subscriptions.add(localMemberId);
@@ -416,6 +522,7 @@ public class DefaultClusterEventService
       if (localSubscribers.subscriptions.isEmpty()) {
         subscriptions.remove(localMemberId);
         messagingService.unregisterHandler(subscription.topic());
+        messagingService.unregisterHandler(BATCH_TOPIC_PREFIX + subscription.topic());
       }
       return updateNodes();
     }
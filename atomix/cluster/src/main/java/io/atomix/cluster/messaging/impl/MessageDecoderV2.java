@@ -88,9 +88,7 @@ class MessageDecoderV2 extends AbstractMessageDecoder {
           return;
         }
         if (contentLength > 0) {
-          // TODO: Perform a sanity check on the size before allocating
-          content = new byte[contentLength];
-          buffer.readBytes(content);
+          content = readContent(buffer, contentLength);
         } else {
           content = EMPTY_PAYLOAD;
         }
@@ -153,6 +151,26 @@ class MessageDecoderV2 extends AbstractMessageDecoder {
     }
   }
 
+  /**
+   * Reads the payload of a message, which is fully contained in the given buffer.
+   *
+   * <p>The payload is still copied into an array, even though outgoing payloads can be sent from
+   * pooled buffers: handlers consume it asynchronously, so passing the buffer on would require
+   * every handler to release it. Moving the receive side, Raft and the event subscriptions, which
+   * send through {@link io.atomix.cluster.messaging.ClusterCommunicationService}, to buffers is
+   * left as a follow-up.
+   *
+   * @param buffer the buffer from which to read the payload
+   * @param contentLength the length of the payload in the buffer
+   * @return the payload
+   */
+  protected byte[] readContent(final ByteBuf buffer, final int contentLength) {
+    // TODO: Perform a sanity check on the size before allocating
+    final byte[] bytes = new byte[contentLength];
+    buffer.readBytes(bytes);
+    return bytes;
+  }
+
   /** V2 decoder state. */
   enum DecoderState {
     READ_TYPE,
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * V3 message decoder, which decompresses payloads according to the encoding byte written by the
+ * {@link MessageEncoderV3}.
+ */
+class MessageDecoderV3 extends MessageDecoderV2 {
+
+  private final Snappy snappy = new Snappy();
+
+  @Override
+  protected byte[] readContent(final ByteBuf buffer, final int contentLength) {
+    final byte encoding = buffer.readByte();
+    switch (encoding) {
+      case MessageEncoderV3.ENCODING_RAW:
+        return super.readContent(buffer, contentLength - 1);
+      case MessageEncoderV3.ENCODING_SNAPPY:
+        return decompress(buffer, contentLength - 1);
+      default:
+        throw new DecoderException("Unknown payload encoding " + encoding);
+    }
+  }
+
+  private byte[] decompress(final ByteBuf buffer, final int length) {
+    final ByteBuf decompressed = buffer.alloc().buffer(length * 2);
+    try {
+      final long startTime = System.nanoTime();
+      snappy.decode(buffer.readSlice(length), decompressed);
+      CompressionMetrics.observeDecompression(
+          length, decompressed.readableBytes(), System.nanoTime() - startTime);
+      return ByteBufUtil.getBytes(decompressed);
+    } finally {
+      snappy.reset();
+      decompressed.release();
+    }
+  }
+}
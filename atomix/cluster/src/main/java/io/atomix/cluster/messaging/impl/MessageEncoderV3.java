@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * V3 message encoder. The payload of each message is prefixed by a byte which specifies its
+ * encoding, and payloads of at least the compression threshold are compressed if this makes them
+ * smaller.
+ */
+class MessageEncoderV3 extends MessageEncoderV2 {
+  static final byte ENCODING_RAW = 0;
+  static final byte ENCODING_SNAPPY = 1;
+
+  private final int compressionThreshold;
+  private final Snappy snappy = new Snappy();
+
+  MessageEncoderV3(final Address address, final int compressionThreshold) {
+    super(address);
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  @Override
+  protected void encodeMessage(final ProtocolMessage message, final ByteBuf buffer) {
+    buffer.writeByte(message.type().id());
+    writeLong(buffer, message.id());
+
+    final int payloadLength = message.payloadLength();
+    if (payloadLength == 0) {
+      writeInt(buffer, 0);
+      return;
+    }
+
+    if (compressionThreshold < 0
+        || payloadLength < compressionThreshold
+        || !tryWriteCompressed(message, payloadLength, buffer)) {
+      writeInt(buffer, payloadLength + 1);
+      buffer.writeByte(ENCODING_RAW);
+      message.writePayload(buffer);
+    }
+  }
+
+  private boolean tryWriteCompressed(
+      final ProtocolMessage message, final int payloadLength, final ByteBuf buffer) {
+    final ByteBuf compressed = buffer.alloc().buffer(payloadLength);
+    try {
+      final long startTime = System.nanoTime();
+      snappy.encode(message.payloadView(), compressed, payloadLength);
+      CompressionMetrics.observeCompression(
+          payloadLength, compressed.readableBytes(), System.nanoTime() - startTime);
+
+      // incompressible payloads are sent as they are
+      if (compressed.readableBytes() >= payloadLength) {
+        return false;
+      }
+
+      writeInt(buffer, compressed.readableBytes() + 1);
+      buffer.writeByte(ENCODING_SNAPPY);
+      buffer.writeBytes(compressed);
+      return true;
+    } finally {
+      compressed.release();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.atomix.utils.net.Address;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/** V3 messaging protocol, which allows to compress message payloads. */
+public class MessagingProtocolV3 implements MessagingProtocol {
+  private final Address address;
+  private final int compressionThreshold;
+
+  /**
+   * @param address the local address
+   * @param compressionThreshold the minimum payload size in bytes for payloads to be compressed, or
+   *     a negative value to never compress payloads
+   */
+  MessagingProtocolV3(final Address address, final int compressionThreshold) {
+    this.address = address;
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  @Override
+  public ProtocolVersion version() {
+    return ProtocolVersion.V3;
+  }
+
+  @Override
+  public MessageToByteEncoder<Object> newEncoder() {
+    return new MessageEncoderV3(address, compressionThreshold);
+  }
+
+  @Override
+  public ByteToMessageDecoder newDecoder() {
+    return new MessageDecoderV3();
+  }
+}
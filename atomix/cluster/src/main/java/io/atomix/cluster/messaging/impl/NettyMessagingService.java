@@ -83,6 +83,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   private final Collection<Address> bindingAddresses = new ArrayList<>();
   private final int preamble;
   private final ProtocolVersion protocolVersion;
+  private final MessagingConfig config;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final HandlerRegistry handlers = new HandlerRegistry();
   private volatile LocalClientConnection localConnection;
@@ -110,8 +111,14 @@ public class NettyMessagingService implements ManagedMessagingService {
     preamble = cluster.hashCode();
     this.advertisedAddress = advertisedAddress;
     this.protocolVersion = protocolVersion;
+    this.config = config;
     openFutures = new CopyOnWriteArrayList<>();
-    channelPool = new ChannelPool(this::openChannel, config.getConnectionPoolSize());
+    channelPool =
+        new ChannelPool(
+            this::openChannel,
+            config.getConnectionPoolSize(),
+            config.getChannelSelectionStrategy(),
+            config.getReroutableSubjectPrefixes());
     initAddresses(config);
   }
 
@@ -200,6 +207,59 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
   }
 
+  @Override
+  public CompletableFuture<Void> sendAsync(
+      final Address address, final String type, final ByteBuf payload, final boolean keepAlive) {
+    if (address.equals(advertisedAddress)) {
+      // local handlers consume arrays, so there is no point in keeping the buffer
+      return ManagedMessagingService.super.sendAsync(address, type, payload, keepAlive);
+    }
+
+    final long messageId = messageIdGenerator.incrementAndGet();
+    final ProtocolRequest message =
+        new ProtocolRequest(messageId, advertisedAddress, type, payload);
+    return sendReleasingOnFailure(
+        message,
+        send -> executeOnPooledConnection(address, type, send, MoreExecutors.directExecutor()),
+        c -> c.sendAsync(message));
+  }
+
+  @Override
+  public CompletableFuture<byte[]> sendAndReceive(
+      final Address address,
+      final String type,
+      final ByteBuf payload,
+      final boolean keepAlive,
+      final Duration timeout) {
+    if (!started.get()) {
+      payload.release();
+      return CompletableFuture.failedFuture(
+          new IllegalStateException("MessagingService is closed."));
+    }
+
+    if (address.equals(advertisedAddress)) {
+      // local handlers consume arrays, so there is no point in keeping the buffer
+      return ManagedMessagingService.super.sendAndReceive(
+          address, type, payload, keepAlive, timeout);
+    }
+
+    final long messageId = messageIdGenerator.incrementAndGet();
+    final ProtocolRequest message =
+        new ProtocolRequest(messageId, advertisedAddress, type, payload);
+    final Executor executor = MoreExecutors.directExecutor();
+    if (keepAlive) {
+      return sendReleasingOnFailure(
+          message,
+          send -> executeOnPooledConnection(address, type, send, executor),
+          c -> c.sendAndReceive(message, timeout));
+    } else {
+      return sendReleasingOnFailure(
+          message,
+          send -> executeOnTransientConnection(address, send, executor),
+          c -> c.sendAndReceive(message, timeout));
+    }
+  }
+
   @Override
   public void registerHandler(
       final String type, final BiConsumer<Address, byte[]> handler, final Executor executor) {
@@ -252,6 +312,30 @@ public class NettyMessagingService implements ManagedMessagingService {
                     }));
   }
 
+  @Override
+  public void registerBufferHandler(
+      final String type, final BiFunction<Address, byte[], CompletableFuture<ByteBuf>> handler) {
+    handlers.register(
+        type,
+        (message, connection) ->
+            handler
+                .apply(message.sender(), message.payload())
+                .whenComplete(
+                    (result, error) -> {
+                      if (error != null) {
+                        log.warn("An error occurred in a message handler:", error);
+                        connection.reply(
+                            message,
+                            ProtocolReply.Status.ERROR_HANDLER_EXCEPTION,
+                            Optional.empty());
+                      } else if (result == null) {
+                        connection.reply(message, ProtocolReply.Status.OK, Optional.empty());
+                      } else {
+                        connection.reply(message, result);
+                      }
+                    }));
+  }
+
   @Override
   public void unregisterHandler(final String type) {
     handlers.unregister(type);
@@ -457,6 +541,39 @@ public class NettyMessagingService implements ManagedMessagingService {
             });
   }
 
+  /**
+   * Sends a message whose payload is a pooled buffer. Once the message is passed to a connection,
+   * it is released by Netty after it was written; if it never reaches a connection, e.g. because no
+   * channel could be opened, it is released here once the send future is completed.
+   *
+   * @param message the message to send
+   * @param execution executes the given callback on a connection
+   * @param send the callback which sends the message on a connection
+   * @param <T> the callback response type
+   * @return a future to be completed once the callback future is complete
+   */
+  private <T> CompletableFuture<T> sendReleasingOnFailure(
+      final ProtocolMessage message,
+      final Function<Function<ClientConnection, CompletableFuture<T>>, CompletableFuture<T>>
+          execution,
+      final Function<ClientConnection, CompletableFuture<T>> send) {
+    final AtomicBoolean passedOn = new AtomicBoolean();
+    final CompletableFuture<T> future =
+        execution.apply(
+            connection ->
+                passedOn.compareAndSet(false, true)
+                    ? send.apply(connection)
+                    : CompletableFuture.failedFuture(
+                        new IllegalStateException("The message was already released")));
+    future.whenComplete(
+        (result, error) -> {
+          if (passedOn.compareAndSet(false, true)) {
+            message.release();
+          }
+        });
+    return future;
+  }
+
   /**
    * Executes the given callback on a transient connection.
    *
@@ -722,7 +839,7 @@ public class NettyMessagingService implements ManagedMessagingService {
         final ChannelHandlerContext context,
         final Connection<M> connection,
         final ProtocolVersion protocolVersion) {
-      final MessagingProtocol protocol = protocolVersion.createProtocol(advertisedAddress);
+      final MessagingProtocol protocol = protocolVersion.createProtocol(advertisedAddress, config);
       context.pipeline().remove(this);
       context.pipeline().addLast("encoder", protocol.newEncoder());
       context.pipeline().addLast("decoder", protocol.newDecoder());
@@ -16,15 +16,33 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AbstractReferenceCounted;
+
 /** Base class for internal messages. */
-public abstract class ProtocolMessage {
+public abstract class ProtocolMessage extends AbstractReferenceCounted {
 
   private final long id;
   private final byte[] payload;
+  private final ByteBuf payloadBuffer;
 
   protected ProtocolMessage(final long id, final byte[] payload) {
     this.id = id;
     this.payload = payload;
+    payloadBuffer = null;
+  }
+
+  /**
+   * Creates a message whose payload is a pooled buffer. The message takes over the ownership of the
+   * buffer, which is released together with the message, i.e. after it was written to the channel.
+   */
+  protected ProtocolMessage(final long id, final ByteBuf payloadBuffer) {
+    this.id = id;
+    this.payloadBuffer = payloadBuffer;
+    payload = null;
   }
 
   public abstract Type type();
@@ -42,7 +60,44 @@ public abstract class ProtocolMessage {
   }
 
   public byte[] payload() {
-    return payload;
+    return payloadBuffer == null ? payload : ByteBufUtil.getBytes(payloadBuffer);
+  }
+
+  int payloadLength() {
+    return payloadBuffer == null ? payload.length : payloadBuffer.readableBytes();
+  }
+
+  /** Writes the payload to the given buffer, without modifying the payload buffer's indexes. */
+  void writePayload(final ByteBuf buffer) {
+    if (payloadBuffer == null) {
+      buffer.writeBytes(payload);
+    } else {
+      buffer.writeBytes(payloadBuffer, payloadBuffer.readerIndex(), payloadBuffer.readableBytes());
+    }
+  }
+
+  /** Returns a view of the payload, whose indexes can be modified by the caller. */
+  ByteBuf payloadView() {
+    return payloadBuffer == null ? Unpooled.wrappedBuffer(payload) : payloadBuffer.duplicate();
+  }
+
+  Object printablePayload() {
+    return payloadBuffer == null ? ArraySizeHashPrinter.of(payload) : payloadBuffer;
+  }
+
+  @Override
+  public ProtocolMessage touch(final Object hint) {
+    if (payloadBuffer != null) {
+      payloadBuffer.touch(hint);
+    }
+    return this;
+  }
+
+  @Override
+  protected void deallocate() {
+    if (payloadBuffer != null) {
+      payloadBuffer.release();
+    }
   }
 
   /** Internal message type. */
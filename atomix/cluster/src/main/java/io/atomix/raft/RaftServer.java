@@ -422,6 +422,11 @@ public interface RaftServer {
     protected EntryValidator entryValidator = new NoopEntryValidator();
     protected int maxAppendsPerFollower = 2;
     protected int maxAppendBatchSize = 32 * 1024;
+    protected boolean adaptiveAppendWindow = false;
+    protected Duration followerFlushDelay = Duration.ZERO;
+    protected int followerFlushBatchSize = 1024 * 1024;
+    protected int entryCacheSize = 4 * 1024 * 1024;
+    protected int maxSnapshotChunksPerFollower = 1;
 
     protected Builder(final MemberId localMemberId) {
       this.localMemberId = checkNotNull(localMemberId, "localMemberId cannot be null");
@@ -551,6 +556,80 @@ public interface RaftServer {
       return this;
     }
 
+    /**
+     * Sets whether the number of appends in flight and the batch size per follower adapt to the
+     * observed round trip time, bounded by the maximum appends per follower and maximum append
+     * batch size. By default, this is disabled and the maximums are always used.
+     *
+     * @param adaptiveAppendWindow whether the append window adapts per follower
+     * @return The server builder.
+     */
+    public Builder withAdaptiveAppendWindow(final boolean adaptiveAppendWindow) {
+      this.adaptiveAppendWindow = adaptiveAppendWindow;
+      return this;
+    }
+
+    /**
+     * Sets how long a follower may delay acknowledging append requests, such that the entries of
+     * all requests received in the meantime are flushed once and acknowledged together. Entries are
+     * still flushed before they are acknowledged. By default, this is zero and every append request
+     * is flushed on its own.
+     *
+     * @param followerFlushDelay the maximum delay of a follower flush
+     * @return The server builder.
+     * @throws NullPointerException if {@code followerFlushDelay} is null
+     */
+    public Builder withFollowerFlushDelay(final Duration followerFlushDelay) {
+      checkNotNull(followerFlushDelay, "followerFlushDelay cannot be null");
+      checkArgument(!followerFlushDelay.isNegative(), "followerFlushDelay must not be negative");
+      this.followerFlushDelay = followerFlushDelay;
+      return this;
+    }
+
+    /**
+     * Sets the size in bytes of the appended but not yet flushed entries after which a follower
+     * flushes without waiting for the follower flush delay to elapse. Default size is 1 MB.
+     *
+     * @param followerFlushBatchSize the maximum size of the entries flushed together
+     * @return The server builder.
+     */
+    public Builder withFollowerFlushBatchSize(final int followerFlushBatchSize) {
+      checkArgument(followerFlushBatchSize > 0, "followerFlushBatchSize must be positive");
+      this.followerFlushBatchSize = followerFlushBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the size in bytes of the leader's cache of recently appended entries. Entries are
+     * replicated from this cache to followers which are close to the head of the log, and only read
+     * from the log for followers which lag further behind. A size of 0 disables the cache. Default
+     * size is 4 MB.
+     *
+     * @param entryCacheSize the maximum size of the cached entries
+     * @return The server builder.
+     */
+    public Builder withEntryCacheSize(final int entryCacheSize) {
+      checkArgument(entryCacheSize >= 0, "entryCacheSize must be positive or zero");
+      this.entryCacheSize = entryCacheSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of snapshot chunks which the leader sends to a follower without
+     * waiting for them to be acknowledged. If a chunk is lost, all chunks after the last
+     * acknowledged one are sent again. Default is 1, i.e. every chunk waits for the previous one to
+     * be acknowledged.
+     *
+     * @param maxSnapshotChunksPerFollower the maximum snapshot chunks in flight per follower
+     * @return The server builder.
+     */
+    public Builder withMaxSnapshotChunksPerFollower(final int maxSnapshotChunksPerFollower) {
+      checkArgument(
+          maxSnapshotChunksPerFollower > 0, "maxSnapshotChunksPerFollower must be positive");
+      this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+      return this;
+    }
+
     public Builder withEntryValidator(final EntryValidator entryValidator) {
       this.entryValidator = entryValidator;
       return this;
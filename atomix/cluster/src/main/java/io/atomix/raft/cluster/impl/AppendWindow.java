@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.cluster.impl;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Sizes the pipeline of append requests to a single follower, similar to a TCP congestion window.
+ * The window limits how many append requests may be in flight to the follower at once, and how many
+ * bytes each of them may carry.
+ *
+ * <p>An adaptive window starts with a single request carrying a small batch. While the follower
+ * acknowledges appends without the round trip time increasing, the window grows: first the batch
+ * size doubles with every acknowledged append, and once it reached its maximum, the number of
+ * requests grows by one per fully acknowledged window. If the round trip time grows well beyond the
+ * lowest one observed, requests are queueing up somewhere between the leader and the follower's
+ * disk, so the window shrinks by one request. If an append fails, e.g. because it timed out, the
+ * window is halved. The window never exceeds the configured maximum appends per follower and
+ * maximum batch size, which thus act as hard upper bounds.
+ *
+ * <p>A window which is not adaptive always allows the configured maximums.
+ */
+public final class AppendWindow {
+
+  static final int MIN_BATCH_SIZE = 4 * 1024;
+  // the round trip time may grow by this factor over the minimum before the window stops growing
+  private static final int SATURATION_FACTOR = 2;
+  // ignores increases of the round trip time which are within the timer's resolution
+  private static final long MIN_QUEUEING_DELAY_MS = 5;
+
+  private final boolean adaptive;
+  private final int maxAppends;
+  private final int maxBatchSize;
+  private final int minBatchSize;
+
+  private int appends;
+  private int batchSize;
+  private int acknowledgedAppends;
+  private long minRoundTripTime;
+  private long limitedSince;
+
+  AppendWindow(final int maxAppends, final int maxBatchSize, final boolean adaptive) {
+    this.adaptive = adaptive;
+    this.maxAppends = maxAppends;
+    this.maxBatchSize = maxBatchSize;
+    minBatchSize = Math.min(MIN_BATCH_SIZE, maxBatchSize);
+    reset();
+  }
+
+  /** Resets the window to its initial size, e.g. when a new leader starts replicating. */
+  void reset() {
+    appends = adaptive ? 1 : maxAppends;
+    batchSize = adaptive ? minBatchSize : maxBatchSize;
+    acknowledgedAppends = 0;
+    minRoundTripTime = Long.MAX_VALUE;
+    limitedSince = -1;
+  }
+
+  /**
+   * Grows or shrinks the window after the follower acknowledged an append request.
+   *
+   * @param roundTripTime the time in milliseconds between sending the request and the response
+   */
+  void onAcknowledged(final long roundTripTime) {
+    if (!adaptive) {
+      return;
+    }
+
+    minRoundTripTime = Math.min(minRoundTripTime, roundTripTime);
+    if (isSaturated(roundTripTime)) {
+      appends = Math.max(1, appends - 1);
+      acknowledgedAppends = 0;
+    } else if (batchSize < maxBatchSize) {
+      batchSize = (int) Math.min(maxBatchSize, batchSize * 2L);
+    } else if (++acknowledgedAppends >= appends) {
+      appends = Math.min(maxAppends, appends + 1);
+      acknowledgedAppends = 0;
+    }
+  }
+
+  /** Halves the window after an append request to the follower failed. */
+  void onFailed() {
+    if (!adaptive) {
+      return;
+    }
+
+    appends = Math.max(1, appends / 2);
+    batchSize = Math.max(minBatchSize, batchSize / 2);
+    acknowledgedAppends = 0;
+  }
+
+  /**
+   * Records that entries could not be sent to the follower because the window is exhausted. Calling
+   * it again before {@link #markUnlimited(long)} does not restart the measurement.
+   *
+   * @param now the current time in milliseconds
+   */
+  public void markLimited(final long now) {
+    if (limitedSince < 0) {
+      limitedSince = now;
+    }
+  }
+
+  /**
+   * Records that the window allows sending to the follower again.
+   *
+   * @param now the current time in milliseconds
+   * @return the time in milliseconds for which the window was exhausted, or 0 if it was not
+   */
+  public long markUnlimited(final long now) {
+    if (limitedSince < 0) {
+      return 0;
+    }
+
+    final long limitedTime = now - limitedSince;
+    limitedSince = -1;
+    return limitedTime;
+  }
+
+  /**
+   * Returns the number of append requests which may currently be in flight to the follower.
+   *
+   * @return the number of append requests which may be in flight
+   */
+  public int getAppends() {
+    return appends;
+  }
+
+  /**
+   * Returns the number of bytes after which an append request to the follower is cut off.
+   *
+   * @return the current batch size in bytes
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  private boolean isSaturated(final long roundTripTime) {
+    final long queueingDelay = roundTripTime - minRoundTripTime;
+    return queueingDelay > MIN_QUEUEING_DELAY_MS
+        && roundTripTime > minRoundTripTime * SATURATION_FACTOR;
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("appends", appends)
+        .add("batchSize", batchSize)
+        .add("adaptive", adaptive)
+        .toString();
+  }
+}
@@ -79,7 +79,8 @@ public final class RaftClusterContext implements RaftCluster, AutoCloseable {
               new RaftMemberContext(
                   new DefaultRaftMember(member.memberId(), member.getType(), updateTime),
                   this,
-                  raft.getMaxAppendsPerFollower());
+                  createAppendWindow(),
+                  raft.getEntryCache());
           state.resetState(raft.getLog());
           members.add(state.getMember());
           remoteMembers.add(state);
@@ -340,6 +341,13 @@ public final class RaftClusterContext implements RaftCluster, AutoCloseable {
             m -> m.equals(localMember) && localMember.getType().ordinal() < m.getType().ordinal());
   }
 
+  private AppendWindow createAppendWindow() {
+    return new AppendWindow(
+        raft.getMaxAppendsPerFollower(),
+        raft.getMaxAppendBatchSize(),
+        raft.isAdaptiveAppendWindow());
+  }
+
   private void updateMember(final RaftMember member, final Instant time) {
     if (member.equals(localMember)) {
       localMember.update(member.getType(), time);
@@ -352,7 +360,8 @@ public final class RaftClusterContext implements RaftCluster, AutoCloseable {
     if (state == null) {
       final DefaultRaftMember defaultMember =
           new DefaultRaftMember(member.memberId(), member.getType(), time);
-      state = new RaftMemberContext(defaultMember, this, raft.getMaxAppendsPerFollower());
+      state =
+          new RaftMemberContext(defaultMember, this, createAppendWindow(), raft.getEntryCache());
       state.resetState(raft.getLog());
       members.add(state.getMember());
       remoteMembers.add(state);
@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import io.atomix.raft.storage.log.IndexedRaftLogEntry;
 import io.atomix.raft.storage.log.RaftLog;
+import io.atomix.raft.storage.log.RaftLogEntryCache;
 import io.atomix.raft.storage.log.RaftLogReader;
 import io.atomix.raft.storage.log.RaftLogReader.Mode;
 import io.camunda.zeebe.snapshots.SnapshotChunkReader;
@@ -35,7 +36,8 @@ public final class RaftMemberContext {
   private static final int APPEND_WINDOW_SIZE = 8;
   private final DefaultRaftMember member;
   private final DescriptiveStatistics timeStats = new DescriptiveStatistics(APPEND_WINDOW_SIZE);
-  private final int maxAppendsPerMember;
+  private final AppendWindow appendWindow;
+  private final RaftLogEntryCache entryCache;
   private long term;
   private long configIndex;
   private long snapshotIndex;
@@ -45,22 +47,33 @@ public final class RaftMemberContext {
   private long heartbeatTime;
   private long responseTime;
   private int inFlightAppendCount;
+  private long inFlightAppendBytes;
   private boolean appendSucceeded;
   private long appendTime;
   private boolean configuring;
-  private boolean installing;
+  private int inFlightInstallCount;
   private int failures;
   private long failureTime;
   private volatile RaftLogReader reader;
   private SnapshotChunkReader snapshotChunkReader;
+  // true once a chunk was read from the current snapshot chunk reader
+  private boolean snapshotChunkReaderStarted;
   private IndexedRaftLogEntry currentEntry;
+  private RaftLog log;
+  // entries are only read from the cache if the reader reads all entries, not only committed ones
+  private boolean useEntryCache;
+  // true if entries were read from the cache since the reader was last positioned
+  private boolean readerBehind;
+  private boolean currentEntryCached;
 
   RaftMemberContext(
       final DefaultRaftMember member,
       final RaftClusterContext cluster,
-      final int maxAppendsPerMember) {
+      final AppendWindow appendWindow,
+      final RaftLogEntryCache entryCache) {
     this.member = checkNotNull(member, "member cannot be null").setCluster(cluster);
-    this.maxAppendsPerMember = maxAppendsPerMember;
+    this.appendWindow = checkNotNull(appendWindow, "appendWindow cannot be null");
+    this.entryCache = checkNotNull(entryCache, "entryCache cannot be null");
   }
 
   /** Resets the member state. */
@@ -72,12 +85,15 @@ public final class RaftMemberContext {
     heartbeatTime = 0;
     responseTime = 0;
     inFlightAppendCount = 0;
+    inFlightAppendBytes = 0;
     timeStats.clear();
+    appendWindow.reset();
     configuring = false;
-    installing = false;
+    inFlightInstallCount = 0;
     appendSucceeded = false;
     failures = 0;
     failureTime = 0;
+    this.log = log;
 
     switch (member.getType()) {
       case PASSIVE:
@@ -94,8 +110,12 @@ public final class RaftMemberContext {
     }
   }
 
-  private void openReaderAtEndOfLog(final RaftLog log, final Mode all) {
-    reader = log.openReader(all);
+  private void openReaderAtEndOfLog(final RaftLog log, final Mode mode) {
+    reader = log.openReader(mode);
+    useEntryCache = mode == Mode.ALL;
+    readerBehind = false;
+    currentEntryCached = false;
+    currentEntry = null;
     reader.seekToLast();
     if (reader.hasNext()) {
       currentEntry = reader.next();
@@ -108,11 +128,11 @@ public final class RaftMemberContext {
    * @return Indicates whether an append request can be sent to the member.
    */
   public boolean canAppend() {
+    final int maxAppends = appendWindow.getAppends();
     return inFlightAppendCount == 0
         || (appendSucceeded
-            && inFlightAppendCount < maxAppendsPerMember
-            && System.currentTimeMillis() - (timeStats.getMean() / maxAppendsPerMember)
-                >= appendTime);
+            && inFlightAppendCount < maxAppends
+            && System.currentTimeMillis() - (timeStats.getMean() / maxAppends) >= appendTime);
   }
 
   /**
@@ -143,25 +163,64 @@ public final class RaftMemberContext {
     appendSucceeded(false);
   }
 
-  /** Starts an append request to the member. */
-  public void startAppend() {
+  /**
+   * Starts an append request to the member.
+   *
+   * @param size The approximate size in bytes of the entries in the append request.
+   */
+  public void startAppend(final int size) {
     inFlightAppendCount++;
+    inFlightAppendBytes += size;
     appendTime = System.currentTimeMillis();
   }
 
-  /** Completes an append request to the member. */
+  /** Completes an append request to the member, which contained no entries. */
   public void completeAppend() {
     inFlightAppendCount--;
   }
 
   /**
-   * Completes an append request to the member.
+   * Completes an append request to the member, which was acknowledged by the member.
+   *
+   * @param time The time in milliseconds for the append.
+   * @param size The approximate size in bytes of the entries in the append request.
+   */
+  public void completeAppend(final long time, final int size) {
+    inFlightAppendCount--;
+    inFlightAppendBytes -= size;
+    timeStats.addValue(time);
+    appendWindow.onAcknowledged(time);
+  }
+
+  /**
+   * Completes an append request to the member, which failed, e.g. because it timed out.
    *
    * @param time The time in milliseconds for the append.
+   * @param size The approximate size in bytes of the entries in the append request.
    */
-  public void completeAppend(final long time) {
+  public void failAppend(final long time, final int size) {
     inFlightAppendCount--;
+    inFlightAppendBytes -= size;
     timeStats.addValue(time);
+    appendWindow.onFailed();
+  }
+
+  /**
+   * Returns the window which limits the append requests in flight to the member.
+   *
+   * @return The member's append window.
+   */
+  public AppendWindow getAppendWindow() {
+    return appendWindow;
+  }
+
+  /**
+   * Returns the approximate number of bytes in flight to the member.
+   *
+   * @return The approximate size of the entries of all append requests in flight.
+   */
+  public long getInFlightAppendBytes() {
+    return inFlightAppendBytes;
   }
 
   /**
@@ -186,20 +245,21 @@ public final class RaftMemberContext {
   /**
    * Returns a boolean indicating whether an install request can be sent to the member.
    *
+   * @param maxInstalls the maximum number of install requests in flight to the member
    * @return Indicates whether an install request can be sent to the member.
    */
-  public boolean canInstall() {
-    return !installing;
+  public boolean canInstall(final int maxInstalls) {
+    return inFlightInstallCount < maxInstalls;
   }
 
   /** Starts an install request to the member. */
   public void startInstall() {
-    installing = true;
+    inFlightInstallCount++;
   }
 
   /** Completes an install request to the member. */
   public void completeInstall() {
-    installing = false;
+    inFlightInstallCount = Math.max(0, inFlightInstallCount - 1);
   }
 
   /**
@@ -232,10 +292,11 @@ public final class RaftMemberContext {
         .add("matchIndex", matchIndex)
         .add("heartbeatTime", heartbeatTime)
         .add("appending", inFlightAppendCount)
+        .add("appendWindow", appendWindow)
         .add("appendSucceeded", appendSucceeded)
         .add("appendTime", appendTime)
         .add("configuring", configuring)
-        .add("installing", installing)
+        .add("installing", inFlightInstallCount)
         .add("failures", failures)
         .toString();
   }
@@ -417,18 +478,70 @@ public final class RaftMemberContext {
   }
 
   public void setSnapshotChunkReader(final SnapshotChunkReader snapshotChunkReader) {
+    if (this.snapshotChunkReader != null && this.snapshotChunkReader != snapshotChunkReader) {
+      this.snapshotChunkReader.close();
+    }
     this.snapshotChunkReader = snapshotChunkReader;
+    snapshotChunkReaderStarted = false;
+  }
+
+  /**
+   * Returns whether a chunk was already read from the current snapshot chunk reader.
+   *
+   * @return true if the snapshot chunk reader already returned a chunk
+   */
+  public boolean isSnapshotChunkReaderStarted() {
+    return snapshotChunkReaderStarted;
+  }
+
+  /** Marks that a chunk was read from the current snapshot chunk reader. */
+  public void setSnapshotChunkReaderStarted() {
+    snapshotChunkReaderStarted = true;
   }
 
   public boolean hasNextEntry() {
+    if (useEntryCache && currentEntry != null) {
+      final long nextIndex = currentEntry.index() + 1;
+      if (entryCache.get(nextIndex) != null) {
+        return true;
+      } else if (nextIndex > log.getLastIndex()) {
+        // avoid repositioning the reader just to find out that there are no new entries
+        return false;
+      }
+    }
+
+    catchUpReader();
     return reader.hasNext();
   }
 
+  /**
+   * Returns the next entry to send to the member. Entries are read from the leader's entry cache if
+   * possible, and only from the log if the member lags behind the cached entries.
+   *
+   * @return the next entry to send
+   */
   public IndexedRaftLogEntry nextEntry() {
+    if (useEntryCache && currentEntry != null) {
+      final IndexedRaftLogEntry cachedEntry = entryCache.get(currentEntry.index() + 1);
+      if (cachedEntry != null) {
+        currentEntry = cachedEntry;
+        currentEntryCached = true;
+        readerBehind = true;
+        return currentEntry;
+      }
+    }
+
+    catchUpReader();
     currentEntry = reader.next();
+    currentEntryCached = false;
     return currentEntry;
   }
 
+  /** @return true if the current entry was read from the leader's entry cache */
+  public boolean isCurrentEntryCached() {
+    return currentEntryCached;
+  }
+
   public IndexedRaftLogEntry getCurrentEntry() {
     return currentEntry;
   }
@@ -438,6 +551,8 @@ public final class RaftMemberContext {
   }
 
   public void reset(final long index) {
+    readerBehind = false;
+    currentEntryCached = false;
     final var nextIndex = reader.seek(index - 1);
     if (nextIndex == index - 1) {
       currentEntry = reader.next();
@@ -445,4 +560,11 @@ public final class RaftMemberContext {
       currentEntry = null;
     }
   }
+
+  private void catchUpReader() {
+    if (readerBehind) {
+      reader.seek(currentEntry.index() + 1);
+      readerBehind = false;
+    }
+  }
 }
@@ -265,9 +265,14 @@ public class DefaultRaftServer implements RaftServer {
               singleThreadFactory,
               maxAppendBatchSize,
               maxAppendsPerFollower,
+              adaptiveAppendWindow,
+              entryCacheSize,
               randomSupplier);
       raft.setElectionTimeout(electionTimeout);
       raft.setHeartbeatInterval(heartbeatInterval);
+      raft.setFollowerFlushDelay(followerFlushDelay);
+      raft.setFollowerFlushBatchSize(followerFlushBatchSize);
+      raft.setMaxSnapshotChunksPerFollower(maxSnapshotChunksPerFollower);
       raft.setEntryValidator(entryValidator);
 
       return new DefaultRaftServer(raft);
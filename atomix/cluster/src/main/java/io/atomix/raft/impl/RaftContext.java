@@ -50,6 +50,7 @@ import io.atomix.raft.roles.RaftRole;
 import io.atomix.raft.storage.RaftStorage;
 import io.atomix.raft.storage.StorageException;
 import io.atomix.raft.storage.log.RaftLog;
+import io.atomix.raft.storage.log.RaftLogEntryCache;
 import io.atomix.raft.storage.log.RaftLogReader;
 import io.atomix.raft.storage.system.MetaStore;
 import io.atomix.raft.zeebe.EntryValidator;
@@ -106,6 +107,9 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
   private RaftRole role = new InactiveRole(this);
   private Duration electionTimeout = Duration.ofMillis(500);
   private Duration heartbeatInterval = Duration.ofMillis(150);
+  private Duration followerFlushDelay = Duration.ZERO;
+  private int followerFlushBatchSize = 1024 * 1024;
+  private int maxSnapshotChunksPerFollower = 1;
   private volatile MemberId leader;
   private volatile long term;
   private MemberId lastVotedFor;
@@ -115,6 +119,8 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
   private EntryValidator entryValidator;
   private final int maxAppendBatchSize;
   private final int maxAppendsPerFollower;
+  private final boolean adaptiveAppendWindow;
+  private final RaftLogEntryCache entryCache;
   // Used for randomizing election timeout
   private final Random random;
   private PersistedSnapshot currentSnapshot;
@@ -129,6 +135,8 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
       final RaftThreadContextFactory threadContextFactory,
       final int maxAppendBatchSize,
       final int maxAppendsPerFollower,
+      final boolean adaptiveAppendWindow,
+      final int entryCacheSize,
       final Supplier<Random> randomFactory) {
     this.name = checkNotNull(name, "name cannot be null");
     this.membershipService = checkNotNull(membershipService, "membershipService cannot be null");
@@ -175,6 +183,8 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
 
     this.maxAppendBatchSize = maxAppendBatchSize;
     this.maxAppendsPerFollower = maxAppendsPerFollower;
+    this.adaptiveAppendWindow = adaptiveAppendWindow;
+    entryCache = new RaftLogEntryCache(entryCacheSize);
     cluster = new RaftClusterContext(localMemberId, this);
 
     // Register protocol listeners.
@@ -267,6 +277,20 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
     return maxAppendsPerFollower;
   }
 
+  public boolean isAdaptiveAppendWindow() {
+    return adaptiveAppendWindow;
+  }
+
+  /**
+   * Returns the cache of the most recently appended entries, which the leader shares between the
+   * appenders of all followers.
+   *
+   * @return the entry cache
+   */
+  public RaftLogEntryCache getEntryCache() {
+    return entryCache;
+  }
+
   /**
    * Adds a role change listener.
    *
@@ -356,8 +380,9 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
     if (commitIndex > previousCommitIndex) {
       this.commitIndex = commitIndex;
       raftLog.setCommitIndex(Math.min(commitIndex, raftLog.getLastIndex()));
-      if (raftLog.shouldFlushExplicitly() && isLeader()) {
-        // leader counts itself in quorum, so in order to commit the leader must persist
+      if (raftLog.shouldFlushExplicitly() && !raftLog.shouldFlushAsync() && isLeader()) {
+        // leader counts itself in quorum, so in order to commit the leader must persist; with
+        // async flushes the leader only commits entries which were already flushed
         raftLog.flush();
         setLastWrittenIndex(commitIndex);
       }
@@ -688,6 +713,64 @@ public class RaftContext implements AutoCloseable, HealthMonitorable {
     this.electionTimeout = electionTimeout;
   }
 
+  /**
+   * Returns how long a follower may delay the flush of appended entries to coalesce it with the
+   * flushes of subsequent append requests. If zero, every append request is flushed on its own.
+   *
+   * @return The follower flush delay.
+   */
+  public Duration getFollowerFlushDelay() {
+    return followerFlushDelay;
+  }
+
+  /**
+   * Sets how long a follower may delay the flush of appended entries.
+   *
+   * @param followerFlushDelay The follower flush delay.
+   */
+  public void setFollowerFlushDelay(final Duration followerFlushDelay) {
+    this.followerFlushDelay = followerFlushDelay;
+  }
+
+  /**
+   * Returns the size in bytes of the appended entries after which a follower flushes, even if the
+   * follower flush delay has not elapsed yet.
+   *
+   * @return The follower flush batch size.
+   */
+  public int getFollowerFlushBatchSize() {
+    return followerFlushBatchSize;
+  }
+
+  /**
+   * Sets the size in bytes of the appended entries after which a follower flushes.
+   *
+   * @param followerFlushBatchSize The follower flush batch size.
+   */
+  public void setFollowerFlushBatchSize(final int followerFlushBatchSize) {
+    this.followerFlushBatchSize = followerFlushBatchSize;
+  }
+
+  /**
+   * Returns the maximum number of snapshot chunks which the leader sends to a follower without
+   * waiting for them to be acknowledged.
+   *
+   * @return The maximum snapshot chunks in flight per follower.
+   */
+  public int getMaxSnapshotChunksPerFollower() {
+    return maxSnapshotChunksPerFollower;
+  }
+
+  /**
+   * Sets the maximum number of snapshot chunks which the leader sends to a follower without waiting
+   * for them to be acknowledged.
+   *
+   * @param maxSnapshotChunksPerFollower The maximum snapshot chunks in flight per follower.
+   */
+  public void setMaxSnapshotChunksPerFollower(final int maxSnapshotChunksPerFollower) {
+    this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+  }
+
   /**
    * Returns the first commit index.
    *
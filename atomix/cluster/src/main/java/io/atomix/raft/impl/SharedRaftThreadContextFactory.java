@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+import io.atomix.raft.RaftThreadContextFactory;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.concurrent.ThreadPoolContext;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates raft thread contexts which share a fixed number of threads, instead of using one thread
+ * per raft server. The given thread factories are ignored, as the threads are owned by this
+ * factory; it must therefore only be closed once all servers using its contexts are closed.
+ */
+public final class SharedRaftThreadContextFactory
+    implements RaftThreadContextFactory, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedRaftThreadContextFactory.class);
+
+  private final ScheduledExecutorService pool;
+
+  public SharedRaftThreadContextFactory(final String name, final int threadCount) {
+    checkArgument(threadCount > 0, "threadCount must be positive");
+    final var executor =
+        new ScheduledThreadPoolExecutor(threadCount, namedThreads("raft-" + name + "-%d", LOG));
+    executor.setRemoveOnCancelPolicy(true);
+    pool = executor;
+  }
+
+  @Override
+  public ThreadContext createContext(
+      final ThreadFactory factory, final Consumer<Throwable> unCaughtExceptionHandler) {
+    return new ThreadPoolContext(pool, unCaughtExceptionHandler);
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+}
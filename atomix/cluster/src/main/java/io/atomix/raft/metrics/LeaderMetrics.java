@@ -16,6 +16,7 @@
  */
 package io.atomix.raft.metrics;
 
+import io.prometheus.client.Counter;
 import io.prometheus.client.Histogram;
 
 public class LeaderMetrics extends RaftMetrics {
@@ -28,6 +29,22 @@ public class LeaderMetrics extends RaftMetrics {
           .labelNames("follower", "partitionGroupName", "partition")
           .register();
 
+  private static final Counter ENTRY_CACHE_HITS =
+      Counter.build()
+          .namespace("atomix")
+          .name("append_entries_cache_hit_count")
+          .help("Number of entries replicated to a follower from the leader's entry cache")
+          .labelNames("follower", "partitionGroupName", "partition")
+          .register();
+
+  private static final Counter ENTRY_CACHE_MISSES =
+      Counter.build()
+          .namespace("atomix")
+          .name("append_entries_cache_miss_count")
+          .help("Number of entries replicated to a follower which had to be read from the log")
+          .labelNames("follower", "partitionGroupName", "partition")
+          .register();
+
   public LeaderMetrics(final String partitionName) {
     super(partitionName);
   }
@@ -35,4 +52,13 @@ public class LeaderMetrics extends RaftMetrics {
   public void appendComplete(final long latencyms, final String memberId) {
     APPEND_LATENCY.labels(memberId, partitionGroupName, partition).observe(latencyms / 1000f);
   }
+
+  public void observeEntryCacheAccess(final String memberId, final int hits, final int misses) {
+    if (hits > 0) {
+      ENTRY_CACHE_HITS.labels(memberId, partitionGroupName, partition).inc(hits);
+    }
+    if (misses > 0) {
+      ENTRY_CACHE_MISSES.labels(memberId, partitionGroupName, partition).inc(misses);
+    }
+  }
 }
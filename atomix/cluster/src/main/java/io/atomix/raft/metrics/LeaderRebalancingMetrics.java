@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.metrics;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+public class LeaderRebalancingMetrics {
+
+  private static final Gauge LEADER_PARTITIONS =
+      Gauge.build()
+          .namespace("atomix")
+          .name("raft_leader_partitions")
+          .help("Number of partitions which are led by this member")
+          .labelNames("partitionGroupName")
+          .register();
+
+  private static final Counter LEADERSHIP_TRANSFERS =
+      Counter.build()
+          .namespace("atomix")
+          .name("raft_leadership_transfers_total")
+          .help("Number of leadership transfers requested to rebalance the leaders")
+          .labelNames("partitionGroupName", "result")
+          .register();
+
+  private final String partitionGroupName;
+
+  public LeaderRebalancingMetrics(final String partitionGroupName) {
+    this.partitionGroupName = partitionGroupName;
+  }
+
+  public void setLeaderPartitions(final int count) {
+    LEADER_PARTITIONS.labels(partitionGroupName).set(count);
+  }
+
+  public void countTransfer(final boolean successful) {
+    LEADERSHIP_TRANSFERS.labels(partitionGroupName, successful ? "success" : "failure").inc();
+  }
+}
@@ -15,13 +15,16 @@
  */
 package io.atomix.raft.metrics;
 
+import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 
 public class RaftReplicationMetrics extends RaftMetrics {
 
   private static final String NAMESPACE = "atomix";
   private static final String PARTITION_GROUP_NAME_LABEL = "partitionGroupName";
   private static final String PARTITION_LABEL = "partition";
+  private static final String FOLLOWER_LABEL = "follower";
 
   private static final Gauge COMMIT_INDEX =
       Gauge.build()
@@ -39,6 +42,65 @@ public class RaftReplicationMetrics extends RaftMetrics {
           .name("partition_raft_append_index")
           .register();
 
+  private static final Gauge APPEND_WINDOW =
+      Gauge.build()
+          .namespace(NAMESPACE)
+          .labelNames(FOLLOWER_LABEL, PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("The number of append requests which may be in flight to a follower")
+          .name("partition_raft_append_window")
+          .register();
+
+  private static final Gauge APPEND_BATCH_SIZE =
+      Gauge.build()
+          .namespace(NAMESPACE)
+          .labelNames(FOLLOWER_LABEL, PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("The maximum size in bytes of an append request to a follower")
+          .name("partition_raft_append_batch_size")
+          .register();
+
+  private static final Gauge APPEND_IN_FLIGHT_BYTES =
+      Gauge.build()
+          .namespace(NAMESPACE)
+          .labelNames(FOLLOWER_LABEL, PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("The approximate size in bytes of all append requests in flight to a follower")
+          .name("partition_raft_append_in_flight_bytes")
+          .register();
+
+  private static final Counter APPEND_WINDOW_LIMITED_TIME =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .labelNames(FOLLOWER_LABEL, PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help(
+              "Time in seconds during which entries could not be sent to a follower because its append window was exhausted")
+          .name("partition_raft_append_window_limited_seconds")
+          .register();
+
+  private static final Counter FOLLOWER_FLUSH_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .labelNames(PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("Number of flushes of entries appended by a follower")
+          .name("partition_raft_follower_flush_count")
+          .register();
+
+  private static final Histogram FOLLOWER_FLUSH_BATCH_REQUESTS =
+      Histogram.build()
+          .namespace(NAMESPACE)
+          .labelNames(PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("Number of append requests acknowledged after a single follower flush")
+          .name("partition_raft_follower_flush_batch_requests")
+          .buckets(1, 2, 4, 8, 16, 32, 64)
+          .register();
+
+  private static final Histogram FOLLOWER_FLUSH_BATCH_BYTES =
+      Histogram.build()
+          .namespace(NAMESPACE)
+          .labelNames(PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("Approximate size in bytes of the entries persisted by a single follower flush")
+          .name("partition_raft_follower_flush_batch_bytes")
+          .exponentialBuckets(1024, 4, 8)
+          .register();
+
   public RaftReplicationMetrics(final String partitionName) {
     super(partitionName);
   }
@@ -50,4 +112,23 @@ public class RaftReplicationMetrics extends RaftMetrics {
   public void setAppendIndex(final long value) {
     APPEND_INDEX.labels(partitionGroupName, partition).set(value);
   }
+
+  public void setAppendWindow(
+      final String follower, final int appends, final int batchSize, final long inFlightBytes) {
+    APPEND_WINDOW.labels(follower, partitionGroupName, partition).set(appends);
+    APPEND_BATCH_SIZE.labels(follower, partitionGroupName, partition).set(batchSize);
+    APPEND_IN_FLIGHT_BYTES.labels(follower, partitionGroupName, partition).set(inFlightBytes);
+  }
+
+  public void observeAppendWindowLimited(final String follower, final long limitedTimeMs) {
+    APPEND_WINDOW_LIMITED_TIME
+        .labels(follower, partitionGroupName, partition)
+        .inc(limitedTimeMs / 1000d);
+  }
+
+  public void observeFollowerFlush(final int requests, final long bytes) {
+    FOLLOWER_FLUSH_COUNT.labels(partitionGroupName, partition).inc();
+    FOLLOWER_FLUSH_BATCH_REQUESTS.labels(partitionGroupName, partition).observe(requests);
+    FOLLOWER_FLUSH_BATCH_BYTES.labels(partitionGroupName, partition).observe(bytes);
+  }
 }
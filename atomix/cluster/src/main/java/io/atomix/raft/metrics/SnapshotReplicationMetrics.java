@@ -15,6 +15,7 @@
  */
 package io.atomix.raft.metrics;
 
+import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 
 public class SnapshotReplicationMetrics extends RaftMetrics {
@@ -36,6 +37,20 @@ public class SnapshotReplicationMetrics extends RaftMetrics {
           .help("Approximate duration of replication in milliseconds")
           .name("snapshot_replication_duration_milliseconds")
           .register();
+  private static final Counter RECEIVED_BYTES =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .labelNames(PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("Number of snapshot bytes received via replication")
+          .name("snapshot_replication_received_bytes_total")
+          .register();
+  private static final Gauge THROUGHPUT =
+      Gauge.build()
+          .namespace(NAMESPACE)
+          .labelNames(PARTITION_GROUP_NAME_LABEL, PARTITION_LABEL)
+          .help("Approximate throughput of the last snapshot replication in bytes per second")
+          .name("snapshot_replication_throughput_bytes_per_second")
+          .register();
 
   public SnapshotReplicationMetrics(final String partitionName) {
     super(partitionName);
@@ -56,4 +71,14 @@ public class SnapshotReplicationMetrics extends RaftMetrics {
   public void observeDuration(final long durationMillis) {
     DURATION.labels(partitionGroupName, partition).set(durationMillis);
   }
+
+  public void observeReceivedBytes(final long bytes) {
+    RECEIVED_BYTES.labels(partitionGroupName, partition).inc(bytes);
+  }
+
+  public void observeThroughput(final long bytes, final long durationMillis) {
+    THROUGHPUT
+        .labels(partitionGroupName, partition)
+        .set(bytes * 1000.0 / Math.max(1, durationMillis));
+  }
 }
@@ -25,6 +25,8 @@ import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.raft.RaftRoleChangeListener;
 import io.atomix.raft.RaftServer.Role;
+import io.atomix.raft.RaftThreadContextFactory;
+import io.atomix.raft.partition.impl.RaftMessageBatcher;
 import io.atomix.raft.partition.impl.RaftPartitionServer;
 import io.camunda.zeebe.util.health.FailureListener;
 import io.camunda.zeebe.util.health.HealthMonitorable;
@@ -50,6 +52,8 @@ public class RaftPartition implements Partition, HealthMonitorable {
       new CopyOnWriteArraySet<>();
   private PartitionMetadata partitionMetadata;
   private RaftPartitionServer server;
+  private RaftMessageBatcher messageBatcher;
+  private RaftThreadContextFactory threadContextFactory;
 
   public RaftPartition(
       final PartitionId partitionId,
@@ -111,8 +115,13 @@ public class RaftPartition implements Partition, HealthMonitorable {
 
   /** Opens the partition. */
   CompletableFuture<Partition> open(
-      final PartitionMetadata metadata, final PartitionManagementService managementService) {
+      final PartitionMetadata metadata,
+      final PartitionManagementService managementService,
+      final RaftMessageBatcher messageBatcher,
+      final RaftThreadContextFactory threadContextFactory) {
     partitionMetadata = metadata;
+    this.messageBatcher = messageBatcher;
+    this.threadContextFactory = threadContextFactory;
     if (partitionMetadata
         .members()
         .contains(managementService.getMembershipService().getLocalMember().id())) {
@@ -138,7 +147,9 @@ public class RaftPartition implements Partition, HealthMonitorable {
         config,
         managementService.getMembershipService().getLocalMember().id(),
         managementService.getMembershipService(),
-        managementService.getMessagingService());
+        managementService.getMessagingService(),
+        messageBatcher,
+        threadContextFactory);
   }
 
   /**
@@ -218,4 +229,14 @@ public class RaftPartition implements Partition, HealthMonitorable {
   public CompletableFuture<Void> goInactive() {
     return server.goInactive();
   }
+
+  /**
+   * Requests the current leader to transfer its leadership to the local member, and attempts to get
+   * elected.
+   *
+   * @return a future to be completed once the local member is the leader of the partition
+   */
+  public CompletableFuture<Void> promote() {
+    return server.promote();
+  }
 }
@@ -33,6 +33,10 @@ import io.atomix.primitive.partition.PartitionGroupConfig;
 import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
+import io.atomix.raft.impl.SharedRaftThreadContextFactory;
+import io.atomix.raft.partition.impl.LeaderRebalancer;
+import io.atomix.raft.partition.impl.RaftMessageBatcher;
+import io.atomix.raft.partition.impl.RaftServerCommunicator;
 import io.atomix.raft.zeebe.EntryValidator;
 import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.logging.ContextualLoggerFactory;
@@ -67,8 +71,12 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
   private final Map<PartitionId, RaftPartition> partitions = Maps.newConcurrentMap();
   private final List<PartitionId> sortedPartitionIds = Lists.newCopyOnWriteArrayList();
   private final String snapshotSubject;
+  private final String messageBatchSubject;
   private Collection<PartitionMetadata> metadata;
   private ClusterCommunicationService communicationService;
+  private RaftMessageBatcher messageBatcher;
+  private LeaderRebalancer leaderRebalancer;
+  private SharedRaftThreadContextFactory threadContextFactory;
 
   public RaftPartitionGroup(final RaftPartitionGroupConfig config) {
     final Logger log =
@@ -79,9 +87,8 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
     this.config = config;
     partitionSize = config.getPartitionSize();
 
-    final int threadPoolSize =
-        Math.max(Math.min(Runtime.getRuntime().availableProcessors() * 2, 16), 4);
     snapshotSubject = "raft-partition-group-" + name + "-snapshot";
+    messageBatchSubject = "raft-partition-group-" + name + "-batch";
 
     buildPartitions(config)
         .forEach(
@@ -192,17 +199,36 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
 
     communicationService = managementService.getMessagingService();
     communicationService.<Void, Void>subscribe(snapshotSubject, m -> handleSnapshot());
+    messageBatcher =
+        new RaftMessageBatcher(
+            messageBatchSubject,
+            managementService.getMembershipService().getLocalMember().id(),
+            communicationService,
+            config.getMessageBatchingDelay(),
+            config.getMessageBatchSize());
+    messageBatcher.start();
+    // other members send SBE encoded append and install messages only to members advertising it
+    managementService
+        .getMembershipService()
+        .getLocalMember()
+        .properties()
+        .setProperty(RaftServerCommunicator.SBE_PROTOCOL_PROPERTY_NAME, Boolean.TRUE.toString());
+    if (config.getThreadPoolSize() > 0) {
+      threadContextFactory = new SharedRaftThreadContextFactory(name, config.getThreadPoolSize());
+    }
     final List<CompletableFuture<Partition>> futures =
         metadata.stream()
             .map(
                 metadata -> {
                   final RaftPartition partition = partitions.get(metadata.id());
-                  return partition.open(metadata, managementService);
+                  return partition.open(
+                      metadata, managementService, messageBatcher, threadContextFactory);
                 })
             .collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
         .thenApply(
             v -> {
+              startLeaderRebalancer(managementService);
               LOGGER.info("Started");
               return this;
             });
@@ -214,8 +240,42 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
     return join(managementService);
   }
 
+  /**
+   * Requests the leadership of the next partition of which the local member is the primary member,
+   * but not the leader.
+   *
+   * @return a future to be completed once the leadership was transferred, or right away if all
+   *     partitions of the local member are led by their primary members
+   */
+  public CompletableFuture<Void> rebalanceLeaders() {
+    if (leaderRebalancer == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return leaderRebalancer.rebalance();
+  }
+
+  private void startLeaderRebalancer(final PartitionManagementService managementService) {
+    final MemberId localMemberId = managementService.getMembershipService().getLocalMember().id();
+    final List<RaftPartition> localPartitions =
+        partitions.values().stream()
+            .filter(partition -> partition.members().contains(localMemberId))
+            .collect(Collectors.toList());
+    leaderRebalancer =
+        new LeaderRebalancer(
+            name,
+            localMemberId,
+            localPartitions,
+            config.getLeaderRebalancingInterval(),
+            config.getLeaderRebalancingCooldown());
+    leaderRebalancer.start();
+  }
+
   @Override
   public CompletableFuture<Void> close() {
+    if (leaderRebalancer != null) {
+      leaderRebalancer.close();
+    }
+
     final List<CompletableFuture<Void>> futures =
         partitions.values().stream().map(RaftPartition::close).collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
@@ -224,6 +284,12 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
               if (communicationService != null) {
                 communicationService.unsubscribe(snapshotSubject);
               }
+              if (messageBatcher != null) {
+                messageBatcher.close();
+              }
+              if (threadContextFactory != null) {
+                threadContextFactory.close();
+              }
 
               LOGGER.info("Stopped");
             });
@@ -359,6 +425,147 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
       return this;
     }
 
+    /**
+     * Sets whether the number of appends in flight and the batch size per follower adapt to the
+     * observed round trip time, bounded by the maximum appends per follower and maximum append
+     * batch size. By default, this is disabled.
+     *
+     * @param adaptiveAppendWindow whether the append window adapts per follower
+     * @return the Raft partition group builder
+     */
+    public Builder withAdaptiveAppendWindow(final boolean adaptiveAppendWindow) {
+      config.setAdaptiveAppendWindow(adaptiveAppendWindow);
+      return this;
+    }
+
+    /**
+     * Sets how long a follower may delay acknowledging append requests, such that the entries of
+     * all requests received in the meantime are flushed once. By default, this is zero and every
+     * append request is flushed on its own.
+     *
+     * @param followerFlushDelay the maximum delay of a follower flush
+     * @return the Raft partition group builder
+     */
+    public Builder withFollowerFlushDelay(final Duration followerFlushDelay) {
+      config.setFollowerFlushDelay(followerFlushDelay);
+      return this;
+    }
+
+    /**
+     * Sets the size in bytes of the unflushed entries after which a follower flushes without
+     * waiting for the follower flush delay to elapse. Default size is 1 MB.
+     *
+     * @param followerFlushBatchSize the maximum size of the entries flushed together
+     * @return the Raft partition group builder
+     */
+    public Builder withFollowerFlushBatchSize(final int followerFlushBatchSize) {
+      config.setFollowerFlushBatchSize(followerFlushBatchSize);
+      return this;
+    }
+
+    /**
+     * Sets the size in bytes of the leader's cache of recently appended entries, from which entries
+     * are replicated to followers close to the head of the log. A size of 0 disables the cache.
+     * Default size is 4 MB.
+     *
+     * @param entryCacheSize the maximum size of the cached entries
+     * @return the Raft partition group builder
+     */
+    public Builder withEntryCacheSize(final int entryCacheSize) {
+      config.setEntryCacheSize(entryCacheSize);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of snapshot chunks which the leader sends to a follower without
+     * waiting for them to be acknowledged. Default is 1.
+     *
+     * @param maxSnapshotChunksPerFollower the maximum snapshot chunks in flight per follower
+     * @return the Raft partition group builder
+     */
+    public Builder withMaxSnapshotChunksPerFollower(final int maxSnapshotChunksPerFollower) {
+      checkArgument(
+          maxSnapshotChunksPerFollower > 0, "maxSnapshotChunksPerFollower must be positive");
+      config.setMaxSnapshotChunksPerFollower(maxSnapshotChunksPerFollower);
+      return this;
+    }
+
+    /**
+     * Sets the maximum delay for which raft messages of all partitions to the same member are
+     * collected before they are sent as a single message. A delay of 0 sends every message on its
+     * own. Default is 0.
+     *
+     * @param messageBatchingDelay the maximum delay of a raft message
+     * @return the Raft partition group builder
+     */
+    public Builder withMessageBatchingDelay(final Duration messageBatchingDelay) {
+      checkNotNull(messageBatchingDelay, "messageBatchingDelay cannot be null");
+      checkArgument(
+          !messageBatchingDelay.isNegative(), "messageBatchingDelay must not be negative");
+      config.setMessageBatchingDelay(messageBatchingDelay);
+      return this;
+    }
+
+    /**
+     * Sets the size in bytes of the collected raft messages to a member after which they are sent
+     * without waiting for the messageBatchingDelay to elapse. Default size is 64 KB.
+     *
+     * @param messageBatchSize the maximum size of a batch of raft messages
+     * @return the Raft partition group builder
+     */
+    public Builder withMessageBatchSize(final int messageBatchSize) {
+      checkArgument(messageBatchSize > 0, "messageBatchSize must be positive");
+      config.setMessageBatchSize(messageBatchSize);
+      return this;
+    }
+
+    /**
+     * Sets the interval at which the members request the leadership of one of the partitions of
+     * which they are the primary member, i.e. the first member in the partition distribution, but
+     * not the leader. An interval of 0 disables the rebalancing. Default is 0.
+     *
+     * @param leaderRebalancingInterval the interval between two leadership transfers
+     * @return the Raft partition group builder
+     */
+    public Builder withLeaderRebalancingInterval(final Duration leaderRebalancingInterval) {
+      checkNotNull(leaderRebalancingInterval, "leaderRebalancingInterval cannot be null");
+      checkArgument(
+          !leaderRebalancingInterval.isNegative(),
+          "leaderRebalancingInterval must not be negative");
+      config.setLeaderRebalancingInterval(leaderRebalancingInterval);
+      return this;
+    }
+
+    /**
+     * Sets the time after a leadership transfer for a partition during which no further transfer is
+     * requested for the same partition. Default is 5 minutes.
+     *
+     * @param leaderRebalancingCooldown the minimum time between two transfers of a partition
+     * @return the Raft partition group builder
+     */
+    public Builder withLeaderRebalancingCooldown(final Duration leaderRebalancingCooldown) {
+      checkNotNull(leaderRebalancingCooldown, "leaderRebalancingCooldown cannot be null");
+      checkArgument(
+          !leaderRebalancingCooldown.isNegative(),
+          "leaderRebalancingCooldown must not be negative");
+      config.setLeaderRebalancingCooldown(leaderRebalancingCooldown);
+      return this;
+    }
+
+    /**
+     * Sets the number of threads shared by the Raft servers of the local partitions. If zero, each
+     * Raft server runs on its own thread. Default is 0. With a shared pool, the Raft logs are
+     * always flushed asynchronously, such that the shared threads never block on a flush.
+     *
+     * @param threadPoolSize the number of threads shared by the Raft servers
+     * @return the Raft partition group builder
+     */
+    public Builder withThreadPoolSize(final int threadPoolSize) {
+      checkArgument(threadPoolSize >= 0, "threadPoolSize must not be negative");
+      config.setThreadPoolSize(threadPoolSize);
+      return this;
+    }
+
     /**
      * Sets the path to the data directory.
      *
@@ -415,6 +622,18 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
       return this;
     }
 
+    /**
+     * Sets whether to flush logs to disk in the background, such that the leader flushes entries in
+     * parallel with replicating them.
+     *
+     * @param asyncFlush whether to flush logs to disk in the background
+     * @return the Raft partition group builder
+     */
+    public Builder withAsyncFlush(final boolean asyncFlush) {
+      config.getStorageConfig().setAsyncFlush(asyncFlush);
+      return this;
+    }
+
     /**
      * Sets the Raft snapshot store factory to use.
      *
@@ -443,6 +662,28 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
       return this;
     }
 
+    /**
+     * Sets the maximum number of log segments which stay memory-mapped while they are not used.
+     *
+     * @param maxIdleMappedSegments the maximum number of idle mapped segments
+     * @return the Raft partition group builder
+     */
+    public Builder withMaxIdleMappedSegments(final int maxIdleMappedSegments) {
+      config.getStorageConfig().setMaxIdleMappedSegments(maxIdleMappedSegments);
+      return this;
+    }
+
+    /**
+     * Sets whether compacted log segments are deleted in the background.
+     *
+     * @param backgroundSegmentDeletion whether to delete compacted segments in the background
+     * @return the Raft partition group builder
+     */
+    public Builder withBackgroundSegmentDeletion(final boolean backgroundSegmentDeletion) {
+      config.getStorageConfig().setBackgroundSegmentDeletion(backgroundSegmentDeletion);
+      return this;
+    }
+
     @Override
     public RaftPartitionGroup build() {
       return new RaftPartitionGroup(config);
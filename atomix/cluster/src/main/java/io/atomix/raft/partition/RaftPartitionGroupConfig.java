@@ -39,6 +39,16 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
   private RaftStorageConfig storageConfig = new RaftStorageConfig();
   private int maxAppendsPerFollower = 2;
   private int maxAppendBatchSize = 32 * 1024;
+  private boolean adaptiveAppendWindow = false;
+  private Duration followerFlushDelay = Duration.ZERO;
+  private int followerFlushBatchSize = 1024 * 1024;
+  private int entryCacheSize = 4 * 1024 * 1024;
+  private int maxSnapshotChunksPerFollower = 1;
+  private Duration messageBatchingDelay = Duration.ZERO;
+  private int messageBatchSize = 64 * 1024;
+  private Duration leaderRebalancingInterval = Duration.ZERO;
+  private Duration leaderRebalancingCooldown = Duration.ofMinutes(5);
+  private int threadPoolSize = 0;
 
   @Optional("EntryValidator")
   private EntryValidator entryValidator = new NoopEntryValidator();
@@ -184,6 +194,86 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
     this.maxAppendBatchSize = maxAppendBatchSize;
   }
 
+  public boolean isAdaptiveAppendWindow() {
+    return adaptiveAppendWindow;
+  }
+
+  public void setAdaptiveAppendWindow(final boolean adaptiveAppendWindow) {
+    this.adaptiveAppendWindow = adaptiveAppendWindow;
+  }
+
+  public Duration getFollowerFlushDelay() {
+    return followerFlushDelay;
+  }
+
+  public void setFollowerFlushDelay(final Duration followerFlushDelay) {
+    this.followerFlushDelay = followerFlushDelay;
+  }
+
+  public int getFollowerFlushBatchSize() {
+    return followerFlushBatchSize;
+  }
+
+  public void setFollowerFlushBatchSize(final int followerFlushBatchSize) {
+    this.followerFlushBatchSize = followerFlushBatchSize;
+  }
+
+  public int getEntryCacheSize() {
+    return entryCacheSize;
+  }
+
+  public void setEntryCacheSize(final int entryCacheSize) {
+    this.entryCacheSize = entryCacheSize;
+  }
+
+  public int getMaxSnapshotChunksPerFollower() {
+    return maxSnapshotChunksPerFollower;
+  }
+
+  public void setMaxSnapshotChunksPerFollower(final int maxSnapshotChunksPerFollower) {
+    this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+  }
+
+  public Duration getMessageBatchingDelay() {
+    return messageBatchingDelay;
+  }
+
+  public void setMessageBatchingDelay(final Duration messageBatchingDelay) {
+    this.messageBatchingDelay = messageBatchingDelay;
+  }
+
+  public int getMessageBatchSize() {
+    return messageBatchSize;
+  }
+
+  public void setMessageBatchSize(final int messageBatchSize) {
+    this.messageBatchSize = messageBatchSize;
+  }
+
+  public Duration getLeaderRebalancingInterval() {
+    return leaderRebalancingInterval;
+  }
+
+  public void setLeaderRebalancingInterval(final Duration leaderRebalancingInterval) {
+    this.leaderRebalancingInterval = leaderRebalancingInterval;
+  }
+
+  public Duration getLeaderRebalancingCooldown() {
+    return leaderRebalancingCooldown;
+  }
+
+  public void setLeaderRebalancingCooldown(final Duration leaderRebalancingCooldown) {
+    this.leaderRebalancingCooldown = leaderRebalancingCooldown;
+  }
+
+  public int getThreadPoolSize() {
+    return threadPoolSize;
+  }
+
+  public void setThreadPoolSize(final int threadPoolSize) {
+    this.threadPoolSize = threadPoolSize;
+  }
+
   @Override
   public PartitionGroup.Type getType() {
     return RaftPartitionGroup.TYPE;
@@ -26,14 +26,20 @@ public class RaftStorageConfig {
   private static final String DATA_PREFIX = ".data";
   private static final int DEFAULT_MAX_SEGMENT_SIZE = 1024 * 1024 * 32;
   private static final boolean DEFAULT_FLUSH_EXPLICITLY = true;
+  private static final boolean DEFAULT_ASYNC_FLUSH = false;
   private static final long DEFAULT_FREE_DISK_SPACE = 1024L * 1024 * 1024;
   private static final int DEFAULT_JOURNAL_INDEX_DENSITY = 100;
+  private static final int DEFAULT_MAX_IDLE_MAPPED_SEGMENTS = Integer.MAX_VALUE;
+  private static final boolean DEFAULT_BACKGROUND_SEGMENT_DELETION = false;
 
   private String directory;
   private long segmentSize = DEFAULT_MAX_SEGMENT_SIZE;
   private boolean flushExplicitly = DEFAULT_FLUSH_EXPLICITLY;
+  private boolean asyncFlush = DEFAULT_ASYNC_FLUSH;
   private long freeDiskSpace = DEFAULT_FREE_DISK_SPACE;
   private int journalIndexDensity = DEFAULT_JOURNAL_INDEX_DENSITY;
+  private int maxIdleMappedSegments = DEFAULT_MAX_IDLE_MAPPED_SEGMENTS;
+  private boolean backgroundSegmentDeletion = DEFAULT_BACKGROUND_SEGMENT_DELETION;
 
   @Optional("SnapshotStoreFactory")
   private ReceivableSnapshotStoreFactory persistedSnapshotStoreFactory;
@@ -92,6 +98,28 @@ public class RaftStorageConfig {
     return this;
   }
 
+  /**
+   * Returns whether explicit flushes are done in the background. If true, the leader flushes
+   * entries in parallel with replicating them, instead of flushing on commit.
+   *
+   * @return whether to flush logs to disk in the background
+   */
+  public boolean shouldFlushAsync() {
+    return asyncFlush;
+  }
+
+  /**
+   * Sets whether explicit flushes are done in the background. If true, the leader flushes entries
+   * in parallel with replicating them, instead of flushing on commit.
+   *
+   * @param asyncFlush whether to flush logs to disk in the background
+   * @return the Raft partition group configuration
+   */
+  public RaftStorageConfig setAsyncFlush(final boolean asyncFlush) {
+    this.asyncFlush = asyncFlush;
+    return this;
+  }
+
   /**
    * Sets the partition data directory.
    *
@@ -152,4 +180,46 @@ public class RaftStorageConfig {
     this.journalIndexDensity = journalIndexDensity;
     return this;
   }
+
+  /**
+   * Returns the maximum number of log segments which stay memory-mapped while they are not used.
+   *
+   * @return the maximum number of idle mapped segments
+   */
+  public int getMaxIdleMappedSegments() {
+    return maxIdleMappedSegments;
+  }
+
+  /**
+   * Sets the maximum number of log segments which stay memory-mapped while they are not used. By
+   * default, all segments stay mapped.
+   *
+   * @param maxIdleMappedSegments the maximum number of idle mapped segments
+   * @return the Raft storage configuration
+   */
+  public RaftStorageConfig setMaxIdleMappedSegments(final int maxIdleMappedSegments) {
+    this.maxIdleMappedSegments = maxIdleMappedSegments;
+    return this;
+  }
+
+  /**
+   * Returns whether compacted log segments are deleted in the background.
+   *
+   * @return whether to delete compacted segments in the background
+   */
+  public boolean shouldDeleteSegmentsInBackground() {
+    return backgroundSegmentDeletion;
+  }
+
+  /**
+   * Sets whether compacted log segments are deleted in the background, once no reader uses them
+   * anymore, instead of while compacting the log.
+   *
+   * @param backgroundSegmentDeletion whether to delete compacted segments in the background
+   * @return the Raft storage configuration
+   */
+  public RaftStorageConfig setBackgroundSegmentDeletion(final boolean backgroundSegmentDeletion) {
+    this.backgroundSegmentDeletion = backgroundSegmentDeletion;
+    return this;
+  }
 }
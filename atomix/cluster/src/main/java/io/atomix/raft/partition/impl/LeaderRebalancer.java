@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.partition.impl;
+
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+import com.google.common.base.Preconditions;
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.raft.RaftRoleChangeListener;
+import io.atomix.raft.RaftServer.Role;
+import io.atomix.raft.metrics.LeaderRebalancingMetrics;
+import io.atomix.raft.partition.RaftPartition;
+import io.camunda.zeebe.util.health.HealthStatus;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the leadership of partitions back to their primary member, which is the first member of the
+ * partition in the configured partition distribution. After restarts, leadership tends to pile up
+ * on few members; this spreads it again over all members.
+ *
+ * <p>Every member runs its own rebalancer, which only ever requests the leadership for its own
+ * partitions: once per interval, it picks one partition of which it is the primary but only a
+ * healthy follower, and asks the current leader to transfer the leadership to it. A partition for
+ * which a transfer was attempted is skipped until the cooldown has elapsed, such that a member
+ * which cannot win the election does not repeatedly disturb the partition.
+ */
+public final class LeaderRebalancer implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LeaderRebalancer.class);
+  private static final Duration TRANSFER_TIMEOUT = Duration.ofSeconds(30);
+
+  private final MemberId localMemberId;
+  private final List<RaftPartition> partitions;
+  private final Duration interval;
+  private final Duration cooldown;
+  private final LeaderRebalancingMetrics metrics;
+  private final Map<PartitionId, Long> lastTransferAttempts = new ConcurrentHashMap<>();
+  private final RaftRoleChangeListener roleChangeListener = (role, term) -> updateLeaderCount();
+  private ScheduledExecutorService executor;
+  private CompletableFuture<Void> pendingTransfer = CompletableFuture.completedFuture(null);
+
+  public LeaderRebalancer(
+      final String partitionGroupName,
+      final MemberId localMemberId,
+      final Collection<RaftPartition> partitions,
+      final Duration interval,
+      final Duration cooldown) {
+    this.localMemberId = Preconditions.checkNotNull(localMemberId, "localMemberId cannot be null");
+    this.partitions = List.copyOf(partitions);
+    this.interval = Preconditions.checkNotNull(interval, "interval cannot be null");
+    this.cooldown = Preconditions.checkNotNull(cooldown, "cooldown cannot be null");
+    metrics = new LeaderRebalancingMetrics(partitionGroupName);
+  }
+
+  /** Starts tracking the leaders and, if an interval is configured, rebalancing them. */
+  public void start() {
+    executor =
+        Executors.newSingleThreadScheduledExecutor(namedThreads("raft-leader-rebalancer-%d", LOG));
+    partitions.forEach(partition -> partition.addRoleChangeListener(roleChangeListener));
+    updateLeaderCount();
+
+    if (!interval.isZero()) {
+      executor.scheduleWithFixedDelay(
+          () -> transferNextLeadership(false),
+          interval.toMillis(),
+          interval.toMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Requests the leadership of the next partition which is not led by its primary member, even if
+   * the cooldown for it has not elapsed yet.
+   *
+   * @return a future to be completed once the transfer is done, or right away if no partition needs
+   *     to be rebalanced
+   */
+  public CompletableFuture<Void> rebalance() {
+    return CompletableFuture.supplyAsync(() -> transferNextLeadership(true), executor)
+        .thenCompose(transfer -> transfer);
+  }
+
+  @Override
+  public void close() {
+    partitions.forEach(partition -> partition.removeRoleChangeListener(roleChangeListener));
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private CompletableFuture<Void> transferNextLeadership(final boolean ignoreCooldown) {
+    if (!pendingTransfer.isDone()) {
+      return pendingTransfer;
+    }
+
+    final long now = System.currentTimeMillis();
+    final Optional<RaftPartition> next =
+        partitions.stream()
+            .filter(this::isLedByOtherMember)
+            .filter(partition -> ignoreCooldown || !isInCooldown(partition, now))
+            .findFirst();
+    if (next.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    final RaftPartition partition = next.get();
+    LOG.info("Requesting leadership of partition {} to rebalance leaders", partition.id());
+    lastTransferAttempts.put(partition.id(), now);
+    pendingTransfer =
+        partition
+            .promote()
+            .orTimeout(TRANSFER_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete(
+                (ok, error) -> {
+                  metrics.countTransfer(error == null);
+                  if (error != null) {
+                    LOG.debug("Failed to get leadership of partition {}", partition.id(), error);
+                  }
+                });
+    return pendingTransfer;
+  }
+
+  private boolean isLedByOtherMember(final RaftPartition partition) {
+    final Iterator<MemberId> members = partition.members().iterator();
+    return members.hasNext()
+        && members.next().equals(localMemberId)
+        && partition.getRole() == Role.FOLLOWER
+        && partition.getHealthStatus() == HealthStatus.HEALTHY;
+  }
+
+  private boolean isInCooldown(final RaftPartition partition, final long now) {
+    final Long lastAttempt = lastTransferAttempts.get(partition.id());
+    return lastAttempt != null && now - lastAttempt < cooldown.toMillis();
+  }
+
+  private void updateLeaderCount() {
+    metrics.setLeaderPartitions(
+        (int) partitions.stream().filter(p -> p.getRole() == Role.LEADER).count());
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.partition.impl;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import io.atomix.raft.storage.log.PersistedRaftRecord;
+import org.agrona.DirectBuffer;
+
+/**
+ * Serializes a {@link PersistedRaftRecord} with Kryo in the same format as when its data was held
+ * in a byte array. Append requests are still encoded with Kryo for members which do not support the
+ * SBE encoded messages, and these members expect the record in that format.
+ */
+final class PersistedRaftRecordSerializer extends Serializer<PersistedRaftRecord> {
+
+  @Override
+  public void write(final Kryo kryo, final Output output, final PersistedRaftRecord record) {
+    kryo.writeObject(output, new KryoRecord(record));
+  }
+
+  @Override
+  public PersistedRaftRecord read(
+      final Kryo kryo, final Input input, final Class<? extends PersistedRaftRecord> type) {
+    final KryoRecord record = kryo.readObject(input, KryoRecord.class);
+    return new PersistedRaftRecord(
+        record.term, record.index, record.asqn, record.checksum, record.serializedRaftLogEntry);
+  }
+
+  /**
+   * Has the same fields as the record had before its data was a {@link DirectBuffer}; the
+   * compatible field serializer identifies fields by their name, so these must not be renamed.
+   */
+  static final class KryoRecord {
+    private long index;
+    private long asqn;
+    private long checksum;
+    private byte[] serializedRaftLogEntry;
+    private long term;
+
+    private KryoRecord() {}
+
+    private KryoRecord(final PersistedRaftRecord record) {
+      index = record.index();
+      asqn = record.asqn();
+      checksum = record.checksum();
+      term = record.term();
+
+      final DirectBuffer data = record.data();
+      serializedRaftLogEntry = new byte[data.capacity()];
+      data.getBytes(0, serializedRaftLogEntry);
+    }
+  }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.partition.impl;
+
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+import com.google.common.base.Preconditions;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.cluster.messaging.MessagingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Multiplexes the raft messages which the partitions of this node send to the same member.
+ *
+ * <p>Messages to a member are collected for at most the configured delay, or until they reach the
+ * configured batch size, and are then sent as a single message. The batcher of the receiving member
+ * dispatches each message to the handler registered for its subject, and sends the responses back
+ * in batches the same way. The receiver only acknowledges a batch, so every request carries an id
+ * which is used to correlate its response; a request which is not answered within its timeout is
+ * completed with a {@link TimeoutException}. If a batch cannot be delivered, e.g. because the
+ * member is unreachable or does not accept batches, its requests fail right away.
+ *
+ * <p>A batcher always accepts batches from other members, even if it does not batch its own
+ * requests, such that batching can be enabled on one member at a time.
+ */
+public final class RaftMessageBatcher implements AutoCloseable {
+
+  /** The timeout of requests which are sent without a timeout. */
+  static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+  private static final Logger LOG = LoggerFactory.getLogger(RaftMessageBatcher.class);
+  private static final byte REQUEST = 0;
+  private static final byte RESPONSE = 1;
+  private static final byte NO_HANDLER = 2;
+  private static final byte HANDLER_FAILURE = 3;
+  private static final byte[] EMPTY = new byte[0];
+
+  private final String subject;
+  private final byte[] localMemberId;
+  private final ClusterCommunicationService communicationService;
+  private final Duration maxDelay;
+  private final int maxBatchSize;
+  private final Map<MemberId, Batch> batches = new ConcurrentHashMap<>();
+  private final Map<String, Function<byte[], CompletableFuture<byte[]>>> handlers =
+      new ConcurrentHashMap<>();
+  private final Map<Long, CompletableFuture<byte[]>> pendingRequests = new ConcurrentHashMap<>();
+  // request ids are only unique per sender; starting at a random id avoids that responses to
+  // requests of a previous run of this member are correlated with new requests
+  private final AtomicLong nextRequestId = new AtomicLong(ThreadLocalRandom.current().nextLong());
+  private ScheduledExecutorService flushExecutor;
+
+  public RaftMessageBatcher(
+      final String subject,
+      final MemberId localMemberId,
+      final ClusterCommunicationService communicationService,
+      final Duration maxDelay,
+      final int maxBatchSize) {
+    this.subject = Preconditions.checkNotNull(subject, "subject cannot be null");
+    this.localMemberId = localMemberId.id().getBytes(StandardCharsets.UTF_8);
+    this.communicationService =
+        Preconditions.checkNotNull(communicationService, "communicationService cannot be null");
+    this.maxDelay = Preconditions.checkNotNull(maxDelay, "maxDelay cannot be null");
+    Preconditions.checkArgument(!maxDelay.isNegative(), "maxDelay must not be negative");
+    Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /** Starts accepting batches from other members. */
+  public void start() {
+    flushExecutor =
+        Executors.newSingleThreadScheduledExecutor(namedThreads("raft-message-batcher-%d", LOG));
+    communicationService.<byte[], byte[]>subscribe(
+        subject, Function.identity(), this::handleBatch, Function.identity());
+  }
+
+  /**
+   * Returns whether requests should be sent through this batcher. If not, the batcher only
+   * dispatches the batches it receives from other members.
+   *
+   * @return true if requests are batched
+   */
+  public boolean isEnabled() {
+    return !maxDelay.isZero();
+  }
+
+  /**
+   * Queues a request for the given member, which times out after {@link #REQUEST_TIMEOUT}.
+   *
+   * @param target the member to send the request to
+   * @param requestSubject the subject of the handler of the request
+   * @param payload the encoded request
+   * @return a future completed with the encoded response
+   */
+  public CompletableFuture<byte[]> send(
+      final MemberId target, final String requestSubject, final byte[] payload) {
+    return send(target, requestSubject, payload, REQUEST_TIMEOUT);
+  }
+
+  /**
+   * Queues a request for the given member.
+   *
+   * @param target the member to send the request to
+   * @param requestSubject the subject of the handler of the request
+   * @param payload the encoded request
+   * @param timeout the time after which the request fails if it was not answered
+   * @return a future completed with the encoded response
+   */
+  public CompletableFuture<byte[]> send(
+      final MemberId target,
+      final String requestSubject,
+      final byte[] payload,
+      final Duration timeout) {
+    final long requestId = nextRequestId.getAndIncrement();
+    final CompletableFuture<byte[]> response = new CompletableFuture<>();
+    pendingRequests.put(requestId, response);
+    response
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((r, e) -> pendingRequests.remove(requestId));
+
+    enqueue(target, new Entry(REQUEST, requestId, requestSubject, payload));
+    return response;
+  }
+
+  /**
+   * Registers the handler for the requests with the given subject.
+   *
+   * @param requestSubject the subject of the requests
+   * @param handler the handler, which is called with the encoded request and completes with the
+   *     encoded response
+   */
+  public void registerHandler(
+      final String requestSubject, final Function<byte[], CompletableFuture<byte[]>> handler) {
+    handlers.put(requestSubject, handler);
+  }
+
+  /**
+   * Removes the handler for the requests with the given subject.
+   *
+   * @param requestSubject the subject of the requests
+   */
+  public void unregisterHandler(final String requestSubject) {
+    handlers.remove(requestSubject);
+  }
+
+  @Override
+  public void close() {
+    communicationService.unsubscribe(subject);
+    if (flushExecutor != null) {
+      flushExecutor.shutdownNow();
+    }
+    pendingRequests.values().forEach(r -> r.cancel(false));
+  }
+
+  private void enqueue(final MemberId target, final Entry entry) {
+    final Batch batch = batches.computeIfAbsent(target, Batch::new);
+    final List<Entry> entries;
+
+    synchronized (batch) {
+      final boolean isFirstEntry = batch.entries.isEmpty();
+      batch.add(entry);
+
+      if (batch.size >= maxBatchSize || maxDelay.isZero()) {
+        entries = batch.drain();
+      } else {
+        if (isFirstEntry) {
+          scheduleFlush(batch);
+        }
+        entries = null;
+      }
+    }
+
+    if (entries != null) {
+      sendBatch(target, entries);
+    }
+  }
+
+  private void scheduleFlush(final Batch batch) {
+    try {
+      flushExecutor.schedule(() -> flush(batch), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (final RejectedExecutionException e) {
+      // the batcher was closed; pending requests are cancelled or time out
+      LOG.trace("Dropping batch for {}, batcher is closed", batch.target);
+    }
+  }
+
+  private void flush(final Batch batch) {
+    final List<Entry> entries;
+    synchronized (batch) {
+      entries = batch.drain();
+    }
+
+    if (!entries.isEmpty()) {
+      sendBatch(batch.target, entries);
+    }
+  }
+
+  private void sendBatch(final MemberId target, final List<Entry> entries) {
+    int length = Short.BYTES + localMemberId.length + Integer.BYTES;
+    for (final Entry entry : entries) {
+      length += entry.length();
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    buffer.putShort((short) localMemberId.length).put(localMemberId).putInt(entries.size());
+    for (final Entry entry : entries) {
+      entry.write(buffer);
+    }
+
+    communicationService
+        .<byte[], byte[]>send(
+            subject, buffer.array(), Function.identity(), Function.identity(), target, null)
+        .whenComplete(
+            (ack, error) -> {
+              if (error != null) {
+                failRequests(target, entries, error);
+              }
+            });
+  }
+
+  private void failRequests(
+      final MemberId target, final List<Entry> entries, final Throwable error) {
+    LOG.debug("Failed to send batch of {} messages to {}", entries.size(), target, error);
+    final Throwable cause =
+        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    for (final Entry entry : entries) {
+      if (entry.type == REQUEST) {
+        final CompletableFuture<byte[]> response = pendingRequests.remove(entry.id);
+        if (response != null) {
+          response.completeExceptionally(cause);
+        }
+      }
+    }
+  }
+
+  private CompletableFuture<byte[]> handleBatch(final byte[] batch) {
+    dispatchBatch(batch);
+    return CompletableFuture.completedFuture(EMPTY);
+  }
+
+  private void dispatchBatch(final byte[] batch) {
+    final ByteBuffer buffer = ByteBuffer.wrap(batch);
+    final MemberId sender =
+        MemberId.from(new String(readBytes(buffer, buffer.getShort()), StandardCharsets.UTF_8));
+    final int count = buffer.getInt();
+
+    for (int i = 0; i < count; i++) {
+      final byte type = buffer.get();
+      final long id = buffer.getLong();
+      if (type == REQUEST) {
+        final String requestSubject =
+            new String(readBytes(buffer, buffer.getShort()), StandardCharsets.UTF_8);
+        handleRequest(sender, id, requestSubject, readBytes(buffer, buffer.getInt()));
+      } else {
+        handleResponse(id, type, readBytes(buffer, buffer.getInt()));
+      }
+    }
+  }
+
+  private void handleRequest(
+      final MemberId sender, final long id, final String requestSubject, final byte[] payload) {
+    final Function<byte[], CompletableFuture<byte[]>> handler = handlers.get(requestSubject);
+    if (handler == null) {
+      enqueue(sender, new Entry(NO_HANDLER, id, null, EMPTY));
+      return;
+    }
+
+    CompletableFuture<byte[]> response;
+    try {
+      response = handler.apply(payload);
+    } catch (final Exception e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+
+    response.whenComplete(
+        (result, error) -> {
+          if (error == null) {
+            enqueue(sender, new Entry(RESPONSE, id, null, result));
+          } else {
+            LOG.debug(
+                "Failed to handle request {} of {} from {}", id, requestSubject, sender, error);
+            enqueue(sender, new Entry(HANDLER_FAILURE, id, null, EMPTY));
+          }
+        });
+  }
+
+  private void handleResponse(final long id, final byte type, final byte[] payload) {
+    final CompletableFuture<byte[]> response = pendingRequests.remove(id);
+    if (response == null) {
+      // the request timed out already
+      return;
+    }
+
+    switch (type) {
+      case RESPONSE:
+        response.complete(payload);
+        break;
+      case NO_HANDLER:
+        response.completeExceptionally(new MessagingException.NoRemoteHandler());
+        break;
+      default:
+        response.completeExceptionally(new MessagingException.RemoteHandlerFailure());
+        break;
+    }
+  }
+
+  private static byte[] readBytes(final ByteBuffer buffer, final int length) {
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static final class Batch {
+
+    private final MemberId target;
+    private List<Entry> entries = new ArrayList<>();
+    private int size;
+
+    private Batch(final MemberId target) {
+      this.target = target;
+    }
+
+    private void add(final Entry entry) {
+      entries.add(entry);
+      size += entry.length();
+    }
+
+    private List<Entry> drain() {
+      final List<Entry> drained = entries;
+      entries = new ArrayList<>();
+      size = 0;
+      return drained;
+    }
+  }
+
+  private static final class Entry {
+
+    private final byte type;
+    private final long id;
+    private final byte[] subject;
+    private final byte[] payload;
+
+    private Entry(final byte type, final long id, final String subject, final byte[] payload) {
+      this.type = type;
+      this.id = id;
+      this.subject = subject == null ? null : subject.getBytes(StandardCharsets.UTF_8);
+      this.payload = payload == null ? EMPTY : payload;
+    }
+
+    private int length() {
+      final int subjectLength = subject == null ? 0 : Short.BYTES + subject.length;
+      return Byte.BYTES + Long.BYTES + subjectLength + Integer.BYTES + payload.length;
+    }
+
+    private void write(final ByteBuffer buffer) {
+      buffer.put(type).putLong(id);
+      if (subject != null) {
+        buffer.putShort((short) subject.length).put(subject);
+      }
+      buffer.putInt(payload.length).put(payload);
+    }
+  }
+}
@@ -33,6 +33,8 @@ class RaftMessageContext {
   final String pollSubject;
   final String voteSubject;
   final String appendSubject;
+  final String installSbeSubject;
+  final String appendSbeSubject;
   final String leaderHeartbeatSubject;
   private final String prefix;
 
@@ -52,6 +54,8 @@ class RaftMessageContext {
     pollSubject = getSubject(prefix, "poll");
     voteSubject = getSubject(prefix, "vote");
     appendSubject = getSubject(prefix, "append");
+    installSbeSubject = getSubject(prefix, "install-v2");
+    appendSbeSubject = getSubject(prefix, "append-v2");
     leaderHeartbeatSubject = getSubject(prefix, "leaderHeartbeat");
   }
 
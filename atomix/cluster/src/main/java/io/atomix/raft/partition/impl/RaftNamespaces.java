@@ -84,7 +84,8 @@ public final class RaftNamespaces {
           .register(Configuration.class)
           .register(ApplicationEntry.class)
           .register(RaftLogEntry.class)
-          .register(PersistedRaftRecord.class)
+          .register(new PersistedRaftRecordSerializer(), PersistedRaftRecord.class)
+          .register(PersistedRaftRecordSerializer.KryoRecord.class)
           .name("RaftProtocol")
           .build();
 
@@ -24,6 +24,7 @@ import io.atomix.raft.RaftCommitListener;
 import io.atomix.raft.RaftRoleChangeListener;
 import io.atomix.raft.RaftServer;
 import io.atomix.raft.RaftServer.Role;
+import io.atomix.raft.RaftThreadContextFactory;
 import io.atomix.raft.metrics.RaftStartupMetrics;
 import io.atomix.raft.partition.RaftPartition;
 import io.atomix.raft.partition.RaftPartitionGroupConfig;
@@ -66,6 +67,8 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer>, Health
   private final RaftPartitionGroupConfig config;
   private final ClusterMembershipService membershipService;
   private final ClusterCommunicationService clusterCommunicator;
+  private final RaftMessageBatcher messageBatcher;
+  private final RaftThreadContextFactory threadContextFactory;
   private final Set<RaftRoleChangeListener> deferredRoleChangeListeners =
       new CopyOnWriteArraySet<>();
   private final Set<FailureListener> deferredFailureListeners = new CopyOnWriteArraySet<>();
@@ -78,12 +81,16 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer>, Health
       final RaftPartitionGroupConfig config,
       final MemberId localMemberId,
       final ClusterMembershipService membershipService,
-      final ClusterCommunicationService clusterCommunicator) {
+      final ClusterCommunicationService clusterCommunicator,
+      final RaftMessageBatcher messageBatcher,
+      final RaftThreadContextFactory threadContextFactory) {
     this.partition = partition;
     this.config = config;
     this.localMemberId = localMemberId;
     this.membershipService = membershipService;
     this.clusterCommunicator = clusterCommunicator;
+    this.messageBatcher = messageBatcher;
+    this.threadContextFactory = threadContextFactory;
     log =
         ContextualLoggerFactory.getLogger(
             getClass(),
@@ -162,17 +169,26 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer>, Health
             .getPersistedSnapshotStoreFactory()
             .createReceivableSnapshotStore(partition.dataDirectory().toPath(), partitionId);
 
-    return RaftServer.builder(localMemberId)
-        .withName(partition.name())
-        .withMembershipService(membershipService)
-        .withProtocol(createServerProtocol())
-        .withHeartbeatInterval(config.getHeartbeatInterval())
-        .withElectionTimeout(config.getElectionTimeout())
-        .withMaxAppendBatchSize(config.getMaxAppendBatchSize())
-        .withMaxAppendsPerFollower(config.getMaxAppendsPerFollower())
-        .withStorage(createRaftStorage())
-        .withEntryValidator(config.getEntryValidator())
-        .build();
+    final RaftServer.Builder builder =
+        RaftServer.builder(localMemberId)
+            .withName(partition.name())
+            .withMembershipService(membershipService)
+            .withProtocol(createServerProtocol())
+            .withHeartbeatInterval(config.getHeartbeatInterval())
+            .withElectionTimeout(config.getElectionTimeout())
+            .withMaxAppendBatchSize(config.getMaxAppendBatchSize())
+            .withMaxAppendsPerFollower(config.getMaxAppendsPerFollower())
+            .withAdaptiveAppendWindow(config.isAdaptiveAppendWindow())
+            .withFollowerFlushDelay(config.getFollowerFlushDelay())
+            .withFollowerFlushBatchSize(config.getFollowerFlushBatchSize())
+            .withEntryCacheSize(config.getEntryCacheSize())
+            .withMaxSnapshotChunksPerFollower(config.getMaxSnapshotChunksPerFollower())
+            .withStorage(createRaftStorage())
+            .withEntryValidator(config.getEntryValidator());
+    if (threadContextFactory != null) {
+      builder.withThreadContextFactory(threadContextFactory);
+    }
+    return builder.build();
   }
 
   public CompletableFuture<Void> goInactive() {
@@ -281,23 +297,38 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer>, Health
 
   private RaftStorage createRaftStorage() {
     final RaftStorageConfig storageConfig = config.getStorageConfig();
+    // the raft threads of a shared pool must not block on fsync, so the log is flushed in the
+    // background on the flusher thread of the journal
+    final boolean asyncFlush = storageConfig.shouldFlushAsync() || config.getThreadPoolSize() > 0;
     return RaftStorage.builder()
         .withPrefix(partition.name())
         .withDirectory(partition.dataDirectory())
         .withMaxSegmentSize((int) storageConfig.getSegmentSize().bytes())
         .withFlushExplicitly(storageConfig.shouldFlushExplicitly())
+        .withAsyncFlush(asyncFlush)
         .withFreeDiskSpace(storageConfig.getFreeDiskSpace())
         .withSnapshotStore(persistedSnapshotStore)
         .withJournalIndexDensity(storageConfig.getJournalIndexDensity())
+        .withMaxIdleMappedSegments(storageConfig.getMaxIdleMappedSegments())
+        .withBackgroundSegmentDeletion(storageConfig.shouldDeleteSegmentsInBackground())
         .build();
   }
 
   private RaftServerCommunicator createServerProtocol() {
     return new RaftServerCommunicator(
-        partition.name(), Serializer.using(RaftNamespaces.RAFT_PROTOCOL), clusterCommunicator);
+        partition.name(),
+        Serializer.using(RaftNamespaces.RAFT_PROTOCOL),
+        clusterCommunicator,
+        messageBatcher,
+        membershipService,
+        config.getElectionTimeout());
   }
 
   public CompletableFuture<Void> stepDown() {
     return server.stepDown();
   }
+
+  public CompletableFuture<Void> promote() {
+    return server.promote().thenApply(s -> null);
+  }
 }
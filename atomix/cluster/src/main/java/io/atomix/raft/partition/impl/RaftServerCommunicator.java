@@ -17,6 +17,8 @@
 package io.atomix.raft.partition.impl;
 
 import com.google.common.base.Preconditions;
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.Member;
 import io.atomix.cluster.MemberId;
 import io.atomix.cluster.messaging.ClusterCommunicationService;
 import io.atomix.raft.metrics.RaftRequestMetrics;
@@ -36,23 +38,74 @@ import io.atomix.raft.protocol.TransferRequest;
 import io.atomix.raft.protocol.TransferResponse;
 import io.atomix.raft.protocol.VoteRequest;
 import io.atomix.raft.protocol.VoteResponse;
+import io.atomix.raft.protocol.serializer.RaftProtocolSBESerializer;
 import io.atomix.utils.serializer.Serializer;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /** Raft server protocol that uses a {@link ClusterCommunicationService}. */
 public class RaftServerCommunicator implements RaftServerProtocol {
 
+  /**
+   * Name of the member property with which a member advertises that it accepts SBE encoded append
+   * and install messages on their versioned subjects.
+   */
+  public static final String SBE_PROTOCOL_PROPERTY_NAME = "raft-sbe-protocol-supported";
+
+  // append and install messages are encoded with SBE for members which support it, and with Kryo
+  // for all others; the serializer is not thread-safe, and messages are encoded and decoded on the
+  // raft and messaging threads. Both encodings still produce a byte array per message, since the
+  // cluster communication service and the message batcher only accept arrays; writing straight
+  // into the pooled outbound buffer would require a buffer based API through both.
+  private static final ThreadLocal<RaftProtocolSBESerializer> PROTOCOL_SERIALIZER =
+      ThreadLocal.withInitial(RaftProtocolSBESerializer::new);
+
   private final RaftMessageContext context;
   private final Serializer serializer;
   private final ClusterCommunicationService clusterCommunicator;
   private final String partitionName;
   private final RaftRequestMetrics metrics;
+  private final RaftMessageBatcher messageBatcher;
+  private final ClusterMembershipService membershipService;
+  private final Duration requestTimeout;
 
   public RaftServerCommunicator(
       final String prefix,
       final Serializer serializer,
       final ClusterCommunicationService clusterCommunicator) {
+    this(prefix, serializer, clusterCommunicator, null, null, null);
+  }
+
+  /**
+   * Creates a communicator which sends append, poll and vote requests through the given batcher, if
+   * batching is enabled, and additionally accepts them from the batchers of other members.
+   *
+   * <p>Append and install messages are encoded with SBE and sent on versioned subjects to the
+   * members which advertise {@link #SBE_PROTOCOL_PROPERTY_NAME}. They are encoded with Kryo and
+   * sent on the original subjects to all other members, such that nodes can be upgraded one at a
+   * time. Both are always accepted.
+   *
+   * @param prefix the prefix of the message subjects of the partition
+   * @param serializer the serializer of the messages which are not encoded with SBE
+   * @param clusterCommunicator the communication service of the node
+   * @param messageBatcher the batcher shared by all partitions of the node, or null
+   * @param membershipService the membership service used to look up which members support SBE
+   *     encoded messages, or null to always encode them with Kryo
+   * @param requestTimeout the timeout of batched append, poll and vote requests, or null to use the
+   *     default timeout of the batcher; unbatched requests always use the adaptive timeout of the
+   *     messaging service
+   */
+  public RaftServerCommunicator(
+      final String prefix,
+      final Serializer serializer,
+      final ClusterCommunicationService clusterCommunicator,
+      final RaftMessageBatcher messageBatcher,
+      final ClusterMembershipService membershipService,
+      final Duration requestTimeout) {
+    this.messageBatcher = messageBatcher;
+    this.membershipService = membershipService;
+    this.requestTimeout = requestTimeout;
     context = new RaftMessageContext(prefix);
     partitionName = prefix;
     this.serializer = Preconditions.checkNotNull(serializer, "serializer cannot be null");
@@ -76,7 +129,16 @@ public class RaftServerCommunicator implements RaftServerProtocol {
   @Override
   public CompletableFuture<InstallResponse> install(
       final MemberId memberId, final InstallRequest request) {
-    return sendAndReceive(context.installSubject, request, memberId);
+    if (!supportsSbeProtocol(memberId)) {
+      return sendAndReceive(context.installSubject, request, memberId);
+    }
+
+    return sendAndReceive(
+        context.installSbeSubject,
+        request,
+        r -> PROTOCOL_SERIALIZER.get().encodeInstallRequest(r),
+        b -> PROTOCOL_SERIALIZER.get().decodeInstallResponse(b),
+        memberId);
   }
 
   @Override
@@ -87,18 +149,30 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public CompletableFuture<PollResponse> poll(final MemberId memberId, final PollRequest request) {
-    return sendAndReceive(context.pollSubject, request, memberId);
+    return sendBatched(
+        context.pollSubject, request, serializer::encode, serializer::decode, memberId);
   }
 
   @Override
   public CompletableFuture<VoteResponse> vote(final MemberId memberId, final VoteRequest request) {
-    return sendAndReceive(context.voteSubject, request, memberId);
+    return sendBatched(
+        context.voteSubject, request, serializer::encode, serializer::decode, memberId);
   }
 
   @Override
   public CompletableFuture<AppendResponse> append(
       final MemberId memberId, final AppendRequest request) {
-    return sendAndReceive(context.appendSubject, request, memberId);
+    if (!supportsSbeProtocol(memberId)) {
+      return sendBatched(
+          context.appendSubject, request, serializer::encode, serializer::decode, memberId);
+    }
+
+    return sendBatched(
+        context.appendSbeSubject,
+        request,
+        r -> PROTOCOL_SERIALIZER.get().encodeAppendRequest(r),
+        b -> PROTOCOL_SERIALIZER.get().decodeAppendResponse(b),
+        memberId);
   }
 
   @Override
@@ -154,17 +228,23 @@ public class RaftServerCommunicator implements RaftServerProtocol {
         serializer::decode,
         handler.<InstallRequest>compose(this::recordReceivedMetrics),
         serializer::encode);
+    clusterCommunicator.subscribe(
+        context.installSbeSubject,
+        b -> PROTOCOL_SERIALIZER.get().decodeInstallRequest(b),
+        handler.<InstallRequest>compose(this::recordReceivedMetrics),
+        r -> PROTOCOL_SERIALIZER.get().encodeInstallResponse(r));
   }
 
   @Override
   public void unregisterInstallHandler() {
     clusterCommunicator.unsubscribe(context.installSubject);
+    clusterCommunicator.unsubscribe(context.installSbeSubject);
   }
 
   @Override
   public void registerPollHandler(
       final Function<PollRequest, CompletableFuture<PollResponse>> handler) {
-    clusterCommunicator.subscribe(
+    subscribeBatched(
         context.pollSubject,
         serializer::decode,
         handler.<PollRequest>compose(this::recordReceivedMetrics),
@@ -173,13 +253,13 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void unregisterPollHandler() {
-    clusterCommunicator.unsubscribe(context.pollSubject);
+    unsubscribeBatched(context.pollSubject);
   }
 
   @Override
   public void registerVoteHandler(
       final Function<VoteRequest, CompletableFuture<VoteResponse>> handler) {
-    clusterCommunicator.subscribe(
+    subscribeBatched(
         context.voteSubject,
         serializer::decode,
         handler.<VoteRequest>compose(this::recordReceivedMetrics),
@@ -188,29 +268,105 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void unregisterVoteHandler() {
-    clusterCommunicator.unsubscribe(context.voteSubject);
+    unsubscribeBatched(context.voteSubject);
   }
 
   @Override
   public void registerAppendHandler(
       final Function<AppendRequest, CompletableFuture<AppendResponse>> handler) {
-    clusterCommunicator.subscribe(
+    subscribeBatched(
         context.appendSubject,
         serializer::decode,
         handler.<AppendRequest>compose(this::recordReceivedMetrics),
         serializer::encode);
+    subscribeBatched(
+        context.appendSbeSubject,
+        b -> PROTOCOL_SERIALIZER.get().decodeAppendRequest(b),
+        handler.<AppendRequest>compose(this::recordReceivedMetrics),
+        r -> PROTOCOL_SERIALIZER.get().encodeAppendResponse(r));
   }
 
   @Override
   public void unregisterAppendHandler() {
-    clusterCommunicator.unsubscribe(context.appendSubject);
+    unsubscribeBatched(context.appendSubject);
+    unsubscribeBatched(context.appendSbeSubject);
   }
 
   private <T, U> CompletableFuture<U> sendAndReceive(
       final String subject, final T request, final MemberId memberId) {
+    return sendAndReceive(subject, request, serializer::encode, serializer::decode, memberId);
+  }
+
+  private <T, U> CompletableFuture<U> sendAndReceive(
+      final String subject,
+      final T request,
+      final Function<T, byte[]> encoder,
+      final Function<byte[], U> decoder,
+      final MemberId memberId) {
+    return sendAndReceive(subject, request, encoder, decoder, memberId, null);
+  }
+
+  private <T, U> CompletableFuture<U> sendAndReceive(
+      final String subject,
+      final T request,
+      final Function<T, byte[]> encoder,
+      final Function<byte[], U> decoder,
+      final MemberId memberId,
+      final Duration timeout) {
     metrics.sendMessage(memberId.id(), request.getClass().getSimpleName());
     return clusterCommunicator.send(
-        subject, request, serializer::encode, serializer::decode, MemberId.from(memberId.id()));
+        subject, request, encoder, decoder, MemberId.from(memberId.id()), timeout);
+  }
+
+  private <T, U> CompletableFuture<U> sendBatched(
+      final String subject,
+      final T request,
+      final Function<T, byte[]> encoder,
+      final Function<byte[], U> decoder,
+      final MemberId memberId) {
+    if (messageBatcher == null || !messageBatcher.isEnabled()) {
+      return sendAndReceive(subject, request, encoder, decoder, memberId);
+    }
+
+    metrics.sendMessage(memberId.id(), request.getClass().getSimpleName());
+    try {
+      final Duration timeout =
+          requestTimeout != null ? requestTimeout : RaftMessageBatcher.REQUEST_TIMEOUT;
+      return messageBatcher
+          .send(MemberId.from(memberId.id()), subject, encoder.apply(request), timeout)
+          .thenApply(decoder);
+    } catch (final Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private <T, U> void subscribeBatched(
+      final String subject,
+      final Function<byte[], T> decoder,
+      final Function<T, CompletableFuture<U>> handler,
+      final Function<U, byte[]> encoder) {
+    clusterCommunicator.subscribe(subject, decoder, handler, encoder);
+    if (messageBatcher != null) {
+      messageBatcher.registerHandler(
+          subject, bytes -> handler.apply(decoder.apply(bytes)).thenApply(encoder));
+    }
+  }
+
+  private void unsubscribeBatched(final String subject) {
+    clusterCommunicator.unsubscribe(subject);
+    if (messageBatcher != null) {
+      messageBatcher.unregisterHandler(subject);
+    }
+  }
+
+  private boolean supportsSbeProtocol(final MemberId memberId) {
+    if (membershipService == null) {
+      return false;
+    }
+
+    final Member member = membershipService.getMember(memberId);
+    return member != null
+        && Boolean.parseBoolean(member.properties().getProperty(SBE_PROTOCOL_PROPERTY_NAME));
   }
 
   private <T extends RaftMessage> T recordReceivedMetrics(final T m) {
@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.protocol.serializer;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.raft.RaftError;
+import io.atomix.raft.protocol.AppendRequest;
+import io.atomix.raft.protocol.AppendResponse;
+import io.atomix.raft.protocol.InstallRequest;
+import io.atomix.raft.protocol.InstallResponse;
+import io.atomix.raft.protocol.RaftResponse;
+import io.atomix.raft.protocol.serializer.AppendRequestDecoder.EntriesDecoder;
+import io.atomix.raft.protocol.serializer.AppendRequestEncoder.EntriesEncoder;
+import io.atomix.raft.storage.log.PersistedRaftRecord;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Serializes the messages which carry the bulk of the replication traffic, i.e. append and install
+ * requests and their responses, using SBE instead of Kryo.
+ *
+ * <p>Each message is encoded into a single array of its exact size. The entries of a decoded {@link
+ * AppendRequest} and the chunk of a decoded {@link InstallRequest} are views on the received bytes,
+ * so that the follower does not copy them before writing them to its log.
+ *
+ * <p>The serializer reuses its flyweights and is therefore not thread-safe.
+ */
+public final class RaftProtocolSBESerializer {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+  private final AppendRequestEncoder appendRequestEncoder = new AppendRequestEncoder();
+  private final AppendResponseEncoder appendResponseEncoder = new AppendResponseEncoder();
+  private final InstallRequestEncoder installRequestEncoder = new InstallRequestEncoder();
+  private final InstallResponseEncoder installResponseEncoder = new InstallResponseEncoder();
+
+  private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+  private final AppendRequestDecoder appendRequestDecoder = new AppendRequestDecoder();
+  private final AppendResponseDecoder appendResponseDecoder = new AppendResponseDecoder();
+  private final InstallRequestDecoder installRequestDecoder = new InstallRequestDecoder();
+  private final InstallResponseDecoder installResponseDecoder = new InstallResponseDecoder();
+
+  private final UnsafeBuffer buffer = new UnsafeBuffer();
+  private final UnsafeBuffer byteBufferView = new UnsafeBuffer();
+
+  /** Returns the maximum number of entries which can be sent with a single append request. */
+  public static int maxEntriesPerAppend() {
+    return EntriesEncoder.countMaxValue();
+  }
+
+  public byte[] encodeAppendRequest(final AppendRequest request) {
+    final List<PersistedRaftRecord> entries = request.entries();
+    final byte[] leader = getBytes(request.leader());
+
+    int length =
+        headerEncoder.encodedLength()
+            + appendRequestEncoder.sbeBlockLength()
+            + EntriesEncoder.sbeHeaderSize()
+            + AppendRequestEncoder.leaderHeaderLength()
+            + leader.length;
+    for (final PersistedRaftRecord entry : entries) {
+      length +=
+          EntriesEncoder.sbeBlockLength()
+              + EntriesEncoder.dataHeaderLength()
+              + entry.data().capacity();
+    }
+
+    final byte[] bytes = new byte[length];
+    buffer.wrap(bytes);
+    appendRequestEncoder
+        .wrapAndApplyHeader(buffer, 0, headerEncoder)
+        .term(request.term())
+        .prevLogIndex(request.prevLogIndex())
+        .prevLogTerm(request.prevLogTerm())
+        .commitIndex(request.commitIndex());
+
+    final EntriesEncoder entriesEncoder = appendRequestEncoder.entriesCount(entries.size());
+    for (final PersistedRaftRecord entry : entries) {
+      final DirectBuffer data = entry.data();
+      entriesEncoder
+          .next()
+          .index(entry.index())
+          .term(entry.term())
+          .asqn(entry.asqn())
+          .checksum(entry.checksum())
+          .putData(data, 0, data.capacity());
+    }
+
+    appendRequestEncoder.putLeader(leader, 0, leader.length);
+    return bytes;
+  }
+
+  public AppendRequest decodeAppendRequest(final byte[] bytes) {
+    buffer.wrap(bytes);
+    appendRequestDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+
+    final long term = appendRequestDecoder.term();
+    final long prevLogIndex = appendRequestDecoder.prevLogIndex();
+    final long prevLogTerm = appendRequestDecoder.prevLogTerm();
+    final long commitIndex = appendRequestDecoder.commitIndex();
+
+    final EntriesDecoder entriesDecoder = appendRequestDecoder.entries();
+    final List<PersistedRaftRecord> entries = new ArrayList<>(entriesDecoder.count());
+    for (final EntriesDecoder entry : entriesDecoder) {
+      final long index = entry.index();
+      final long entryTerm = entry.term();
+      final long asqn = entry.asqn();
+      final long checksum = entry.checksum();
+      final UnsafeBuffer data = new UnsafeBuffer();
+      entry.wrapData(data);
+      entries.add(new PersistedRaftRecord(entryTerm, index, asqn, checksum, data));
+    }
+
+    final String leader = appendRequestDecoder.leader();
+    return new AppendRequest(term, leader, prevLogIndex, prevLogTerm, entries, commitIndex);
+  }
+
+  public byte[] encodeAppendResponse(final AppendResponse response) {
+    final byte[] errorMessage = getErrorMessage(response.error());
+    final byte[] bytes =
+        new byte
+            [headerEncoder.encodedLength()
+                + appendResponseEncoder.sbeBlockLength()
+                + AppendResponseEncoder.errorMessageHeaderLength()
+                + errorMessage.length];
+
+    buffer.wrap(bytes);
+    appendResponseEncoder
+        .wrapAndApplyHeader(buffer, 0, headerEncoder)
+        .status(getStatus(response.status()))
+        .errorType(getErrorType(response.error()))
+        .term(response.term())
+        .succeeded(getBooleanType(response.succeeded()))
+        .lastLogIndex(response.lastLogIndex())
+        .lastSnapshotIndex(response.lastSnapshotIndex())
+        .putErrorMessage(errorMessage, 0, errorMessage.length);
+    return bytes;
+  }
+
+  public AppendResponse decodeAppendResponse(final byte[] bytes) {
+    buffer.wrap(bytes);
+    appendResponseDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+
+    final RaftResponse.Status status = getStatus(appendResponseDecoder.status());
+    final ErrorType errorType = appendResponseDecoder.errorType();
+    final long term = appendResponseDecoder.term();
+    final boolean succeeded = appendResponseDecoder.succeeded() == BooleanType.TRUE;
+    final long lastLogIndex = appendResponseDecoder.lastLogIndex();
+    final long lastSnapshotIndex = appendResponseDecoder.lastSnapshotIndex();
+    final RaftError error = getError(errorType, appendResponseDecoder.errorMessage());
+
+    return new AppendResponse(status, error, term, succeeded, lastLogIndex, lastSnapshotIndex);
+  }
+
+  public byte[] encodeInstallRequest(final InstallRequest request) {
+    final byte[] leader = getBytes(request.leader());
+    final ByteBuffer chunkId = request.chunkId();
+    final ByteBuffer nextChunkId = request.nextChunkId();
+    final ByteBuffer data = request.data();
+
+    final byte[] bytes =
+        new byte
+            [headerEncoder.encodedLength()
+                + installRequestEncoder.sbeBlockLength()
+                + InstallRequestEncoder.leaderHeaderLength()
+                + leader.length
+                + InstallRequestEncoder.chunkIdHeaderLength()
+                + getLength(chunkId)
+                + InstallRequestEncoder.nextChunkIdHeaderLength()
+                + getLength(nextChunkId)
+                + InstallRequestEncoder.dataHeaderLength()
+                + getLength(data)];
+
+    buffer.wrap(bytes);
+    installRequestEncoder
+        .wrapAndApplyHeader(buffer, 0, headerEncoder)
+        .currentTerm(request.currentTerm())
+        .index(request.index())
+        .term(request.term())
+        .version(request.version())
+        .initial(getBooleanType(request.isInitial()))
+        .complete(getBooleanType(request.complete()))
+        .putLeader(leader, 0, leader.length);
+
+    wrapByteBuffer(chunkId);
+    installRequestEncoder.putChunkId(byteBufferView, 0, byteBufferView.capacity());
+    wrapByteBuffer(nextChunkId);
+    installRequestEncoder.putNextChunkId(byteBufferView, 0, byteBufferView.capacity());
+    wrapByteBuffer(data);
+    installRequestEncoder.putData(byteBufferView, 0, byteBufferView.capacity());
+    // don't keep the chunk alive until the next request is encoded
+    byteBufferView.wrap(EMPTY);
+
+    return bytes;
+  }
+
+  public InstallRequest decodeInstallRequest(final byte[] bytes) {
+    buffer.wrap(bytes);
+    installRequestDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+
+    final long currentTerm = installRequestDecoder.currentTerm();
+    final long index = installRequestDecoder.index();
+    final long term = installRequestDecoder.term();
+    final int version = installRequestDecoder.version();
+    final boolean initial = installRequestDecoder.initial() == BooleanType.TRUE;
+    final boolean complete = installRequestDecoder.complete() == BooleanType.TRUE;
+    final MemberId leader = MemberId.from(installRequestDecoder.leader());
+
+    final int chunkIdLength = installRequestDecoder.chunkIdLength();
+    final ByteBuffer chunkId = slice(bytes, installRequestDecoder.limit(), chunkIdLength);
+    installRequestDecoder.skipChunkId();
+
+    final int nextChunkIdLength = installRequestDecoder.nextChunkIdLength();
+    final ByteBuffer nextChunkId =
+        nextChunkIdLength > 0
+            ? slice(bytes, installRequestDecoder.limit(), nextChunkIdLength)
+            : null;
+    installRequestDecoder.skipNextChunkId();
+
+    final int dataLength = installRequestDecoder.dataLength();
+    final ByteBuffer data = slice(bytes, installRequestDecoder.limit(), dataLength);
+    installRequestDecoder.skipData();
+
+    return new InstallRequest(
+        currentTerm, leader, index, term, version, chunkId, nextChunkId, data, initial, complete);
+  }
+
+  public byte[] encodeInstallResponse(final InstallResponse response) {
+    final byte[] errorMessage = getErrorMessage(response.error());
+    final byte[] bytes =
+        new byte
+            [headerEncoder.encodedLength()
+                + installResponseEncoder.sbeBlockLength()
+                + InstallResponseEncoder.errorMessageHeaderLength()
+                + errorMessage.length];
+
+    buffer.wrap(bytes);
+    installResponseEncoder
+        .wrapAndApplyHeader(buffer, 0, headerEncoder)
+        .status(getStatus(response.status()))
+        .errorType(getErrorType(response.error()))
+        .putErrorMessage(errorMessage, 0, errorMessage.length);
+    return bytes;
+  }
+
+  public InstallResponse decodeInstallResponse(final byte[] bytes) {
+    buffer.wrap(bytes);
+    installResponseDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+
+    final RaftResponse.Status status = getStatus(installResponseDecoder.status());
+    final ErrorType errorType = installResponseDecoder.errorType();
+    final RaftError error = getError(errorType, installResponseDecoder.errorMessage());
+
+    return new InstallResponse(status, error);
+  }
+
+  private void wrapByteBuffer(final ByteBuffer byteBuffer) {
+    if (byteBuffer == null) {
+      byteBufferView.wrap(EMPTY);
+    } else {
+      byteBufferView.wrap(byteBuffer, byteBuffer.position(), byteBuffer.remaining());
+    }
+  }
+
+  private static int getLength(final ByteBuffer byteBuffer) {
+    return byteBuffer == null ? 0 : byteBuffer.remaining();
+  }
+
+  private static ByteBuffer slice(final byte[] bytes, final int offset, final int length) {
+    // the offset of the header of the variable length field is given, so skip the length prefix
+    return ByteBuffer.wrap(bytes, offset + Integer.BYTES, length).slice();
+  }
+
+  private static byte[] getBytes(final MemberId memberId) {
+    return memberId.id().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] getErrorMessage(final RaftError error) {
+    if (error == null || error.message() == null) {
+      return EMPTY;
+    }
+
+    return error.message().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static ErrorType getErrorType(final RaftError error) {
+    return error == null ? ErrorType.NULL_VAL : ErrorType.valueOf(error.type().name());
+  }
+
+  private static RaftError getError(final ErrorType errorType, final String errorMessage) {
+    if (errorType == ErrorType.NULL_VAL) {
+      return null;
+    }
+
+    return new RaftError(
+        RaftError.Type.valueOf(errorType.name()), errorMessage.isEmpty() ? null : errorMessage);
+  }
+
+  private static ResponseStatus getStatus(final RaftResponse.Status status) {
+    return status == RaftResponse.Status.OK ? ResponseStatus.OK : ResponseStatus.ERROR;
+  }
+
+  private static RaftResponse.Status getStatus(final ResponseStatus status) {
+    return status == ResponseStatus.OK ? RaftResponse.Status.OK : RaftResponse.Status.ERROR;
+  }
+
+  private static BooleanType getBooleanType(final boolean value) {
+    return value ? BooleanType.TRUE : BooleanType.FALSE;
+  }
+}
@@ -23,6 +23,7 @@ import io.atomix.raft.cluster.impl.DefaultRaftMember;
 import io.atomix.raft.cluster.impl.RaftMemberContext;
 import io.atomix.raft.impl.RaftContext;
 import io.atomix.raft.metrics.LeaderMetrics;
+import io.atomix.raft.metrics.RaftReplicationMetrics;
 import io.atomix.raft.protocol.AppendRequest;
 import io.atomix.raft.protocol.AppendResponse;
 import io.atomix.raft.protocol.ConfigureRequest;
@@ -31,6 +32,7 @@ import io.atomix.raft.protocol.InstallRequest;
 import io.atomix.raft.protocol.InstallResponse;
 import io.atomix.raft.protocol.RaftRequest;
 import io.atomix.raft.protocol.RaftResponse;
+import io.atomix.raft.protocol.serializer.RaftProtocolSBESerializer;
 import io.atomix.raft.snapshot.impl.SnapshotChunkImpl;
 import io.atomix.raft.storage.log.IndexedRaftLogEntry;
 import io.atomix.raft.storage.log.PersistedRaftRecord;
@@ -50,12 +52,12 @@ import org.slf4j.Logger;
 /** Abstract appender. */
 abstract class AbstractAppender implements AutoCloseable {
 
-  protected final int maxBatchSizePerAppend;
   protected final Logger log;
   protected final RaftContext raft;
   protected boolean open = true;
 
   private final LeaderMetrics metrics;
+  private final RaftReplicationMetrics replicationMetrics;
 
   AbstractAppender(final RaftContext raft) {
     this.raft = checkNotNull(raft, "context cannot be null");
@@ -63,7 +65,7 @@ abstract class AbstractAppender implements AutoCloseable {
         ContextualLoggerFactory.getLogger(
             getClass(), LoggerContext.builder(RaftServer.class).addValue(raft.getName()).build());
     metrics = new LeaderMetrics(raft.getName());
-    maxBatchSizePerAppend = raft.getMaxAppendBatchSize();
+    replicationMetrics = raft.getReplicationMetrics();
   }
 
   /**
@@ -138,26 +140,36 @@ abstract class AbstractAppender implements AutoCloseable {
     // Build a list of entries to send to the member.
     final List<PersistedRaftRecord> entries = new ArrayList<>();
 
-    // Build a list of entries up to the MAX_BATCH_SIZE. Note that entries in the log may
-    // be null if they've been compacted and the member to which we're sending entries is just
-    // joining the cluster or is otherwise far behind. Null entries are simply skipped and not
-    // counted towards the size of the batch.
-    // If there exists an entry in the log with size >= MAX_BATCH_SIZE the logic ensures that
-    // entry will be sent in a batch of size one
+    // Build a list of entries up to the batch size of the member's append window. Note that
+    // entries in the log may be null if they've been compacted and the member to which we're
+    // sending entries is just joining the cluster or is otherwise far behind. Null entries are
+    // simply skipped and not counted towards the size of the batch.
+    // If there exists an entry in the log with size >= the batch size the logic ensures that
+    // entry will be sent in a batch of size one. The number of entries is also bounded by what
+    // the wire format can encode in a single request.
+    final int maxBatchSize = member.getAppendWindow().getBatchSize();
+    final int maxEntries = RaftProtocolSBESerializer.maxEntriesPerAppend();
     int size = 0;
+    int cacheHits = 0;
 
     // Iterate through the log until the last index or the end of the log is reached.
     while (member.hasNextEntry()) {
       // Otherwise, read the next entry and add it to the batch.
       final IndexedRaftLogEntry entry = member.nextEntry();
+      if (member.isCurrentEntryCached()) {
+        cacheHits++;
+      }
       final var replicatableRecord = entry.getPersistedRaftRecord();
       entries.add(replicatableRecord);
       size += replicatableRecord.approximateSize();
-      if (entry.index() == lastIndex || size >= maxBatchSizePerAppend) {
+      if (entry.index() == lastIndex || size >= maxBatchSize || entries.size() >= maxEntries) {
         break;
       }
     }
 
+    metrics.observeEntryCacheAccess(
+        member.getMember().memberId().id(), cacheHits, entries.size() - cacheHits);
+
     // Add the entries to the request builder and build the request.
     return builder.withEntries(entries).build();
   }
@@ -170,7 +182,9 @@ abstract class AbstractAppender implements AutoCloseable {
     }
 
     // Start the append to the member.
-    member.startAppend();
+    final int size = getEntriesSize(request);
+    member.startAppend(size);
+    updateAppendWindowMetrics(member);
 
     final long timestamp = System.currentTimeMillis();
 
@@ -182,11 +196,14 @@ abstract class AbstractAppender implements AutoCloseable {
               // Complete the append to the member.
               final long appendLatency = System.currentTimeMillis() - timestamp;
               metrics.appendComplete(appendLatency, member.getMember().memberId().id());
-              if (!request.entries().isEmpty()) {
-                member.completeAppend(appendLatency);
-              } else {
+              if (request.entries().isEmpty()) {
                 member.completeAppend();
+              } else if (error == null) {
+                member.completeAppend(appendLatency, size);
+              } else {
+                member.failAppend(appendLatency, size);
               }
+              updateAppendWindowMetrics(member);
 
               if (open) {
                 if (error == null) {
@@ -204,6 +221,33 @@ abstract class AbstractAppender implements AutoCloseable {
     }
   }
 
+  private int getEntriesSize(final AppendRequest request) {
+    int size = 0;
+    for (final PersistedRaftRecord entry : request.entries()) {
+      size += entry.approximateSize();
+    }
+    return size;
+  }
+
+  private void updateAppendWindowMetrics(final RaftMemberContext member) {
+    final var appendWindow = member.getAppendWindow();
+    replicationMetrics.setAppendWindow(
+        member.getMember().memberId().id(),
+        appendWindow.getAppends(),
+        appendWindow.getBatchSize(),
+        member.getInFlightAppendBytes());
+  }
+
+  /**
+   * Records the time the member's append window was exhausted, once entries can be sent again.
+   *
+   * @param limitedTime the time in milliseconds for which the window was exhausted
+   */
+  protected void observeAppendWindowLimited(
+      final RaftMemberContext member, final long limitedTime) {
+    replicationMetrics.observeAppendWindowLimited(member.getMember().memberId().id(), limitedTime);
+  }
+
   /** Handles an append failure. */
   protected void handleAppendResponseFailure(
       final RaftMemberContext member, final AppendRequest request, final Throwable error) {
@@ -447,14 +491,7 @@ abstract class AbstractAppender implements AutoCloseable {
   protected Optional<InstallRequest> buildInstallRequest(
       final RaftMemberContext member, final PersistedSnapshot persistedSnapshot) {
     if (member.getNextSnapshotIndex() != persistedSnapshot.getIndex()) {
-      try {
-        final SnapshotChunkReader snapshotChunkReader = persistedSnapshot.newChunkReader();
-        member.setSnapshotChunkReader(snapshotChunkReader);
-      } catch (final UncheckedIOException e) {
-        log.warn(
-            "Expected to send Snapshot {} to {}. But could not open SnapshotChunkReader. Will retry.",
-            persistedSnapshot.getId(),
-            e);
+      if (!openSnapshotChunkReader(member, persistedSnapshot, null)) {
         return Optional.empty();
       }
       member.setNextSnapshotIndex(persistedSnapshot.getIndex());
@@ -467,7 +504,12 @@ abstract class AbstractAppender implements AutoCloseable {
     }
 
     try {
+      // only the first chunk of the snapshot is initial, even if previous chunks were not yet
+      // acknowledged when the next ones are sent
+      final boolean initial =
+          member.getNextSnapshotChunk() == null && !member.isSnapshotChunkReaderStarted();
       final SnapshotChunk chunk = reader.next();
+      member.setSnapshotChunkReaderStarted();
 
       // Create the install request, indicating whether this is the last chunk of data based on
       // the number of bytes remaining in the buffer.
@@ -482,7 +524,7 @@ abstract class AbstractAppender implements AutoCloseable {
               .withVersion(persistedSnapshot.version())
               .withData(new SnapshotChunkImpl(chunk).toByteBuffer())
               .withChunkId(ByteBuffer.wrap(chunk.getChunkName().getBytes()))
-              .withInitial(member.getNextSnapshotChunk() == null)
+              .withInitial(initial)
               .withComplete(!reader.hasNext())
               .withNextChunkId(reader.nextId())
               .build();
@@ -499,12 +541,80 @@ abstract class AbstractAppender implements AutoCloseable {
     }
   }
 
+  /**
+   * Opens a new chunk reader for the given snapshot, positioned at the given chunk, such that all
+   * chunks from it onwards are sent again. If no chunk is given, the reader starts at the first
+   * chunk.
+   *
+   * @return false if the reader could not be opened
+   */
+  private boolean openSnapshotChunkReader(
+      final RaftMemberContext member,
+      final PersistedSnapshot persistedSnapshot,
+      final ByteBuffer nextChunkId) {
+    try {
+      final SnapshotChunkReader snapshotChunkReader = persistedSnapshot.newChunkReader();
+      if (nextChunkId != null) {
+        snapshotChunkReader.seek(nextChunkId);
+      }
+      member.setSnapshotChunkReader(snapshotChunkReader);
+      return true;
+    } catch (final UncheckedIOException e) {
+      log.warn(
+          "Expected to send Snapshot {} to {}. But could not open SnapshotChunkReader. Will retry.",
+          persistedSnapshot.getId(),
+          member.getMember().memberId(),
+          e);
+      return false;
+    }
+  }
+
+  /**
+   * Resends the snapshot to the member starting from the first chunk which was not acknowledged
+   * yet. Chunks which were sent after it, and which may still be in flight, are sent again; the
+   * member acknowledges chunks it already received without applying them twice.
+   */
+  private void rewindSnapshotChunks(final RaftMemberContext member) {
+    final var persistedSnapshot = raft.getCurrentSnapshot();
+    if (persistedSnapshot == null
+        || persistedSnapshot.getIndex() != member.getNextSnapshotIndex()
+        || !openSnapshotChunkReader(member, persistedSnapshot, member.getNextSnapshotChunk())) {
+      member.setNextSnapshotIndex(0);
+      member.setNextSnapshotChunk(null);
+    }
+  }
+
+  /**
+   * Returns whether the response to the given install request is outdated, i.e. whether the request
+   * was sent for another snapshot or before the chunks were rewound.
+   */
+  private boolean isStaleInstallResponse(
+      final RaftMemberContext member,
+      final InstallRequest request,
+      final SnapshotChunkReader reader) {
+    return request.index() != member.getNextSnapshotIndex()
+        || reader != member.getSnapshotChunkReader();
+  }
+
+  /**
+   * Returns whether the given install request contained the chunk which the member is expected to
+   * receive next, i.e. the first chunk which was not acknowledged yet.
+   */
+  private boolean isNextExpectedChunk(
+      final RaftMemberContext member, final InstallRequest request) {
+    final ByteBuffer nextSnapshotChunk = member.getNextSnapshotChunk();
+    return nextSnapshotChunk == null
+        ? request.isInitial()
+        : nextSnapshotChunk.equals(request.chunkId());
+  }
+
   /** Connects to the member and sends a snapshot request. */
   protected void sendInstallRequest(final RaftMemberContext member, final InstallRequest request) {
     // Start the install to the member.
     member.startInstall();
 
     final long timestamp = System.currentTimeMillis();
+    final SnapshotChunkReader reader = member.getSnapshotChunkReader();
 
     log.trace("Sending {} to {}", request, member.getMember().memberId());
     raft.getProtocol()
@@ -517,7 +627,16 @@ abstract class AbstractAppender implements AutoCloseable {
               if (open) {
                 if (error == null) {
                   log.trace("Received {} from {}", response, member.getMember().memberId());
+                  if (response.status() == RaftResponse.Status.ERROR
+                      && isStaleInstallResponse(member, request, reader)) {
+                    // the chunks were already rewound, or the snapshot changed, since the request
+                    // was sent
+                    return;
+                  }
                   handleInstallResponse(member, request, response, timestamp);
+                } else if (isStaleInstallResponse(member, request, reader)) {
+                  // the chunks were already rewound, or the snapshot changed
+                  failAttempt(member, request, error);
                 } else {
                   // Trigger reactions to the install response failure.
                   handleInstallResponseFailure(member, request, error);
@@ -530,10 +649,9 @@ abstract class AbstractAppender implements AutoCloseable {
   /** Handles an install response failure. */
   protected void handleInstallResponseFailure(
       final RaftMemberContext member, final InstallRequest request, final Throwable error) {
-    // Reset the member's snapshot index and offset to resend the snapshot from the start
-    // once a connection to the member is re-established.
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotChunk(null);
+    // Resend the snapshot from the first chunk which was not acknowledged, once a connection to the
+    // member is re-established.
+    rewindSnapshotChunks(member);
 
     // Log the failed attempt to contact the member.
     failAttempt(member, request, error);
@@ -564,13 +682,18 @@ abstract class AbstractAppender implements AutoCloseable {
     // If the install request was completed successfully, set the member's snapshotIndex and reset
     // the next snapshot index/offset.
     if (request.complete()) {
-      member.setNextSnapshotIndex(0);
-      member.setNextSnapshotChunk(null);
-      member.setSnapshotIndex(request.index());
-      resetNextIndex(member, request.index() + 1);
+      if (member.getSnapshotIndex() < request.index()) {
+        member.setNextSnapshotIndex(0);
+        member.setNextSnapshotChunk(null);
+        member.setSnapshotIndex(request.index());
+        resetNextIndex(member, request.index() + 1);
+      }
     }
-    // If more install requests remain, increment the member's snapshot offset.
-    else {
+    // If more install requests remain, increment the member's snapshot offset. The member applies
+    // chunks in order, so responses to chunks after the next expected one are only acknowledged
+    // once the responses to all chunks before them were received.
+    else if (request.index() == member.getNextSnapshotIndex()
+        && isNextExpectedChunk(member, request)) {
       member.setNextSnapshotChunk(request.nextChunkId());
     }
 
@@ -584,14 +707,26 @@ abstract class AbstractAppender implements AutoCloseable {
       final RaftMemberContext member,
       final InstallRequest request,
       final InstallResponse response) {
-    log.warn(
-        "Failed to send {} to member {}, with {}. Restart sending snapshot.",
-        request,
-        member.getMember().memberId(),
-        response.error().toString());
-
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotChunk(null);
+    if (isNextExpectedChunk(member, request)) {
+      // the member rejected the chunk it expected to receive next, so resending it will not help
+      log.warn(
+          "Failed to send {} to member {}, with {}. Restart sending snapshot.",
+          request,
+          member.getMember().memberId(),
+          response.error().toString());
+
+      member.setNextSnapshotIndex(0);
+      member.setNextSnapshotChunk(null);
+    } else {
+      // a previous chunk was likely lost, so the member rejected the following ones as out of order
+      log.debug(
+          "Failed to send {} to member {}, with {}. Resend snapshot from chunk {}.",
+          request,
+          member.getMember().memberId(),
+          response.error().toString(),
+          member.getNextSnapshotChunk());
+      rewindSnapshotChunks(member);
+    }
   }
 
   @Override
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.roles;
+
+import io.atomix.raft.impl.RaftContext;
+import io.atomix.utils.concurrent.Scheduled;
+import io.camunda.zeebe.journal.DurableIndexListener;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Flushes the entries appended by a follower before the append requests are acknowledged.
+ *
+ * <p>If a flush delay is configured, the acknowledgements of append requests are held back until
+ * the delay elapsed or the held back entries exceed the batch size. All entries appended in the
+ * meantime are then flushed once, and all held back requests are acknowledged in the order they
+ * were received. Without a delay, the entries of every append request are flushed on their own.
+ *
+ * <p>If the log is flushed asynchronously, the entries are flushed on the journal's flusher thread
+ * instead of the raft thread, and the append requests are acknowledged once the durable index
+ * reached their last entry. The flusher thread already coalesces subsequent flush requests, so the
+ * flush delay is not applied then. If a background flush fails, the requests which are not yet
+ * durable are rejected with the durable index instead, such that the leader sends their entries
+ * again, and their acknowledgements request the flush again.
+ *
+ * <p>Any other append response must not overtake the held back acknowledgements, so {@link
+ * #flushPending()} has to be called before it is sent, as well as before the log is truncated or
+ * reset. Must only be used from the raft thread.
+ */
+final class AppendFlusher {
+
+  private final RaftContext raft;
+  private final Duration delay;
+  private final int batchSize;
+
+  private final DurableIndexListener durableIndexListener;
+
+  private final Deque<PendingAck> pendingAcks = new ArrayDeque<>();
+  private long pendingIndex;
+  private long pendingBytes;
+  private Scheduled scheduledFlush;
+
+  AppendFlusher(final RaftContext raft) {
+    this.raft = raft;
+    delay = raft.getFollowerFlushDelay();
+    batchSize = raft.getFollowerFlushBatchSize();
+    durableIndexListener =
+        new DurableIndexListener() {
+          @Override
+          public void onDurableIndexUpdated(final long durableIndex) {
+            raft.getThreadContext().execute(AppendFlusher.this::acknowledgeDurableAppends);
+          }
+
+          @Override
+          public void onFlushFailed(final Throwable error) {
+            raft.getThreadContext().execute(AppendFlusher.this::rejectPendingAppends);
+          }
+        };
+  }
+
+  /** Starts listening for entries flushed in the background, if the log is flushed async. */
+  void start() {
+    if (raft.getLog().shouldFlushAsync()) {
+      raft.getLog().addDurableIndexListener(durableIndexListener);
+    }
+  }
+
+  /** Acknowledges all held back append requests and stops listening for flushed entries. */
+  void stop() {
+    flushPending();
+    raft.getLog().removeDurableIndexListener(durableIndexListener);
+  }
+
+  /**
+   * Flushes the entries of an append request and acknowledges it afterwards, possibly delaying both
+   * to coalesce the flush with the ones of subsequent requests.
+   *
+   * @param lastLogIndex the index of the last entry which is acknowledged
+   * @param previousEntryIndex the index of the entry preceding the appended entries
+   * @param bytes the approximate size of the appended entries
+   * @param ack acknowledges the append request
+   * @param reject rejects the append request with the given durable index, if its entries could not
+   *     be flushed in the background
+   */
+  void flushAndAck(
+      final long lastLogIndex,
+      final long previousEntryIndex,
+      final long bytes,
+      final Runnable ack,
+      final LongConsumer reject) {
+    final boolean hasAppended =
+        raft.getLog().shouldFlushExplicitly() && lastLogIndex > previousEntryIndex;
+    final boolean flushAsync = raft.getLog().shouldFlushAsync();
+    if ((delay.isZero() && !flushAsync) || (!hasAppended && pendingAcks.isEmpty())) {
+      if (hasAppended) {
+        flush(lastLogIndex, 1, bytes);
+      }
+      ack.run();
+      return;
+    }
+
+    if (hasAppended) {
+      pendingIndex = Math.max(pendingIndex, lastLogIndex);
+      pendingBytes += bytes;
+    }
+    pendingAcks.add(new PendingAck(pendingIndex, hasAppended ? bytes : 0, ack, reject));
+
+    if (flushAsync) {
+      // requested again on requests without new entries too, in case a previous flush failed
+      if (pendingIndex > raft.getLog().getDurableIndex()) {
+        raft.getLog().flushAsync();
+      }
+    } else if (pendingBytes >= batchSize) {
+      flushPending();
+    } else if (scheduledFlush == null) {
+      scheduledFlush = raft.getThreadContext().schedule(delay, this::flushPending);
+    }
+  }
+
+  /** Flushes the appended entries and acknowledges all held back append requests. */
+  void flushPending() {
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel();
+      scheduledFlush = null;
+    }
+
+    if (pendingAcks.isEmpty()) {
+      return;
+    }
+
+    if (pendingIndex > 0) {
+      flush(pendingIndex, pendingAcks.size(), pendingBytes);
+    }
+
+    // acknowledging may send other responses, which must see no pending acknowledgements
+    final List<Runnable> acks = new ArrayList<>(pendingAcks.size());
+    pendingAcks.forEach(pendingAck -> acks.add(pendingAck.ack));
+    pendingAcks.clear();
+    pendingIndex = 0;
+    pendingBytes = 0;
+    acks.forEach(Runnable::run);
+  }
+
+  private void acknowledgeDurableAppends() {
+    // the notified index may be outdated if the log was truncated in the meantime, but truncating
+    // lowers the durable index of the log
+    final long durableIndex = raft.getLog().getDurableIndex();
+    final List<Runnable> acks = new ArrayList<>();
+    long lastWrittenIndex = 0;
+    long bytes = 0;
+    while (!pendingAcks.isEmpty() && pendingAcks.peekFirst().index <= durableIndex) {
+      final PendingAck pendingAck = pendingAcks.pollFirst();
+      acks.add(pendingAck.ack);
+      lastWrittenIndex = pendingAck.index;
+      bytes += pendingAck.bytes;
+    }
+
+    if (acks.isEmpty()) {
+      return;
+    }
+
+    pendingBytes -= bytes;
+    if (pendingAcks.isEmpty()) {
+      pendingIndex = 0;
+    }
+    raft.setLastWrittenIndex(lastWrittenIndex);
+    raft.getReplicationMetrics().observeFollowerFlush(acks.size(), bytes);
+    acks.forEach(Runnable::run);
+  }
+
+  private void rejectPendingAppends() {
+    // the flush may have failed after an earlier one made some of the entries durable
+    acknowledgeDurableAppends();
+    if (pendingAcks.isEmpty()) {
+      return;
+    }
+
+    final long durableIndex = raft.getLog().getDurableIndex();
+    final List<LongConsumer> rejects = new ArrayList<>(pendingAcks.size());
+    pendingAcks.forEach(pendingAck -> rejects.add(pendingAck.reject));
+    pendingAcks.clear();
+    pendingIndex = 0;
+    pendingBytes = 0;
+    rejects.forEach(reject -> reject.accept(durableIndex));
+  }
+
+  private void flush(final long lastWrittenIndex, final int requests, final long bytes) {
+    raft.getLog().flush();
+    raft.setLastWrittenIndex(lastWrittenIndex);
+    raft.getReplicationMetrics().observeFollowerFlush(requests, bytes);
+  }
+
+  private static final class PendingAck {
+    private final long index;
+    private final long bytes;
+    private final Runnable ack;
+    private final LongConsumer reject;
+
+    private PendingAck(
+        final long index, final long bytes, final Runnable ack, final LongConsumer reject) {
+      this.index = index;
+      this.bytes = bytes;
+      this.ack = ack;
+      this.reject = reject;
+    }
+  }
+}
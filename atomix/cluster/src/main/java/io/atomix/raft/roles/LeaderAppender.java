@@ -51,6 +51,7 @@ final class LeaderAppender extends AbstractAppender {
   private final Map<Long, CompletableFuture<Long>> appendFutures = new HashMap<>();
   private final List<TimestampedFuture<Long>> heartbeatFutures = new ArrayList<>();
   private final long heartbeatTime;
+  private final int maxSnapshotChunksPerFollower;
 
   LeaderAppender(final LeaderRole leader) {
     super(leader.raft);
@@ -60,6 +61,7 @@ final class LeaderAppender extends AbstractAppender {
     heartbeatTime = leaderTime;
     electionTimeout = raft.getElectionTimeout().toMillis();
     heartbeatInterval = raft.getHeartbeatInterval().toMillis();
+    maxSnapshotChunksPerFollower = raft.getMaxSnapshotChunksPerFollower();
   }
 
   /**
@@ -84,6 +86,12 @@ final class LeaderAppender extends AbstractAppender {
     // commit.
     // The updated commit index will be sent to passive/reserve members on heartbeats.
     if (raft.getCluster().getActiveMemberStates().isEmpty()) {
+      final long commitIndex = boundByDurableIndex(index);
+      if (commitIndex < index) {
+        // the entry is committed once it was flushed, see onDurableIndexUpdated
+        return appendFutures.computeIfAbsent(index, i -> new CompletableFuture<>());
+      }
+
       final long previousCommitIndex = raft.getCommitIndex();
       raft.setCommitIndex(index);
       completeCommits(previousCommitIndex, index);
@@ -133,6 +141,35 @@ final class LeaderAppender extends AbstractAppender {
     return future;
   }
 
+  /**
+   * Called on the raft thread once the leader flushed its log up to the given index in the
+   * background. As the leader counts itself in the quorum, entries which were replicated but not
+   * yet flushed locally can be committed now.
+   *
+   * @param durableIndex the index up to which the log was flushed
+   */
+  void onDurableIndexUpdated(final long durableIndex) {
+    raft.checkThread();
+    if (!open) {
+      return;
+    }
+
+    raft.setLastWrittenIndex(durableIndex);
+    commitEntries();
+  }
+
+  /**
+   * Returns the given commit index, bounded by the index up to which the leader has flushed its log
+   * if the log is flushed in the background. Otherwise the leader flushes when committing.
+   */
+  private long boundByDurableIndex(final long commitIndex) {
+    if (!raft.getLog().shouldFlushAsync()) {
+      return commitIndex;
+    }
+
+    return Math.min(commitIndex, raft.getLog().getDurableIndex());
+  }
+
   /** Completes append entries attempts up to the given index. */
   private void completeCommits(final long previousCommitIndex, final long commitIndex) {
     for (long i = previousCommitIndex + 1; i <= commitIndex; i++) {
@@ -280,7 +317,7 @@ final class LeaderAppender extends AbstractAppender {
       tryToReplicateSnapshot(member);
     }
     // If no AppendRequest is already being sent, send an AppendRequest.
-    else if (member.canAppend()) {
+    else if (canAppend(member)) {
       sendAppendRequest(member, buildAppendRequest(member, -1));
     }
   }
@@ -349,7 +386,7 @@ final class LeaderAppender extends AbstractAppender {
     if (persistedSnapshot != null
         && member.getSnapshotIndex() < persistedSnapshot.getIndex()
         && persistedSnapshot.getIndex() >= member.getCurrentIndex()) {
-      if (!member.canInstall()) {
+      if (!member.canInstall(maxSnapshotChunksPerFollower)) {
         return;
       }
 
@@ -357,13 +394,41 @@ final class LeaderAppender extends AbstractAppender {
           "Replicating snapshot {} to {}",
           persistedSnapshot.getIndex(),
           member.getMember().memberId());
-      buildInstallRequest(member, persistedSnapshot)
-          .ifPresent(installRequest -> sendInstallRequest(member, installRequest));
-    } else if (member.canAppend()) {
+      // keep up to the maximum chunks in flight, such that the transfer is not bound to one chunk
+      // per round trip
+      do {
+        final var installRequest = buildInstallRequest(member, persistedSnapshot);
+        if (installRequest.isEmpty()) {
+          break;
+        }
+        sendInstallRequest(member, installRequest.get());
+      } while (member.canInstall(maxSnapshotChunksPerFollower));
+    } else if (canAppend(member)) {
       sendAppendRequest(member, buildAppendRequest(member, -1));
     }
   }
 
+  /**
+   * Returns whether entries can be sent to the member, keeping track of the time during which they
+   * could not be sent because the member's append window is exhausted.
+   */
+  private boolean canAppend(final RaftMemberContext member) {
+    final var appendWindow = member.getAppendWindow();
+    final long currentTimestamp = System.currentTimeMillis();
+    if (member.canAppend()) {
+      final long limitedTime = appendWindow.markUnlimited(currentTimestamp);
+      if (limitedTime > 0) {
+        observeAppendWindowLimited(member, limitedTime);
+      }
+      return true;
+    }
+
+    if (member.hasNextEntry()) {
+      appendWindow.markLimited(currentTimestamp);
+    }
+    return false;
+  }
+
   /** Records a failed heartbeat. */
   private void failHeartbeat() {
     raft.checkThread();
@@ -473,7 +538,7 @@ final class LeaderAppender extends AbstractAppender {
     // request/response)
     // ensure all commit futures are completed and cleared.
     if (members.isEmpty()) {
-      final long commitIndex = raft.getLog().getLastIndex();
+      final long commitIndex = boundByDurableIndex(raft.getLog().getLastIndex());
       final long previousCommitIndex = raft.setCommitIndex(commitIndex);
       if (commitIndex > previousCommitIndex) {
         log.trace("Committed entries up to {}", commitIndex);
@@ -482,8 +547,9 @@ final class LeaderAppender extends AbstractAppender {
       return;
     }
 
-    // Calculate the current commit index as the median matchIndex.
-    final long commitIndex = members.get(getQuorumIndex()).getMatchIndex();
+    // Calculate the current commit index as the median matchIndex, bounded by what the leader
+    // itself has persisted.
+    final long commitIndex = boundByDurableIndex(members.get(getQuorumIndex()).getMatchIndex());
 
     // If the commit index has increased then update the commit index. Note that in order to ensure
     // the leader completeness property holds, we verify that the commit index is greater than or
@@ -50,6 +50,7 @@ import io.atomix.raft.zeebe.ValidationResult;
 import io.atomix.raft.zeebe.ZeebeLogAppender;
 import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.concurrent.Scheduled;
+import io.camunda.zeebe.journal.DurableIndexListener;
 import io.camunda.zeebe.journal.JournalException;
 import io.camunda.zeebe.snapshots.PersistedSnapshotListener;
 import java.nio.ByteBuffer;
@@ -64,6 +65,7 @@ public final class LeaderRole extends ActiveRole implements ZeebeLogAppender {
 
   private static final int MAX_APPEND_ATTEMPTS = 5;
   private final LeaderAppender appender;
+  private final DurableIndexListener durableIndexListener;
   private Scheduled appendTimer;
   private long configuring;
   private CompletableFuture<Void> commitInitialEntriesFuture;
@@ -72,10 +74,28 @@ public final class LeaderRole extends ActiveRole implements ZeebeLogAppender {
   public LeaderRole(final RaftContext context) {
     super(context);
     appender = new LeaderAppender(this);
+    durableIndexListener =
+        new DurableIndexListener() {
+          @Override
+          public void onDurableIndexUpdated(final long durableIndex) {
+            raft.getThreadContext().execute(() -> appender.onDurableIndexUpdated(durableIndex));
+          }
+
+          @Override
+          public void onFlushFailed(final Throwable error) {
+            raft.getThreadContext().execute(() -> onFlushFailed(error));
+          }
+        };
   }
 
   @Override
   public synchronized CompletableFuture<RaftRole> start() {
+    // Entries are flushed in the background while they are replicated, and only committed once
+    // flushed; this has to be set up before the initial entries are appended.
+    if (raft.getLog().shouldFlushAsync()) {
+      raft.getLog().addDurableIndexListener(durableIndexListener);
+    }
+
     // Reset state for the leader.
     takeLeadership();
 
@@ -93,6 +113,8 @@ public final class LeaderRole extends ActiveRole implements ZeebeLogAppender {
 
   @Override
   public synchronized CompletableFuture<Void> stop() {
+    raft.getLog().removeDurableIndexListener(durableIndexListener);
+    raft.getEntryCache().clear();
     return super.stop()
         .thenRun(appender::close)
         .thenRun(this::cancelTimers)
@@ -224,6 +246,8 @@ public final class LeaderRole extends ActiveRole implements ZeebeLogAppender {
   /** Sets the current node as the cluster leader. */
   private void takeLeadership() {
     raft.setLeader(raft.getCluster().getLocalMember().memberId());
+    // entries appended before this term may be truncated, so only cache entries we append
+    raft.getEntryCache().clear();
     raft.getCluster().getRemoteMemberStates().forEach(m -> m.resetState(raft.getLog()));
   }
 
@@ -512,6 +536,10 @@ public final class LeaderRole extends ActiveRole implements ZeebeLogAppender {
 
     try {
       final IndexedRaftLogEntry indexedEntry = raft.getLog().append(entry);
+      raft.getEntryCache().put(indexedEntry);
+      if (raft.getLog().shouldFlushAsync()) {
+        raft.getLog().flushAsync();
+      }
       raft.getReplicationMetrics().setAppendIndex(indexedEntry.index());
       log.trace("Appended {}", indexedEntry);
       resultingFuture = CompletableFuture.completedFuture(indexedEntry);
@@ -530,6 +558,17 @@ public final class LeaderRole extends ActiveRole implements ZeebeLogAppender {
     return resultingFuture;
   }
 
+  private void onFlushFailed(final Throwable error) {
+    if (!isRunning()) {
+      return;
+    }
+
+    // the appended entries cannot be committed until they are flushed, which is only retried with
+    // the next append
+    log.error("Failed to flush the log in the background, stepping down", error);
+    raft.transition(Role.FOLLOWER);
+  }
+
   @Override
   public void appendEntry(
       final long lowestPosition,
@@ -44,6 +44,9 @@ import io.camunda.zeebe.snapshots.PersistedSnapshot;
 import io.camunda.zeebe.snapshots.PersistedSnapshotListener;
 import io.camunda.zeebe.snapshots.ReceivedSnapshot;
 import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
@@ -52,15 +55,21 @@ import org.slf4j.Logger;
 public class PassiveRole extends InactiveRole {
 
   private final SnapshotReplicationMetrics snapshotReplicationMetrics;
+  private final AppendFlusher appendFlusher;
+  // the chunks which were applied to the pending snapshot, to acknowledge chunks sent again
+  private final Set<String> pendingSnapshotChunks = new HashSet<>();
 
   private long pendingSnapshotStartTimestamp;
   private ReceivedSnapshot pendingSnapshot;
   private PersistedSnapshotListener snapshotListener;
   private ByteBuffer nextPendingSnapshotChunkId;
+  private long pendingSnapshotBytes;
 
   public PassiveRole(final RaftContext context) {
     super(context);
 
+    appendFlusher = new AppendFlusher(context);
+
     snapshotReplicationMetrics = new SnapshotReplicationMetrics(context.getName());
     snapshotReplicationMetrics.setCount(0);
   }
@@ -68,6 +77,7 @@ public class PassiveRole extends InactiveRole {
   @Override
   public CompletableFuture<RaftRole> start() {
     snapshotListener = createSnapshotListener();
+    appendFlusher.start();
 
     return super.start()
         .thenRun(this::truncateUncommittedEntries)
@@ -77,6 +87,7 @@ public class PassiveRole extends InactiveRole {
 
   @Override
   public CompletableFuture<Void> stop() {
+    appendFlusher.stop();
     abortPendingSnapshots();
     if (snapshotListener != null) {
       raft.getPersistedSnapshotStore().removeSnapshotListener(snapshotListener);
@@ -137,6 +148,8 @@ public class PassiveRole extends InactiveRole {
   public CompletableFuture<InstallResponse> onInstall(final InstallRequest request) {
     raft.checkThread();
     logRequest(request);
+    // installing a snapshot resets the log, so the held back appends must be acknowledged first
+    appendFlusher.flushPending();
     updateTermAndLeader(request.currentTerm(), request.leader());
 
     log.debug("Received snapshot {} chunk from {}", request.index(), request.leader());
@@ -224,6 +237,14 @@ public class PassiveRole extends InactiveRole {
       pendingSnapshotStartTimestamp = System.currentTimeMillis();
       snapshotReplicationMetrics.incrementCount();
     } else {
+      // the leader sends several chunks without waiting for their responses, and resends all
+      // chunks after the last acknowledged one if a chunk was lost; chunks which were already
+      // applied are acknowledged without applying them again
+      if (pendingSnapshotChunks.contains(snapshotChunk.getChunkName())) {
+        return CompletableFuture.completedFuture(
+            logResponse(InstallResponse.builder().withStatus(RaftResponse.Status.OK).build()));
+      }
+
       // fail the request if this is not the expected next chunk
       if (!isExpectedChunk(request.chunkId())) {
         return CompletableFuture.completedFuture(
@@ -256,6 +277,10 @@ public class PassiveRole extends InactiveRole {
                   .build()));
     }
 
+    pendingSnapshotChunks.add(snapshotChunk.getChunkName());
+    pendingSnapshotBytes += snapshotChunk.getContent().length;
+    snapshotReplicationMetrics.observeReceivedBytes(snapshotChunk.getContent().length);
+
     // If the snapshot is complete, store the snapshot and reset state, otherwise update the next
     // snapshot offset.
     if (request.complete()) {
@@ -279,10 +304,13 @@ public class PassiveRole extends InactiveRole {
                     .build()));
       }
 
-      pendingSnapshot = null;
-      pendingSnapshotStartTimestamp = 0L;
       snapshotReplicationMetrics.decrementCount();
       snapshotReplicationMetrics.observeDuration(elapsed);
+      snapshotReplicationMetrics.observeThroughput(pendingSnapshotBytes, elapsed);
+      pendingSnapshot = null;
+      pendingSnapshotStartTimestamp = 0L;
+      pendingSnapshotChunks.clear();
+      pendingSnapshotBytes = 0;
     } else {
       setNextExpected(request.nextChunkId());
     }
@@ -370,6 +398,8 @@ public class PassiveRole extends InactiveRole {
       }
       pendingSnapshot = null;
       pendingSnapshotStartTimestamp = 0L;
+      pendingSnapshotChunks.clear();
+      pendingSnapshotBytes = 0;
 
       snapshotReplicationMetrics.decrementCount();
     }
@@ -520,17 +550,34 @@ public class PassiveRole extends InactiveRole {
       // the log.
       // Reset the log to the previous index plus one.
       if (request.prevLogTerm() == 0) {
+        appendFlusher.flushPending();
         log.debug("Reset first index to {}", request.prevLogIndex() + 1);
         raft.getLog().reset(request.prevLogIndex() + 1);
       }
 
       // Iterate through entries and append them.
-      for (final PersistedRaftRecord entry : request.entries()) {
+      final List<PersistedRaftRecord> entries = request.entries();
+      for (int i = 0; i < entries.size(); i++) {
+        final PersistedRaftRecord entry = entries.get(i);
         final long index = ++lastLogIndex;
 
         // Get the last entry written to the log by the writer.
         final IndexedRaftLogEntry lastEntry = raft.getLog().getLastEntry();
 
+        // Once the entries do not overlap with the log anymore, append the remaining ones at once
+        if (lastEntry == null || lastEntry.index() == index - 1) {
+          final long lastIndexToAppend = getLastIndexToAppend(request, index, commitIndex);
+          final List<PersistedRaftRecord> remainingEntries =
+              entries.subList(i, i + (int) (lastIndexToAppend - index + 1));
+          if (!appendEntries(index, remainingEntries, future)) {
+            flush(raft.getLog().getLastIndex(), request.prevLogIndex());
+            return;
+          }
+
+          lastLogIndex = lastIndexToAppend;
+          break;
+        }
+
         final boolean failedToAppend = tryToAppend(future, reader, entry, index, lastEntry);
         if (failedToAppend) {
           flush(lastLogIndex - 1, request.prevLogIndex());
@@ -556,10 +603,36 @@ public class PassiveRole extends InactiveRole {
     }
 
     // Make sure all entries are flushed before ack to ensure we have persisted what we acknowledge
-    flush(lastLogIndex, request.prevLogIndex());
+    final long acknowledgedIndex = lastLogIndex;
+    appendFlusher.flushAndAck(
+        acknowledgedIndex,
+        request.prevLogIndex(),
+        getEntriesSize(request),
+        () -> succeedAppend(acknowledgedIndex, future),
+        durableIndex -> respondAppend(false, durableIndex, future));
+  }
+
+  private static long getEntriesSize(final AppendRequest request) {
+    long size = 0;
+    for (final PersistedRaftRecord entry : request.entries()) {
+      size += entry.approximateSize();
+    }
+    return size;
+  }
 
-    // Return a successful append response.
-    succeedAppend(lastLogIndex, future);
+  /**
+   * Returns the index of the last entry of the request which should be appended, given that the
+   * entries from {@code nextIndex} on are appended at the end of the log. Passive members do not
+   * append beyond the commit index.
+   */
+  private long getLastIndexToAppend(
+      final AppendRequest request, final long nextIndex, final long commitIndex) {
+    final long lastEntryIndex = request.prevLogIndex() + request.entries().size();
+    if (!role().active() && commitIndex >= nextIndex && commitIndex < lastEntryIndex) {
+      return commitIndex;
+    }
+
+    return lastEntryIndex;
   }
 
   private void flush(final long lastWrittenIndex, final long previousEntryIndex) {
@@ -588,6 +661,7 @@ public class PassiveRole extends InactiveRole {
         // If the last entry term doesn't match the leader's term for the same entry, truncate
         // the log and append the leader's entry.
         if (lastEntry.term() != entry.term()) {
+          appendFlusher.flushPending();
           raft.getLog().deleteAfter(index - 1);
           raft.getLog().flush();
           raft.setLastWrittenIndex(index - 1);
@@ -640,6 +714,7 @@ public class PassiveRole extends InactiveRole {
     // truncate
     // the log and append the leader's entry.
     if (existingEntry.term() != entry.term()) {
+      appendFlusher.flushPending();
       raft.getLog().deleteAfter(index - 1);
       raft.getLog().flush();
       raft.setLastWrittenIndex(index - 1);
@@ -679,6 +754,36 @@ public class PassiveRole extends InactiveRole {
     return true;
   }
 
+  /**
+   * Attempts to append a contiguous run of entries at the end of the log, returning {@code false}
+   * if the append fails due to an {@link JournalException.OutOfDiskSpace} exception or an invalid
+   * entry. Entries before the failed one remain appended.
+   */
+  private boolean appendEntries(
+      final long firstIndex,
+      final List<PersistedRaftRecord> entries,
+      final CompletableFuture<AppendResponse> future) {
+    try {
+      final IndexedRaftLogEntry indexed = raft.getLog().appendBatch(entries);
+
+      log.trace("Appended {} entries from index {} to {}", entries.size(), firstIndex, indexed);
+      raft.getReplicationMetrics().setAppendIndex(indexed.index());
+    } catch (final JournalException.OutOfDiskSpace e) {
+      log.trace("Append failed: ", e);
+      raft.getLogCompactor().compact();
+      failAppend(raft.getLog().getLastIndex(), future);
+      return false;
+    } catch (final InvalidChecksum e) {
+      log.debug("Entry checksum doesn't match entry data: ", e);
+      failAppend(raft.getLog().getLastIndex(), future);
+      return false;
+    } catch (final InvalidIndex e) {
+      failAppend(raft.getLog().getLastIndex(), future);
+      return false;
+    }
+    return true;
+  }
+
   /**
    * Returns a failed append response.
    *
@@ -700,7 +805,8 @@ public class PassiveRole extends InactiveRole {
    */
   protected boolean succeedAppend(
       final long lastLogIndex, final CompletableFuture<AppendResponse> future) {
-    return completeAppend(true, lastLogIndex, future);
+    // only used to acknowledge appends, which the append flusher releases in order
+    return respondAppend(true, lastLogIndex, future);
   }
 
   /**
@@ -715,6 +821,15 @@ public class PassiveRole extends InactiveRole {
       final boolean succeeded,
       final long lastLogIndex,
       final CompletableFuture<AppendResponse> future) {
+    // must not overtake the acknowledgements which are held back until the next flush
+    appendFlusher.flushPending();
+    return respondAppend(succeeded, lastLogIndex, future);
+  }
+
+  private boolean respondAppend(
+      final boolean succeeded,
+      final long lastLogIndex,
+      final CompletableFuture<AppendResponse> future) {
     future.complete(
         logResponse(
             AppendResponse.builder()
@@ -54,8 +54,11 @@ public final class RaftStorage {
   private final int maxSegmentSize;
   private final long freeDiskSpace;
   private final boolean flushExplicitly;
+  private final boolean asyncFlush;
   private final ReceivableSnapshotStore persistedSnapshotStore;
   private final int journalIndexDensity;
+  private final int maxIdleMappedSegments;
+  private final boolean backgroundSegmentDeletion;
 
   private RaftStorage(
       final String prefix,
@@ -63,15 +66,21 @@ public final class RaftStorage {
       final int maxSegmentSize,
       final long freeDiskSpace,
       final boolean flushExplicitly,
+      final boolean asyncFlush,
       final ReceivableSnapshotStore persistedSnapshotStore,
-      final int journalIndexDensity) {
+      final int journalIndexDensity,
+      final int maxIdleMappedSegments,
+      final boolean backgroundSegmentDeletion) {
     this.prefix = prefix;
     this.directory = directory;
     this.maxSegmentSize = maxSegmentSize;
     this.freeDiskSpace = freeDiskSpace;
     this.flushExplicitly = flushExplicitly;
+    this.asyncFlush = asyncFlush;
     this.persistedSnapshotStore = persistedSnapshotStore;
     this.journalIndexDensity = journalIndexDensity;
+    this.maxIdleMappedSegments = maxIdleMappedSegments;
+    this.backgroundSegmentDeletion = backgroundSegmentDeletion;
 
     IoUtil.ensureDirectoryExists(directory, prefix + " raft partition storage");
   }
@@ -164,7 +173,10 @@ public final class RaftStorage {
         .withMaxSegmentSize(maxSegmentSize)
         .withFreeDiskSpace(freeDiskSpace)
         .withFlushExplicitly(flushExplicitly)
+        .withAsyncFlush(asyncFlush)
         .withJournalIndexDensity(journalIndexDensity)
+        .withMaxIdleMappedSegments(maxIdleMappedSegments)
+        .withBackgroundSegmentDeletion(backgroundSegmentDeletion)
         .withLastWrittenIndex(lastWrittenIndex)
         .build();
   }
@@ -211,15 +223,21 @@ public final class RaftStorage {
     private static final int DEFAULT_MAX_SEGMENT_SIZE = 1024 * 1024 * 32;
     private static final long DEFAULT_FREE_DISK_SPACE = 1024L * 1024 * 1024;
     private static final boolean DEFAULT_FLUSH_EXPLICITLY = true;
+    private static final boolean DEFAULT_ASYNC_FLUSH = false;
     private static final int DEFAULT_JOURNAL_INDEX_DENSITY = 100;
+    private static final int DEFAULT_MAX_IDLE_MAPPED_SEGMENTS = Integer.MAX_VALUE;
+    private static final boolean DEFAULT_BACKGROUND_SEGMENT_DELETION = false;
 
     private String prefix = DEFAULT_PREFIX;
     private File directory = new File(DEFAULT_DIRECTORY);
     private int maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
     private long freeDiskSpace = DEFAULT_FREE_DISK_SPACE;
     private boolean flushExplicitly = DEFAULT_FLUSH_EXPLICITLY;
+    private boolean asyncFlush = DEFAULT_ASYNC_FLUSH;
     private ReceivableSnapshotStore persistedSnapshotStore;
     private int journalIndexDensity = DEFAULT_JOURNAL_INDEX_DENSITY;
+    private int maxIdleMappedSegments = DEFAULT_MAX_IDLE_MAPPED_SEGMENTS;
+    private boolean backgroundSegmentDeletion = DEFAULT_BACKGROUND_SEGMENT_DELETION;
 
     private Builder() {}
 
@@ -294,6 +312,19 @@ public final class RaftStorage {
       return this;
     }
 
+    /**
+     * Sets whether explicit flushes are done in the background. If true, the leader starts flushing
+     * entries as soon as they are appended, in parallel with replicating them, and only commits
+     * entries once they are flushed locally. Has no effect if the log is not flushed explicitly.
+     *
+     * @param asyncFlush whether to flush buffers to disk in the background
+     * @return the storage builder.
+     */
+    public Builder withAsyncFlush(final boolean asyncFlush) {
+      this.asyncFlush = asyncFlush;
+      return this;
+    }
+
     /**
      * Sets the snapshot store to use for remote snapshot installation.
      *
@@ -310,6 +341,31 @@ public final class RaftStorage {
       return this;
     }
 
+    /**
+     * Sets the maximum number of log segments which stay memory-mapped while they are not used. By
+     * default, all segments stay mapped.
+     *
+     * @param maxIdleMappedSegments the maximum number of mapped segments which are not in use
+     * @return the storage builder
+     */
+    public Builder withMaxIdleMappedSegments(final int maxIdleMappedSegments) {
+      checkArgument(maxIdleMappedSegments >= 0, "maxIdleMappedSegments must not be negative");
+      this.maxIdleMappedSegments = maxIdleMappedSegments;
+      return this;
+    }
+
+    /**
+     * Sets whether compacted log segments are deleted in the background, once no reader uses them
+     * anymore, instead of while compacting the log.
+     *
+     * @param backgroundSegmentDeletion whether to delete compacted segments in the background
+     * @return the storage builder
+     */
+    public Builder withBackgroundSegmentDeletion(final boolean backgroundSegmentDeletion) {
+      this.backgroundSegmentDeletion = backgroundSegmentDeletion;
+      return this;
+    }
+
     /**
      * Builds the {@link RaftStorage} object.
      *
@@ -323,8 +379,11 @@ public final class RaftStorage {
           maxSegmentSize,
           freeDiskSpace,
           flushExplicitly,
+          asyncFlush,
           persistedSnapshotStore,
-          journalIndexDensity);
+          journalIndexDensity,
+          maxIdleMappedSegments,
+          backgroundSegmentDeletion);
     }
   }
 }
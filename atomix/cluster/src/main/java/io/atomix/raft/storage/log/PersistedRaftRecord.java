@@ -24,7 +24,7 @@ public class PersistedRaftRecord implements JournalRecord {
   private final long index;
   private final long asqn;
   private final long checksum;
-  private final byte[] serializedRaftLogEntry;
+  private final DirectBuffer serializedRaftLogEntry;
   private final long term;
 
   public PersistedRaftRecord(
@@ -33,6 +33,19 @@ public class PersistedRaftRecord implements JournalRecord {
       final long asqn,
       final long checksum,
       final byte[] serializedRaftLogEntry) {
+    this(term, index, asqn, checksum, new UnsafeBuffer(serializedRaftLogEntry));
+  }
+
+  /**
+   * Creates a record whose data is the given buffer. The buffer is not copied, so it must not be
+   * modified as long as the record is used, e.g. when it is a view on a received message.
+   */
+  public PersistedRaftRecord(
+      final long term,
+      final long index,
+      final long asqn,
+      final long checksum,
+      final DirectBuffer serializedRaftLogEntry) {
     this.index = index;
     this.asqn = asqn;
     this.checksum = checksum;
@@ -57,7 +70,7 @@ public class PersistedRaftRecord implements JournalRecord {
 
   @Override
   public DirectBuffer data() {
-    return new UnsafeBuffer(serializedRaftLogEntry);
+    return serializedRaftLogEntry;
   }
 
   /**
@@ -67,7 +80,7 @@ public class PersistedRaftRecord implements JournalRecord {
    * @return approximate size
    */
   public int approximateSize() {
-    return serializedRaftLogEntry.length + Long.BYTES + Long.BYTES + Long.BYTES;
+    return serializedRaftLogEntry.capacity() + Long.BYTES + Long.BYTES + Long.BYTES;
   }
 
   /**
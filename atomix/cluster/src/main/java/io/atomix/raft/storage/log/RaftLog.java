@@ -23,9 +23,11 @@ import io.atomix.raft.storage.log.entry.InitialEntry;
 import io.atomix.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.raft.storage.serializer.RaftEntrySBESerializer;
 import io.atomix.raft.storage.serializer.RaftEntrySerializer;
+import io.camunda.zeebe.journal.DurableIndexListener;
 import io.camunda.zeebe.journal.Journal;
 import io.camunda.zeebe.journal.JournalRecord;
 import java.io.Closeable;
+import java.util.List;
 import org.agrona.CloseHelper;
 import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
@@ -36,15 +38,17 @@ public final class RaftLog implements Closeable {
   private final Journal journal;
   private final RaftEntrySerializer serializer = new RaftEntrySBESerializer();
   private final boolean flushExplicitly;
+  private final boolean asyncFlush;
 
   private IndexedRaftLogEntry lastAppendedEntry;
   private volatile long commitIndex;
 
   private final MutableDirectBuffer writeBuffer = new ExpandableArrayBuffer(4 * 1024);
 
-  RaftLog(final Journal journal, final boolean flushExplicitly) {
+  RaftLog(final Journal journal, final boolean flushExplicitly, final boolean asyncFlush) {
     this.journal = journal;
     this.flushExplicitly = flushExplicitly;
+    this.asyncFlush = asyncFlush;
   }
 
   /**
@@ -113,6 +117,17 @@ public final class RaftLog implements Closeable {
     return flushExplicitly;
   }
 
+  /**
+   * Returns whether {@link #flushAsync()} flushes in the background, such that entries can be
+   * replicated while they are flushed. The durable index listeners are then notified from a
+   * different thread.
+   *
+   * @return true if the log is flushed explicitly and in the background
+   */
+  public boolean shouldFlushAsync() {
+    return flushExplicitly && asyncFlush;
+  }
+
   public long getFirstIndex() {
     return journal.getFirstIndex();
   }
@@ -178,6 +193,33 @@ public final class RaftLog implements Closeable {
     return lastAppendedEntry;
   }
 
+  /**
+   * Appends a contiguous run of replicated entries, which is cheaper than appending them one by
+   * one. If an entry cannot be appended, the entries before it remain appended and the exception is
+   * rethrown; {@link #getLastIndex()} then returns the index of the last appended entry.
+   *
+   * @param entries the entries to append, in order of their index
+   * @return the last appended entry
+   */
+  public IndexedRaftLogEntry appendBatch(final List<PersistedRaftRecord> entries) {
+    if (entries.isEmpty()) {
+      return getLastEntry();
+    }
+
+    try {
+      journal.append(entries);
+    } catch (final RuntimeException e) {
+      // some entries may have been appended, so the last entry has to be read again
+      lastAppendedEntry = null;
+      throw e;
+    }
+
+    final PersistedRaftRecord lastEntry = entries.get(entries.size() - 1);
+    final RaftLogEntry raftEntry = serializer.readRaftLogEntry(lastEntry.data());
+    lastAppendedEntry = new IndexedRaftLogEntryImpl(lastEntry.term(), raftEntry.entry(), lastEntry);
+    return lastAppendedEntry;
+  }
+
   public void reset(final long index) {
     journal.reset(index);
     lastAppendedEntry = null;
@@ -200,6 +242,41 @@ public final class RaftLog implements Closeable {
     }
   }
 
+  /**
+   * Requests the log to be flushed without waiting for the flush to complete. Once flushed, {@link
+   * #getDurableIndex()} is updated and the durable index listeners are notified, possibly from a
+   * different thread.
+   */
+  public void flushAsync() {
+    if (flushExplicitly) {
+      journal.flushAsync();
+    }
+  }
+
+  /**
+   * Returns the index up to which all entries are persisted. If the log is not flushed explicitly,
+   * every appended entry is considered persisted.
+   *
+   * @return the durable index
+   */
+  public long getDurableIndex() {
+    return flushExplicitly ? journal.getDurableIndex() : journal.getLastIndex();
+  }
+
+  /**
+   * Adds a listener which is notified whenever the durable index advances. Note that it may be
+   * called from a different thread than the raft thread.
+   *
+   * @param listener the listener to add
+   */
+  public void addDurableIndexListener(final DurableIndexListener listener) {
+    journal.addDurableIndexListener(listener);
+  }
+
+  public void removeDurableIndexListener(final DurableIndexListener listener) {
+    journal.removeDurableIndexListener(listener);
+  }
+
   @Override
   public void close() {
     CloseHelper.close(journal);
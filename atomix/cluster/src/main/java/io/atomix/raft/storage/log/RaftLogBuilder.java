@@ -24,6 +24,7 @@ public class RaftLogBuilder implements io.atomix.utils.Builder<RaftLog> {
 
   private final SegmentedJournalBuilder journalBuilder = SegmentedJournal.builder();
   private boolean flushExplicitly = true;
+  private boolean asyncFlush = false;
 
   protected RaftLogBuilder() {}
 
@@ -113,6 +114,52 @@ public class RaftLogBuilder implements io.atomix.utils.Builder<RaftLog> {
     return this;
   }
 
+  /**
+   * Sets whether the log is flushed asynchronously on a dedicated thread when calling {@link
+   * RaftLog#flushAsync()}, returning the builder for method chaining.
+   *
+   * <p>When enabled, concurrent flush requests are coalesced into a single flush, and the durable
+   * index listeners are notified from the flusher thread.
+   *
+   * @param asyncFlush whether to flush on a dedicated thread
+   * @return this builder for chaining
+   */
+  public RaftLogBuilder withAsyncFlush(final boolean asyncFlush) {
+    this.asyncFlush = asyncFlush;
+    journalBuilder.withAsyncFlush(asyncFlush);
+    return this;
+  }
+
+  /**
+   * Sets whether compacted segments are deleted on a dedicated thread, returning the builder for
+   * method chaining.
+   *
+   * <p>When enabled, compacting the log only detaches the segments, which are deleted once no
+   * reader is open on them anymore.
+   *
+   * @param backgroundSegmentDeletion whether to delete compacted segments in the background
+   * @return this builder for chaining
+   */
+  public RaftLogBuilder withBackgroundSegmentDeletion(final boolean backgroundSegmentDeletion) {
+    journalBuilder.withBackgroundSegmentDeletion(backgroundSegmentDeletion);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of segments which stay memory-mapped while they are not used, returning
+   * the builder for method chaining.
+   *
+   * <p>When bounded, the least recently used idle segments are unmapped, and the data of the
+   * records read from or appended to the log is copied. By default, all segments stay mapped.
+   *
+   * @param maxIdleMappedSegments the maximum number of mapped segments which are not in use
+   * @return this builder for chaining
+   */
+  public RaftLogBuilder withMaxIdleMappedSegments(final int maxIdleMappedSegments) {
+    journalBuilder.withMaxIdleMappedSegments(maxIdleMappedSegments);
+    return this;
+  }
+
   public RaftLogBuilder withLastWrittenIndex(final long lastWrittenIndex) {
     journalBuilder.withLastWrittenIndex(lastWrittenIndex);
     return this;
@@ -121,6 +168,6 @@ public class RaftLogBuilder implements io.atomix.utils.Builder<RaftLog> {
   @Override
   public RaftLog build() {
     final Journal journal = journalBuilder.build();
-    return new RaftLog(journal, flushExplicitly);
+    return new RaftLog(journal, flushExplicitly, asyncFlush);
   }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.storage.log;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import io.atomix.raft.storage.log.entry.ApplicationEntry;
+import io.atomix.raft.storage.log.entry.RaftEntry;
+import java.util.Arrays;
+
+/**
+ * A ring buffer of the entries most recently appended by the leader, bounded by their serialized
+ * size and shared by the appenders of all followers. Every entry is serialized once when it is
+ * added, such that followers close to the head of the log are served from memory instead of each
+ * reading and copying the entry from the journal.
+ *
+ * <p>The cached entries always form a contiguous range of indexes; adding an entry which does not
+ * directly follow the last cached one clears the cache first. The cache is not thread safe, and
+ * must only be accessed from the raft thread.
+ */
+public final class RaftLogEntryCache {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final long maxBytes;
+  private CachedEntry[] entries = new CachedEntry[INITIAL_CAPACITY];
+  private int head;
+  private int size;
+  private long firstIndex;
+  private long bytes;
+
+  /**
+   * @param maxBytes the maximum serialized size of all cached entries; if 0, no entries are cached
+   */
+  public RaftLogEntryCache(final long maxBytes) {
+    checkArgument(maxBytes >= 0, "maxBytes must be positive or zero");
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Adds the given entry as the most recent one, evicting the oldest entries if the cache would
+   * exceed its maximum size otherwise. Entries bigger than the cache itself are not cached.
+   *
+   * @param entry the entry which was appended to the log
+   */
+  public void put(final IndexedRaftLogEntry entry) {
+    if (maxBytes == 0) {
+      return;
+    }
+
+    if (size > 0 && entry.index() != firstIndex + size) {
+      clear();
+    }
+
+    final PersistedRaftRecord record = entry.getPersistedRaftRecord();
+    final int entryBytes = record.approximateSize();
+    if (entryBytes > maxBytes) {
+      clear();
+      return;
+    }
+
+    while (bytes + entryBytes > maxBytes) {
+      evictFirst();
+    }
+
+    ensureCapacity();
+    if (size == 0) {
+      firstIndex = entry.index();
+    }
+
+    entries[(head + size) & (entries.length - 1)] = new CachedEntry(entry, record, entryBytes);
+    size++;
+    bytes += entryBytes;
+  }
+
+  /**
+   * Returns the cached entry with the given index.
+   *
+   * @param index the index of the entry
+   * @return the cached entry, or null if the entry is not cached
+   */
+  public IndexedRaftLogEntry get(final long index) {
+    if (index < firstIndex || index >= firstIndex + size) {
+      return null;
+    }
+
+    return entries[(head + (int) (index - firstIndex)) & (entries.length - 1)];
+  }
+
+  /** Removes all entries from the cache. */
+  public void clear() {
+    Arrays.fill(entries, null);
+    head = 0;
+    size = 0;
+    firstIndex = 0;
+    bytes = 0;
+  }
+
+  /** @return the number of cached entries */
+  public int size() {
+    return size;
+  }
+
+  /** @return the serialized size of all cached entries */
+  public long getBytes() {
+    return bytes;
+  }
+
+  private void evictFirst() {
+    bytes -= entries[head].bytes;
+    entries[head] = null;
+    head = (head + 1) & (entries.length - 1);
+    size--;
+    firstIndex++;
+  }
+
+  private void ensureCapacity() {
+    if (size < entries.length) {
+      return;
+    }
+
+    final CachedEntry[] grown = new CachedEntry[entries.length * 2];
+    for (int i = 0; i < size; i++) {
+      grown[i] = entries[(head + i) & (entries.length - 1)];
+    }
+
+    entries = grown;
+    head = 0;
+  }
+
+  /** An entry whose record is serialized once and then shared by all readers. */
+  private static final class CachedEntry implements IndexedRaftLogEntry {
+
+    private final long index;
+    private final long term;
+    private final RaftEntry entry;
+    private final PersistedRaftRecord record;
+    private final int bytes;
+
+    private CachedEntry(
+        final IndexedRaftLogEntry entry, final PersistedRaftRecord record, final int bytes) {
+      index = entry.index();
+      term = entry.term();
+      this.entry = entry.entry();
+      this.record = record;
+      this.bytes = bytes;
+    }
+
+    @Override
+    public long index() {
+      return index;
+    }
+
+    @Override
+    public long term() {
+      return term;
+    }
+
+    @Override
+    public RaftEntry entry() {
+      return entry;
+    }
+
+    @Override
+    public boolean isApplicationEntry() {
+      return entry instanceof ApplicationEntry;
+    }
+
+    @Override
+    public ApplicationEntry getApplicationEntry() {
+      return (ApplicationEntry) entry;
+    }
+
+    @Override
+    public PersistedRaftRecord getPersistedRaftRecord() {
+      return record;
+    }
+
+    @Override
+    public String toString() {
+      return toStringHelper(this)
+          .add("index", index)
+          .add("term", term)
+          .add("entry", entry)
+          .toString();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.atomix.cluster.messaging.ChannelSelectionStrategy;
+import io.atomix.utils.net.Address;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.After;
+import org.junit.Test;
+
+public class ChannelPoolTest {
+
+  // with a pool size of 2, the subjects are mapped to different channels
+  private static final String SUBJECT = "a";
+  private static final String OTHER_SUBJECT = "b";
+
+  private final Address address = Address.from("localhost", 26502);
+  private final List<EmbeddedChannel> channels = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    channels.forEach(EmbeddedChannel::finishAndReleaseAll);
+  }
+
+  @Test
+  public void shouldKeepSubjectOnItsChannel() {
+    // given
+    final ChannelPool pool = newPool(ChannelSelectionStrategy.SUBJECT);
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    pool.getChannel(address, OTHER_SUBJECT).join();
+
+    // when
+    addPendingWrite(channel);
+
+    // then
+    assertThat(pool.getChannel(address, SUBJECT).join()).isSameAs(channel);
+  }
+
+  @Test
+  public void shouldUseChannelOfSubjectIfIdle() {
+    // given
+    final ChannelPool pool = newPool(ChannelSelectionStrategy.LEAST_LOADED);
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    final Channel otherChannel = pool.getChannel(address, OTHER_SUBJECT).join();
+
+    // when
+    final Channel selected = pool.getChannel(address, SUBJECT).join();
+
+    // then
+    assertThat(selected).isSameAs(channel).isNotSameAs(otherChannel);
+    assertThat(channels).hasSize(2);
+  }
+
+  @Test
+  public void shouldUseLeastLoadedChannelIfChannelOfSubjectIsBusy() {
+    // given
+    final ChannelPool pool = newPool(ChannelSelectionStrategy.LEAST_LOADED);
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    final Channel otherChannel = pool.getChannel(address, OTHER_SUBJECT).join();
+
+    // when
+    addPendingWrite(channel);
+
+    // then
+    assertThat(pool.getChannel(address, SUBJECT).join()).isSameAs(otherChannel);
+  }
+
+  @Test
+  public void shouldKeepChannelOfSubjectIfOthersAreBusier() {
+    // given
+    final ChannelPool pool = newPool(ChannelSelectionStrategy.LEAST_LOADED);
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    final Channel otherChannel = pool.getChannel(address, OTHER_SUBJECT).join();
+
+    // when
+    addPendingWrite(channel);
+    addPendingWrite(otherChannel);
+    addPendingWrite(otherChannel);
+
+    // then
+    assertThat(pool.getChannel(address, SUBJECT).join()).isSameAs(channel);
+  }
+
+  @Test
+  public void shouldKeepChannelOfSubjectWhichIsNotReroutable() {
+    // given
+    final ChannelPool pool =
+        new ChannelPool(this::openChannel, 2, ChannelSelectionStrategy.LEAST_LOADED, List.of());
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    pool.getChannel(address, OTHER_SUBJECT).join();
+
+    // when
+    addPendingWrite(channel);
+
+    // then
+    assertThat(pool.getChannel(address, SUBJECT).join()).isSameAs(channel);
+  }
+
+  @Test
+  public void shouldUseLeastLoadedChannelIfChannelOfSubjectIsNotWritable() {
+    // given
+    final ChannelPool pool = newPool(ChannelSelectionStrategy.LEAST_LOADED);
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    final Channel otherChannel = pool.getChannel(address, OTHER_SUBJECT).join();
+
+    // when
+    channel.write(Unpooled.wrappedBuffer(new byte[channel.config().getWriteBufferHighWaterMark()]));
+    addPendingWrite(otherChannel);
+
+    // then
+    assertThat(channel.isWritable()).isFalse();
+    assertThat(pool.getChannel(address, SUBJECT).join()).isSameAs(otherChannel);
+  }
+
+  @Test
+  public void shouldOpenUnusedChannelsIfChannelOfSubjectIsBusy() {
+    // given
+    final ChannelPool pool = newPool(ChannelSelectionStrategy.LEAST_LOADED);
+    final Channel channel = pool.getChannel(address, SUBJECT).join();
+    addPendingWrite(channel);
+
+    // when
+    pool.getChannel(address, SUBJECT).join();
+
+    // then
+    assertThat(channels).hasSize(2);
+    assertThat(pool.getChannel(address, SUBJECT).join()).isSameAs(channels.get(1));
+  }
+
+  private ChannelPool newPool(final ChannelSelectionStrategy strategy) {
+    return new ChannelPool(this::openChannel, 2, strategy, List.of(SUBJECT, OTHER_SUBJECT));
+  }
+
+  private CompletableFuture<Channel> openChannel(final Address address) {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    channels.add(channel);
+    return CompletableFuture.completedFuture(channel);
+  }
+
+  private void addPendingWrite(final Channel channel) {
+    // writes without flushing remain in the outbound buffer of the channel
+    channel.write(Unpooled.wrappedBuffer(new byte[1024]));
+  }
+}
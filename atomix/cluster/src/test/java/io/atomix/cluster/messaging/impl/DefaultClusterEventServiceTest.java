@@ -40,11 +40,14 @@ import io.atomix.utils.Version;
 import io.atomix.utils.net.Address;
 import io.atomix.utils.serializer.Namespaces;
 import io.atomix.utils.serializer.Serializer;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -88,6 +91,11 @@ public class DefaultClusterEventServiceTest {
 
   private ClusterEventService buildServices(
       final int memberId, final Collection<Node> bootstrapLocations) {
+    return buildServices(memberId, bootstrapLocations, Duration.ZERO);
+  }
+
+  private ClusterEventService buildServices(
+      final int memberId, final Collection<Node> bootstrapLocations, final Duration batchingDelay) {
 
     final Member localMember = buildNode(memberId);
     final MessagingService messagingService =
@@ -109,7 +117,7 @@ public class DefaultClusterEventServiceTest {
     final ClusterMembershipService clusterMembershipService =
         managedClusterMembershipService.start().join();
     final ManagedClusterEventService clusterEventingService1 =
-        new DefaultClusterEventService(clusterMembershipService, messagingService);
+        new DefaultClusterEventService(clusterMembershipService, messagingService, batchingDelay);
     managedEventService.put(memberId, clusterEventingService1);
     return clusterEventingService1.start().join();
   }
@@ -395,4 +403,91 @@ public class DefaultClusterEventServiceTest {
     awaitCompletion.await(10, TimeUnit.SECONDS);
     assertEquals("bar", received.get());
   }
+
+  @Test
+  public void shouldRemoveSubscriberAfterItUnsubscribed() throws InterruptedException {
+    // given
+    membersDiscovered = new CountDownLatch(4);
+    final Collection<Node> bootstrapLocations = buildBootstrapNodes(2);
+    final ClusterEventService eventService1 = buildServices(1, bootstrapLocations);
+    final ClusterEventService eventService2 = buildServices(2, bootstrapLocations);
+    membersDiscovered.await();
+
+    final String topic = "test-topic";
+    final var subscription =
+        eventService1
+            .<String>subscribe(
+                topic, SERIALIZER::decode, message -> {}, MoreExecutors.directExecutor())
+            .join();
+    waitUntil(() -> eventService2.getSubscribers(topic).contains(MemberId.from("1")));
+
+    // when
+    subscription.close().join();
+
+    // then
+    waitUntil(() -> !eventService2.getSubscribers(topic).contains(MemberId.from("1")));
+  }
+
+  @Test
+  public void shouldOnlyAdvertiseLocallySubscribedTopics() throws InterruptedException {
+    // given
+    membersDiscovered = new CountDownLatch(4);
+    final Collection<Node> bootstrapLocations = buildBootstrapNodes(2);
+    final ClusterEventService eventService1 = buildServices(1, bootstrapLocations);
+    final ClusterEventService eventService2 = buildServices(2, bootstrapLocations);
+    membersDiscovered.await();
+
+    final String topic1 = "test-topic1";
+    final String topic2 = "test-topic2";
+    eventService1
+        .<String>subscribe(
+            topic1, SERIALIZER::decode, message -> {}, MoreExecutors.directExecutor())
+        .join();
+    waitUntil(() -> eventService2.getSubscribers(topic1).contains(MemberId.from("1")));
+
+    // when
+    eventService2
+        .<String>subscribe(
+            topic2, SERIALIZER::decode, message -> {}, MoreExecutors.directExecutor())
+        .join();
+
+    // then
+    waitUntil(() -> eventService1.getSubscribers(topic2).contains(MemberId.from("2")));
+    assertThat(eventService1.getSubscribers(topic1)).doesNotContain(MemberId.from("2"));
+  }
+
+  @Test
+  public void shouldBroadcastBatchedEvents() throws InterruptedException {
+    // given
+    membersDiscovered = new CountDownLatch(4);
+    final Collection<Node> bootstrapLocations = buildBootstrapNodes(2);
+    final ClusterEventService eventService1 = buildServices(1, bootstrapLocations);
+    final ClusterEventService eventService2 =
+        buildServices(2, bootstrapLocations, Duration.ofMillis(50));
+    membersDiscovered.await();
+    final List<String> events = new CopyOnWriteArrayList<>();
+    final CountDownLatch latch = new CountDownLatch(3);
+
+    final String topic = "test-topic";
+    eventService1
+        .<String>subscribe(
+            topic,
+            SERIALIZER::decode,
+            message -> {
+              events.add(message);
+              latch.countDown();
+            },
+            MoreExecutors.directExecutor())
+        .join();
+    waitUntil(() -> eventService2.getSubscribers(topic).contains(MemberId.from("1")));
+
+    // when
+    eventService2.broadcast(topic, "a", SERIALIZER::encode);
+    eventService2.broadcast(topic, "b", SERIALIZER::encode);
+    eventService2.broadcast(topic, "c", SERIALIZER::encode);
+
+    // then
+    assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+    assertThat(events).containsExactly("a", "b", "c");
+  }
 }
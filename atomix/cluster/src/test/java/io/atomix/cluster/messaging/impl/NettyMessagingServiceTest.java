@@ -17,6 +17,7 @@
 package io.atomix.cluster.messaging.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -32,6 +33,9 @@ import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.utils.net.Address;
 import io.camunda.zeebe.test.util.socket.SocketUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.prometheus.client.CollectorRegistry;
 import java.net.ConnectException;
 import java.time.Duration;
 import java.util.Arrays;
@@ -116,6 +120,12 @@ public class NettyMessagingServiceTest {
     invalidAddress = Address.from(IP_STRING, 5007);
   }
 
+  private ByteBuf pooledBuffer(final String content) {
+    final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer();
+    buffer.writeBytes(content.getBytes());
+    return buffer;
+  }
+
   /**
    * Returns a random String to be used as a test subject.
    *
@@ -331,6 +341,68 @@ public class NettyMessagingServiceTest {
     }
   }
 
+  @Test
+  public void shouldSendAndReceivePooledBuffers() throws Exception {
+    // given
+    final String subject = nextSubject();
+    final ByteBuf request = pooledBuffer("hello world");
+    final ByteBuf reply = pooledBuffer("hello there");
+    final AtomicReference<byte[]> receivedRequest = new AtomicReference<>();
+    netty2.registerBufferHandler(
+        subject,
+        (address, payload) -> {
+          receivedRequest.set(payload);
+          return CompletableFuture.completedFuture(reply);
+        });
+
+    // when
+    final byte[] response =
+        netty1
+            .sendAndReceive(address2, subject, request, true, Duration.ofSeconds(5))
+            .get(10, TimeUnit.SECONDS);
+
+    // then
+    assertArrayEquals("hello there".getBytes(), response);
+    assertArrayEquals("hello world".getBytes(), receivedRequest.get());
+    assertThat(request.refCnt()).isZero();
+    assertThat(reply.refCnt()).isZero();
+  }
+
+  @Test
+  public void shouldSendPooledBufferToLocalHandler() throws Exception {
+    // given
+    final String subject = nextSubject();
+    final ByteBuf request = pooledBuffer("hello world");
+    final ByteBuf reply = pooledBuffer("hello there");
+    netty1.registerBufferHandler(
+        subject, (address, payload) -> CompletableFuture.completedFuture(reply));
+
+    // when
+    final byte[] response =
+        netty1
+            .sendAndReceive(address1, subject, request, true, Duration.ofSeconds(5))
+            .get(10, TimeUnit.SECONDS);
+
+    // then
+    assertArrayEquals("hello there".getBytes(), response);
+    assertThat(request.refCnt()).isZero();
+    assertThat(reply.refCnt()).isZero();
+  }
+
+  @Test
+  public void shouldReleasePooledBufferIfNotSent() {
+    // given
+    final ByteBuf request = pooledBuffer("hello world");
+
+    // when
+    final CompletableFuture<Void> response =
+        netty1.sendAsync(invalidAddress, nextSubject(), request, true);
+
+    // then
+    assertThatThrownBy(response::join).hasRootCauseInstanceOf(ConnectException.class);
+    assertThat(request.refCnt()).isZero();
+  }
+
   @Test
   public void testSendAndReceiveWithDynamicTimeout() {
     final String subject = nextSubject();
@@ -428,6 +500,67 @@ public class NettyMessagingServiceTest {
     assertArrayEquals(payload, response);
   }
 
+  @Test
+  public void shouldSendAndReceiveCompressedPayloads() throws Exception {
+    // given
+    final var sender = startCompressingService(ProtocolVersion.V3);
+    final var receiver = startCompressingService(ProtocolVersion.V3);
+    final String subject = nextSubject();
+    final byte[] payload = "Hello world!".repeat(1000).getBytes();
+    receiver.registerHandler(subject, (address, bytes) -> CompletableFuture.completedFuture(bytes));
+    final double decompressedBytes = getDecompressedBytes();
+
+    try {
+      // when
+      final byte[] response =
+          sender.sendAndReceive(receiver.address(), subject, payload).get(10, TimeUnit.SECONDS);
+
+      // then - both the request and the response were compressed
+      assertArrayEquals(payload, response);
+      assertThat(getDecompressedBytes() - decompressedBytes).isEqualTo(2.0 * payload.length);
+    } finally {
+      sender.stop().join();
+      receiver.stop().join();
+    }
+  }
+
+  @Test
+  public void shouldNotCompressPayloadsForOlderProtocolVersion() throws Exception {
+    // given
+    final var sender = startCompressingService(ProtocolVersion.V3);
+    final String subject = nextSubject();
+    final byte[] payload = "Hello world!".repeat(1000).getBytes();
+    nettyv21.registerHandler(subject, (address, bytes) -> CompletableFuture.completedFuture(bytes));
+
+    try {
+      // when
+      final byte[] response =
+          sender.sendAndReceive(addressv21, subject, payload).get(10, TimeUnit.SECONDS);
+
+      // then
+      assertArrayEquals(payload, response);
+    } finally {
+      sender.stop().join();
+    }
+  }
+
+  private double getDecompressedBytes() {
+    final Double value =
+        CollectorRegistry.defaultRegistry.getSampleValue(
+            "atomix_messaging_compression_uncompressed_bytes_total",
+            new String[] {"operation"},
+            new String[] {"decompress"});
+    return value == null ? 0 : value;
+  }
+
+  private ManagedMessagingService startCompressingService(final ProtocolVersion version) {
+    final MessagingConfig config =
+        new MessagingConfig().setCompressionEnabled(true).setCompressionThreshold(0);
+    final Address address = Address.from(SocketUtil.getNextAddress().getPort());
+    return (ManagedMessagingService)
+        new NettyMessagingService("test", address, config, version).start().join();
+  }
+
   @Test
   public void shouldNotBindToAdvertisedAddress() {
     // given
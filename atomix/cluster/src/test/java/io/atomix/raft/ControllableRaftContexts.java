@@ -159,6 +159,8 @@ public final class ControllableRaftContexts {
             getRaftThreadContextFactory(memberId),
             32 * 1024, // Copied from defaults
             2, // Copied from defaults
+            false, // Copied from defaults
+            4 * 1024 * 1024, // Copied from defaults
             () -> random);
     raft.setEntryValidator(new NoopEntryValidator());
     return raft;
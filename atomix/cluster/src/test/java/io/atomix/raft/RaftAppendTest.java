@@ -39,7 +39,9 @@ public class RaftAppendTest {
       new Object[] {RaftRule.withBootstrappedNodes(2)},
       new Object[] {RaftRule.withBootstrappedNodes(3)},
       new Object[] {RaftRule.withBootstrappedNodes(4)},
-      new Object[] {RaftRule.withBootstrappedNodes(5)}
+      new Object[] {RaftRule.withBootstrappedNodes(5)},
+      new Object[] {RaftRule.withBootstrappedNodes(1).setAsyncFlush(true)},
+      new Object[] {RaftRule.withBootstrappedNodes(3).setAsyncFlush(true)}
     };
   }
 
@@ -89,6 +89,8 @@ public final class RaftRule extends ExternalResource {
   private final Map<String, AtomicReference<CountDownLatch>> compactAwaiters = new HashMap<>();
   private long position;
   private EntryValidator entryValidator = new NoopEntryValidator();
+  private int maxSnapshotChunksPerFollower = 1;
+  private boolean asyncFlush;
   // Keep a reference to the snapshots to ensure they are persisted across the restarts.
   private Map<String, AtomicReference<InMemorySnapshot>> snapshots;
   private Map<String, TestSnapshotStore> snapshotStores;
@@ -113,6 +115,16 @@ public final class RaftRule extends ExternalResource {
     return this;
   }
 
+  public RaftRule setMaxSnapshotChunksPerFollower(final int maxSnapshotChunksPerFollower) {
+    this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+    return this;
+  }
+
+  public RaftRule setAsyncFlush(final boolean asyncFlush) {
+    this.asyncFlush = asyncFlush;
+    return this;
+  }
+
   @Override
   public Statement apply(final Statement base, final Description description) {
     final var statement = super.apply(base, description);
@@ -446,7 +458,8 @@ public final class RaftRule extends ExternalResource {
         RaftServer.builder(memberId)
             .withMembershipService(mock(ClusterMembershipService.class))
             .withProtocol(protocol)
-            .withEntryValidator(entryValidator);
+            .withEntryValidator(entryValidator)
+            .withMaxSnapshotChunksPerFollower(maxSnapshotChunksPerFollower);
     final RaftServer server = configurator.apply(defaults).build();
 
     servers.put(memberId.id(), server);
@@ -477,6 +490,7 @@ public final class RaftRule extends ExternalResource {
             .withDirectory(memberDirectory)
             .withMaxSegmentSize(1024 * 10)
             .withFreeDiskSpace(100)
+            .withAsyncFlush(asyncFlush)
             .withSnapshotStore(
                 snapshotStores.compute(
                     memberId.id(),
@@ -552,7 +566,7 @@ public final class RaftRule extends ExternalResource {
 
   @Override
   public String toString() {
-    return "RaftRule with " + nodeCount + " nodes.";
+    return "RaftRule with " + nodeCount + " nodes" + (asyncFlush ? " flushing async." : ".");
   }
 
   public void triggerDataLossOnNode(final String node) throws IOException {
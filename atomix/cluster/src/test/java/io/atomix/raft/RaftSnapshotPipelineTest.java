@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.atomix.raft.storage.log.IndexedRaftLogEntry;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RaftSnapshotPipelineTest {
+
+  private static final int MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER = 4;
+
+  @Rule
+  public RaftRule raftRule =
+      RaftRule.withBootstrappedNodes(3)
+          .setMaxSnapshotChunksPerFollower(MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER);
+
+  @Test
+  public void shouldReplicateSnapshotWithFewerChunksThanWindowOnJoin() throws Exception {
+    // given
+    final var follower = raftRule.shutdownFollower();
+    raftRule.appendEntries(20);
+    final long snapshotIndex = 10L;
+    raftRule.doSnapshot(snapshotIndex, MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER - 1);
+    final var leaderSnapshot = raftRule.getSnapshotFromLeader();
+
+    // when
+    raftRule.joinCluster(follower);
+
+    // then
+    assertThat(raftRule.allNodesHaveSnapshotWithIndex(snapshotIndex)).isTrue();
+    final var snapshot = raftRule.getSnapshotOnNode(follower);
+    assertThat(snapshot.getId()).isEqualTo(leaderSnapshot.getId());
+  }
+
+  @Test
+  public void shouldReplicateSnapshotWithMoreChunksThanWindowOnJoin() throws Exception {
+    // given
+    final var follower = raftRule.shutdownFollower();
+    raftRule.appendEntries(20);
+    final long snapshotIndex = 10L;
+    raftRule.doSnapshot(snapshotIndex, 5 * MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER + 1);
+    final var leaderSnapshot = raftRule.getSnapshotFromLeader();
+
+    // when
+    raftRule.joinCluster(follower);
+
+    // then
+    assertThat(raftRule.allNodesHaveSnapshotWithIndex(snapshotIndex)).isTrue();
+    final var snapshot = raftRule.getSnapshotOnNode(follower);
+    assertThat(snapshot.getId()).isEqualTo(leaderSnapshot.getId());
+  }
+
+  @Test
+  public void shouldReplicateEntriesAfterSnapshotOnJoin() throws Exception {
+    // given
+    final var follower = raftRule.shutdownFollower();
+    raftRule.appendEntries(128);
+    raftRule.doSnapshot(100, 3 * MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER);
+
+    // when
+    raftRule.joinCluster(follower);
+
+    // then
+    assertThat(raftRule.allNodesHaveSnapshotWithIndex(100)).isTrue();
+
+    final var memberLogs = raftRule.getMemberLogs();
+    final var entries = memberLogs.get(follower);
+    // entries after snapshot should be replicated
+    assertThat(entries.get(0).index()).isEqualTo(100 + 1);
+
+    for (final String member : memberLogs.keySet()) {
+      if (!follower.equals(member)) {
+        final var memberEntries = memberLogs.get(member);
+        assertThat(memberEntries).endsWith(entries.toArray(new IndexedRaftLogEntry[0]));
+      }
+    }
+  }
+
+  @Test
+  public void shouldReplicateSnapshotAfterDataLoss() throws Exception {
+    // given
+    raftRule.appendEntries(128);
+    raftRule.doSnapshot(100, 3 * MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER);
+    final var follower = raftRule.shutdownFollower();
+    final var leaderSnapshot = raftRule.getSnapshotFromLeader();
+
+    // when
+    raftRule.triggerDataLossOnNode(follower);
+    raftRule.bootstrapNode(follower);
+
+    // then
+    assertThat(raftRule.allNodesHaveSnapshotWithIndex(100)).isTrue();
+    final var snapshot = raftRule.getSnapshotOnNode(follower);
+    assertThat(snapshot.getId()).isEqualTo(leaderSnapshot.getId());
+  }
+}
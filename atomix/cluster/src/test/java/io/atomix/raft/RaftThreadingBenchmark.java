@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft;
+
+import static org.mockito.Mockito.mock;
+
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.MemberId;
+import io.atomix.raft.impl.SharedRaftThreadContextFactory;
+import io.atomix.raft.protocol.TestRaftProtocolFactory;
+import io.atomix.raft.roles.LeaderRole;
+import io.atomix.raft.snapshot.TestSnapshotStore;
+import io.atomix.raft.storage.RaftStorage;
+import io.atomix.raft.storage.log.IndexedRaftLogEntry;
+import io.atomix.raft.zeebe.ZeebeLogAppender.AppendListener;
+import io.atomix.utils.concurrent.SingleThreadContext;
+import io.camunda.zeebe.util.FileUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the commit latency of raft partitions which each run on their own thread with the
+ * latency of partitions sharing a fixed pool of threads (see {@link
+ * SharedRaftThreadContextFactory}). Each partition is a group of three raft servers, and every
+ * invocation appends one entry on the leader of each partition and waits until all entries are
+ * committed. Run it with {@code org.openjdk.jmh.Main RaftThreadingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RaftThreadingBenchmark {
+
+  private static final int REPLICATION_FACTOR = 3;
+  private static final int ENTRY_SIZE = 1024;
+
+  @Param({"1", "8", "64"})
+  private int partitions;
+
+  @Param({"single", "shared"})
+  private String threading;
+
+  private final ByteBuffer data = ByteBuffer.allocate(ENTRY_SIZE);
+  private final List<RaftServer> servers = new ArrayList<>();
+  private final List<List<RaftServer>> partitionServers = new ArrayList<>();
+  private Path directory;
+  private SingleThreadContext messagingContext;
+  private SharedRaftThreadContextFactory sharedThreadContextFactory;
+  private long position;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    directory = Files.createTempDirectory("raft-threading");
+    messagingContext = new SingleThreadContext("raft-benchmark-messaging-%d");
+    if ("shared".equals(threading)) {
+      final int threadCount =
+          Math.max(Math.min(Runtime.getRuntime().availableProcessors() * 2, 16), 4);
+      sharedThreadContextFactory = new SharedRaftThreadContextFactory("benchmark", threadCount);
+    }
+
+    final var protocolFactory = new TestRaftProtocolFactory(messagingContext);
+    final List<CompletableFuture<RaftServer>> bootstraps = new ArrayList<>();
+    for (int partition = 1; partition <= partitions; partition++) {
+      final int partitionId = partition;
+      final List<MemberId> members =
+          IntStream.range(0, REPLICATION_FACTOR)
+              .mapToObj(member -> MemberId.from(partitionId + "-" + member))
+              .collect(Collectors.toList());
+      final List<RaftServer> group = new ArrayList<>();
+      for (final MemberId member : members) {
+        final RaftServer server = createServer(protocolFactory, member);
+        group.add(server);
+        bootstraps.add(server.bootstrap(members));
+      }
+      servers.addAll(group);
+      partitionServers.add(group);
+    }
+
+    CompletableFuture.allOf(bootstraps.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    CompletableFuture.allOf(
+            servers.stream().map(RaftServer::shutdown).toArray(CompletableFuture[]::new))
+        .get(60, TimeUnit.SECONDS);
+    servers.clear();
+    partitionServers.clear();
+    if (sharedThreadContextFactory != null) {
+      sharedThreadContextFactory.close();
+    }
+    messagingContext.close();
+    FileUtil.deleteFolder(directory);
+  }
+
+  @Benchmark
+  public void appendAndCommit() throws Exception {
+    final List<CompletableFuture<Long>> commits = new ArrayList<>(partitions);
+    position++;
+    for (final List<RaftServer> group : partitionServers) {
+      final var listener = new CommitListener();
+      getLeader(group).appendEntry(position, position, data.duplicate(), listener);
+      commits.add(listener.commitFuture);
+    }
+
+    CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+  }
+
+  private LeaderRole getLeader(final List<RaftServer> group) throws InterruptedException {
+    while (true) {
+      for (final RaftServer server : group) {
+        final var role = server.getContext().getRaftRole();
+        if (role instanceof LeaderRole) {
+          return (LeaderRole) role;
+        }
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private RaftServer createServer(
+      final TestRaftProtocolFactory protocolFactory, final MemberId memberId) throws IOException {
+    final RaftStorage storage =
+        RaftStorage.builder()
+            .withDirectory(Files.createDirectory(directory.resolve(memberId.id())).toFile())
+            .withSnapshotStore(new TestSnapshotStore(new AtomicReference<>()))
+            .build();
+    final RaftServer.Builder builder =
+        RaftServer.builder(memberId)
+            .withMembershipService(mock(ClusterMembershipService.class))
+            .withProtocol(protocolFactory.newServerProtocol(memberId))
+            .withStorage(storage);
+    if (sharedThreadContextFactory != null) {
+      builder.withThreadContextFactory(sharedThreadContextFactory);
+    }
+    return builder.build();
+  }
+
+  private static final class CommitListener implements AppendListener {
+
+    private final CompletableFuture<Long> commitFuture = new CompletableFuture<>();
+
+    @Override
+    public void onWriteError(final Throwable error) {
+      commitFuture.completeExceptionally(error);
+    }
+
+    @Override
+    public void onCommit(final IndexedRaftLogEntry indexed) {
+      commitFuture.complete(indexed.index());
+    }
+
+    @Override
+    public void onCommitError(final IndexedRaftLogEntry indexed, final Throwable error) {
+      commitFuture.completeExceptionally(error);
+    }
+  }
+}
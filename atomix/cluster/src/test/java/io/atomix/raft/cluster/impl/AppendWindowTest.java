@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.cluster.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AppendWindowTest {
+
+  private static final int MAX_APPENDS = 8;
+  private static final int MAX_BATCH_SIZE = 64 * 1024;
+
+  @Test
+  void shouldAlwaysUseMaximumsIfNotAdaptive() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, false);
+
+    // when
+    window.onFailed();
+    window.onAcknowledged(100);
+
+    // then
+    assertThat(window.getAppends()).isEqualTo(MAX_APPENDS);
+    assertThat(window.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+  }
+
+  @Test
+  void shouldStartWithSmallWindow() {
+    // when
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+
+    // then
+    assertThat(window.getAppends()).isOne();
+    assertThat(window.getBatchSize()).isEqualTo(AppendWindow.MIN_BATCH_SIZE);
+  }
+
+  @Test
+  void shouldGrowBatchSizeBeforeAppends() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+
+    // when - 4KB doubles four times up to 64KB
+    acknowledge(window, 4, 10);
+
+    // then
+    assertThat(window.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+    assertThat(window.getAppends()).isOne();
+  }
+
+  @Test
+  void shouldGrowAppendsByOnePerAcknowledgedWindow() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+    acknowledge(window, 4, 10);
+
+    // when
+    acknowledge(window, 1, 10);
+    acknowledge(window, 2, 10);
+
+    // then
+    assertThat(window.getAppends()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldNotGrowBeyondMaximums() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+
+    // when
+    acknowledge(window, 1_000, 10);
+
+    // then
+    assertThat(window.getAppends()).isEqualTo(MAX_APPENDS);
+    assertThat(window.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+  }
+
+  @Test
+  void shouldShrinkIfRoundTripTimeIncreases() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+    acknowledge(window, 1_000, 10);
+
+    // when
+    window.onAcknowledged(50);
+
+    // then
+    assertThat(window.getAppends()).isEqualTo(MAX_APPENDS - 1);
+    assertThat(window.getBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+  }
+
+  @Test
+  void shouldIgnoreSmallIncreasesOfRoundTripTime() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+    acknowledge(window, 1_000, 1);
+
+    // when
+    window.onAcknowledged(3);
+
+    // then
+    assertThat(window.getAppends()).isEqualTo(MAX_APPENDS);
+  }
+
+  @Test
+  void shouldHalveWindowOnFailure() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+    acknowledge(window, 1_000, 10);
+
+    // when
+    window.onFailed();
+
+    // then
+    assertThat(window.getAppends()).isEqualTo(MAX_APPENDS / 2);
+    assertThat(window.getBatchSize()).isEqualTo(MAX_BATCH_SIZE / 2);
+  }
+
+  @Test
+  void shouldResetToInitialWindow() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+    acknowledge(window, 1_000, 10);
+
+    // when
+    window.reset();
+
+    // then
+    assertThat(window.getAppends()).isOne();
+    assertThat(window.getBatchSize()).isEqualTo(AppendWindow.MIN_BATCH_SIZE);
+  }
+
+  @Test
+  void shouldMeasureTimeWindowWasLimited() {
+    // given
+    final var window = new AppendWindow(MAX_APPENDS, MAX_BATCH_SIZE, true);
+
+    // when
+    window.markLimited(100);
+    window.markLimited(150);
+
+    // then
+    assertThat(window.markUnlimited(180)).isEqualTo(80);
+    assertThat(window.markUnlimited(200)).isZero();
+  }
+
+  private void acknowledge(final AppendWindow window, final int count, final long roundTripTime) {
+    for (int i = 0; i < count; i++) {
+      window.onAcknowledged(roundTripTime);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.partition.impl;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.raft.RaftServer.Role;
+import io.atomix.raft.partition.RaftPartition;
+import io.camunda.zeebe.util.health.HealthStatus;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class LeaderRebalancerTest {
+
+  private static final MemberId LOCAL = MemberId.from("1");
+  private static final MemberId OTHER = MemberId.from("2");
+
+  @Rule public Timeout timeout = new Timeout(30, TimeUnit.SECONDS);
+
+  private LeaderRebalancer rebalancer;
+
+  @After
+  public void tearDown() {
+    if (rebalancer != null) {
+      rebalancer.close();
+    }
+  }
+
+  @Test
+  public void shouldRequestLeadershipOfPartitionLedByOtherMember() {
+    // given
+    final RaftPartition partition = partition(1, List.of(LOCAL, OTHER), Role.FOLLOWER);
+    startRebalancer(Duration.ZERO, List.of(partition));
+
+    // when
+    rebalancer.rebalance().join();
+
+    // then
+    verify(partition).promote();
+  }
+
+  @Test
+  public void shouldNotRequestLeadershipIfNotPrimaryMember() {
+    // given
+    final RaftPartition partition = partition(1, List.of(OTHER, LOCAL), Role.FOLLOWER);
+    startRebalancer(Duration.ZERO, List.of(partition));
+
+    // when
+    rebalancer.rebalance().join();
+
+    // then
+    verify(partition, never()).promote();
+  }
+
+  @Test
+  public void shouldNotRequestLeadershipIfAlreadyLeader() {
+    // given
+    final RaftPartition partition = partition(1, List.of(LOCAL, OTHER), Role.LEADER);
+    startRebalancer(Duration.ZERO, List.of(partition));
+
+    // when
+    rebalancer.rebalance().join();
+
+    // then
+    verify(partition, never()).promote();
+  }
+
+  @Test
+  public void shouldNotRequestLeadershipOfUnhealthyPartition() {
+    // given
+    final RaftPartition partition = partition(1, List.of(LOCAL, OTHER), Role.FOLLOWER);
+    when(partition.getHealthStatus()).thenReturn(HealthStatus.UNHEALTHY);
+    startRebalancer(Duration.ZERO, List.of(partition));
+
+    // when
+    rebalancer.rebalance().join();
+
+    // then
+    verify(partition, never()).promote();
+  }
+
+  @Test
+  public void shouldTransferOnePartitionAtATime() {
+    // given
+    final CompletableFuture<Void> firstTransfer = new CompletableFuture<>();
+    final RaftPartition first = partition(1, List.of(LOCAL, OTHER), Role.FOLLOWER);
+    final RaftPartition second = partition(2, List.of(LOCAL, OTHER), Role.FOLLOWER);
+    when(first.promote()).thenReturn(firstTransfer);
+    startRebalancer(Duration.ZERO, List.of(first, second));
+    rebalancer.rebalance();
+    verify(first, timeout(5_000)).promote();
+
+    // when
+    rebalancer.rebalance();
+
+    // then
+    verify(second, after(100).never()).promote();
+    when(first.getRole()).thenReturn(Role.LEADER);
+    firstTransfer.complete(null);
+    rebalancer.rebalance().join();
+    verify(second).promote();
+  }
+
+  @Test
+  public void shouldNotRequestLeadershipAgainDuringCooldown() {
+    // given
+    final RaftPartition partition = partition(1, List.of(LOCAL, OTHER), Role.FOLLOWER);
+    when(partition.promote())
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("expected")));
+
+    // when
+    startRebalancer(Duration.ofMillis(10), List.of(partition));
+
+    // then
+    verify(partition, after(500).times(1)).promote();
+  }
+
+  private void startRebalancer(final Duration interval, final List<RaftPartition> partitions) {
+    rebalancer = new LeaderRebalancer("group", LOCAL, partitions, interval, Duration.ofHours(1));
+    rebalancer.start();
+  }
+
+  private RaftPartition partition(final int id, final List<MemberId> members, final Role role) {
+    final RaftPartition partition = mock(RaftPartition.class);
+    when(partition.id()).thenReturn(PartitionId.from("group", id));
+    when(partition.members()).thenReturn(members);
+    when(partition.getRole()).thenReturn(role);
+    when(partition.getHealthStatus()).thenReturn(HealthStatus.HEALTHY);
+    when(partition.promote()).thenReturn(CompletableFuture.completedFuture(null));
+    return partition;
+  }
+}
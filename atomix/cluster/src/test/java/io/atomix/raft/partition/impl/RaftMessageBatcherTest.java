@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.partition.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.cluster.messaging.MessagingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.mockito.ArgumentCaptor;
+
+public class RaftMessageBatcherTest {
+
+  private static final String SUBJECT = "batch";
+  private static final MemberId LOCAL = MemberId.from("1");
+  private static final MemberId REMOTE = MemberId.from("2");
+
+  @Rule public Timeout timeout = new Timeout(30, TimeUnit.SECONDS);
+
+  private ClusterCommunicationService localCommunicator;
+  private ClusterCommunicationService remoteCommunicator;
+  private RaftMessageBatcher remoteBatcher;
+  private RaftMessageBatcher localBatcher;
+
+  @Before
+  public void setup() {
+    localCommunicator = mock(ClusterCommunicationService.class);
+    remoteCommunicator = mock(ClusterCommunicationService.class);
+    remoteBatcher = startBatcher(REMOTE, remoteCommunicator, Duration.ZERO, 1024);
+    connect(localCommunicator, remoteCommunicator);
+  }
+
+  @After
+  public void tearDown() {
+    if (localBatcher != null) {
+      localBatcher.close();
+    }
+    remoteBatcher.close();
+  }
+
+  @Test
+  public void shouldSendRequestsToSameMemberInOneBatch() throws Exception {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofMillis(100), 1024);
+    remoteBatcher.registerHandler("echo", CompletableFuture::completedFuture);
+
+    // when
+    final var first = localBatcher.send(REMOTE, "echo", bytes("first"));
+    final var second = localBatcher.send(REMOTE, "echo", bytes("second"));
+    final var third = localBatcher.send(REMOTE, "echo", bytes("third"));
+
+    // then
+    assertThat(first.get()).isEqualTo(bytes("first"));
+    assertThat(second.get()).isEqualTo(bytes("second"));
+    assertThat(third.get()).isEqualTo(bytes("third"));
+    verify(localCommunicator, times(1)).send(eq(SUBJECT), any(), any(), any(), eq(REMOTE), any());
+  }
+
+  @Test
+  public void shouldSendBatchOnceBatchSizeIsReached() throws Exception {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofHours(1), 1);
+    remoteBatcher.registerHandler("echo", CompletableFuture::completedFuture);
+
+    // when
+    final var first = localBatcher.send(REMOTE, "echo", bytes("first"));
+    final var second = localBatcher.send(REMOTE, "echo", bytes("second"));
+
+    // then
+    assertThat(first.get()).isEqualTo(bytes("first"));
+    assertThat(second.get()).isEqualTo(bytes("second"));
+    verify(localCommunicator, times(2)).send(eq(SUBJECT), any(), any(), any(), eq(REMOTE), any());
+  }
+
+  @Test
+  public void shouldDispatchRequestsBySubject() throws Exception {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofMillis(10), 1024);
+    remoteBatcher.registerHandler("a", b -> CompletableFuture.completedFuture(bytes("a")));
+    remoteBatcher.registerHandler("b", b -> CompletableFuture.completedFuture(bytes("b")));
+
+    // when
+    final var a = localBatcher.send(REMOTE, "a", bytes("request"));
+    final var b = localBatcher.send(REMOTE, "b", bytes("request"));
+
+    // then
+    assertThat(a.get()).isEqualTo(bytes("a"));
+    assertThat(b.get()).isEqualTo(bytes("b"));
+  }
+
+  @Test
+  public void shouldFailRequestWithoutHandler() {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofMillis(10), 1024);
+
+    // when
+    final var response = localBatcher.send(REMOTE, "unknown", bytes("request"));
+
+    // then
+    assertThat(response)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(MessagingException.NoRemoteHandler.class);
+  }
+
+  @Test
+  public void shouldFailRequestIfHandlerFails() {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofMillis(10), 1024);
+    remoteBatcher.registerHandler(
+        "fail", b -> CompletableFuture.failedFuture(new IllegalStateException("expected")));
+
+    // when
+    final var response = localBatcher.send(REMOTE, "fail", bytes("request"));
+
+    // then
+    assertThat(response)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(MessagingException.RemoteHandlerFailure.class);
+  }
+
+  @Test
+  public void shouldNotDispatchToUnregisteredHandler() {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofMillis(10), 1024);
+    remoteBatcher.registerHandler("echo", CompletableFuture::completedFuture);
+    remoteBatcher.unregisterHandler("echo");
+
+    // when
+    final var response = localBatcher.send(REMOTE, "echo", bytes("request"));
+
+    // then
+    assertThat(response)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(MessagingException.NoRemoteHandler.class);
+  }
+
+  @Test
+  public void shouldFailRequestsIfBatchCannotBeSent() {
+    // given
+    final var communicator = mock(ClusterCommunicationService.class);
+    doReturn(CompletableFuture.failedFuture(new MessagingException.NoRemoteHandler()))
+        .when(communicator)
+        .send(eq(SUBJECT), any(), any(), any(), eq(REMOTE), any());
+    localBatcher = startBatcher(LOCAL, communicator, Duration.ofMillis(10), 1024);
+
+    // when
+    final var first = localBatcher.send(REMOTE, "echo", bytes("first"));
+    final var second = localBatcher.send(REMOTE, "echo", bytes("second"));
+
+    // then - the requests fail long before the request timeout
+    assertThat(first)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(MessagingException.NoRemoteHandler.class);
+    assertThat(second)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(MessagingException.NoRemoteHandler.class);
+  }
+
+  @Test
+  public void shouldTimeOutRequestAfterGivenTimeout() {
+    // given
+    localBatcher = startBatcher(LOCAL, localCommunicator, Duration.ofMillis(10), 1024);
+    remoteBatcher.registerHandler("never", b -> new CompletableFuture<>());
+
+    // when
+    final var response =
+        localBatcher.send(REMOTE, "never", bytes("request"), Duration.ofMillis(100));
+
+    // then
+    assertThat(response)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(TimeoutException.class);
+  }
+
+  private RaftMessageBatcher startBatcher(
+      final MemberId memberId,
+      final ClusterCommunicationService communicator,
+      final Duration maxDelay,
+      final int maxBatchSize) {
+    final var batcher =
+        new RaftMessageBatcher(SUBJECT, memberId, communicator, maxDelay, maxBatchSize);
+    batcher.start();
+    return batcher;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void connect(
+      final ClusterCommunicationService local, final ClusterCommunicationService remote) {
+    final ArgumentCaptor<Function<byte[], CompletableFuture<byte[]>>> remoteHandler =
+        ArgumentCaptor.forClass(Function.class);
+    verify(remote).subscribe(eq(SUBJECT), any(), remoteHandler.capture(), any());
+    doAnswer(i -> remoteHandler.getValue().apply(i.getArgument(1)))
+        .when(local)
+        .send(eq(SUBJECT), any(), any(), any(), eq(REMOTE), any());
+
+    // the local batcher is started by the tests; forward its subscription lazily
+    doAnswer(
+            i -> {
+              final Function<byte[], CompletableFuture<byte[]>> localHandler = i.getArgument(2);
+              doAnswer(r -> localHandler.apply(r.getArgument(1)))
+                  .when(remote)
+                  .send(eq(SUBJECT), any(), any(), any(), eq(LOCAL), any());
+              return CompletableFuture.completedFuture(null);
+            })
+        .when(local)
+        .subscribe(eq(SUBJECT), any(), any(Function.class), any());
+  }
+
+  private static byte[] bytes(final String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.partition.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.raft.protocol.AppendRequest;
+import io.atomix.raft.storage.log.PersistedRaftRecord;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class RaftServerCommunicatorTest {
+
+  private static final String PREFIX = "raft-partition-1";
+  private static final MemberId REMOTE = MemberId.from("2");
+
+  private final RaftMessageContext context = new RaftMessageContext(PREFIX);
+  private final Serializer serializer = Serializer.using(RaftNamespaces.RAFT_PROTOCOL);
+  private final Member remoteMember = Member.member(REMOTE, Address.from("localhost", 26502));
+  private ClusterCommunicationService clusterCommunicator;
+  private RaftServerCommunicator communicator;
+
+  @Before
+  public void setup() {
+    clusterCommunicator = mock(ClusterCommunicationService.class);
+    final ClusterMembershipService membershipService = mock(ClusterMembershipService.class);
+    when(membershipService.getMember(REMOTE)).thenReturn(remoteMember);
+    communicator =
+        new RaftServerCommunicator(
+            PREFIX, serializer, clusterCommunicator, null, membershipService, null);
+  }
+
+  @Test
+  public void shouldEncodeAppendRequestWithKryoForMemberWithoutSbeSupport() {
+    // given
+    final AppendRequest request = newAppendRequest();
+
+    // when
+    communicator.append(REMOTE, request);
+
+    // then
+    final ArgumentCaptor<Function<AppendRequest, byte[]>> encoder =
+        ArgumentCaptor.forClass(Function.class);
+    verify(clusterCommunicator)
+        .send(eq(context.appendSubject), eq(request), encoder.capture(), any(), eq(REMOTE), any());
+    final AppendRequest decoded = serializer.decode(encoder.getValue().apply(request));
+    final PersistedRaftRecord entry = decoded.entries().get(0);
+    assertThat(entry.index()).isEqualTo(2);
+    assertThat(entry.term()).isEqualTo(1);
+    assertThat(entry.asqn()).isEqualTo(3);
+    assertThat(entry.checksum()).isEqualTo(4);
+    assertThat(entry.data()).isEqualTo(new UnsafeBuffer(new byte[] {1, 2, 3}));
+  }
+
+  @Test
+  public void shouldEncodeAppendRequestWithSbeForMemberWithSbeSupport() {
+    // given
+    remoteMember
+        .properties()
+        .setProperty(RaftServerCommunicator.SBE_PROTOCOL_PROPERTY_NAME, Boolean.TRUE.toString());
+    final AppendRequest request = newAppendRequest();
+
+    // when
+    communicator.append(REMOTE, request);
+
+    // then
+    verify(clusterCommunicator)
+        .send(eq(context.appendSbeSubject), eq(request), any(), any(), eq(REMOTE), any());
+    verify(clusterCommunicator, never())
+        .send(eq(context.appendSubject), any(), any(), any(), any(MemberId.class), any());
+  }
+
+  @Test
+  public void shouldUseAdaptiveTimeoutIfRequestsAreNotBatched() {
+    // given
+    final ClusterMembershipService membershipService = mock(ClusterMembershipService.class);
+    when(membershipService.getMember(REMOTE)).thenReturn(remoteMember);
+    communicator =
+        new RaftServerCommunicator(
+            PREFIX,
+            serializer,
+            clusterCommunicator,
+            null,
+            membershipService,
+            Duration.ofMillis(2500));
+
+    // when
+    communicator.append(REMOTE, newAppendRequest());
+
+    // then - no fixed timeout is passed, such that the messaging service picks its own
+    verify(clusterCommunicator)
+        .send(eq(context.appendSubject), any(), any(), any(), eq(REMOTE), isNull());
+  }
+
+  @Test
+  public void shouldAcceptAppendRequestsOnBothSubjects() {
+    // when
+    communicator.registerAppendHandler(r -> null);
+
+    // then
+    verify(clusterCommunicator)
+        .subscribe(eq(context.appendSubject), any(), any(Function.class), any());
+    verify(clusterCommunicator)
+        .subscribe(eq(context.appendSbeSubject), any(), any(Function.class), any());
+  }
+
+  private AppendRequest newAppendRequest() {
+    // the entry is a view on a buffer, like the entries of a decoded SBE message
+    final PersistedRaftRecord entry =
+        new PersistedRaftRecord(1, 2, 3, 4, new UnsafeBuffer(new byte[] {0, 1, 2, 3}, 1, 3));
+    return AppendRequest.builder()
+        .withTerm(1)
+        .withLeader(MemberId.from("1"))
+        .withPrevLogIndex(1)
+        .withPrevLogTerm(1)
+        .withEntries(new ArrayList<>(List.of(entry)))
+        .withCommitIndex(1)
+        .build();
+  }
+}
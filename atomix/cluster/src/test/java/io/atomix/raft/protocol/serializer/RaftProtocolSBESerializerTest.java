@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.protocol.serializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.raft.RaftError;
+import io.atomix.raft.protocol.AppendRequest;
+import io.atomix.raft.protocol.AppendResponse;
+import io.atomix.raft.protocol.InstallRequest;
+import io.atomix.raft.protocol.InstallResponse;
+import io.atomix.raft.protocol.RaftResponse.Status;
+import io.atomix.raft.storage.log.PersistedRaftRecord;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.Test;
+
+public class RaftProtocolSBESerializerTest {
+
+  final RaftProtocolSBESerializer serializer = new RaftProtocolSBESerializer();
+
+  @Test
+  public void shouldEncodeAppendRequest() {
+    // given
+    final List<PersistedRaftRecord> entries =
+        List.of(
+            new PersistedRaftRecord(3, 11, 101, 1234, "foo".getBytes()),
+            new PersistedRaftRecord(3, 12, -1, 5678, "barbaz".getBytes()));
+    final AppendRequest request = new AppendRequest(3, "leader", 10, 2, entries, 9);
+
+    // when
+    final AppendRequest decoded =
+        serializer.decodeAppendRequest(serializer.encodeAppendRequest(request));
+
+    // then
+    assertThat(decoded.term()).isEqualTo(3);
+    assertThat(decoded.leader()).isEqualTo(MemberId.from("leader"));
+    assertThat(decoded.prevLogIndex()).isEqualTo(10);
+    assertThat(decoded.prevLogTerm()).isEqualTo(2);
+    assertThat(decoded.commitIndex()).isEqualTo(9);
+    assertThat(decoded.entries()).hasSize(2);
+    for (int i = 0; i < entries.size(); i++) {
+      final PersistedRaftRecord expected = entries.get(i);
+      final PersistedRaftRecord actual = decoded.entries().get(i);
+      assertThat(actual.term()).isEqualTo(expected.term());
+      assertThat(actual.index()).isEqualTo(expected.index());
+      assertThat(actual.asqn()).isEqualTo(expected.asqn());
+      assertThat(actual.checksum()).isEqualTo(expected.checksum());
+      assertThat(actual.data()).isEqualTo(expected.data());
+    }
+  }
+
+  @Test
+  public void shouldEncodeEmptyAppendRequest() {
+    // given
+    final AppendRequest request = new AppendRequest(1, "0", 0, 0, List.of(), -1);
+
+    // when
+    final AppendRequest decoded =
+        serializer.decodeAppendRequest(serializer.encodeAppendRequest(request));
+
+    // then
+    assertThat(decoded.entries()).isEmpty();
+    assertThat(decoded.leader()).isEqualTo(MemberId.from("0"));
+    assertThat(decoded.commitIndex()).isEqualTo(-1);
+  }
+
+  @Test
+  public void shouldNotCopyEntryDataWhenDecoding() {
+    // given
+    final AppendRequest request =
+        new AppendRequest(
+            1, "0", 0, 0, List.of(new PersistedRaftRecord(1, 1, 1, 1, "foo".getBytes())), 0);
+    final byte[] bytes = serializer.encodeAppendRequest(request);
+
+    // when
+    final AppendRequest decoded = serializer.decodeAppendRequest(bytes);
+
+    // then
+    assertThat(decoded.entries().get(0).data().byteArray()).isSameAs(bytes);
+  }
+
+  @Test
+  public void shouldEncodeAppendResponse() {
+    // given
+    final AppendResponse response = new AppendResponse(Status.OK, null, 4, true, 20, 15);
+
+    // when
+    final AppendResponse decoded =
+        serializer.decodeAppendResponse(serializer.encodeAppendResponse(response));
+
+    // then
+    assertThat(decoded).isEqualTo(response);
+    assertThat(decoded.error()).isNull();
+  }
+
+  @Test
+  public void shouldEncodeAppendResponseWithError() {
+    // given
+    final AppendResponse response =
+        new AppendResponse(
+            Status.ERROR,
+            new RaftError(RaftError.Type.ILLEGAL_MEMBER_STATE, "fail"),
+            4,
+            false,
+            0,
+            0);
+
+    // when
+    final AppendResponse decoded =
+        serializer.decodeAppendResponse(serializer.encodeAppendResponse(response));
+
+    // then
+    assertThat(decoded.status()).isEqualTo(Status.ERROR);
+    assertThat(decoded.error().type()).isEqualTo(RaftError.Type.ILLEGAL_MEMBER_STATE);
+    assertThat(decoded.error().message()).isEqualTo("fail");
+    assertThat(decoded.succeeded()).isFalse();
+  }
+
+  @Test
+  public void shouldEncodeInstallRequest() {
+    // given
+    final ByteBuffer data = ByteBuffer.wrap("xxchunkxx".getBytes(), 2, 5);
+    final InstallRequest request =
+        new InstallRequest(
+            5,
+            MemberId.from("1"),
+            100,
+            4,
+            1,
+            ByteBuffer.wrap("chunk-1".getBytes()),
+            ByteBuffer.wrap("chunk-2".getBytes()),
+            data,
+            true,
+            false);
+
+    // when
+    final InstallRequest decoded =
+        serializer.decodeInstallRequest(serializer.encodeInstallRequest(request));
+
+    // then
+    assertThat(decoded).isEqualTo(request);
+    assertThat(decoded.data()).isEqualTo(ByteBuffer.wrap("chunk".getBytes()));
+    assertThat(data.position()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldEncodeLastInstallRequestWithoutNextChunkId() {
+    // given
+    final InstallRequest request =
+        new InstallRequest(
+            5,
+            MemberId.from("1"),
+            100,
+            4,
+            1,
+            ByteBuffer.wrap("chunk-1".getBytes()),
+            null,
+            ByteBuffer.wrap("data".getBytes()),
+            false,
+            true);
+
+    // when
+    final InstallRequest decoded =
+        serializer.decodeInstallRequest(serializer.encodeInstallRequest(request));
+
+    // then
+    assertThat(decoded.nextChunkId()).isNull();
+    assertThat(decoded.complete()).isTrue();
+  }
+
+  @Test
+  public void shouldEncodeInstallResponse() {
+    // given
+    final InstallResponse response =
+        new InstallResponse(Status.ERROR, new RaftError(RaftError.Type.APPLICATION_ERROR, null));
+
+    // when
+    final InstallResponse decoded =
+        serializer.decodeInstallResponse(serializer.encodeInstallResponse(response));
+
+    // then
+    assertThat(decoded.status()).isEqualTo(Status.ERROR);
+    assertThat(decoded.error().type()).isEqualTo(RaftError.Type.APPLICATION_ERROR);
+    assertThat(decoded.error().message()).isNull();
+  }
+}
@@ -17,8 +17,10 @@ package io.atomix.raft.roles;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,12 +28,15 @@ import static org.mockito.Mockito.when;
 import io.atomix.cluster.ClusterMembershipService;
 import io.atomix.raft.RaftException.NoLeader;
 import io.atomix.raft.RaftServer.Role;
+import io.atomix.raft.cluster.impl.RaftClusterContext;
+import io.atomix.raft.cluster.impl.RaftMemberContext;
 import io.atomix.raft.impl.RaftContext;
 import io.atomix.raft.metrics.RaftReplicationMetrics;
 import io.atomix.raft.storage.RaftStorage;
 import io.atomix.raft.storage.log.IndexedRaftLogEntry;
 import io.atomix.raft.storage.log.PersistedRaftRecord;
 import io.atomix.raft.storage.log.RaftLog;
+import io.atomix.raft.storage.log.RaftLogEntryCache;
 import io.atomix.raft.storage.log.RaftLogReader;
 import io.atomix.raft.storage.log.entry.ApplicationEntry;
 import io.atomix.raft.storage.log.entry.RaftEntry;
@@ -46,6 +51,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -81,6 +87,7 @@ public class LeaderRoleTest {
               return new TestIndexedRaftLogEntry(1, 1, raftEntry.getApplicationEntry());
             });
     when(context.getLog()).thenReturn(log);
+    when(context.getEntryCache()).thenReturn(new RaftLogEntryCache(0));
 
     final ReceivableSnapshotStore persistedSnapshotStore = mock(ReceivableSnapshotStore.class);
     when(context.getPersistedSnapshotStore()).thenReturn(persistedSnapshotStore);
@@ -344,6 +351,64 @@ public class LeaderRoleTest {
     verify(leaderRole.raft, timeout(2000).atLeast(1)).transition(Role.FOLLOWER);
   }
 
+  @Test
+  public void shouldNotCommitReplicatedEntryBeforeLeaderFlushedIt() {
+    // given - the follower acknowledged index 5, but the leader only flushed up to index 3
+    final RaftMemberContext follower = mock(RaftMemberContext.class);
+    when(follower.getMatchIndex()).thenReturn(5L);
+    final RaftClusterContext cluster = mock(RaftClusterContext.class);
+    when(cluster.getActiveMemberStates(any())).thenReturn(List.of(follower));
+    when(cluster.getQuorum()).thenReturn(2);
+    when(context.getCluster()).thenReturn(cluster);
+    when(log.shouldFlushAsync()).thenReturn(true);
+    when(log.getDurableIndex()).thenReturn(3L);
+    final LeaderAppender appender = new LeaderAppender(leaderRole);
+
+    // when
+    appender.onDurableIndexUpdated(3);
+
+    // then
+    verify(context).setCommitIndex(3);
+    verify(context, never()).setCommitIndex(5);
+
+    // when
+    when(context.getCommitIndex()).thenReturn(3L);
+    when(log.getDurableIndex()).thenReturn(5L);
+    appender.onDurableIndexUpdated(5);
+
+    // then
+    verify(context).setCommitIndex(5);
+  }
+
+  @Test
+  public void shouldCommitEntryOfSingleNodeOnceLeaderFlushedIt() {
+    // given
+    final RaftClusterContext cluster = mock(RaftClusterContext.class);
+    when(cluster.getActiveMemberStates()).thenReturn(List.of());
+    when(cluster.getActiveMemberStates(any())).thenReturn(List.of());
+    when(context.getCluster()).thenReturn(cluster);
+    when(context.getCommitIndex()).thenReturn(1L);
+    when(log.shouldFlushAsync()).thenReturn(true);
+    when(log.getLastIndex()).thenReturn(2L);
+    when(log.getDurableIndex()).thenReturn(1L);
+    final LeaderAppender appender = new LeaderAppender(leaderRole);
+
+    // when
+    final CompletableFuture<Long> commitFuture = appender.appendEntries(2);
+
+    // then
+    assertThat(commitFuture).isNotDone();
+    verify(context, never()).setCommitIndex(anyLong());
+
+    // when
+    when(log.getDurableIndex()).thenReturn(2L);
+    when(context.setCommitIndex(2)).thenReturn(1L);
+    appender.onDurableIndexUpdated(2);
+
+    // then
+    assertThat(commitFuture).isCompletedWithValue(2L);
+  }
+
   private static class TestIndexedRaftLogEntry implements IndexedRaftLogEntry {
 
     private final long index;
@@ -18,31 +18,49 @@ package io.atomix.raft.roles;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.atomix.cluster.MemberId;
+import io.atomix.raft.cluster.impl.RaftClusterContext;
 import io.atomix.raft.impl.RaftContext;
 import io.atomix.raft.metrics.RaftReplicationMetrics;
 import io.atomix.raft.protocol.AppendRequest;
 import io.atomix.raft.protocol.AppendResponse;
+import io.atomix.raft.protocol.InstallRequest;
+import io.atomix.raft.protocol.InstallResponse;
+import io.atomix.raft.protocol.RaftResponse;
+import io.atomix.raft.snapshot.impl.SnapshotChunkImpl;
 import io.atomix.raft.storage.RaftStorage;
 import io.atomix.raft.storage.log.IndexedRaftLogEntry;
 import io.atomix.raft.storage.log.PersistedRaftRecord;
 import io.atomix.raft.storage.log.RaftLog;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.camunda.zeebe.journal.DurableIndexListener;
 import io.camunda.zeebe.journal.JournalException;
 import io.camunda.zeebe.journal.JournalException.InvalidChecksum;
 import io.camunda.zeebe.snapshots.PersistedSnapshot;
 import io.camunda.zeebe.snapshots.ReceivableSnapshotStore;
+import io.camunda.zeebe.snapshots.ReceivedSnapshot;
+import io.camunda.zeebe.snapshots.SnapshotChunk;
+import io.camunda.zeebe.util.sched.future.CompletableActorFuture;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
+import org.mockito.ArgumentCaptor;
 
 public class PassiveRoleTest {
 
@@ -50,6 +68,7 @@ public class PassiveRoleTest {
   private RaftLog log;
   private PassiveRole role;
   private RaftContext ctx;
+  private ReceivableSnapshotStore store;
 
   @Before
   public void setup() throws IOException {
@@ -63,7 +82,7 @@ public class PassiveRoleTest {
     when(snapshot.getIndex()).thenReturn(1L);
     when(snapshot.getTerm()).thenReturn(1L);
 
-    final ReceivableSnapshotStore store = mock(ReceivableSnapshotStore.class);
+    store = mock(ReceivableSnapshotStore.class);
     when(store.getLatestSnapshot()).thenReturn(Optional.of(snapshot));
 
     final RaftStorage storage = mock(RaftStorage.class);
@@ -72,6 +91,8 @@ public class PassiveRoleTest {
     when(ctx.getPersistedSnapshotStore()).thenReturn(store);
     when(ctx.getTerm()).thenReturn(1L);
     when(ctx.getReplicationMetrics()).thenReturn(mock(RaftReplicationMetrics.class));
+    when(ctx.getFollowerFlushDelay()).thenReturn(Duration.ZERO);
+    when(ctx.getFollowerFlushBatchSize()).thenReturn(1024 * 1024);
 
     role = new PassiveRole(ctx);
   }
@@ -83,8 +104,7 @@ public class PassiveRoleTest {
         List.of(new PersistedRaftRecord(1, 1, 1, 12345, new byte[1]));
     final AppendRequest request = new AppendRequest(2, "", 0, 0, entries, 1);
 
-    when(log.append(any(PersistedRaftRecord.class)))
-        .thenThrow(new JournalException.InvalidChecksum("expected"));
+    when(log.appendBatch(any())).thenThrow(new JournalException.InvalidChecksum("expected"));
 
     // when
     final AppendResponse response = role.handleAppend(request).join();
@@ -102,9 +122,7 @@ public class PassiveRoleTest {
             new PersistedRaftRecord(1, 2, 2, 1, new byte[1]));
     final AppendRequest request = new AppendRequest(1, "", 0, 0, entries, 2);
 
-    when(log.append(any(PersistedRaftRecord.class)))
-        .thenReturn(mock(IndexedRaftLogEntry.class))
-        .thenReturn(mock(IndexedRaftLogEntry.class));
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
 
     // when
     final AppendResponse response = role.handleAppend(request).join();
@@ -123,9 +141,9 @@ public class PassiveRoleTest {
             new PersistedRaftRecord(1, 2, 2, 1, new byte[1]));
     final AppendRequest request = new AppendRequest(1, "", 0, 0, entries, 2);
 
-    when(log.append(any(PersistedRaftRecord.class)))
-        .thenReturn(mock(IndexedRaftLogEntry.class))
-        .thenThrow(new InvalidChecksum.InvalidChecksum("expected"));
+    // the first entry is appended before the second one fails
+    when(log.appendBatch(any())).thenThrow(new InvalidChecksum.InvalidChecksum("expected"));
+    when(log.getLastIndex()).thenReturn(1L);
 
     // when
     final AppendResponse response = role.handleAppend(request).join();
@@ -142,8 +160,7 @@ public class PassiveRoleTest {
         List.of(new PersistedRaftRecord(1, 1, 1, 1, new byte[1]));
     final AppendRequest request = new AppendRequest(1, "", 0, 0, entries, 2);
 
-    when(log.append(any(PersistedRaftRecord.class)))
-        .thenThrow(new InvalidChecksum.InvalidChecksum("expected"));
+    when(log.appendBatch(any())).thenThrow(new InvalidChecksum.InvalidChecksum("expected"));
 
     // when
     final AppendResponse response = role.handleAppend(request).join();
@@ -160,7 +177,7 @@ public class PassiveRoleTest {
         List.of(new PersistedRaftRecord(1, 1, 1, 1, new byte[1]));
     final AppendRequest request = new AppendRequest(2, "", 0, 0, entries, 1);
 
-    when(log.append(any(PersistedRaftRecord.class))).thenReturn(mock(IndexedRaftLogEntry.class));
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
     when(ctx.getLog()).thenReturn(log);
 
     // when
@@ -180,10 +197,9 @@ public class PassiveRoleTest {
             new PersistedRaftRecord(1, 3, 3, 1, new byte[1]));
     final AppendRequest request = new AppendRequest(1, "", 0, 0, entries, 3);
 
-    when(log.append(any(PersistedRaftRecord.class)))
-        .thenReturn(mock(IndexedRaftLogEntry.class))
-        .thenReturn(mock(IndexedRaftLogEntry.class))
-        .thenThrow(new InvalidChecksum("expected"));
+    // the first two entries are appended before the third one fails
+    when(log.appendBatch(any())).thenThrow(new InvalidChecksum("expected"));
+    when(log.getLastIndex()).thenReturn(2L);
     when(ctx.getLog()).thenReturn(log);
 
     // when
@@ -203,10 +219,7 @@ public class PassiveRoleTest {
             new PersistedRaftRecord(1, 3, 3, 1, new byte[1]));
     final AppendRequest request = new AppendRequest(1, "", 0, 0, entries, 0);
 
-    when(log.append(any(PersistedRaftRecord.class)))
-        .thenReturn(mock(IndexedRaftLogEntry.class))
-        .thenReturn(mock(IndexedRaftLogEntry.class))
-        .thenReturn(mock(IndexedRaftLogEntry.class));
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
     when(ctx.getLog()).thenReturn(log);
     role.handleAppend(request).join();
     verify(ctx).setLastWrittenIndex(eq(3L));
@@ -221,4 +234,291 @@ public class PassiveRoleTest {
     // then
     verify(ctx).setLastWrittenIndex(eq(1L));
   }
+
+  @Test
+  public void shouldCoalesceFlushesOfAppendRequests() {
+    // given
+    final ThreadContext threadContext = mockThreadContext();
+    when(ctx.getFollowerFlushDelay()).thenReturn(Duration.ofMillis(10));
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    final IndexedRaftLogEntry firstEntry = mock(IndexedRaftLogEntry.class);
+    when(firstEntry.index()).thenReturn(1L);
+    when(firstEntry.term()).thenReturn(1L);
+    when(log.getLastEntry()).thenReturn(null, firstEntry);
+    role = new PassiveRole(ctx);
+
+    // when
+    final CompletableFuture<AppendResponse> first = role.handleAppend(appendRequest(0, 0, 1));
+    final CompletableFuture<AppendResponse> second = role.handleAppend(appendRequest(1, 1, 2));
+
+    // then
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+    verify(log, never()).flush();
+
+    // when - the flush delay elapsed
+    final ArgumentCaptor<Runnable> scheduledFlush = ArgumentCaptor.forClass(Runnable.class);
+    verify(threadContext).schedule(eq(Duration.ofMillis(10)), scheduledFlush.capture());
+    scheduledFlush.getValue().run();
+
+    // then
+    verify(log, times(1)).flush();
+    verify(ctx).setLastWrittenIndex(eq(2L));
+    assertThat(first.join().succeeded()).isTrue();
+    assertThat(second.join().lastLogIndex()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldFlushOnceFlushBatchSizeIsReached() {
+    // given
+    mockThreadContext();
+    when(ctx.getFollowerFlushDelay()).thenReturn(Duration.ofMillis(10));
+    when(ctx.getFollowerFlushBatchSize()).thenReturn(1);
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    role = new PassiveRole(ctx);
+
+    // when
+    final CompletableFuture<AppendResponse> response = role.handleAppend(appendRequest(0, 0, 1));
+
+    // then
+    verify(log).flush();
+    assertThat(response.join().succeeded()).isTrue();
+  }
+
+  @Test
+  public void shouldAcknowledgeHeldBackAppendsBeforeOtherResponses() {
+    // given
+    mockThreadContext();
+    when(ctx.getFollowerFlushDelay()).thenReturn(Duration.ofMillis(10));
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    role = new PassiveRole(ctx);
+    final CompletableFuture<AppendResponse> heldBack = role.handleAppend(appendRequest(0, 0, 1));
+
+    // when - a request of a lower term is rejected
+    final CompletableFuture<AppendResponse> rejected =
+        role.handleAppend(new AppendRequest(0, "", 0, 0, List.of(), 0));
+
+    // then
+    verify(log).flush();
+    assertThat(heldBack.join().succeeded()).isTrue();
+    assertThat(rejected.join().succeeded()).isFalse();
+  }
+
+  @Test
+  public void shouldAcknowledgeAppendsOnceFlushedInBackground() {
+    // given
+    final ThreadContext threadContext = mockThreadContext();
+    doAnswer(i -> runTask(i.getArgument(0))).when(threadContext).execute(any());
+    when(log.shouldFlushAsync()).thenReturn(true);
+    role = new PassiveRole(ctx);
+    role.start().join();
+    final ArgumentCaptor<DurableIndexListener> listener =
+        ArgumentCaptor.forClass(DurableIndexListener.class);
+    verify(log).addDurableIndexListener(listener.capture());
+
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    final IndexedRaftLogEntry firstEntry = mock(IndexedRaftLogEntry.class);
+    when(firstEntry.index()).thenReturn(1L);
+    when(firstEntry.term()).thenReturn(1L);
+    when(log.getLastEntry()).thenReturn(null, firstEntry);
+
+    // when
+    final CompletableFuture<AppendResponse> first = role.handleAppend(appendRequest(0, 0, 1));
+    final CompletableFuture<AppendResponse> second = role.handleAppend(appendRequest(1, 1, 2));
+
+    // then
+    verify(log, times(2)).flushAsync();
+    verify(log, never()).flush();
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+
+    // when - the first entry was flushed
+    when(log.getDurableIndex()).thenReturn(1L);
+    listener.getValue().onDurableIndexUpdated(1L);
+
+    // then
+    verify(ctx).setLastWrittenIndex(eq(1L));
+    assertThat(first.join().succeeded()).isTrue();
+    assertThat(second).isNotDone();
+
+    // when - the second entry was flushed
+    when(log.getDurableIndex()).thenReturn(2L);
+    listener.getValue().onDurableIndexUpdated(2L);
+
+    // then
+    verify(ctx).setLastWrittenIndex(eq(2L));
+    assertThat(second.join().lastLogIndex()).isEqualTo(2);
+    verify(log, never()).flush();
+  }
+
+  @Test
+  public void shouldNotAcknowledgeAppendOnOutdatedDurableIndex() {
+    // given
+    final ThreadContext threadContext = mockThreadContext();
+    doAnswer(i -> runTask(i.getArgument(0))).when(threadContext).execute(any());
+    when(log.shouldFlushAsync()).thenReturn(true);
+    role = new PassiveRole(ctx);
+    role.start().join();
+    final ArgumentCaptor<DurableIndexListener> listener =
+        ArgumentCaptor.forClass(DurableIndexListener.class);
+    verify(log).addDurableIndexListener(listener.capture());
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    final CompletableFuture<AppendResponse> response = role.handleAppend(appendRequest(0, 0, 1));
+
+    // when - the log was truncated after the notified index was flushed
+    when(log.getDurableIndex()).thenReturn(0L);
+    listener.getValue().onDurableIndexUpdated(1L);
+
+    // then
+    assertThat(response).isNotDone();
+  }
+
+  @Test
+  public void shouldRejectAppendsWhichFailedToFlushInBackground() {
+    // given
+    final ThreadContext threadContext = mockThreadContext();
+    doAnswer(i -> runTask(i.getArgument(0))).when(threadContext).execute(any());
+    when(log.shouldFlushAsync()).thenReturn(true);
+    role = new PassiveRole(ctx);
+    role.start().join();
+    final ArgumentCaptor<DurableIndexListener> listener =
+        ArgumentCaptor.forClass(DurableIndexListener.class);
+    verify(log).addDurableIndexListener(listener.capture());
+
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    final IndexedRaftLogEntry firstEntry = mock(IndexedRaftLogEntry.class);
+    when(firstEntry.index()).thenReturn(1L);
+    when(firstEntry.term()).thenReturn(1L);
+    when(log.getLastEntry()).thenReturn(null, firstEntry);
+    final CompletableFuture<AppendResponse> first = role.handleAppend(appendRequest(0, 0, 1));
+    final CompletableFuture<AppendResponse> second = role.handleAppend(appendRequest(1, 1, 2));
+
+    // when - the first entry was flushed, but flushing the second one failed
+    when(log.getDurableIndex()).thenReturn(1L);
+    listener.getValue().onFlushFailed(new IOException("expected"));
+
+    // then
+    assertThat(first.join().succeeded()).isTrue();
+    assertThat(second.join().succeeded()).isFalse();
+    assertThat(second.join().lastLogIndex()).isEqualTo(1);
+    verify(ctx).setLastWrittenIndex(eq(1L));
+    verify(log, never()).flush();
+  }
+
+  @Test
+  public void shouldRequestFlushAgainOnHeartbeatWhileAppendIsNotDurable() {
+    // given
+    final ThreadContext threadContext = mockThreadContext();
+    doAnswer(i -> runTask(i.getArgument(0))).when(threadContext).execute(any());
+    when(log.shouldFlushAsync()).thenReturn(true);
+    role = new PassiveRole(ctx);
+    role.start().join();
+    final ArgumentCaptor<DurableIndexListener> listener =
+        ArgumentCaptor.forClass(DurableIndexListener.class);
+    verify(log).addDurableIndexListener(listener.capture());
+
+    when(log.appendBatch(any())).thenReturn(mock(IndexedRaftLogEntry.class));
+    final IndexedRaftLogEntry firstEntry = mock(IndexedRaftLogEntry.class);
+    when(firstEntry.index()).thenReturn(1L);
+    when(firstEntry.term()).thenReturn(1L);
+    when(log.getLastEntry()).thenReturn(null, firstEntry);
+    final CompletableFuture<AppendResponse> append = role.handleAppend(appendRequest(0, 0, 1));
+
+    // when - e.g. the requested flush failed
+    final CompletableFuture<AppendResponse> heartbeat =
+        role.handleAppend(new AppendRequest(1, "", 1, 1, List.of(), 0));
+
+    // then
+    verify(log, times(2)).flushAsync();
+    assertThat(heartbeat).isNotDone();
+
+    // when
+    when(log.getDurableIndex()).thenReturn(1L);
+    listener.getValue().onDurableIndexUpdated(1L);
+
+    // then
+    assertThat(append.join().succeeded()).isTrue();
+    assertThat(heartbeat.join().succeeded()).isTrue();
+  }
+
+  @Test
+  public void shouldAcknowledgeSnapshotChunkWhichWasAlreadyReceived() {
+    // given
+    final ReceivedSnapshot receivedSnapshot = mockReceivedSnapshot();
+    role.onInstall(installRequest("chunk-1", "chunk-2", true)).join();
+    role.onInstall(installRequest("chunk-2", "chunk-3", false)).join();
+
+    // when - the leader resends the chunks after the last acknowledged one
+    final InstallResponse response =
+        role.onInstall(installRequest("chunk-2", "chunk-3", false)).join();
+
+    // then
+    assertThat(response.status()).isEqualTo(RaftResponse.Status.OK);
+    verify(receivedSnapshot, times(2)).apply(any());
+  }
+
+  @Test
+  public void shouldRejectSnapshotChunkReceivedOutOfOrder() {
+    // given
+    final ReceivedSnapshot receivedSnapshot = mockReceivedSnapshot();
+    role.onInstall(installRequest("chunk-1", "chunk-2", true)).join();
+
+    // when - the second chunk was lost
+    final InstallResponse response =
+        role.onInstall(installRequest("chunk-3", "chunk-4", false)).join();
+
+    // then
+    assertThat(response.status()).isEqualTo(RaftResponse.Status.ERROR);
+    verify(receivedSnapshot, times(1)).apply(any());
+  }
+
+  private ReceivedSnapshot mockReceivedSnapshot() {
+    final ReceivedSnapshot receivedSnapshot = mock(ReceivedSnapshot.class);
+    when(receivedSnapshot.index()).thenReturn(2L);
+    when(receivedSnapshot.apply(any())).thenReturn(CompletableActorFuture.completed(null));
+    when(store.newReceivedSnapshot(any())).thenReturn(receivedSnapshot);
+    when(ctx.getCluster()).thenReturn(mock(RaftClusterContext.class));
+    return receivedSnapshot;
+  }
+
+  private InstallRequest installRequest(
+      final String chunkId, final String nextChunkId, final boolean initial) {
+    final SnapshotChunk chunk = mock(SnapshotChunk.class);
+    when(chunk.getSnapshotId()).thenReturn("2-1-1");
+    when(chunk.getChunkName()).thenReturn(chunkId);
+    when(chunk.getContent()).thenReturn(new byte[1]);
+    when(chunk.getTotalCount()).thenReturn(4);
+
+    return InstallRequest.builder()
+        .withCurrentTerm(1)
+        .withLeader(MemberId.from("leader"))
+        .withIndex(2)
+        .withTerm(1)
+        .withVersion(1)
+        .withData(new SnapshotChunkImpl(chunk).toByteBuffer())
+        .withChunkId(ByteBuffer.wrap(chunkId.getBytes()))
+        .withNextChunkId(ByteBuffer.wrap(nextChunkId.getBytes()))
+        .withInitial(initial)
+        .withComplete(false)
+        .build();
+  }
+
+  private ThreadContext mockThreadContext() {
+    final ThreadContext threadContext = mock(ThreadContext.class);
+    when(threadContext.schedule(any(Duration.class), any())).thenReturn(mock(Scheduled.class));
+    when(ctx.getThreadContext()).thenReturn(threadContext);
+    return threadContext;
+  }
+
+  private static Void runTask(final Runnable task) {
+    task.run();
+    return null;
+  }
+
+  private AppendRequest appendRequest(
+      final long prevLogIndex, final long prevLogTerm, final long index) {
+    final List<PersistedRaftRecord> entries =
+        List.of(new PersistedRaftRecord(1, index, index, 1, new byte[1]));
+    return new AppendRequest(1, "", prevLogIndex, prevLogTerm, entries, 0);
+  }
 }
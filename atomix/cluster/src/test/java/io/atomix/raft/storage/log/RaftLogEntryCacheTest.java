@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.storage.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.atomix.raft.storage.log.entry.ApplicationEntry;
+import io.atomix.raft.storage.log.entry.RaftLogEntry;
+import java.io.File;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RaftLogEntryCacheTest {
+
+  private final ByteBuffer data = ByteBuffer.allocate(64);
+  private RaftLog raftlog;
+
+  @BeforeEach
+  void setup(@TempDir final File directory) {
+    raftlog = RaftLog.builder().withDirectory(directory).withName("test").build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    raftlog.close();
+  }
+
+  @Test
+  void shouldReturnCachedEntries() {
+    // given
+    final var cache = new RaftLogEntryCache(1024 * 1024);
+    final var first = append(1);
+    final var second = append(2);
+
+    // when
+    cache.put(first);
+    cache.put(second);
+
+    // then
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get(0)).isNull();
+    assertThat(cache.get(1).index()).isEqualTo(1);
+    assertThat(cache.get(1).getPersistedRaftRecord().checksum())
+        .isEqualTo(first.getPersistedRaftRecord().checksum());
+    assertThat(cache.get(1).getPersistedRaftRecord().data())
+        .isEqualTo(first.getPersistedRaftRecord().data());
+    assertThat(cache.get(2).getApplicationEntry().lowestPosition()).isEqualTo(2);
+    assertThat(cache.get(3)).isNull();
+  }
+
+  @Test
+  void shouldShareSerializedRecordBetweenReads() {
+    // given
+    final var cache = new RaftLogEntryCache(1024 * 1024);
+    cache.put(append(1));
+
+    // when
+    final var record = cache.get(1).getPersistedRaftRecord();
+
+    // then
+    assertThat(cache.get(1).getPersistedRaftRecord()).isSameAs(record);
+  }
+
+  @Test
+  void shouldEvictOldestEntriesWhenFull() {
+    // given
+    final var entry = append(1);
+    final int entrySize = entry.getPersistedRaftRecord().approximateSize();
+    final var cache = new RaftLogEntryCache(entrySize * 3L);
+    cache.put(entry);
+
+    // when
+    for (int i = 2; i <= 5; i++) {
+      cache.put(append(i));
+    }
+
+    // then
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.getBytes()).isEqualTo(entrySize * 3L);
+    assertThat(cache.get(2)).isNull();
+    assertThat(cache.get(3).index()).isEqualTo(3);
+    assertThat(cache.get(5).index()).isEqualTo(5);
+  }
+
+  @Test
+  void shouldGrowBeyondInitialCapacity() {
+    // given
+    final var cache = new RaftLogEntryCache(1024 * 1024);
+
+    // when
+    for (int i = 1; i <= 200; i++) {
+      cache.put(append(i));
+    }
+
+    // then
+    assertThat(cache.size()).isEqualTo(200);
+    for (int i = 1; i <= 200; i++) {
+      assertThat(cache.get(i).index()).isEqualTo(i);
+    }
+  }
+
+  @Test
+  void shouldClearOnNonContiguousEntry() {
+    // given
+    final var cache = new RaftLogEntryCache(1024 * 1024);
+    cache.put(append(1));
+    cache.put(append(2));
+    append(3);
+
+    // when
+    cache.put(append(4));
+
+    // then
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get(2)).isNull();
+    assertThat(cache.get(4).index()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldNotCacheWhenDisabled() {
+    // given
+    final var cache = new RaftLogEntryCache(0);
+
+    // when
+    cache.put(append(1));
+
+    // then
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get(1)).isNull();
+  }
+
+  private IndexedRaftLogEntry append(final long position) {
+    return raftlog.append(new RaftLogEntry(1, new ApplicationEntry(position, position, data)));
+  }
+}
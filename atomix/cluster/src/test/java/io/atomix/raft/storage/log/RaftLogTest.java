@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.atomix.cluster.MemberId;
@@ -33,6 +34,7 @@ import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.jupiter.api.AfterEach;
@@ -149,6 +151,32 @@ class RaftLogTest {
     raftlogFollower.close();
   }
 
+  @Test
+  void shouldAppendPersistedRaftEntriesInBatch(@TempDir final File directory) {
+    // given
+    final var firstRecord =
+        raftlog.append(new RaftLogEntry(1, initialEntry)).getPersistedRaftRecord();
+    final var secondRecord =
+        raftlog.append(new RaftLogEntry(1, applicationEntry)).getPersistedRaftRecord();
+    final var raftlogFollower =
+        RaftLog.builder().withDirectory(directory).withName("test-follower").build();
+
+    // when
+    final var appended = raftlogFollower.appendBatch(List.of(firstRecord, secondRecord));
+
+    // then
+    assertThat(raftlogFollower.getLastIndex()).isEqualTo(2);
+    assertThat(raftlogFollower.getLastEntry()).isEqualTo(appended);
+    assertThat(appended.index()).isEqualTo(2);
+    assertThat(appended.entry()).isEqualTo(applicationEntry);
+    try (final var followerReader = raftlogFollower.openReader()) {
+      assertThat(followerReader.next().entry()).isInstanceOf(InitialEntry.class);
+      assertThat(followerReader.next().entry()).isEqualTo(applicationEntry);
+    }
+
+    raftlogFollower.close();
+  }
+
   @Test
   void shouldDeleteAfter() {
     // given
@@ -208,7 +236,7 @@ class RaftLogTest {
   void shouldFlushWhenFlushExplicitlyTrue() {
     // given
     final Journal journal = mock(Journal.class);
-    final var log = new RaftLog(journal, true);
+    final var log = new RaftLog(journal, true, false);
 
     // when
     log.flush();
@@ -221,7 +249,7 @@ class RaftLogTest {
   void shouldNotFlushWhenFlushExplicitlyFalse() {
     // given
     final Journal journal = mock(Journal.class);
-    final var log = new RaftLog(journal, false);
+    final var log = new RaftLog(journal, false, false);
 
     // when
     log.flush();
@@ -229,4 +257,21 @@ class RaftLogTest {
     // then
     verify(journal, timeout(1).times(0)).flush();
   }
+
+  @Test
+  void shouldFlushAsyncOnlyWhenFlushExplicitlyTrue() {
+    // given
+    final Journal journal = mock(Journal.class);
+    final var log = new RaftLog(journal, true, true);
+    final var logWithoutFlush = new RaftLog(journal, false, true);
+
+    // when
+    log.flushAsync();
+    logWithoutFlush.flushAsync();
+
+    // then
+    assertThat(log.shouldFlushAsync()).isTrue();
+    assertThat(logWithoutFlush.shouldFlushAsync()).isFalse();
+    verify(journal, times(1)).flushAsync();
+  }
 }
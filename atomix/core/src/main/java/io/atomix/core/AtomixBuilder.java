@@ -21,11 +21,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import io.atomix.cluster.AtomixClusterBuilder;
 import io.atomix.cluster.MemberId;
 import io.atomix.cluster.discovery.NodeDiscoveryProvider;
+import io.atomix.cluster.messaging.ChannelSelectionStrategy;
 import io.atomix.cluster.protocol.GroupMembershipProtocol;
 import io.atomix.primitive.partition.ManagedPartitionGroup;
 import io.atomix.utils.net.Address;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -196,6 +199,44 @@ public class AtomixBuilder extends AtomixClusterBuilder {
     return this;
   }
 
+  @Override
+  public AtomixBuilder withMessagingCompression(final boolean compressionEnabled) {
+    super.withMessagingCompression(compressionEnabled);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withMessagingCompressionThreshold(final int compressionThreshold) {
+    super.withMessagingCompressionThreshold(compressionThreshold);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withMessagingConnectionPoolSize(final int connectionPoolSize) {
+    super.withMessagingConnectionPoolSize(connectionPoolSize);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withMessagingChannelSelectionStrategy(
+      final ChannelSelectionStrategy channelSelectionStrategy) {
+    super.withMessagingChannelSelectionStrategy(channelSelectionStrategy);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withMessagingReroutableSubjectPrefixes(
+      final List<String> reroutableSubjectPrefixes) {
+    super.withMessagingReroutableSubjectPrefixes(reroutableSubjectPrefixes);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withEventBatchingDelay(final Duration eventBatchingDelay) {
+    super.withEventBatchingDelay(eventBatchingDelay);
+    return this;
+  }
+
   @Override
   public AtomixBuilder withMembershipProtocol(final GroupMembershipProtocol protocol) {
     super.withMembershipProtocol(protocol);
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread context which runs its tasks on a thread pool shared with other contexts.
+ *
+ * <p>Like a {@link SingleThreadContext}, the context runs its tasks one at a time and in the order
+ * in which they were submitted, and {@link ThreadContext#currentContext()} returns the context
+ * while one of its tasks runs. Tasks of different contexts run in parallel on the threads of the
+ * pool, which must be created by an {@link AtomixThreadFactory}. To be fair to the other contexts,
+ * a context gives up its thread after running {@link #MAX_TASKS_PER_RUN} tasks and is scheduled
+ * again.
+ */
+public class ThreadPoolContext extends AbstractThreadContext {
+
+  static final int MAX_TASKS_PER_RUN = 64;
+  private static final Logger LOGGER = LoggerFactory.getLogger(ThreadPoolContext.class);
+
+  private final ScheduledExecutorService pool;
+  private final Consumer<Throwable> uncaughtExceptionObserver;
+  private final Queue<Runnable> tasks = new ArrayDeque<>();
+  private final Set<ScheduledFuture<?>> periodicTasks = ConcurrentHashMap.newKeySet();
+  private boolean running;
+  private volatile boolean closed;
+
+  /**
+   * Creates a new thread pool context.
+   *
+   * @param pool the shared pool on which tasks are run and scheduled
+   * @param uncaughtExceptionObserver a consumer to observe exceptions thrown by submitted tasks
+   */
+  public ThreadPoolContext(
+      final ScheduledExecutorService pool, final Consumer<Throwable> uncaughtExceptionObserver) {
+    this.pool = checkNotNull(pool, "pool cannot be null");
+    this.uncaughtExceptionObserver =
+        checkNotNull(uncaughtExceptionObserver, "uncaughtExceptionObserver cannot be null");
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    if (closed) {
+      LOGGER.warn("Execution of {} was rejected, the context is closed", command);
+      return;
+    }
+
+    synchronized (tasks) {
+      tasks.add(command);
+      if (!running) {
+        running = true;
+        submitRun();
+      }
+    }
+  }
+
+  @Override
+  public Scheduled schedule(final Duration delay, final Runnable runnable) {
+    final ScheduledFuture<?> future =
+        pool.schedule(() -> execute(runnable), delay.toMillis(), TimeUnit.MILLISECONDS);
+    return new ScheduledFutureImpl<>(future);
+  }
+
+  @Override
+  public Scheduled schedule(
+      final Duration delay, final Duration interval, final Runnable runnable) {
+    final ScheduledFuture<?> future =
+        pool.scheduleAtFixedRate(
+            () -> execute(runnable), delay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    periodicTasks.add(future);
+    return new PeriodicTask(future);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    periodicTasks.forEach(task -> task.cancel(false));
+    periodicTasks.clear();
+    synchronized (tasks) {
+      tasks.clear();
+    }
+  }
+
+  /** Returns the number of periodic tasks which were neither cancelled nor closed yet. */
+  int getPeriodicTaskCount() {
+    return periodicTasks.size();
+  }
+
+  private void submitRun() {
+    try {
+      pool.execute(this::run);
+    } catch (final RejectedExecutionException e) {
+      LOGGER.warn("Execution of the tasks of {} was rejected!", this, e);
+      running = false;
+    }
+  }
+
+  private void run() {
+    final AtomixThread thread = (AtomixThread) Thread.currentThread();
+    thread.setContext(this);
+    try {
+      for (int i = 0; i < MAX_TASKS_PER_RUN && !closed; i++) {
+        final Runnable task;
+        synchronized (tasks) {
+          task = tasks.poll();
+          if (task == null) {
+            running = false;
+            return;
+          }
+        }
+        runTask(task);
+      }
+    } finally {
+      thread.setContext(null);
+    }
+
+    synchronized (tasks) {
+      if (tasks.isEmpty()) {
+        running = false;
+      } else {
+        submitRun();
+      }
+    }
+  }
+
+  private void runTask(final Runnable task) {
+    try {
+      task.run();
+    } catch (final Throwable e) {
+      // the pool thread is shared with other contexts, so the error must not escape the task
+      uncaughtExceptionObserver.accept(e);
+    }
+  }
+
+  /** A periodic task which is forgotten by the context once it is cancelled. */
+  private final class PeriodicTask implements Scheduled {
+    private final ScheduledFuture<?> future;
+
+    private PeriodicTask(final ScheduledFuture<?> future) {
+      this.future = future;
+    }
+
+    @Override
+    public void cancel() {
+      future.cancel(false);
+      periodicTasks.remove(future);
+    }
+
+    @Override
+    public boolean isDone() {
+      return future.isDone();
+    }
+  }
+}
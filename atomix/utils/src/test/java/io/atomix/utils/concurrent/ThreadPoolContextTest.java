@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ThreadPoolContextTest {
+
+  private final Logger log = LoggerFactory.getLogger("thread");
+  private final ScheduledExecutorService pool =
+      Executors.newScheduledThreadPool(1, namedThreads("test-%d", log));
+
+  @After
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void shouldRunTasksInOrder() throws InterruptedException {
+    // given
+    final ThreadPoolContext context = new ThreadPoolContext(pool, e -> {});
+    final List<Integer> executed = new CopyOnWriteArrayList<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // when
+    for (int i = 0; i < 2 * ThreadPoolContext.MAX_TASKS_PER_RUN; i++) {
+      final int task = i;
+      context.execute(() -> executed.add(task));
+    }
+    context.execute(latch::countDown);
+
+    // then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 2 * ThreadPoolContext.MAX_TASKS_PER_RUN; i++) {
+      expected.add(i);
+    }
+    assertEquals(expected, executed);
+  }
+
+  @Test
+  public void shouldBeCurrentContextWhileRunningTask() throws InterruptedException {
+    // given
+    final ThreadPoolContext context = new ThreadPoolContext(pool, e -> {});
+    final ThreadPoolContext otherContext = new ThreadPoolContext(pool, e -> {});
+    final AtomicReference<ThreadContext> current = new AtomicReference<>();
+    final AtomicReference<ThreadContext> otherCurrent = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(2);
+
+    // when
+    context.execute(
+        () -> {
+          current.set(ThreadContext.currentContext());
+          latch.countDown();
+        });
+    otherContext.execute(
+        () -> {
+          otherCurrent.set(ThreadContext.currentContext());
+          latch.countDown();
+        });
+
+    // then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertSame(context, current.get());
+    assertSame(otherContext, otherCurrent.get());
+  }
+
+  @Test
+  public void shouldRunScheduledTaskOnContext() throws InterruptedException {
+    // given
+    final ThreadPoolContext context = new ThreadPoolContext(pool, e -> {});
+    final AtomicReference<ThreadContext> current = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // when
+    context.schedule(
+        Duration.ofMillis(10),
+        () -> {
+          current.set(ThreadContext.currentContext());
+          latch.countDown();
+        });
+
+    // then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertSame(context, current.get());
+  }
+
+  @Test
+  public void shouldInvokeHandlerOnException() throws InterruptedException {
+    // given
+    final CountDownLatch latch = new CountDownLatch(1);
+    final ThreadPoolContext context = new ThreadPoolContext(pool, e -> latch.countDown());
+    final CountDownLatch nextTask = new CountDownLatch(1);
+
+    // when
+    context.execute(
+        () -> {
+          throw new RuntimeException();
+        });
+    context.execute(nextTask::countDown);
+
+    // then
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(nextTask.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldNotRunTasksAfterClose() throws InterruptedException {
+    // given
+    final ThreadPoolContext context = new ThreadPoolContext(pool, e -> {});
+    final List<Integer> executed = new CopyOnWriteArrayList<>();
+    context.schedule(Duration.ofMillis(1), Duration.ofMillis(1), () -> executed.add(1));
+
+    // when
+    context.close();
+    final int executedOnClose = executed.size();
+    Thread.sleep(50);
+
+    // then
+    assertTrue(executed.size() <= executedOnClose + 1);
+  }
+
+  @Test
+  public void shouldForgetCancelledPeriodicTasks() {
+    // given
+    final ThreadPoolContext context = new ThreadPoolContext(pool, e -> {});
+    final Scheduled first = context.schedule(Duration.ofHours(1), Duration.ofHours(1), () -> {});
+    context.schedule(Duration.ofHours(1), Duration.ofHours(1), () -> {});
+
+    // when
+    first.cancel();
+
+    // then
+    assertTrue(first.isDone());
+    assertEquals(1, context.getPeriodicTaskCount());
+    context.close();
+    assertEquals(0, context.getPeriodicTaskCount());
+  }
+}
@@ -27,6 +27,7 @@ import io.camunda.zeebe.broker.system.configuration.MembershipCfg;
 import io.camunda.zeebe.broker.system.configuration.NetworkCfg;
 import io.camunda.zeebe.logstreams.impl.log.ZeebeEntryValidator;
 import io.camunda.zeebe.snapshots.ReceivableSnapshotStoreFactory;
+import io.camunda.zeebe.transport.impl.AtomixServerTransport;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -47,6 +48,7 @@ public final class AtomixFactory {
     final var nodeId = clusterCfg.getNodeId();
     final var localMemberId = Integer.toString(nodeId);
     final var networkCfg = configuration.getNetwork();
+    final var experimentalCfg = configuration.getExperimental();
 
     final NodeDiscoveryProvider discoveryProvider =
         createDiscoveryProvider(clusterCfg, localMemberId);
@@ -73,6 +75,14 @@ public final class AtomixFactory {
             .withMembershipProtocol(membershipProtocol)
             .withMessagingInterface(networkCfg.getInternalApi().getHost())
             .withMessagingPort(networkCfg.getInternalApi().getPort())
+            .withMessagingCompression(experimentalCfg.isMessageCompression())
+            .withMessagingCompressionThreshold(
+                (int) experimentalCfg.getMessageCompressionThresholdInBytes())
+            .withMessagingConnectionPoolSize(experimentalCfg.getMessagingConnectionPoolSize())
+            .withMessagingChannelSelectionStrategy(experimentalCfg.getMessagingChannelSelection())
+            // only the command API may be reordered; Raft relies on the order of its messages
+            .withMessagingReroutableSubjectPrefixes(List.of(AtomixServerTransport.API_TOPIC_PREFIX))
+            .withEventBatchingDelay(experimentalCfg.getClusterEventBatchingDelay())
             .withAddress(
                 Address.from(
                     networkCfg.getInternalApi().getAdvertisedHost(),
@@ -111,10 +121,23 @@ public final class AtomixFactory {
             .withSnapshotStoreFactory(snapshotStoreFactory)
             .withMaxAppendBatchSize((int) experimentalCfg.getMaxAppendBatchSizeInBytes())
             .withMaxAppendsPerFollower(experimentalCfg.getMaxAppendsPerFollower())
+            .withAdaptiveAppendWindow(experimentalCfg.isAdaptiveAppendWindow())
+            .withFollowerFlushDelay(experimentalCfg.getFollowerFlushDelay())
+            .withFollowerFlushBatchSize((int) experimentalCfg.getFollowerFlushBatchSizeInBytes())
+            .withEntryCacheSize((int) experimentalCfg.getRaftEntryCacheSizeInBytes())
+            .withMaxSnapshotChunksPerFollower(experimentalCfg.getMaxSnapshotChunksPerFollower())
+            .withMessageBatchingDelay(experimentalCfg.getRaftMessageBatchingDelay())
+            .withMessageBatchSize((int) experimentalCfg.getRaftMessageBatchSizeInBytes())
+            .withLeaderRebalancingInterval(experimentalCfg.getLeaderRebalancingInterval())
+            .withLeaderRebalancingCooldown(experimentalCfg.getLeaderRebalancingCooldown())
+            .withThreadPoolSize(experimentalCfg.getRaftThreadPoolSize())
             .withEntryValidator(new ZeebeEntryValidator())
             .withFlushExplicitly(!experimentalCfg.isDisableExplicitRaftFlush())
+            .withAsyncFlush(experimentalCfg.isAsyncRaftFlush())
             .withFreeDiskSpace(dataCfg.getFreeDiskSpaceReplicationWatermark())
-            .withJournalIndexDensity(dataCfg.getLogIndexDensity());
+            .withJournalIndexDensity(dataCfg.getLogIndexDensity())
+            .withMaxIdleMappedSegments(experimentalCfg.getMaxIdleMappedLogSegments())
+            .withBackgroundSegmentDeletion(experimentalCfg.isBackgroundLogSegmentDeletion());
 
     final int maxMessageSize = (int) networkCfg.getMaxMessageSizeInBytes();
 
@@ -7,6 +7,8 @@
  */
 package io.camunda.zeebe.broker.system.configuration;
 
+import io.atomix.cluster.messaging.ChannelSelectionStrategy;
+import java.time.Duration;
 import java.util.Optional;
 import org.springframework.util.unit.DataSize;
 
@@ -20,10 +22,51 @@ public class ExperimentalCfg implements ConfigurationEntry {
   public static final int DEFAULT_MAX_APPENDS_PER_FOLLOWER = 2;
   public static final DataSize DEFAULT_MAX_APPEND_BATCH_SIZE = DataSize.ofKilobytes(32);
   public static final boolean DEFAULT_DISABLE_EXPLICIT_RAFT_FLUSH = false;
+  public static final int DEFAULT_MAX_IDLE_MAPPED_LOG_SEGMENTS = Integer.MAX_VALUE;
+  public static final boolean DEFAULT_BACKGROUND_LOG_SEGMENT_DELETION = false;
+  public static final boolean DEFAULT_ASYNC_RAFT_FLUSH = false;
+  public static final boolean DEFAULT_ADAPTIVE_APPEND_WINDOW = false;
+  public static final Duration DEFAULT_FOLLOWER_FLUSH_DELAY = Duration.ZERO;
+  public static final DataSize DEFAULT_FOLLOWER_FLUSH_BATCH_SIZE = DataSize.ofMegabytes(1);
+  public static final DataSize DEFAULT_RAFT_ENTRY_CACHE_SIZE = DataSize.ofMegabytes(4);
+  public static final int DEFAULT_MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER = 1;
+  public static final boolean DEFAULT_MESSAGE_COMPRESSION = false;
+  public static final DataSize DEFAULT_MESSAGE_COMPRESSION_THRESHOLD = DataSize.ofKilobytes(1);
+  public static final Duration DEFAULT_RAFT_MESSAGE_BATCHING_DELAY = Duration.ZERO;
+  public static final DataSize DEFAULT_RAFT_MESSAGE_BATCH_SIZE = DataSize.ofKilobytes(64);
+  public static final Duration DEFAULT_LEADER_REBALANCING_INTERVAL = Duration.ZERO;
+  public static final Duration DEFAULT_LEADER_REBALANCING_COOLDOWN = Duration.ofMinutes(5);
+  public static final int DEFAULT_RAFT_THREAD_POOL_SIZE = 0;
+  public static final int DEFAULT_MESSAGING_CONNECTION_POOL_SIZE = 8;
+  public static final ChannelSelectionStrategy DEFAULT_MESSAGING_CHANNEL_SELECTION =
+      ChannelSelectionStrategy.SUBJECT;
+  public static final Duration DEFAULT_CLUSTER_EVENT_BATCHING_DELAY = Duration.ZERO;
+  public static final Duration DEFAULT_MAX_APPEND_LINGER = Duration.ZERO;
+  public static final DataSize DEFAULT_APPEND_LINGER_BLOCK_SIZE = DataSize.ofKilobytes(64);
 
   private int maxAppendsPerFollower = DEFAULT_MAX_APPENDS_PER_FOLLOWER;
   private DataSize maxAppendBatchSize = DEFAULT_MAX_APPEND_BATCH_SIZE;
   private boolean disableExplicitRaftFlush = DEFAULT_DISABLE_EXPLICIT_RAFT_FLUSH;
+  private int maxIdleMappedLogSegments = DEFAULT_MAX_IDLE_MAPPED_LOG_SEGMENTS;
+  private boolean backgroundLogSegmentDeletion = DEFAULT_BACKGROUND_LOG_SEGMENT_DELETION;
+  private boolean asyncRaftFlush = DEFAULT_ASYNC_RAFT_FLUSH;
+  private boolean adaptiveAppendWindow = DEFAULT_ADAPTIVE_APPEND_WINDOW;
+  private Duration followerFlushDelay = DEFAULT_FOLLOWER_FLUSH_DELAY;
+  private DataSize followerFlushBatchSize = DEFAULT_FOLLOWER_FLUSH_BATCH_SIZE;
+  private DataSize raftEntryCacheSize = DEFAULT_RAFT_ENTRY_CACHE_SIZE;
+  private int maxSnapshotChunksPerFollower = DEFAULT_MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER;
+  private boolean messageCompression = DEFAULT_MESSAGE_COMPRESSION;
+  private DataSize messageCompressionThreshold = DEFAULT_MESSAGE_COMPRESSION_THRESHOLD;
+  private Duration raftMessageBatchingDelay = DEFAULT_RAFT_MESSAGE_BATCHING_DELAY;
+  private DataSize raftMessageBatchSize = DEFAULT_RAFT_MESSAGE_BATCH_SIZE;
+  private Duration leaderRebalancingInterval = DEFAULT_LEADER_REBALANCING_INTERVAL;
+  private Duration leaderRebalancingCooldown = DEFAULT_LEADER_REBALANCING_COOLDOWN;
+  private int raftThreadPoolSize = DEFAULT_RAFT_THREAD_POOL_SIZE;
+  private int messagingConnectionPoolSize = DEFAULT_MESSAGING_CONNECTION_POOL_SIZE;
+  private ChannelSelectionStrategy messagingChannelSelection = DEFAULT_MESSAGING_CHANNEL_SELECTION;
+  private Duration clusterEventBatchingDelay = DEFAULT_CLUSTER_EVENT_BATCHING_DELAY;
+  private Duration maxAppendLinger = DEFAULT_MAX_APPEND_LINGER;
+  private DataSize appendLingerBlockSize = DEFAULT_APPEND_LINGER_BLOCK_SIZE;
   private RocksdbCfg rocksdb = new RocksdbCfg();
 
   @Override
@@ -59,6 +102,195 @@ public class ExperimentalCfg implements ConfigurationEntry {
     this.disableExplicitRaftFlush = disableExplicitRaftFlush;
   }
 
+  public int getMaxIdleMappedLogSegments() {
+    return maxIdleMappedLogSegments;
+  }
+
+  public void setMaxIdleMappedLogSegments(final int maxIdleMappedLogSegments) {
+    this.maxIdleMappedLogSegments = maxIdleMappedLogSegments;
+  }
+
+  public boolean isBackgroundLogSegmentDeletion() {
+    return backgroundLogSegmentDeletion;
+  }
+
+  public void setBackgroundLogSegmentDeletion(final boolean backgroundLogSegmentDeletion) {
+    this.backgroundLogSegmentDeletion = backgroundLogSegmentDeletion;
+  }
+
+  public boolean isAsyncRaftFlush() {
+    return asyncRaftFlush;
+  }
+
+  public void setAsyncRaftFlush(final boolean asyncRaftFlush) {
+    this.asyncRaftFlush = asyncRaftFlush;
+  }
+
+  public boolean isAdaptiveAppendWindow() {
+    return adaptiveAppendWindow;
+  }
+
+  public void setAdaptiveAppendWindow(final boolean adaptiveAppendWindow) {
+    this.adaptiveAppendWindow = adaptiveAppendWindow;
+  }
+
+  public Duration getFollowerFlushDelay() {
+    return followerFlushDelay;
+  }
+
+  public void setFollowerFlushDelay(final Duration followerFlushDelay) {
+    this.followerFlushDelay = followerFlushDelay;
+  }
+
+  public DataSize getFollowerFlushBatchSize() {
+    return followerFlushBatchSize;
+  }
+
+  public void setFollowerFlushBatchSize(final DataSize followerFlushBatchSize) {
+    this.followerFlushBatchSize = followerFlushBatchSize;
+  }
+
+  public long getFollowerFlushBatchSizeInBytes() {
+    return Optional.ofNullable(followerFlushBatchSize)
+        .orElse(DEFAULT_FOLLOWER_FLUSH_BATCH_SIZE)
+        .toBytes();
+  }
+
+  public DataSize getRaftEntryCacheSize() {
+    return raftEntryCacheSize;
+  }
+
+  public void setRaftEntryCacheSize(final DataSize raftEntryCacheSize) {
+    this.raftEntryCacheSize = raftEntryCacheSize;
+  }
+
+  public long getRaftEntryCacheSizeInBytes() {
+    return Optional.ofNullable(raftEntryCacheSize).orElse(DEFAULT_RAFT_ENTRY_CACHE_SIZE).toBytes();
+  }
+
+  public int getMaxSnapshotChunksPerFollower() {
+    return maxSnapshotChunksPerFollower;
+  }
+
+  public void setMaxSnapshotChunksPerFollower(final int maxSnapshotChunksPerFollower) {
+    this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+  }
+
+  public boolean isMessageCompression() {
+    return messageCompression;
+  }
+
+  public void setMessageCompression(final boolean messageCompression) {
+    this.messageCompression = messageCompression;
+  }
+
+  public DataSize getMessageCompressionThreshold() {
+    return messageCompressionThreshold;
+  }
+
+  public void setMessageCompressionThreshold(final DataSize messageCompressionThreshold) {
+    this.messageCompressionThreshold = messageCompressionThreshold;
+  }
+
+  public long getMessageCompressionThresholdInBytes() {
+    return Optional.ofNullable(messageCompressionThreshold)
+        .orElse(DEFAULT_MESSAGE_COMPRESSION_THRESHOLD)
+        .toBytes();
+  }
+
+  public Duration getRaftMessageBatchingDelay() {
+    return raftMessageBatchingDelay;
+  }
+
+  public void setRaftMessageBatchingDelay(final Duration raftMessageBatchingDelay) {
+    this.raftMessageBatchingDelay = raftMessageBatchingDelay;
+  }
+
+  public DataSize getRaftMessageBatchSize() {
+    return raftMessageBatchSize;
+  }
+
+  public void setRaftMessageBatchSize(final DataSize raftMessageBatchSize) {
+    this.raftMessageBatchSize = raftMessageBatchSize;
+  }
+
+  public long getRaftMessageBatchSizeInBytes() {
+    return Optional.ofNullable(raftMessageBatchSize)
+        .orElse(DEFAULT_RAFT_MESSAGE_BATCH_SIZE)
+        .toBytes();
+  }
+
+  public Duration getLeaderRebalancingInterval() {
+    return leaderRebalancingInterval;
+  }
+
+  public void setLeaderRebalancingInterval(final Duration leaderRebalancingInterval) {
+    this.leaderRebalancingInterval = leaderRebalancingInterval;
+  }
+
+  public Duration getLeaderRebalancingCooldown() {
+    return leaderRebalancingCooldown;
+  }
+
+  public void setLeaderRebalancingCooldown(final Duration leaderRebalancingCooldown) {
+    this.leaderRebalancingCooldown = leaderRebalancingCooldown;
+  }
+
+  public int getRaftThreadPoolSize() {
+    return raftThreadPoolSize;
+  }
+
+  public void setRaftThreadPoolSize(final int raftThreadPoolSize) {
+    this.raftThreadPoolSize = raftThreadPoolSize;
+  }
+
+  public int getMessagingConnectionPoolSize() {
+    return messagingConnectionPoolSize;
+  }
+
+  public void setMessagingConnectionPoolSize(final int messagingConnectionPoolSize) {
+    this.messagingConnectionPoolSize = messagingConnectionPoolSize;
+  }
+
+  public ChannelSelectionStrategy getMessagingChannelSelection() {
+    return messagingChannelSelection;
+  }
+
+  public void setMessagingChannelSelection(final String messagingChannelSelection) {
+    this.messagingChannelSelection =
+        ChannelSelectionStrategy.valueOf(messagingChannelSelection.toUpperCase());
+  }
+
+  public Duration getClusterEventBatchingDelay() {
+    return clusterEventBatchingDelay;
+  }
+
+  public void setClusterEventBatchingDelay(final Duration clusterEventBatchingDelay) {
+    this.clusterEventBatchingDelay = clusterEventBatchingDelay;
+  }
+
+  public Duration getMaxAppendLinger() {
+    return maxAppendLinger;
+  }
+
+  public void setMaxAppendLinger(final Duration maxAppendLinger) {
+    this.maxAppendLinger = maxAppendLinger;
+  }
+
+  public DataSize getAppendLingerBlockSize() {
+    return appendLingerBlockSize;
+  }
+
+  public void setAppendLingerBlockSize(final DataSize appendLingerBlockSize) {
+    this.appendLingerBlockSize = appendLingerBlockSize;
+  }
+
+  public long getAppendLingerBlockSizeInBytes() {
+    return Optional.ofNullable(appendLingerBlockSize)
+        .orElse(DEFAULT_APPEND_LINGER_BLOCK_SIZE)
+        .toBytes();
+  }
+
   public RocksdbCfg getRocksdb() {
     return rocksdb;
   }
@@ -76,6 +308,46 @@ public class ExperimentalCfg implements ConfigurationEntry {
         + maxAppendBatchSize
         + ", disableExplicitRaftFlush="
         + disableExplicitRaftFlush
+        + ", maxIdleMappedLogSegments="
+        + maxIdleMappedLogSegments
+        + ", backgroundLogSegmentDeletion="
+        + backgroundLogSegmentDeletion
+        + ", asyncRaftFlush="
+        + asyncRaftFlush
+        + ", adaptiveAppendWindow="
+        + adaptiveAppendWindow
+        + ", followerFlushDelay="
+        + followerFlushDelay
+        + ", followerFlushBatchSize="
+        + followerFlushBatchSize
+        + ", raftEntryCacheSize="
+        + raftEntryCacheSize
+        + ", maxSnapshotChunksPerFollower="
+        + maxSnapshotChunksPerFollower
+        + ", messageCompression="
+        + messageCompression
+        + ", messageCompressionThreshold="
+        + messageCompressionThreshold
+        + ", raftMessageBatchingDelay="
+        + raftMessageBatchingDelay
+        + ", raftMessageBatchSize="
+        + raftMessageBatchSize
+        + ", leaderRebalancingInterval="
+        + leaderRebalancingInterval
+        + ", leaderRebalancingCooldown="
+        + leaderRebalancingCooldown
+        + ", raftThreadPoolSize="
+        + raftThreadPoolSize
+        + ", messagingConnectionPoolSize="
+        + messagingConnectionPoolSize
+        + ", messagingChannelSelection="
+        + messagingChannelSelection
+        + ", clusterEventBatchingDelay="
+        + clusterEventBatchingDelay
+        + ", maxAppendLinger="
+        + maxAppendLinger
+        + ", appendLingerBlockSize="
+        + appendLingerBlockSize
         + ", rocksdb="
         + rocksdb
         + '}';
@@ -36,6 +36,12 @@ public interface BrokerAdminService {
    */
   void prepareForUpgrade();
 
+  /**
+   * Requests the leadership of the next partition of which this broker is the primary broker, i.e.
+   * the first broker in the partition distribution, but not the leader.
+   */
+  void rebalanceLeaders();
+
   /**
    * Returns {@link PartitionStatus} of all partitions running on this broker.
    *
@@ -32,6 +32,7 @@ public class BrokerAdminServiceEndpoint {
     operations.put("prepareUpgrade", this::prepareUpgrade);
     operations.put("pauseExporting", this::pauseExporting);
     operations.put("resumeExporting", this::resumeExporting);
+    operations.put("rebalanceLeaders", this::rebalanceLeaders);
   }
 
   @WriteOperation
@@ -75,6 +76,11 @@ public class BrokerAdminServiceEndpoint {
     return partitionStatus();
   }
 
+  private Map<Integer, PartitionStatus> rebalanceLeaders() {
+    springBrokerBridge.getAdminService().ifPresent(BrokerAdminService::rebalanceLeaders);
+    return partitionStatus();
+  }
+
   @ReadOperation
   public Map<Integer, PartitionStatus> partitionStatus() {
     return springBrokerBridge
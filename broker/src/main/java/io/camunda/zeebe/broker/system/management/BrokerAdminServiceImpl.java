@@ -7,6 +7,7 @@
  */
 package io.camunda.zeebe.broker.system.management;
 
+import io.atomix.raft.partition.RaftPartitionGroup;
 import io.camunda.zeebe.broker.Loggers;
 import io.camunda.zeebe.broker.exporter.stream.ExporterDirector;
 import io.camunda.zeebe.broker.system.partitions.ZeebePartition;
@@ -35,9 +36,12 @@ public class BrokerAdminServiceImpl extends Actor implements BrokerAdminService
 
   private static final Logger LOG = Loggers.SYSTEM_LOGGER;
   private final List<ZeebePartition> partitions;
+  private final RaftPartitionGroup partitionGroup;
 
-  public BrokerAdminServiceImpl(final List<ZeebePartition> partitions) {
+  public BrokerAdminServiceImpl(
+      final List<ZeebePartition> partitions, final RaftPartitionGroup partitionGroup) {
     this.partitions = partitions;
+    this.partitionGroup = partitionGroup;
   }
 
   @Override
@@ -70,6 +74,15 @@ public class BrokerAdminServiceImpl extends Actor implements BrokerAdminService
     actor.call(this::prepareAllPartitionsForSafeUpgrade);
   }
 
+  @Override
+  public void rebalanceLeaders() {
+    actor.call(
+        () -> {
+          LOG.info("Rebalancing leaders.");
+          partitionGroup.rebalanceLeaders();
+        });
+  }
+
   @Override
   public Map<Integer, PartitionStatus> getPartitionStatus() {
     final CompletableFuture<Map<Integer, PartitionStatus>> future = new CompletableFuture<>();
@@ -54,12 +54,15 @@ public class LogStreamPartitionStep implements PartitionStep {
   }
 
   private ActorFuture<LogStream> buildLogstream(final PartitionContext context) {
+    final var experimentalCfg = context.getBrokerCfg().getExperimental();
     return LogStream.builder()
         .withLogStorage(context.getAtomixLogStorage())
         .withLogName("logstream-" + context.getRaftPartition().name())
         .withNodeId(context.getNodeId())
         .withPartitionId(context.getRaftPartition().id().id())
         .withMaxFragmentSize(context.getMaxFragmentSize())
+        .withMaxAppendLinger(experimentalCfg.getMaxAppendLinger())
+        .withAppendLingerBlockSize((int) experimentalCfg.getAppendLingerBlockSizeInBytes())
         .withActorScheduler(context.getScheduler())
         .buildAsync();
   }
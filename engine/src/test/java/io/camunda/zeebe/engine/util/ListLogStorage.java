@@ -48,7 +48,10 @@ public class ListLogStorage implements LogStorage {
       final ByteBuffer blockBuffer,
       final AppendListener listener) {
     try {
-      final var entry = new Entry(lowestPosition, highestPosition, blockBuffer);
+      // the appender reuses the block buffer once the append completed
+      final ByteBuffer copiedBuffer =
+          ByteBuffer.allocate(blockBuffer.remaining()).put(blockBuffer).flip();
+      final var entry = new Entry(lowestPosition, highestPosition, copiedBuffer);
       entries.add(entry);
       final var index = entries.size();
       positionIndexMapping.put(lowestPosition, index);
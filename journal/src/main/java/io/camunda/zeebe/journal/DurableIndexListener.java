@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal;
+
+/** Listener which is notified whenever the durable index of a {@link Journal} advances. */
+@FunctionalInterface
+public interface DurableIndexListener {
+
+  /**
+   * Called after all records up to the given index have been flushed to the persistent storage.
+   * Depending on the journal, this may be called from a different thread than the one which
+   * appended the records, so implementations should not block.
+   *
+   * @param durableIndex the index up to which all records are persisted
+   */
+  void onDurableIndexUpdated(long durableIndex);
+
+  /**
+   * Called if flushing in the background failed, in which case the records which were meant to be
+   * flushed are not durable. The flush is only retried once it is requested again. Called from the
+   * thread which flushed, so implementations should not block.
+   *
+   * @param error the error which caused the flush to fail
+   */
+  default void onFlushFailed(final Throwable error) {}
+}
@@ -17,6 +17,7 @@ package io.camunda.zeebe.journal;
 
 import io.camunda.zeebe.journal.JournalException.InvalidChecksum;
 import io.camunda.zeebe.journal.JournalException.InvalidIndex;
+import java.util.List;
 import org.agrona.DirectBuffer;
 
 public interface Journal extends AutoCloseable {
@@ -52,6 +53,18 @@ public interface Journal extends AutoCloseable {
    */
   void append(JournalRecord record);
 
+  /**
+   * Appends a contiguous run of {@link JournalRecord}s, which is equivalent to appending them one
+   * by one, but cheaper for many small records. If a record cannot be appended, the records before
+   * it remain appended and the exception is thrown; {@link #getLastIndex()} returns the index of
+   * the last appended record.
+   *
+   * @param records the records to be appended, in order of their index
+   * @exception InvalidIndex if the index of a record is not the next expected index
+   * @exception InvalidChecksum if the checksum in a record does not match the checksum of the data
+   */
+  void append(List<? extends JournalRecord> records);
+
   /**
    * Delete all records after indexExclusive. After a call to this method, {@link
    * Journal#getLastIndex()} should return indexExclusive.
@@ -105,6 +118,37 @@ public interface Journal extends AutoCloseable {
    */
   void flush();
 
+  /**
+   * Requests that all records written so far are flushed to the persistent storage, without waiting
+   * for the flush to complete. Depending on the implementation, the flush may be performed on the
+   * caller's thread or on a separate thread, in which case concurrent requests may be coalesced
+   * into a single flush. Once the records are persisted, {@link #getDurableIndex()} is updated and
+   * the registered {@link DurableIndexListener}s are notified.
+   */
+  void flushAsync();
+
+  /**
+   * Returns the index up to which all records are guaranteed to be flushed to the persistent
+   * storage.
+   *
+   * @return the durable index
+   */
+  long getDurableIndex();
+
+  /**
+   * Adds a listener which is notified whenever the durable index advances.
+   *
+   * @param listener the listener to add
+   */
+  void addDurableIndexListener(DurableIndexListener listener);
+
+  /**
+   * Removes a previously added durable index listener.
+   *
+   * @param listener the listener to remove
+   */
+  void removeDurableIndexListener(DurableIndexListener listener);
+
   /**
    * Opens a new {@link JournalReader}
    *
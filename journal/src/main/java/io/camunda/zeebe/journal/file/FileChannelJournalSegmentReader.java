@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalRecord;
+import java.nio.channels.FileChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Segment reader which reads records through a {@link FileChannel} and a small read-ahead buffer.
+ * Only records before the writer's {@link FileChannelJournalSegmentWriter#getWritePosition() write
+ * position} are read. Since the read-ahead buffer is reused, the data of returned records is
+ * copied.
+ */
+final class FileChannelJournalSegmentReader implements JournalSegmentReader {
+
+  private static final int READ_AHEAD_SIZE = 64 * 1024;
+
+  private final FileChannelReadBuffer readBuffer;
+  private final FileChannelJournalSegmentWriter writer;
+  private final JournalSegment segment;
+  private final JournalIndex index;
+  private final int descriptorLength;
+  private int position;
+  private long currentIndex;
+  private int truncations;
+
+  FileChannelJournalSegmentReader(
+      final FileChannel channel,
+      final FileChannelJournalSegmentWriter writer,
+      final JournalSegment segment,
+      final JournalIndex index) {
+    this.writer = writer;
+    this.segment = segment;
+    this.index = index;
+    descriptorLength = segment.descriptor().length();
+    readBuffer = new FileChannelReadBuffer(channel, READ_AHEAD_SIZE);
+    reset();
+  }
+
+  @Override
+  public boolean hasNext() {
+    checkTruncated();
+    return position < writer.getWritePosition();
+  }
+
+  @Override
+  public JournalRecord next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    final JournalRecord record =
+        readBuffer.readCopy(position, getNextIndex(), writer.getWritePosition());
+    if (record == null) {
+      throw new NoSuchElementException();
+    }
+
+    position = readBuffer.nextPosition();
+    currentIndex = record.index();
+    return record;
+  }
+
+  @Override
+  public void reset() {
+    position = descriptorLength;
+    currentIndex = segment.index() - 1;
+    truncations = writer.getTruncations();
+    readBuffer.clear();
+  }
+
+  @Override
+  public void seek(final long index) {
+    final long firstIndex = segment.index();
+    final long lastIndex = segment.lastIndex();
+
+    reset();
+
+    final var position = this.index.lookup(index - 1);
+    if (position != null && position.index() >= firstIndex && position.index() <= lastIndex) {
+      this.position = position.position();
+      currentIndex = position.index() - 1;
+    }
+
+    while (getNextIndex() < index && hasNext()) {
+      next();
+    }
+  }
+
+  @Override
+  public void close() {
+    segment.onReaderClosed(this);
+  }
+
+  @Override
+  public long getNextIndex() {
+    return currentIndex + 1;
+  }
+
+  /**
+   * Drops the read-ahead content if the segment was truncated since it was read, as it may contain
+   * records which were replaced since.
+   */
+  private void checkTruncated() {
+    final int currentTruncations = writer.getTruncations();
+    if (truncations != currentTruncations) {
+      truncations = currentTruncations;
+      readBuffer.clear();
+    }
+  }
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalException;
+import io.camunda.zeebe.journal.JournalException.InvalidChecksum;
+import io.camunda.zeebe.journal.JournalException.InvalidIndex;
+import io.camunda.zeebe.journal.JournalRecord;
+import io.camunda.zeebe.journal.file.record.CorruptedLogException;
+import io.camunda.zeebe.journal.file.record.JournalRecordSerializer;
+import io.camunda.zeebe.journal.file.record.PersistedJournalRecord;
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.RecordMetadata;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Segment writer which writes records with positional {@link FileChannel} writes instead of writing
+ * to a memory-mapped buffer. Records are serialized into a reusable direct buffer, which is then
+ * written to the file together with an invalid frame marking the end of the segment. Records are
+ * made durable with {@link FileChannel#force(boolean)}.
+ *
+ * <p>Readers only read up to the {@link #getWritePosition() write position}, which is updated once
+ * records are completely written, and drop their read-ahead content whenever the segment was {@link
+ * #getTruncations() truncated}.
+ *
+ * <p>Records are serialized without creating intermediate objects, and the last record of
+ * replicated appends is kept in a single instance whose data buffer is reused, so that appends do
+ * not allocate in steady state. Only {@link #append(long, DirectBuffer)} returns a new copy of the
+ * record, as the caller may keep it.
+ */
+final class FileChannelJournalSegmentWriter implements JournalSegmentWriter {
+
+  private static final int INITIAL_WRITE_BUFFER_SIZE = 64 * 1024;
+  private static final int RECOVERY_READ_AHEAD_SIZE = 1024 * 1024;
+
+  private final FileChannel channel;
+  private final JournalSegment segment;
+  private final JournalIndex index;
+  private final long firstIndex;
+  private final int descriptorLength;
+  private final int maxSegmentSize;
+  private final JournalRecordSerializer serializer = new SBESerializer();
+  private final ChecksumGenerator checksumGenerator = new ChecksumGenerator();
+  private final UnsafeBuffer writeView = new UnsafeBuffer();
+  private final WrittenRecord writtenRecord = new WrittenRecord();
+  private ByteBuffer writeBuffer;
+  private JournalRecord lastEntry;
+  private int lastEntryPosition;
+  private int[] batchPositions = new int[16];
+  // the position after the last record; published after the records were written
+  private volatile int writePosition;
+  private volatile int truncations;
+  private boolean isOpen = true;
+
+  FileChannelJournalSegmentWriter(
+      final FileChannel channel,
+      final JournalSegment segment,
+      final JournalIndex index,
+      final long lastWrittenIndex,
+      final SegmentIndexFile indexFile,
+      final JournalIndex recoveryIndex) {
+    this.channel = channel;
+    this.segment = segment;
+    this.index = index;
+    firstIndex = segment.index();
+    descriptorLength = segment.descriptor().length();
+    maxSegmentSize = segment.descriptor().maxSegmentSize();
+    allocateWriteBuffer(INITIAL_WRITE_BUFFER_SIZE);
+
+    final var readBuffer = new FileChannelReadBuffer(channel, RECOVERY_READ_AHEAD_SIZE);
+    if (indexFile == null || !restore(readBuffer, indexFile, recoveryIndex)) {
+      reset(readBuffer, 0, lastWrittenIndex, recoveryIndex);
+    }
+  }
+
+  @Override
+  public long getLastIndex() {
+    return lastEntry != null ? lastEntry.index() : segment.index() - 1;
+  }
+
+  @Override
+  public JournalRecord getLastEntry() {
+    return lastEntry;
+  }
+
+  @Override
+  public long getNextIndex() {
+    if (lastEntry != null) {
+      return lastEntry.index() + 1;
+    } else {
+      return firstIndex;
+    }
+  }
+
+  @Override
+  public JournalRecord append(final long asqn, final DirectBuffer data) {
+    final long recordIndex = getNextIndex();
+    final int recordLength = stage(0, recordIndex, asqn, data);
+    if (recordLength < 0) {
+      throw new BufferOverflowException();
+    }
+
+    final long checksum = checksum(0, recordLength);
+    final int startPosition = writePosition;
+    commit(startPosition, 0, recordLength, checksum);
+    final var copy = new UnsafeBuffer(new byte[data.capacity()]);
+    copy.putBytes(0, data, 0, copy.capacity());
+    lastEntry =
+        new PersistedJournalRecord(
+            new RecordMetadata(checksum, recordLength), new RecordData(recordIndex, asqn, copy));
+    lastEntryPosition = startPosition;
+    index.index(lastEntry, startPosition);
+    return lastEntry;
+  }
+
+  @Override
+  public void append(final JournalRecord record) {
+    final long nextIndex = getNextIndex();
+    if (record.index() != nextIndex) {
+      throw new InvalidIndex(
+          String.format(
+              "The record index is not sequential. Expected the next index to be %d, but the record to append has index %d",
+              nextIndex, record.index()));
+    }
+
+    final int recordLength = stage(0, record.index(), record.asqn(), record.data());
+    if (recordLength < 0) {
+      throw new BufferOverflowException();
+    }
+
+    final long checksum = checksum(0, recordLength);
+    if (record.checksum() != checksum) {
+      throw new InvalidChecksum(
+          String.format("Failed to append record %s. Checksum does not match", record));
+    }
+
+    final int startPosition = writePosition;
+    commit(startPosition, 0, recordLength, checksum);
+    lastEntry = writtenRecord.copyOf(record);
+    lastEntryPosition = startPosition;
+    index.index(lastEntry, startPosition);
+  }
+
+  @Override
+  public int append(final List<? extends JournalRecord> records, final int from) {
+    final int headerLength = FrameUtil.getLength() + serializer.getMetadataLength();
+    final int batchPosition = writePosition;
+    long nextIndex = getNextIndex();
+    int offset = 0;
+    int recordLength = 0;
+    int count = 0;
+    RuntimeException failure = null;
+
+    for (int i = from; i < records.size(); i++) {
+      final JournalRecord record = records.get(i);
+      if (record.index() != nextIndex) {
+        failure =
+            new InvalidIndex(
+                String.format(
+                    "The record index is not sequential. Expected the next index to be %d, but the record to append has index %d",
+                    nextIndex, record.index()));
+        break;
+      }
+
+      final int length = stage(offset, record.index(), record.asqn(), record.data());
+      if (length < 0) {
+        break;
+      }
+
+      final long checksum = checksum(offset, length);
+      if (record.checksum() != checksum) {
+        failure =
+            new InvalidChecksum(
+                String.format("Failed to append record %s. Checksum does not match", record));
+        break;
+      }
+
+      writeHeader(offset, length, checksum);
+      batchPositions = ensureCapacity(batchPositions, count + 1);
+      batchPositions[count++] = batchPosition + offset;
+      offset += headerLength + length;
+      recordLength = length;
+      nextIndex++;
+    }
+
+    if (count > 0) {
+      write(batchPosition, offset);
+      index.index(records, from, count, batchPositions);
+
+      lastEntry = writtenRecord.copyOf(records.get(from + count - 1));
+      lastEntryPosition = batchPositions[count - 1];
+      writePosition = batchPosition + offset;
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+
+    return count;
+  }
+
+  @Override
+  public void truncate(final long index) {
+    // If the index is greater than or equal to the last index, skip the truncate.
+    if (index >= getLastIndex()) {
+      return;
+    }
+
+    // The persisted index would describe records which are removed now
+    segment.deleteIndexFile();
+    truncations++;
+
+    // Reset the last entry.
+    lastEntry = null;
+
+    // Truncate the index.
+    this.index.deleteAfter(index);
+
+    if (index < segment.index()) {
+      writePosition = descriptorLength;
+    } else {
+      reset(new FileChannelReadBuffer(channel, RECOVERY_READ_AHEAD_SIZE), index, -1, this.index);
+    }
+
+    invalidate(writePosition);
+  }
+
+  @Override
+  public void flush() {
+    try {
+      channel.force(false);
+    } catch (final IOException e) {
+      throw new JournalException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (isOpen) {
+      isOpen = false;
+      flush();
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return lastEntry == null;
+  }
+
+  @Override
+  public SegmentIndexFile createIndexFile() {
+    return SegmentIndexFile.of(
+        segment.id(),
+        firstIndex,
+        lastEntry.index(),
+        lastEntryPosition,
+        writePosition,
+        lastEntry.checksum(),
+        index);
+  }
+
+  /** Returns the position after the last completely written record. */
+  int getWritePosition() {
+    return writePosition;
+  }
+
+  /** Returns how often the segment was truncated, such that readers can detect truncations. */
+  int getTruncations() {
+    return truncations;
+  }
+
+  /**
+   * Serializes the record into the write buffer, leaving space for its frame and metadata at the
+   * given offset.
+   *
+   * @return the length of the serialized record data, or -1 if the record does not fit into the
+   *     segment
+   */
+  private int stage(final int offset, final long index, final long asqn, final DirectBuffer data) {
+    final int dataOffset = offset + FrameUtil.getLength() + serializer.getMetadataLength();
+    final int length =
+        MessageHeaderEncoder.ENCODED_LENGTH
+            + RecordDataEncoder.BLOCK_LENGTH
+            + RecordDataEncoder.dataHeaderLength()
+            + data.capacity();
+    if ((long) writePosition + dataOffset + length > maxSegmentSize) {
+      return -1;
+    }
+
+    if (dataOffset + length > writeBuffer.capacity()) {
+      growWriteBuffer(dataOffset + length);
+    }
+
+    return serializer.writeData(index, asqn, data, writeView, dataOffset);
+  }
+
+  private long checksum(final int offset, final int recordLength) {
+    return checksumGenerator.compute(
+        writeBuffer, offset + FrameUtil.getLength() + serializer.getMetadataLength(), recordLength);
+  }
+
+  private void writeHeader(final int offset, final int recordLength, final long checksum) {
+    FrameUtil.writeVersion(writeBuffer, offset);
+    serializer.writeMetadata(
+        new RecordMetadata(checksum, recordLength), writeView, offset + FrameUtil.getLength());
+  }
+
+  /** Writes the staged record at the given offset to the file, and publishes it to readers. */
+  private void commit(
+      final int position, final int offset, final int recordLength, final long checksum) {
+    writeHeader(offset, recordLength, checksum);
+    final int length = FrameUtil.getLength() + serializer.getMetadataLength() + recordLength;
+    write(position, length);
+    writePosition = position + length;
+  }
+
+  /**
+   * Writes {@code length} staged bytes to the file at the given position, followed by an invalid
+   * frame unless the segment is full, such that records after a truncation are not read again.
+   */
+  private void write(final int position, final int length) {
+    int end = length;
+    if (position + length < maxSegmentSize) {
+      if (end == writeBuffer.capacity()) {
+        growWriteBuffer(end + FrameUtil.getLength());
+      }
+      FrameUtil.markAsIgnored(writeBuffer, end);
+      end += FrameUtil.getLength();
+    }
+
+    final ByteBuffer bytes = writeBuffer.duplicate().position(0).limit(end);
+    try {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes, (long) position + bytes.position());
+      }
+    } catch (final IOException e) {
+      throw new JournalException(e);
+    }
+  }
+
+  private void invalidate(final int position) {
+    if (position >= maxSegmentSize) {
+      return;
+    }
+
+    final ByteBuffer frame = ByteBuffer.allocate(FrameUtil.getLength());
+    FrameUtil.markAsIgnored(frame, 0);
+    try {
+      channel.write(frame, position);
+    } catch (final IOException e) {
+      throw new JournalException(e);
+    }
+  }
+
+  private void reset(
+      final FileChannelReadBuffer readBuffer,
+      final long index,
+      final long lastWrittenIndex,
+      final JournalIndex targetIndex) {
+    long nextIndex = firstIndex;
+    int position = descriptorLength;
+    lastEntry = null;
+
+    try {
+      while (index == 0 || nextIndex <= index) {
+        final JournalRecord record = readBuffer.read(position, nextIndex, maxSegmentSize);
+        if (record == null) {
+          break;
+        }
+
+        lastEntryPosition = position;
+        targetIndex.index(record, position);
+        position = readBuffer.nextPosition();
+        nextIndex++;
+      }
+    } catch (final CorruptedLogException e) {
+      handleChecksumMismatch(e, nextIndex, lastWrittenIndex, position);
+    }
+
+    if (nextIndex > firstIndex) {
+      // the data of the scanned records was overwritten by reading ahead, so read the last again
+      lastEntry = readBuffer.readCopy(lastEntryPosition, nextIndex - 1, maxSegmentSize);
+    }
+    writePosition = position;
+  }
+
+  /**
+   * Restores the state of a sealed segment from its persisted index, instead of reading every
+   * record. The index is only used if the segment still ends with the record it describes, i.e. the
+   * last record can be read at the persisted position with the persisted checksum, and no valid
+   * record follows it.
+   *
+   * @return true if the state was restored, false if the segment has to be scanned
+   */
+  private boolean restore(
+      final FileChannelReadBuffer readBuffer,
+      final SegmentIndexFile indexFile,
+      final JournalIndex targetIndex) {
+    final int lastPosition = indexFile.lastPosition();
+    final int nextPosition = indexFile.nextPosition();
+    if (indexFile.firstIndex() != firstIndex
+        || indexFile.lastIndex() < firstIndex
+        || lastPosition < descriptorLength
+        || lastPosition >= nextPosition
+        || nextPosition > maxSegmentSize) {
+      return false;
+    }
+
+    final JournalRecord record;
+    try {
+      record = readBuffer.readCopy(lastPosition, indexFile.lastIndex(), maxSegmentSize);
+      if (record == null
+          || record.checksum() != indexFile.lastChecksum()
+          || readBuffer.nextPosition() != nextPosition
+          || readBuffer.hasRecord(nextPosition, maxSegmentSize)) {
+        return false;
+      }
+    } catch (final CorruptedLogException | InvalidIndex e) {
+      return false;
+    }
+
+    indexFile.forEachEntry(targetIndex::index);
+    lastEntry = record;
+    lastEntryPosition = lastPosition;
+    writePosition = nextPosition;
+    return true;
+  }
+
+  private void handleChecksumMismatch(
+      final CorruptedLogException e,
+      final long nextIndex,
+      final long lastWrittenIndex,
+      final int position) {
+    // entry wasn't acked (likely a partial write): it's safe to delete it
+    if (nextIndex > lastWrittenIndex) {
+      invalidate(position);
+      return;
+    }
+
+    throw e;
+  }
+
+  private void growWriteBuffer(final int minCapacity) {
+    final ByteBuffer previous = writeBuffer;
+    allocateWriteBuffer(Math.max(minCapacity, previous.capacity() * 2));
+    writeBuffer.put(previous.duplicate().clear());
+  }
+
+  private void allocateWriteBuffer(final int capacity) {
+    writeBuffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    writeView.wrap(writeBuffer);
+  }
+
+  private static int[] ensureCapacity(final int[] array, final int capacity) {
+    if (capacity <= array.length) {
+      return array;
+    }
+
+    return Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+  }
+
+  /**
+   * The last record appended by {@link #append(JournalRecord)} or {@link #append(List, int)}. Its
+   * data is copied into a buffer which is reused for every append, as only the writer refers to it.
+   */
+  private static final class WrittenRecord implements JournalRecord {
+
+    private final UnsafeBuffer data = new UnsafeBuffer();
+    private byte[] bytes = new byte[0];
+    private long index;
+    private long asqn;
+    private long checksum;
+
+    private WrittenRecord copyOf(final JournalRecord record) {
+      final int length = record.data().capacity();
+      if (bytes.length < length) {
+        bytes = new byte[Math.max(length, bytes.length * 2)];
+      }
+      record.data().getBytes(0, bytes, 0, length);
+      data.wrap(bytes, 0, length);
+      index = record.index();
+      asqn = record.asqn();
+      checksum = record.checksum();
+      return this;
+    }
+
+    @Override
+    public long index() {
+      return index;
+    }
+
+    @Override
+    public long asqn() {
+      return asqn;
+    }
+
+    @Override
+    public long checksum() {
+      return checksum;
+    }
+
+    @Override
+    public DirectBuffer data() {
+      return data;
+    }
+
+    @Override
+    public String toString() {
+      return "WrittenRecord{"
+          + "index="
+          + index
+          + ", asqn="
+          + asqn
+          + ", checksum="
+          + checksum
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalException;
+import io.camunda.zeebe.journal.JournalRecord;
+import io.camunda.zeebe.journal.file.record.CorruptedLogException;
+import io.camunda.zeebe.journal.file.record.JournalRecordReaderUtil;
+import io.camunda.zeebe.journal.file.record.PersistedJournalRecord;
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.RecordMetadata;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Reads the records of a segment file through a {@link FileChannel}. A range of the file is read
+ * ahead into a buffer, such that consecutive records are read with few system calls. The buffer
+ * only grows if a single record does not fit into it.
+ *
+ * <p>The read-ahead content is never refreshed implicitly; callers which read bytes that may have
+ * been written after they were read ahead must {@link #clear()} the buffer first.
+ */
+final class FileChannelReadBuffer {
+
+  private final FileChannel channel;
+  private final SBESerializer serializer = new SBESerializer();
+  private final JournalRecordReaderUtil recordUtil = new JournalRecordReaderUtil(serializer);
+  private final UnsafeBuffer metadataView = new UnsafeBuffer();
+  private ByteBuffer buffer;
+  // the position in the file of the first byte in the buffer
+  private int start;
+  private int nextPosition;
+  private int recordLength;
+
+  FileChannelReadBuffer(final FileChannel channel, final int readAheadSize) {
+    this.channel = channel;
+    buffer = ByteBuffer.allocate(readAheadSize).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.limit(0);
+  }
+
+  /**
+   * Returns whether a record starts at the given position, i.e. whether it has a valid frame
+   * version. Does not verify the record itself.
+   *
+   * @param end the position up to which the file may be read
+   */
+  boolean hasRecord(final int position, final int end) {
+    final ByteBuffer view = read(position, FrameUtil.getLength(), end);
+    return view != null && FrameUtil.hasValidVersion(view);
+  }
+
+  /**
+   * Reads and verifies the record whose frame starts at the given position. The data of the
+   * returned record refers to the read-ahead buffer, and is only valid until the next read; use
+   * {@link #readCopy(int, long, int)} to keep it.
+   *
+   * @param end the position up to which the file may be read
+   * @return the record, or null if there is no record at this position
+   * @throws CorruptedLogException if the record is corrupted or incomplete
+   * @throws io.camunda.zeebe.journal.JournalException.InvalidIndex if the record does not have the
+   *     expected index
+   */
+  JournalRecord read(final int position, final long expectedIndex, final int end) {
+    if (!hasRecord(position, end)) {
+      return null;
+    }
+
+    final int frameLength = FrameUtil.getLength();
+    final int metadataLength = serializer.getMetadataLength();
+    ByteBuffer view = read(position, frameLength + metadataLength, end);
+    if (view != null) {
+      metadataView.wrap(view, view.position() + frameLength, metadataLength);
+      final RecordMetadata metadata = serializer.readMetadata(metadataView, 0);
+      view = read(position, frameLength + metadataLength + Math.max(metadata.length(), 0), end);
+    }
+
+    if (view == null) {
+      throw new CorruptedLogException(
+          String.format(
+              "Expected to read a record at position %d, but reached the end of the segment.",
+              position));
+    }
+
+    FrameUtil.readVersion(view);
+    final JournalRecord record = recordUtil.read(view, expectedIndex);
+    nextPosition = start + view.position();
+    recordLength = nextPosition - position - frameLength - metadataLength;
+    return record;
+  }
+
+  /**
+   * Like {@link #read(int, long, int)}, but the data of the returned record is copied, such that it
+   * stays valid.
+   */
+  JournalRecord readCopy(final int position, final long expectedIndex, final int end) {
+    final JournalRecord record = read(position, expectedIndex, end);
+    return record != null ? copy(record, recordLength) : null;
+  }
+
+  /** Returns the position right after the record which was read last. */
+  int nextPosition() {
+    return nextPosition;
+  }
+
+  /** Drops the read-ahead content, such that the next read goes to the file. */
+  void clear() {
+    start = 0;
+    buffer.limit(0);
+  }
+
+  /**
+   * Returns a copy of the record whose data does not refer to any shared buffer.
+   *
+   * @param length the serialized length of the record data
+   */
+  static JournalRecord copy(final JournalRecord record, final int length) {
+    final var data = new UnsafeBuffer(new byte[record.data().capacity()]);
+    data.putBytes(0, record.data(), 0, data.capacity());
+    return new PersistedJournalRecord(
+        new RecordMetadata(record.checksum(), length),
+        new RecordData(record.index(), record.asqn(), data));
+  }
+
+  /**
+   * Returns the buffer positioned at the given file position, with at least {@code length} bytes
+   * remaining, or null if the file ends before.
+   */
+  private ByteBuffer read(final int position, final int length, final int end) {
+    if (position < 0 || position + length > end) {
+      return null;
+    }
+
+    if (position < start || position + length > start + buffer.limit()) {
+      fill(position, Math.max(length, buffer.capacity()), end);
+    }
+
+    return buffer.position(position - start);
+  }
+
+  private void fill(final int position, final int length, final int end) {
+    if (length > buffer.capacity()) {
+      buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    buffer.clear().limit(Math.min(length, end - position));
+    try {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, (long) position + buffer.position()) < 0) {
+          break;
+        }
+      }
+    } catch (final IOException e) {
+      throw new JournalException(e);
+    }
+
+    buffer.flip();
+    start = position;
+  }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.DurableIndexListener;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the durable index of a journal, i.e. the index up to which all records have been
+ * flushed, and notifies the {@link DurableIndexListener}s whenever it advances or a background
+ * flush failed.
+ *
+ * <p>When created with a dedicated flusher thread, {@link #requestFlush(long)} only records the
+ * requested index and returns immediately. The flusher thread then flushes once for all requests
+ * which arrived while the previous flush was in progress, such that many small appends share a
+ * single {@code force()}. Without a flusher thread, every request is flushed on the caller's
+ * thread. A failed background flush is not retried until it is requested again, since retrying
+ * right away would most likely fail again.
+ *
+ * <p>Truncating or resetting the journal invalidates flushes which are in progress, since the
+ * records they were meant to persist may not exist anymore. Once the journal was truncated or reset
+ * and {@link #awaitPendingNotifications()} returned, listeners are not notified of an index of the
+ * previous epoch anymore.
+ */
+final class JournalFlusher implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JournalFlusher.class);
+
+  private final Runnable flushAction;
+  private final Runnable backgroundFlushAction;
+  private final JournalMetrics metrics;
+  private final List<DurableIndexListener> listeners = new CopyOnWriteArrayList<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition flushRequested = lock.newCondition();
+  private final ReentrantLock notifyLock = new ReentrantLock();
+  private final Thread flusherThread;
+
+  // guarded by lock
+  private long requestedIndex;
+  private long attemptedIndex;
+  private long epoch;
+  private boolean closed;
+
+  private volatile long durableIndex;
+
+  // guarded by notifyLock
+  private long notifiedIndex;
+  private long notifiedEpoch;
+
+  /**
+   * @param name the name of the journal, used to name the flusher thread
+   * @param flushAction flushes all records written so far on the caller's thread
+   * @param backgroundFlushAction flushes all records written so far from the flusher thread; must
+   *     be thread safe, and is only used if async is true
+   * @param metrics the metrics of the journal
+   * @param durableIndex the index up to which records are known to be persisted
+   * @param async whether to flush on a dedicated thread
+   */
+  JournalFlusher(
+      final String name,
+      final Runnable flushAction,
+      final Runnable backgroundFlushAction,
+      final JournalMetrics metrics,
+      final long durableIndex,
+      final boolean async) {
+    this.flushAction = flushAction;
+    this.backgroundFlushAction = backgroundFlushAction;
+    this.metrics = metrics;
+    this.durableIndex = durableIndex;
+    notifiedIndex = durableIndex;
+    requestedIndex = durableIndex;
+    attemptedIndex = durableIndex;
+
+    if (async) {
+      flusherThread = new Thread(this::runFlushLoop, "journal-flusher-" + name);
+      flusherThread.setDaemon(true);
+      flusherThread.start();
+    } else {
+      flusherThread = null;
+    }
+  }
+
+  boolean isAsync() {
+    return flusherThread != null;
+  }
+
+  long getDurableIndex() {
+    return durableIndex;
+  }
+
+  void addListener(final DurableIndexListener listener) {
+    listeners.add(listener);
+  }
+
+  void removeListener(final DurableIndexListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Flushes on the caller's thread and marks everything up to the given index as durable.
+   *
+   * @param index the last index which was written when the flush started
+   */
+  void flush(final long index) {
+    final long flushEpoch = currentEpoch();
+    flushAction.run();
+    onFlushed(index, flushEpoch);
+  }
+
+  /**
+   * Requests that all records up to the given index are flushed. In async mode this returns
+   * immediately, and the listeners are notified from the flusher thread once the flush completed.
+   *
+   * @param index the last index which was written when the flush was requested
+   */
+  void requestFlush(final long index) {
+    if (!isAsync()) {
+      flush(index);
+      return;
+    }
+
+    metrics.incAsyncFlushRequestCount();
+    lock.lock();
+    try {
+      if (index > requestedIndex) {
+        requestedIndex = index;
+        flushRequested.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Must be called after the journal was truncated, such that the durable index does not point to
+   * records which were deleted.
+   *
+   * @param lastIndex the last index after the truncation
+   */
+  void onTruncated(final long lastIndex) {
+    lock.lock();
+    try {
+      epoch++;
+      requestedIndex = Math.min(requestedIndex, lastIndex);
+      attemptedIndex = Math.min(attemptedIndex, lastIndex);
+      durableIndex = Math.min(durableIndex, lastIndex);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Must be called after the journal was reset, in which case there is nothing left to flush.
+   *
+   * @param lastIndex the last index after the reset, which is the next index minus one
+   */
+  void onReset(final long lastIndex) {
+    lock.lock();
+    try {
+      epoch++;
+      requestedIndex = lastIndex;
+      attemptedIndex = lastIndex;
+      durableIndex = lastIndex;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      flushRequested.signal();
+    } finally {
+      lock.unlock();
+    }
+
+    if (flusherThread != null) {
+      try {
+        flusherThread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Waits until listeners which are currently notified have returned. Must be called after {@link
+   * #onTruncated(long)} or {@link #onReset(long)}, without holding the journal lock, since
+   * listeners may read from the journal. Notifications which start afterwards see the new epoch,
+   * and are dropped if they belong to a flush of the previous one.
+   */
+  void awaitPendingNotifications() {
+    notifyLock.lock();
+    notifyLock.unlock();
+  }
+
+  private long currentEpoch() {
+    lock.lock();
+    try {
+      return epoch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void runFlushLoop() {
+    while (true) {
+      final long index;
+      final long flushEpoch;
+
+      lock.lock();
+      try {
+        while (!closed && requestedIndex <= attemptedIndex) {
+          flushRequested.awaitUninterruptibly();
+        }
+
+        if (closed) {
+          return;
+        }
+
+        index = requestedIndex;
+        flushEpoch = epoch;
+        attemptedIndex = index;
+      } finally {
+        lock.unlock();
+      }
+
+      try {
+        backgroundFlushAction.run();
+        metrics.incAsyncFlushCount();
+        onFlushed(index, flushEpoch);
+      } catch (final Exception e) {
+        LOG.error("Failed to flush journal up to index {}", index, e);
+        onFlushFailed(index, flushEpoch, e);
+      }
+    }
+  }
+
+  private void onFlushFailed(final long index, final long flushEpoch, final Exception error) {
+    lock.lock();
+    try {
+      if (flushEpoch != epoch) {
+        return;
+      }
+
+      // allows to request the same index again; a newer request is flushed right away
+      if (requestedIndex == index) {
+        requestedIndex = durableIndex;
+        attemptedIndex = durableIndex;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    notifyLock.lock();
+    try {
+      if (flushEpoch == currentEpoch()) {
+        listeners.forEach(listener -> listener.onFlushFailed(error));
+      }
+    } finally {
+      notifyLock.unlock();
+    }
+  }
+
+  private void onFlushed(final long index, final long flushEpoch) {
+    lock.lock();
+    try {
+      if (flushEpoch != epoch || index <= durableIndex) {
+        return;
+      }
+
+      durableIndex = index;
+    } finally {
+      lock.unlock();
+    }
+
+    notifyListeners(index, flushEpoch);
+  }
+
+  /**
+   * Notifies the listeners without holding the flusher lock, since listeners may call back into the
+   * journal, which could deadlock against a writer holding the journal lock while it waits for the
+   * flusher lock. Notifications are serialized by a separate lock, and within an epoch only ever
+   * report a higher index than the previous one, such that listeners still observe a monotonic
+   * durable index between truncations.
+   *
+   * <p>The journal may have been truncated after the flush completed, so the epoch is checked again
+   * while holding the notification lock. A truncation which happens later waits for the
+   * notification in {@link #awaitPendingNotifications()}.
+   */
+  private void notifyListeners(final long index, final long flushEpoch) {
+    notifyLock.lock();
+    try {
+      if (flushEpoch != currentEpoch()) {
+        return;
+      }
+
+      if (flushEpoch > notifiedEpoch || (flushEpoch == notifiedEpoch && index > notifiedIndex)) {
+        notifiedEpoch = flushEpoch;
+        notifiedIndex = index;
+        listeners.forEach(listener -> listener.onDurableIndexUpdated(index));
+      }
+    } finally {
+      notifyLock.unlock();
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package io.camunda.zeebe.journal.file;
 
 import io.camunda.zeebe.journal.JournalRecord;
+import java.util.List;
 
 /**
  * JournalIndex that indexes record's index, position and asqn. JournalReader may use this to
@@ -31,6 +32,50 @@ interface JournalIndex {
    */
   void index(JournalRecord record, int position);
 
+  /**
+   * Indexes a record by its index and asqn, without requiring the record itself, e.g. when the
+   * entries of another index are copied or when records are appended in a batch.
+   *
+   * @param index the index of the record
+   * @param position the position of the record within its segment
+   * @param asqn the asqn of the record, or {@link SegmentedJournal#ASQN_IGNORE} if it has none
+   */
+  void index(long index, int position, long asqn);
+
+  /**
+   * Indexes a contiguous run of records which were appended in a batch. Only the records for which
+   * the index keeps an entry are looked at, i.e. one per density step.
+   *
+   * @param records the appended records
+   * @param from the offset of the first appended record
+   * @param count the number of appended records
+   * @param positions the positions of the appended records within their segment, starting at 0
+   */
+  default void index(
+      final List<? extends JournalRecord> records,
+      final int from,
+      final int count,
+      final int[] positions) {
+    final long firstIndex = records.get(from).index();
+    final long lastIndex = firstIndex + count - 1;
+    for (long indexed = nextIndexedIndex(firstIndex);
+        indexed <= lastIndex;
+        indexed = nextIndexedIndex(indexed + 1)) {
+      final int offset = (int) (indexed - firstIndex);
+      index(indexed, positions[offset], records.get(from + offset).asqn());
+    }
+  }
+
+  /**
+   * Returns the first index, greater than or equal to the given one, for which this index keeps an
+   * entry. Records with other indexes are ignored by {@link #index(long, int, long)}, so callers
+   * which index many records at once only need to index these.
+   *
+   * @param index the index to start from
+   * @return the next index for which an entry is kept
+   */
+  long nextIndexedIndex(long index);
+
   /**
    * Looks up the position of the given index.
    *
@@ -78,4 +123,25 @@ interface JournalIndex {
 
   /** Delete all index mappings */
   void clear();
+
+  /**
+   * Calls the consumer for every indexed record with an index between the given bounds, in
+   * increasing order of the index.
+   *
+   * @param fromIndex the lowest index to visit, inclusive
+   * @param toIndex the highest index to visit, inclusive
+   * @param consumer the consumer of the index entries
+   */
+  void forEach(long fromIndex, long toIndex, IndexEntryConsumer consumer);
+
+  @FunctionalInterface
+  interface IndexEntryConsumer {
+
+    /**
+     * @param index the index of the record
+     * @param position the position of the record within its segment
+     * @param asqn the asqn of the record, or {@link SegmentedJournal#ASQN_IGNORE} if it has none
+     */
+    void accept(long index, int position, long asqn);
+  }
 }
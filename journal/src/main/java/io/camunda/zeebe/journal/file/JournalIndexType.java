@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+/** The available {@link JournalIndex} implementations of a {@link SegmentedJournal}. */
+public enum JournalIndexType {
+  /** A sparse index backed by {@link java.util.TreeMap}s of boxed values. */
+  SPARSE_TREE,
+  /** A sparse index backed by sorted primitive arrays. */
+  SPARSE_ARRAY;
+
+  JournalIndex createIndex(final int density) {
+    switch (this) {
+      case SPARSE_ARRAY:
+        return new SparseArrayJournalIndex(density);
+      case SPARSE_TREE:
+      default:
+        return new SparseJournalIndex(density);
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.camunda.zeebe.journal.file;
 
+import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 
@@ -60,6 +61,75 @@ class JournalMetrics {
           .labelNames(PARTITION_LABEL)
           .register();
 
+  private static final Counter ASYNC_FLUSH_REQUEST_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .name("journal_async_flush_request_count")
+          .help("Number of flushes requested from the asynchronous journal flusher")
+          .labelNames(PARTITION_LABEL)
+          .register();
+  private static final Counter ASYNC_FLUSH_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .name("journal_async_flush_count")
+          .help("Number of flushes performed by the asynchronous journal flusher")
+          .labelNames(PARTITION_LABEL)
+          .register();
+
+  private static final Counter SPARE_SEGMENT_HIT_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .name("journal_spare_segment_hit_count")
+          .help("Number of segment roll-overs which reused the pre-allocated spare segment")
+          .labelNames(PARTITION_LABEL)
+          .register();
+  private static final Counter SPARE_SEGMENT_MISS_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .name("journal_spare_segment_miss_count")
+          .help(
+              "Number of segment roll-overs which had to create the segment on the append path, "
+                  + "because the pre-allocated spare segment was not ready in time")
+          .labelNames(PARTITION_LABEL)
+          .register();
+
+  private static final Gauge MAPPED_SEGMENT_BYTES =
+      Gauge.build()
+          .namespace(NAMESPACE)
+          .name("journal_mapped_segment_bytes")
+          .help("Number of bytes of the journal segments which are currently memory-mapped")
+          .labelNames(PARTITION_LABEL)
+          .register();
+  private static final Counter SEGMENT_MAP_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .name("journal_segment_map_count")
+          .help("Number of times a journal segment was memory-mapped")
+          .labelNames(PARTITION_LABEL)
+          .register();
+  private static final Counter SEGMENT_UNMAP_COUNT =
+      Counter.build()
+          .namespace(NAMESPACE)
+          .name("journal_segment_unmap_count")
+          .help("Number of times a journal segment was unmapped")
+          .labelNames(PARTITION_LABEL)
+          .register();
+
+  private static final Histogram SEGMENT_DELETION_LAG =
+      Histogram.build()
+          .namespace(NAMESPACE)
+          .name("journal_segment_deletion_lag")
+          .help("Time between a compacted segment being detached and its file being deleted")
+          .labelNames(PARTITION_LABEL)
+          .register();
+  private static final Gauge PENDING_SEGMENT_DELETIONS =
+      Gauge.build()
+          .namespace(NAMESPACE)
+          .name("journal_pending_segment_deletions")
+          .help("Number of compacted segments which are waiting to be deleted")
+          .labelNames(PARTITION_LABEL)
+          .register();
+
   private final String logName;
 
   public JournalMetrics(final String logName) {
@@ -82,6 +152,40 @@ class JournalMetrics {
     JOURNAL_OPEN_DURATION.labels(logName).set(durationMillis / 1000f);
   }
 
+  public void incAsyncFlushRequestCount() {
+    ASYNC_FLUSH_REQUEST_COUNT.labels(logName).inc();
+  }
+
+  public void incAsyncFlushCount() {
+    ASYNC_FLUSH_COUNT.labels(logName).inc();
+  }
+
+  public void incSpareSegmentHit() {
+    SPARE_SEGMENT_HIT_COUNT.labels(logName).inc();
+  }
+
+  public void incSpareSegmentMiss() {
+    SPARE_SEGMENT_MISS_COUNT.labels(logName).inc();
+  }
+
+  public void observeSegmentMapped(final long bytes) {
+    SEGMENT_MAP_COUNT.labels(logName).inc();
+    MAPPED_SEGMENT_BYTES.labels(logName).inc(bytes);
+  }
+
+  public void observeSegmentUnmapped(final long bytes) {
+    SEGMENT_UNMAP_COUNT.labels(logName).inc();
+    MAPPED_SEGMENT_BYTES.labels(logName).dec(bytes);
+  }
+
+  public void observeSegmentDeletionLag(final long lagNanos) {
+    SEGMENT_DELETION_LAG.labels(logName).observe(lagNanos / 1_000_000_000d);
+  }
+
+  public void setPendingSegmentDeletions(final int count) {
+    PENDING_SEGMENT_DELETIONS.labels(logName).set(count);
+  }
+
   public void incSegmentCount() {
     SEGMENT_COUNT.labels(logName).inc();
   }
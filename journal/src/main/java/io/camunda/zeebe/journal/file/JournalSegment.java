@@ -24,10 +24,13 @@ import io.camunda.zeebe.journal.JournalException;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.util.Set;
 import org.agrona.IoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Log segment.
@@ -36,29 +39,142 @@ import org.agrona.IoUtil;
  */
 class JournalSegment implements AutoCloseable {
 
+  private static final Logger LOG = LoggerFactory.getLogger(JournalSegment.class);
   private static final ByteOrder ENDIANNESS = ByteOrder.LITTLE_ENDIAN;
 
   private final JournalSegmentFile file;
   private final JournalSegmentDescriptor descriptor;
   private final JournalIndex index;
-  private final MappedJournalSegmentWriter writer;
-  private final Set<MappedJournalSegmentReader> readers = Sets.newConcurrentHashSet();
-  private boolean open = true;
-  private final MappedByteBuffer buffer;
+  private final JournalSegmentWriter writer;
+  // the writer of a memory-mapped segment, or null if the segment is accessed via a channel
+  private final MappedJournalSegmentWriter mappedWriter;
+  // the channel and writer of a segment which is not memory-mapped, or null
+  private final FileChannel channel;
+  private final FileChannelJournalSegmentWriter channelWriter;
+  private final Set<JournalSegmentReader> readers = Sets.newConcurrentHashSet();
+  private final SegmentMappingWindow mappingWindow;
+  // serializes writing and deleting the index file, which happen on different threads
+  private final Object indexFileLock = new Object();
+  private volatile boolean open = true;
+  // null while the segment is unmapped; guarded by this
+  private MappedByteBuffer buffer;
+  // whether the journal appends to this segment, which keeps it mapped; guarded by this
+  private boolean active;
+  // guarded by indexFileLock
+  private long indexFileGeneration;
 
   public JournalSegment(
       final JournalSegmentFile file,
       final JournalSegmentDescriptor descriptor,
       final long maxWrittenIndex,
-      final JournalIndex journalIndex) {
+      final JournalIndex journalIndex,
+      final SegmentMappingWindow mappingWindow) {
+    this(file, descriptor, maxWrittenIndex, journalIndex, null, journalIndex, mappingWindow);
+  }
+
+  /**
+   * Opens a segment, restoring its state from the given persisted index if it is still valid.
+   *
+   * @param indexFile the persisted index of the segment, or null to scan the whole segment
+   * @param recoveryIndex the index to which the existing records of the segment are added, which
+   *     allows opening several segments concurrently; records appended later are added to {@code
+   *     journalIndex}
+   * @param mappingWindow the window which decides when the segment is unmapped
+   */
+  JournalSegment(
+      final JournalSegmentFile file,
+      final JournalSegmentDescriptor descriptor,
+      final long maxWrittenIndex,
+      final JournalIndex journalIndex,
+      final SegmentIndexFile indexFile,
+      final JournalIndex recoveryIndex,
+      final SegmentMappingWindow mappingWindow) {
+    this(
+        file,
+        descriptor,
+        mapFile(file, descriptor),
+        maxWrittenIndex,
+        journalIndex,
+        indexFile,
+        recoveryIndex,
+        mappingWindow);
+  }
+
+  /**
+   * Creates a segment from a file which is already mapped, e.g. a pre-allocated segment.
+   *
+   * @param buffer the buffer to which the whole segment file is mapped
+   * @param mappingWindow the window which decides when the segment is unmapped
+   */
+  JournalSegment(
+      final JournalSegmentFile file,
+      final JournalSegmentDescriptor descriptor,
+      final MappedByteBuffer buffer,
+      final long maxWrittenIndex,
+      final JournalIndex journalIndex,
+      final SegmentMappingWindow mappingWindow) {
+    this(
+        file, descriptor, buffer, maxWrittenIndex, journalIndex, null, journalIndex, mappingWindow);
+  }
+
+  private JournalSegment(
+      final JournalSegmentFile file,
+      final JournalSegmentDescriptor descriptor,
+      final MappedByteBuffer buffer,
+      final long maxWrittenIndex,
+      final JournalIndex journalIndex,
+      final SegmentIndexFile indexFile,
+      final JournalIndex recoveryIndex,
+      final SegmentMappingWindow mappingWindow) {
     this.file = file;
     this.descriptor = descriptor;
+    this.mappingWindow = mappingWindow;
     index = journalIndex;
-    buffer =
-        IoUtil.mapExistingFile(
-            file.file(), MapMode.READ_WRITE, file.name(), 0, descriptor.maxSegmentSize());
+    this.buffer = buffer;
+    channel = null;
+    channelWriter = null;
     buffer.order(ENDIANNESS);
-    writer = createWriter(maxWrittenIndex);
+    mappingWindow.onMapped(buffer.capacity());
+    mappedWriter =
+        new MappedJournalSegmentWriter(
+            buffer,
+            this,
+            index,
+            maxWrittenIndex,
+            indexFile,
+            recoveryIndex,
+            mappingWindow.unmapsIdleSegments());
+    writer = mappedWriter;
+  }
+
+  /**
+   * Opens a segment which is read and written through the given channel instead of being
+   * memory-mapped.
+   *
+   * @param channel the channel to the segment file, which is closed with the segment
+   * @param indexFile the persisted index of the segment, or null to scan the whole segment
+   * @param recoveryIndex the index to which the existing records of the segment are added
+   */
+  JournalSegment(
+      final JournalSegmentFile file,
+      final JournalSegmentDescriptor descriptor,
+      final FileChannel channel,
+      final long maxWrittenIndex,
+      final JournalIndex journalIndex,
+      final SegmentIndexFile indexFile,
+      final JournalIndex recoveryIndex,
+      final SegmentMappingWindow mappingWindow) {
+    this.file = file;
+    this.descriptor = descriptor;
+    this.mappingWindow = mappingWindow;
+    this.channel = channel;
+    index = journalIndex;
+    buffer = null;
+    mappedWriter = null;
+    channelWriter =
+        new FileChannelJournalSegmentWriter(
+            channel, this, index, maxWrittenIndex, indexFile, recoveryIndex);
+    writer = channelWriter;
   }
 
   /**
@@ -129,7 +245,7 @@ class JournalSegment implements AutoCloseable {
    *
    * @return The segment writer.
    */
-  public MappedJournalSegmentWriter writer() {
+  public JournalSegmentWriter writer() {
     checkOpen();
     return writer;
   }
@@ -139,14 +255,25 @@ class JournalSegment implements AutoCloseable {
    *
    * @return A new segment reader.
    */
-  MappedJournalSegmentReader createReader() {
-    checkOpen();
-    return new MappedJournalSegmentReader(
-        buffer.asReadOnlyBuffer().position(0).order(ENDIANNESS), this, index);
-  }
+  JournalSegmentReader createReader() {
+    final JournalSegmentReader reader;
+    synchronized (this) {
+      checkOpen();
+      if (channel != null) {
+        reader = new FileChannelJournalSegmentReader(channel, channelWriter, this, index);
+      } else {
+        reader =
+            new MappedJournalSegmentReader(
+                map().asReadOnlyBuffer().position(0).order(ENDIANNESS),
+                this,
+                index,
+                mappingWindow.unmapsIdleSegments());
+      }
+      readers.add(reader);
+    }
 
-  private MappedJournalSegmentWriter createWriter(final long lastWrittenIndex) {
-    return new MappedJournalSegmentWriter(buffer, this, index, lastWrittenIndex);
+    mappingWindow.onBusy(this);
+    return reader;
   }
 
   /**
@@ -154,8 +281,87 @@ class JournalSegment implements AutoCloseable {
    *
    * @param reader the closed reader
    */
-  void onReaderClosed(final MappedJournalSegmentReader reader) {
-    readers.remove(reader);
+  void onReaderClosed(final JournalSegmentReader reader) {
+    final boolean idle;
+    synchronized (this) {
+      idle = readers.remove(reader) && isIdle();
+    }
+
+    if (idle) {
+      mappingWindow.onIdle(this);
+    }
+  }
+
+  /**
+   * Marks this segment as the one the journal appends to, mapping it again if necessary. The
+   * segment stays mapped until it is {@link #deactivate() deactivated}.
+   */
+  void activate() {
+    synchronized (this) {
+      checkOpen();
+      active = true;
+      map();
+    }
+
+    mappingWindow.onBusy(this);
+  }
+
+  /**
+   * Marks this segment as not being appended to anymore, e.g. after the journal rolled over to the
+   * next segment, such that it may be unmapped once no reader uses it.
+   */
+  void deactivate() {
+    final boolean idle;
+    synchronized (this) {
+      active = false;
+      idle = isIdle();
+    }
+
+    if (idle) {
+      mappingWindow.onIdle(this);
+    }
+  }
+
+  /**
+   * Unmaps the segment unless it is still used, i.e. it is active or a reader is open on it. The
+   * segment is flushed before, and mapped again on the next {@link #createReader()} or {@link
+   * #activate()}.
+   */
+  synchronized void unmapIfIdle() {
+    if (buffer == null || !isIdle()) {
+      return;
+    }
+
+    mappedWriter.unmap();
+    IoUtil.unmap(buffer);
+    buffer = null;
+    mappingWindow.onUnmapped(descriptor.maxSegmentSize());
+  }
+
+  /** Returns whether the segment file is currently mapped. */
+  synchronized boolean isMapped() {
+    return buffer != null;
+  }
+
+  private boolean isIdle() {
+    return open && !active && readers.isEmpty();
+  }
+
+  private MappedByteBuffer map() {
+    if (buffer == null && channel == null) {
+      buffer = mapFile(file, descriptor);
+      buffer.order(ENDIANNESS);
+      mappedWriter.map(buffer);
+      mappingWindow.onMapped(buffer.capacity());
+    }
+
+    return buffer;
+  }
+
+  private static MappedByteBuffer mapFile(
+      final JournalSegmentFile file, final JournalSegmentDescriptor descriptor) {
+    return IoUtil.mapExistingFile(
+        file.file(), MapMode.READ_WRITE, file.name(), 0, descriptor.maxSegmentSize());
   }
 
   /** Checks whether the segment is open. */
@@ -175,14 +381,53 @@ class JournalSegment implements AutoCloseable {
   /** Closes the segment. */
   @Override
   public void close() {
+    synchronized (this) {
+      open = false;
+    }
+
     writer.close();
-    readers.forEach(MappedJournalSegmentReader::close);
-    IoUtil.unmap(buffer);
-    open = false;
+    readers.forEach(JournalSegmentReader::close);
+    synchronized (this) {
+      if (buffer != null) {
+        IoUtil.unmap(buffer);
+        buffer = null;
+        mappingWindow.onUnmapped(descriptor.maxSegmentSize());
+      }
+    }
+
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (final IOException e) {
+        LOG.warn("Failed to close segment {}", this, e);
+      }
+    }
+
+    mappingWindow.onClosed(this);
+  }
+
+  /**
+   * Closes the segment unless a reader is still open on it. Once closed, no new readers can be
+   * created.
+   *
+   * @return true if the segment was closed, false if it is still in use
+   */
+  boolean closeIfUnused() {
+    synchronized (this) {
+      if (!readers.isEmpty()) {
+        return false;
+      }
+
+      open = false;
+    }
+
+    close();
+    return true;
   }
 
   /** Deletes the segment. */
   public void delete() {
+    deleteIndexFile();
     try {
       Files.deleteIfExists(file.file().toPath());
     } catch (final IOException e) {
@@ -190,6 +435,67 @@ class JournalSegment implements AutoCloseable {
     }
   }
 
+  /**
+   * Collects the index of this segment, such that it can be persisted next to the segment file via
+   * {@link #writeIndexFile(SegmentIndexFile, long)}. Must only be called once the segment is
+   * sealed, i.e. after the journal rolled over to the next segment, and after the segment was
+   * flushed.
+   *
+   * @return the index of the segment, or null if the segment is empty
+   */
+  SegmentIndexFile createIndexFile() {
+    return writer.isEmpty() ? null : writer.createIndexFile();
+  }
+
+  /**
+   * Returns the current generation of the persisted index, which changes whenever the index file is
+   * deleted because the segment is modified or deleted.
+   */
+  long getIndexFileGeneration() {
+    synchronized (indexFileLock) {
+      return indexFileGeneration;
+    }
+  }
+
+  /**
+   * Persists the given index next to the segment file, such that the segment does not need to be
+   * scanned when the journal is opened again. May be called from any thread; the index is not
+   * written if the index file was deleted since the given generation, as the index may not describe
+   * the segment anymore.
+   *
+   * @param indexFile the index collected by {@link #createIndexFile()}
+   * @param generation the generation of the index file when the index was collected
+   */
+  void writeIndexFile(final SegmentIndexFile indexFile, final long generation) {
+    synchronized (indexFileLock) {
+      if (generation != indexFileGeneration) {
+        return;
+      }
+
+      try {
+        indexFile.write(file.indexFile());
+      } catch (final IOException e) {
+        // the segment is scanned on the next start instead
+        LOG.warn("Failed to write index file of segment {}", this, e);
+      }
+    }
+  }
+
+  /**
+   * Deletes the persisted index of this segment, if it exists, and discards pending writes of it.
+   * Must be called before the segment is modified again, e.g. truncated.
+   */
+  void deleteIndexFile() {
+    synchronized (indexFileLock) {
+      indexFileGeneration++;
+      try {
+        Files.deleteIfExists(file.indexFile().toPath());
+      } catch (final IOException e) {
+        throw new JournalException(e);
+      }
+    }
+  }
+
   @Override
   public String toString() {
     return toStringHelper(this).add("id", id()).add("index", index()).toString();
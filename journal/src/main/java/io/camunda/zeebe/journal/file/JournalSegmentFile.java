@@ -30,6 +30,7 @@ final class JournalSegmentFile {
   private static final char PART_SEPARATOR = '-';
   private static final char EXTENSION_SEPARATOR = '.';
   private static final String EXTENSION = "log";
+  private static final String INDEX_EXTENSION = "idx";
   private final File file;
 
   /** @throws IllegalArgumentException if {@code file} is not a valid segment file */
@@ -112,4 +113,22 @@ final class JournalSegmentFile {
   public String name() {
     return file.getName();
   }
+
+  /**
+   * Returns the file in which the index of a sealed segment is persisted. The file is not
+   * recognized as a segment file, as it does not have the segment file extension.
+   *
+   * @return The segment index file.
+   */
+  File indexFile() {
+    return createIndexFile(file);
+  }
+
+  /** Returns the index file which belongs to the given segment file. */
+  static File createIndexFile(final File segmentFile) {
+    final String name = segmentFile.getName();
+    return new File(
+        segmentFile.getParentFile(),
+        name.substring(0, name.lastIndexOf(EXTENSION_SEPARATOR) + 1) + INDEX_EXTENSION);
+  }
 }
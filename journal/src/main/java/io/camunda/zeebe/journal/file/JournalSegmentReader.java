@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalRecord;
+
+/** Reads the records of a single segment of the journal. */
+interface JournalSegmentReader {
+
+  boolean hasNext();
+
+  JournalRecord next();
+
+  /** Moves back to the first record of the segment. */
+  void reset();
+
+  /** Moves to the record with the given index, such that the next {@link #next()} returns it. */
+  void seek(long index);
+
+  void close();
+
+  long getNextIndex();
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+/** The available ways in which a {@link SegmentedJournal} reads and writes its segment files. */
+public enum JournalSegmentType {
+  /** The segment files are memory-mapped, and records are read and written in place. */
+  MAPPED,
+  /**
+   * The segment files are written with positional {@link java.nio.channels.FileChannel} writes and
+   * read through a small read-ahead buffer, which avoids page faults and leaves the write-back of
+   * dirty pages to explicit flushes.
+   */
+  FILE_CHANNEL
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalException.InvalidChecksum;
+import io.camunda.zeebe.journal.JournalException.InvalidIndex;
+import io.camunda.zeebe.journal.JournalRecord;
+import java.util.List;
+import org.agrona.DirectBuffer;
+
+/** Appends records to a single segment of the journal. */
+interface JournalSegmentWriter {
+
+  long getLastIndex();
+
+  JournalRecord getLastEntry();
+
+  long getNextIndex();
+
+  /**
+   * Appends a new record with the next index.
+   *
+   * @exception java.nio.BufferOverflowException if the record does not fit into the segment
+   */
+  JournalRecord append(long asqn, DirectBuffer data);
+
+  /**
+   * Appends a record which was written to another journal, e.g. replicated from the leader.
+   *
+   * @exception java.nio.BufferOverflowException if the record does not fit into the segment
+   * @exception InvalidIndex if the index of the record is not the next expected index
+   * @exception InvalidChecksum if the checksum of the record does not match its data
+   */
+  void append(JournalRecord record);
+
+  /**
+   * Appends a contiguous run of records, starting with the record at {@code from}, for as long as
+   * they fit into the segment. If a record has an unexpected index or checksum, the records before
+   * it are kept and the corresponding exception is thrown.
+   *
+   * @return the number of appended records, which is 0 if the first record does not fit into the
+   *     segment
+   * @exception InvalidIndex if the index of a record is not the next expected index
+   * @exception InvalidChecksum if the checksum of a record does not match its data
+   */
+  int append(List<? extends JournalRecord> records, int from);
+
+  /** Removes all records after the given index. */
+  void truncate(long index);
+
+  void flush();
+
+  void close();
+
+  /**
+   * Returns a boolean indicating whether the segment is empty.
+   *
+   * @return Indicates whether the segment is empty.
+   */
+  boolean isEmpty();
+
+  /**
+   * Returns the persistable index of this segment. Must only be called once no more records are
+   * appended to the segment.
+   */
+  SegmentIndexFile createIndexFile();
+}
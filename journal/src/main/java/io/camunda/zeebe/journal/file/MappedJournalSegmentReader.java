@@ -23,7 +23,7 @@ import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 
 /** Log segment reader. */
-class MappedJournalSegmentReader {
+class MappedJournalSegmentReader implements JournalSegmentReader {
 
   private final ByteBuffer buffer;
   private final JournalIndex index;
@@ -31,10 +31,16 @@ class MappedJournalSegmentReader {
   private long currentIndex;
   private final JournalRecordReaderUtil recordReader;
   private final int descriptorLength;
+  // whether the segment may be unmapped while records read from it are still in use
+  private final boolean copyRecords;
 
   MappedJournalSegmentReader(
-      final ByteBuffer buffer, final JournalSegment segment, final JournalIndex index) {
+      final ByteBuffer buffer,
+      final JournalSegment segment,
+      final JournalIndex index,
+      final boolean copyRecords) {
     this.index = index;
+    this.copyRecords = copyRecords;
     this.segment = segment;
     descriptorLength = segment.descriptor().length();
     recordReader = new JournalRecordReaderUtil(new SBESerializer());
@@ -42,11 +48,13 @@ class MappedJournalSegmentReader {
     reset();
   }
 
+  @Override
   public boolean hasNext() {
     // if the next entry exists the version would be non-zero
     return FrameUtil.hasValidVersion(buffer);
   }
 
+  @Override
   public JournalRecord next() {
     if (!hasNext()) {
       throw new NoSuchElementException();
@@ -58,14 +66,16 @@ class MappedJournalSegmentReader {
     final var currentEntry = recordReader.read(buffer, getNextIndex());
     // currentEntry should not be null as hasNext returns true
     currentIndex = currentEntry.index();
-    return currentEntry;
+    return copyRecords ? currentEntry.copy() : currentEntry;
   }
 
+  @Override
   public void reset() {
     buffer.position(descriptorLength);
     currentIndex = segment.index() - 1;
   }
 
+  @Override
   public void seek(final long index) {
     final long firstIndex = segment.index();
     final long lastIndex = segment.lastIndex();
@@ -83,11 +93,13 @@ class MappedJournalSegmentReader {
     }
   }
 
+  @Override
   public void close() {
     segment.onReaderClosed(this);
   }
 
-  long getNextIndex() {
+  @Override
+  public long getNextIndex() {
     return currentIndex + 1;
   }
 }
@@ -29,48 +29,66 @@ import io.camunda.zeebe.journal.file.record.SBESerializer;
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
 import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+import java.util.List;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 /** Segment writer. */
-class MappedJournalSegmentWriter {
+class MappedJournalSegmentWriter implements JournalSegmentWriter {
 
-  private final MappedByteBuffer buffer;
+  // null while the segment is unmapped, in which case the write position is kept in
+  // unmappedPosition
+  private MappedByteBuffer buffer;
+  private int unmappedPosition;
   private final JournalSegment segment;
   private final JournalIndex index;
   private final long firstIndex;
   private JournalRecord lastEntry;
+  private int lastEntryPosition;
+  private int[] batchPositions = new int[16];
   private boolean isOpen = true;
   private final JournalRecordReaderUtil recordUtil;
   private final ChecksumGenerator checksumGenerator = new ChecksumGenerator();
   private final JournalRecordSerializer serializer = new SBESerializer();
   private final MutableDirectBuffer writeBuffer = new UnsafeBuffer();
   private final int descriptorLength;
+  // whether the segment may be unmapped while records appended to it are still in use
+  private final boolean copyRecords;
 
   MappedJournalSegmentWriter(
       final MappedByteBuffer buffer,
       final JournalSegment segment,
       final JournalIndex index,
-      final long lastWrittenIndex) {
+      final long lastWrittenIndex,
+      final SegmentIndexFile indexFile,
+      final JournalIndex recoveryIndex,
+      final boolean copyRecords) {
     this.segment = segment;
+    this.copyRecords = copyRecords;
     descriptorLength = segment.descriptor().length();
     recordUtil = new JournalRecordReaderUtil(serializer);
     this.index = index;
     firstIndex = segment.index();
     this.buffer = buffer;
     writeBuffer.wrap(buffer);
-    reset(0, lastWrittenIndex);
+    if (indexFile == null || !restore(indexFile, recoveryIndex)) {
+      reset(0, lastWrittenIndex, recoveryIndex);
+    }
   }
 
+  @Override
   public long getLastIndex() {
     return lastEntry != null ? lastEntry.index() : segment.index() - 1;
   }
 
+  @Override
   public JournalRecord getLastEntry() {
     return lastEntry;
   }
 
+  @Override
   public long getNextIndex() {
     if (lastEntry != null) {
       return lastEntry.index() + 1;
@@ -79,6 +97,7 @@ class MappedJournalSegmentWriter {
     }
   }
 
+  @Override
   public JournalRecord append(final long asqn, final DirectBuffer data) {
     // Store the entry index.
     final long recordIndex = getNextIndex();
@@ -104,13 +123,15 @@ class MappedJournalSegmentWriter {
             buffer, startPosition + frameLength + metadataLength, recordLength);
 
     writeMetadata(startPosition, frameLength, recordLength, checksum);
-    updateLastWrittenEntry(startPosition, frameLength, metadataLength, recordLength);
+    final PersistedJournalRecord record =
+        updateLastWrittenEntry(startPosition, frameLength, metadataLength, recordLength);
     FrameUtil.writeVersion(buffer, startPosition);
 
     buffer.position(startPosition + frameLength + metadataLength + recordLength);
-    return lastEntry;
+    return copyRecords ? record.copy() : record;
   }
 
+  @Override
   public void append(final JournalRecord record) {
     final long nextIndex = getNextIndex();
 
@@ -118,7 +139,8 @@ class MappedJournalSegmentWriter {
     if (record.index() != nextIndex) {
       throw new InvalidIndex(
           String.format(
-              "The record index is not sequential. Expected the next index to be %d, but the record to append has index %d",
+              "The record index is not sequential. Expected the next index to be %d, but the record"
+                  + " to append has index %d",
               nextIndex, record.index()));
     }
 
@@ -153,7 +175,136 @@ class MappedJournalSegmentWriter {
     buffer.position(startPosition + frameLength + metadataLength + recordLength);
   }
 
-  private void updateLastWrittenEntry(
+  /**
+   * Appends a contiguous run of records, starting with the record at {@code from}, for as long as
+   * they fit into the segment. A first pass determines how many records are contiguous and fit into
+   * the segment, so the records are then written one after another without further capacity checks.
+   * The frame of the first record is only marked as valid once all records are written, such that
+   * readers see either none or all of them, the index is only updated for the records at its
+   * density steps, and the last entry is only read back once.
+   *
+   * <p>If a record has an unexpected index or checksum, the records before it are kept and the
+   * corresponding exception is thrown.
+   *
+   * @param records the records to append
+   * @param from the offset of the first record to append
+   * @return the number of appended records, which is 0 if the first record does not fit into the
+   *     segment
+   * @exception InvalidIndex if the index of a record is not the next expected index
+   * @exception InvalidChecksum if the checksum of a record does not match its data
+   */
+  @Override
+  public int append(final List<? extends JournalRecord> records, final int from) {
+    final int frameLength = FrameUtil.getLength();
+    final int metadataLength = serializer.getMetadataLength();
+    final int headerLength = frameLength + metadataLength;
+    final int batchPosition = buffer.position();
+    final long firstRecordIndex = getNextIndex();
+
+    RuntimeException failure = null;
+    int end = from;
+    long batchEnd = batchPosition;
+    for (; end < records.size(); end++) {
+      final JournalRecord record = records.get(end);
+      final long expectedIndex = firstRecordIndex + (end - from);
+      if (record.index() != expectedIndex) {
+        failure =
+            new InvalidIndex(
+                String.format(
+                    "The record index is not sequential. Expected the next index to be %d, but the"
+                        + " record to append has index %d",
+                    expectedIndex, record.index()));
+        break;
+      }
+
+      final long recordEnd =
+          batchEnd + headerLength + serializer.getSerializedLength(record.data());
+      if (recordEnd > buffer.capacity()) {
+        break;
+      }
+      batchEnd = recordEnd;
+    }
+
+    int position = batchPosition;
+    int recordLength = 0;
+    int count = 0;
+    for (int i = from; i < end; i++) {
+      final JournalRecord record = records.get(i);
+      final int dataOffset = position + headerLength;
+      recordLength =
+          serializer.writeData(
+              new RecordData(record.index(), record.asqn(), record.data()),
+              writeBuffer,
+              dataOffset);
+
+      final long checksum = checksumGenerator.compute(buffer, dataOffset, recordLength);
+      if (record.checksum() != checksum) {
+        failure =
+            new InvalidChecksum(
+                String.format("Failed to append record %s. Checksum does not match", record));
+        break;
+      }
+
+      writeMetadata(position, frameLength, recordLength, checksum);
+      batchPositions = ensureCapacity(batchPositions, count + 1);
+      batchPositions[count++] = position;
+      position = dataOffset + recordLength;
+    }
+
+    if (count > 0) {
+      publishBatch(records, from, count, position);
+      final int lastPosition = batchPositions[count - 1];
+      lastEntry = readEntry(lastPosition, frameLength, metadataLength, recordLength);
+      lastEntryPosition = lastPosition;
+      buffer.position(position);
+    } else {
+      buffer.position(batchPosition);
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+
+    return count;
+  }
+
+  private void publishBatch(
+      final List<? extends JournalRecord> records,
+      final int from,
+      final int count,
+      final int nextPosition) {
+    invalidateNextEntry(nextPosition);
+
+    // the first frame is marked as valid last, as readers cannot go beyond it before
+    for (int i = count - 1; i >= 0; i--) {
+      FrameUtil.writeVersion(buffer, batchPositions[i]);
+    }
+
+    index.index(records, from, count, batchPositions);
+  }
+
+  private static int[] ensureCapacity(final int[] array, final int capacity) {
+    if (capacity <= array.length) {
+      return array;
+    }
+
+    return Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+  }
+
+  private PersistedJournalRecord updateLastWrittenEntry(
+      final int startPosition,
+      final int frameLength,
+      final int metadataLength,
+      final int recordLength) {
+    final PersistedJournalRecord record =
+        readEntry(startPosition, frameLength, metadataLength, recordLength);
+    lastEntry = record;
+    lastEntryPosition = startPosition;
+    index.index(record, startPosition);
+    return record;
+  }
+
+  private PersistedJournalRecord readEntry(
       final int startPosition,
       final int frameLength,
       final int metadataLength,
@@ -162,8 +313,7 @@ class MappedJournalSegmentWriter {
     final var data =
         serializer.readData(
             writeBuffer, startPosition + frameLength + metadataLength, recordLength);
-    lastEntry = new PersistedJournalRecord(metadata, data);
-    index.index(lastEntry, startPosition);
+    return new PersistedJournalRecord(metadata, data);
   }
 
   private RecordMetadata writeMetadata(
@@ -189,10 +339,11 @@ class MappedJournalSegmentWriter {
   }
 
   private void reset(final long index) {
-    reset(index, -1);
+    reset(index, -1, this.index);
   }
 
-  private void reset(final long index, final long lastWrittenIndex) {
+  private void reset(
+      final long index, final long lastWrittenIndex, final JournalIndex targetIndex) {
     long nextIndex = firstIndex;
 
     // Clear the buffer indexes.
@@ -204,8 +355,9 @@ class MappedJournalSegmentWriter {
         // read version so that buffer's position is advanced
         FrameUtil.readVersion(buffer);
         lastEntry = recordUtil.read(buffer, nextIndex);
+        lastEntryPosition = position;
         nextIndex++;
-        this.index.index(lastEntry, position);
+        targetIndex.index(lastEntry, position);
         buffer.mark();
         position = buffer.position();
       }
@@ -218,6 +370,68 @@ class MappedJournalSegmentWriter {
     }
   }
 
+  /**
+   * Restores the state of a sealed segment from its persisted index, instead of reading every
+   * record. The index is only used if the segment still ends with the record it describes, i.e. the
+   * last record can be read at the persisted position with the persisted checksum, and no valid
+   * record follows it.
+   *
+   * @return true if the state was restored, false if the segment has to be scanned
+   */
+  private boolean restore(final SegmentIndexFile indexFile, final JournalIndex targetIndex) {
+    final int lastPosition = indexFile.lastPosition();
+    final int nextPosition = indexFile.nextPosition();
+    if (indexFile.firstIndex() != firstIndex
+        || indexFile.lastIndex() < firstIndex
+        || lastPosition < descriptorLength
+        || lastPosition >= nextPosition
+        || nextPosition > buffer.capacity()) {
+      return false;
+    }
+
+    final JournalRecord record;
+    try {
+      buffer.position(lastPosition);
+      if (!FrameUtil.hasValidVersion(buffer)) {
+        return false;
+      }
+
+      FrameUtil.readVersion(buffer);
+      record = recordUtil.read(buffer, indexFile.lastIndex());
+      if (record.checksum() != indexFile.lastChecksum()
+          || buffer.position() != nextPosition
+          || FrameUtil.hasValidVersion(buffer)) {
+        return false;
+      }
+    } catch (final BufferUnderflowException | CorruptedLogException | InvalidIndex e) {
+      return false;
+    } finally {
+      buffer.position(descriptorLength);
+    }
+
+    indexFile.forEachEntry(targetIndex::index);
+    lastEntry = record;
+    lastEntryPosition = lastPosition;
+    buffer.position(nextPosition);
+    return true;
+  }
+
+  /**
+   * Returns the persistable index of this segment. Must only be called once no more records are
+   * appended to the segment.
+   */
+  @Override
+  public SegmentIndexFile createIndexFile() {
+    return SegmentIndexFile.of(
+        segment.id(),
+        firstIndex,
+        lastEntry.index(),
+        lastEntryPosition,
+        buffer.position(),
+        lastEntry.checksum(),
+        index);
+  }
+
   private void handleChecksumMismatch(
       final CorruptedLogException e,
       final long nextIndex,
@@ -234,12 +448,16 @@ class MappedJournalSegmentWriter {
     throw e;
   }
 
+  @Override
   public void truncate(final long index) {
     // If the index is greater than or equal to the last index, skip the truncate.
     if (index >= getLastIndex()) {
       return;
     }
 
+    // The persisted index would describe records which are removed now
+    segment.deleteIndexFile();
+
     // Reset the last entry.
     lastEntry = null;
 
@@ -255,10 +473,39 @@ class MappedJournalSegmentWriter {
     }
   }
 
-  public void flush() {
+  @Override
+  public synchronized void flush() {
+    if (buffer != null) {
+      buffer.force();
+    }
+  }
+
+  /**
+   * Flushes and releases the buffer before the segment is unmapped. The writer must not be used
+   * until it is given the new buffer via {@link #map(MappedByteBuffer)}.
+   */
+  synchronized void unmap() {
     buffer.force();
+    unmappedPosition = buffer.position();
+    buffer = null;
+  }
+
+  /**
+   * Continues writing at the same position after the segment was mapped again. The last entry is
+   * read again, since its data referred to the previous mapping.
+   */
+  synchronized void map(final MappedByteBuffer buffer) {
+    this.buffer = buffer;
+    writeBuffer.wrap(buffer);
+    if (lastEntry != null) {
+      buffer.position(lastEntryPosition);
+      FrameUtil.readVersion(buffer);
+      lastEntry = recordUtil.read(buffer, lastEntry.index());
+    }
+    buffer.position(unmappedPosition);
   }
 
+  @Override
   public void close() {
     if (isOpen) {
       isOpen = false;
@@ -271,6 +518,7 @@ class MappedJournalSegmentWriter {
    *
    * @return Indicates whether the segment is empty.
    */
+  @Override
   public boolean isEmpty() {
     return lastEntry == null;
   }
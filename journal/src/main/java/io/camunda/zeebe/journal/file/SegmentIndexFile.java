@@ -0,0 +1,275 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.file.JournalIndex.IndexEntryConsumer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The index of a sealed segment, persisted next to the segment file such that the segment does not
+ * need to be scanned when the journal is opened again. It contains the sampled (index, position,
+ * asqn) entries of the {@link JournalIndex} for this segment, as well as the position and checksum
+ * of the last record, which are used to verify that the segment was not modified after the index
+ * was written.
+ *
+ * <p>The file consists of a {@link RecordMetadataEncoder} with the checksum and length of the
+ * following {@link SegmentIndexEncoder}, each prefixed by a {@link MessageHeaderEncoder}. The
+ * entries are packed as (index: int64, position: int32, asqn: int64) tuples.
+ */
+final class SegmentIndexFile {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SegmentIndexFile.class);
+  private static final ByteOrder ENTRY_ORDER = ByteOrder.LITTLE_ENDIAN;
+  private static final int ENTRY_LENGTH = Long.BYTES + Integer.BYTES + Long.BYTES;
+  private static final int METADATA_LENGTH =
+      MessageHeaderEncoder.ENCODED_LENGTH + RecordMetadataEncoder.BLOCK_LENGTH;
+
+  private final long segmentId;
+  private final long firstIndex;
+  private final long lastIndex;
+  private final int lastPosition;
+  private final int nextPosition;
+  private final long lastChecksum;
+  private final DirectBuffer entries;
+
+  private SegmentIndexFile(
+      final long segmentId,
+      final long firstIndex,
+      final long lastIndex,
+      final int lastPosition,
+      final int nextPosition,
+      final long lastChecksum,
+      final DirectBuffer entries) {
+    this.segmentId = segmentId;
+    this.firstIndex = firstIndex;
+    this.lastIndex = lastIndex;
+    this.lastPosition = lastPosition;
+    this.nextPosition = nextPosition;
+    this.lastChecksum = lastChecksum;
+    this.entries = entries;
+  }
+
+  /**
+   * Collects the entries of the given index which belong to the segment, i.e. which are between
+   * {@code firstIndex} and {@code lastIndex}.
+   */
+  static SegmentIndexFile of(
+      final long segmentId,
+      final long firstIndex,
+      final long lastIndex,
+      final int lastPosition,
+      final int nextPosition,
+      final long lastChecksum,
+      final JournalIndex index) {
+    final var entries = new ExpandableArrayBuffer();
+    final int[] length = {0};
+    index.forEach(
+        firstIndex,
+        lastIndex,
+        (entryIndex, position, asqn) -> {
+          final int offset = length[0];
+          entries.putLong(offset, entryIndex, ENTRY_ORDER);
+          entries.putInt(offset + Long.BYTES, position, ENTRY_ORDER);
+          entries.putLong(offset + Long.BYTES + Integer.BYTES, asqn, ENTRY_ORDER);
+          length[0] += ENTRY_LENGTH;
+        });
+
+    return new SegmentIndexFile(
+        segmentId,
+        firstIndex,
+        lastIndex,
+        lastPosition,
+        nextPosition,
+        lastChecksum,
+        new UnsafeBuffer(entries, 0, length[0]));
+  }
+
+  /**
+   * Reads the segment index from the given file.
+   *
+   * @return the segment index, or null if the file does not exist or is not a valid segment index
+   */
+  static SegmentIndexFile read(final File file) {
+    final UnsafeBuffer buffer;
+    try {
+      buffer = new UnsafeBuffer(Files.readAllBytes(file.toPath()));
+    } catch (final NoSuchFileException e) {
+      return null;
+    } catch (final IOException e) {
+      LOG.warn("Failed to read segment index {}", file, e);
+      return null;
+    }
+
+    try {
+      return decode(buffer);
+    } catch (final IndexOutOfBoundsException | IllegalStateException e) {
+      LOG.warn("Segment index {} is corrupted, ignoring it", file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the segment index to the given file and flushes it. Since the index is verified when it
+   * is read, a partially written file is detected and ignored.
+   */
+  void write(final File file) throws IOException {
+    final var buffer = new ExpandableArrayBuffer();
+    final var headerEncoder = new MessageHeaderEncoder();
+    final var indexEncoder =
+        new SegmentIndexEncoder()
+            .wrapAndApplyHeader(buffer, METADATA_LENGTH, headerEncoder)
+            .segmentId(segmentId)
+            .firstIndex(firstIndex)
+            .lastIndex(lastIndex)
+            .lastPosition(lastPosition)
+            .nextPosition(nextPosition)
+            .lastChecksum(lastChecksum)
+            .putEntries(entries, 0, entries.capacity());
+    final int indexLength = MessageHeaderEncoder.ENCODED_LENGTH + indexEncoder.encodedLength();
+
+    new RecordMetadataEncoder()
+        .wrapAndApplyHeader(buffer, 0, headerEncoder)
+        .checksum(checksum(buffer, METADATA_LENGTH, indexLength))
+        .length(indexLength);
+
+    try (final FileChannel channel =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      final ByteBuffer content =
+          ByteBuffer.wrap(buffer.byteArray(), 0, METADATA_LENGTH + indexLength);
+      while (content.hasRemaining()) {
+        channel.write(content);
+      }
+      channel.force(true);
+    }
+  }
+
+  long segmentId() {
+    return segmentId;
+  }
+
+  long firstIndex() {
+    return firstIndex;
+  }
+
+  long lastIndex() {
+    return lastIndex;
+  }
+
+  int lastPosition() {
+    return lastPosition;
+  }
+
+  int nextPosition() {
+    return nextPosition;
+  }
+
+  long lastChecksum() {
+    return lastChecksum;
+  }
+
+  /** Calls the consumer for every persisted index entry, in increasing index order. */
+  void forEachEntry(final IndexEntryConsumer consumer) {
+    for (int offset = 0; offset < entries.capacity(); offset += ENTRY_LENGTH) {
+      consumer.accept(
+          entries.getLong(offset, ENTRY_ORDER),
+          entries.getInt(offset + Long.BYTES, ENTRY_ORDER),
+          entries.getLong(offset + Long.BYTES + Integer.BYTES, ENTRY_ORDER));
+    }
+  }
+
+  private static SegmentIndexFile decode(final UnsafeBuffer buffer) {
+    final var headerDecoder = new MessageHeaderDecoder();
+    final var metadataDecoder = new RecordMetadataDecoder();
+    headerDecoder.wrap(buffer, 0);
+    checkTemplate(headerDecoder, metadataDecoder.sbeSchemaId(), metadataDecoder.sbeTemplateId());
+    metadataDecoder.wrap(
+        buffer,
+        MessageHeaderDecoder.ENCODED_LENGTH,
+        headerDecoder.blockLength(),
+        headerDecoder.version());
+
+    final int indexLength = metadataDecoder.length();
+    if (indexLength <= 0 || METADATA_LENGTH + indexLength != buffer.capacity()) {
+      throw new IllegalStateException(
+          String.format(
+              "Expected segment index of length %d, but file has %d bytes",
+              indexLength, buffer.capacity() - METADATA_LENGTH));
+    }
+    if (checksum(buffer, METADATA_LENGTH, indexLength) != metadataDecoder.checksum()) {
+      throw new IllegalStateException("Checksum of segment index does not match");
+    }
+
+    final var indexDecoder = new SegmentIndexDecoder();
+    headerDecoder.wrap(buffer, METADATA_LENGTH);
+    checkTemplate(headerDecoder, indexDecoder.sbeSchemaId(), indexDecoder.sbeTemplateId());
+    indexDecoder.wrap(
+        buffer,
+        METADATA_LENGTH + MessageHeaderDecoder.ENCODED_LENGTH,
+        headerDecoder.blockLength(),
+        headerDecoder.version());
+
+    final long segmentId = indexDecoder.segmentId();
+    final long firstIndex = indexDecoder.firstIndex();
+    final long lastIndex = indexDecoder.lastIndex();
+    final int lastPosition = indexDecoder.lastPosition();
+    final int nextPosition = indexDecoder.nextPosition();
+    final long lastChecksum = indexDecoder.lastChecksum();
+    final int entriesLength = indexDecoder.entriesLength();
+    if (entriesLength % ENTRY_LENGTH != 0) {
+      throw new IllegalStateException(
+          String.format(
+              "Expected entries of length %d, but got %d bytes", ENTRY_LENGTH, entriesLength));
+    }
+
+    final var entries = new UnsafeBuffer(new byte[entriesLength]);
+    indexDecoder.getEntries(entries, 0, entriesLength);
+    return new SegmentIndexFile(
+        segmentId, firstIndex, lastIndex, lastPosition, nextPosition, lastChecksum, entries);
+  }
+
+  private static void checkTemplate(
+      final MessageHeaderDecoder headerDecoder, final int schemaId, final int templateId) {
+    if (headerDecoder.schemaId() != schemaId || headerDecoder.templateId() != templateId) {
+      throw new IllegalStateException(
+          String.format(
+              "Expected template %d of schema %d, but got template %d of schema %d",
+              templateId, schemaId, headerDecoder.templateId(), headerDecoder.schemaId()));
+    }
+  }
+
+  private static long checksum(final DirectBuffer buffer, final int offset, final int length) {
+    final var crc = new CRC32C();
+    crc.update(buffer.byteArray(), offset, length);
+    return crc.getValue();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Bounds the number of journal segments which stay memory-mapped while nobody uses them. A segment
+ * is in use while it is the segment the journal appends to, or while a reader is open on it; such
+ * segments are always mapped. Once a segment is not used anymore, it is kept mapped as one of the
+ * most recently used idle segments, and the least recently used idle segments beyond the configured
+ * maximum are unmapped. An unmapped segment is mapped again when a reader seeks into it.
+ *
+ * <p>Records read from or appended to a mapped segment are views into its mapping, and may be used
+ * long after the reader moved on, e.g. as the last appended entry of the log. Since reading them
+ * after the segment was unmapped would crash the JVM, segments copy the records they hand out
+ * whenever this window may unmap idle segments.
+ *
+ * <p>Segments must never call into the window while holding their own lock, since the window calls
+ * {@link JournalSegment#unmapIfIdle()} while holding its lock.
+ */
+final class SegmentMappingWindow {
+
+  private final int maxIdleSegments;
+  private final JournalMetrics metrics;
+  // in order of their last use, least recently used first
+  private final Set<JournalSegment> idleSegments = new LinkedHashSet<>();
+
+  /**
+   * @param maxIdleSegments the maximum number of segments which stay mapped while they are not used
+   * @param metrics the metrics of the journal, used to track the mapped bytes
+   */
+  SegmentMappingWindow(final int maxIdleSegments, final JournalMetrics metrics) {
+    this.maxIdleSegments = maxIdleSegments;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns whether idle segments may be unmapped, in which case records handed out by mapped
+   * segments must not refer to their mapping.
+   */
+  boolean unmapsIdleSegments() {
+    return maxIdleSegments < Integer.MAX_VALUE;
+  }
+
+  /**
+   * Marks the segment as not used anymore, unmapping the least recently used idle segments if there
+   * are more than the configured maximum.
+   */
+  synchronized void onIdle(final JournalSegment segment) {
+    idleSegments.remove(segment);
+    idleSegments.add(segment);
+
+    final Iterator<JournalSegment> iterator = idleSegments.iterator();
+    while (idleSegments.size() > maxIdleSegments) {
+      final JournalSegment eldest = iterator.next();
+      iterator.remove();
+      eldest.unmapIfIdle();
+    }
+  }
+
+  /** Marks the segment as used, such that it is not unmapped until it becomes idle again. */
+  synchronized void onBusy(final JournalSegment segment) {
+    idleSegments.remove(segment);
+  }
+
+  /** Forgets the segment, which was closed and unmapped. */
+  synchronized void onClosed(final JournalSegment segment) {
+    idleSegments.remove(segment);
+  }
+
+  /** Records that a segment of the given size was mapped. */
+  void onMapped(final long bytes) {
+    metrics.observeSegmentMapped(bytes);
+  }
+
+  /** Records that a segment of the given size was unmapped. */
+  void onUnmapped(final long bytes) {
+    metrics.observeSegmentUnmapped(bytes);
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.agrona.IoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one spare segment file ready, which is created, sized and mapped in the background. When
+ * the journal rolls over to a new segment, the spare is turned into the new segment by writing the
+ * descriptor into the already mapped buffer and renaming the file, such that no file is created or
+ * mapped on the append path. A new spare is then allocated in the background.
+ *
+ * <p>The spare file uses a name which is not recognized as a segment file, so a spare which is left
+ * behind after a crash is never loaded as a segment; it is deleted when the journal is opened.
+ *
+ * <p>Not thread safe; {@link #takeSpare(JournalSegmentDescriptor, File)} is expected to be called
+ * while holding the journal's segment lock.
+ */
+final class SegmentPreallocator implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SegmentPreallocator.class);
+  private static final int PAGE_SIZE = 4096;
+  private static final String SPARE_SUFFIX = "-spare.tmp";
+
+  private final File spareFile;
+  private final int segmentSize;
+  private final boolean preTouch;
+  private final JournalMetrics metrics;
+  private final ExecutorService executor;
+  private CompletableFuture<MappedByteBuffer> spare;
+
+  SegmentPreallocator(
+      final String name,
+      final File directory,
+      final int segmentSize,
+      final boolean preTouch,
+      final JournalMetrics metrics) {
+    spareFile = new File(directory, name + SPARE_SUFFIX);
+    this.segmentSize = segmentSize;
+    this.preTouch = preTouch;
+    this.metrics = metrics;
+    executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              final var thread = new Thread(runnable, "journal-segment-allocator-" + name);
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    deleteSpareFile();
+    allocateNext();
+  }
+
+  /**
+   * Turns the spare segment into the segment described by the given descriptor, if the spare is
+   * ready.
+   *
+   * @param descriptor the descriptor of the new segment
+   * @param segmentFile the file of the new segment
+   * @return the mapped buffer of the new segment, or null if no spare was ready
+   */
+  MappedByteBuffer takeSpare(final JournalSegmentDescriptor descriptor, final File segmentFile) {
+    if (spare == null || !spare.isDone()) {
+      metrics.incSpareSegmentMiss();
+      return null;
+    }
+
+    if (spare.isCompletedExceptionally()) {
+      metrics.incSpareSegmentMiss();
+      allocateNext();
+      return null;
+    }
+
+    final MappedByteBuffer buffer = spare.join();
+    spare = null;
+    if (descriptor.maxSegmentSize() != segmentSize) {
+      releaseSpare(buffer);
+      allocateNext();
+      return null;
+    }
+
+    descriptor.copyTo(buffer);
+    try {
+      Files.move(spareFile.toPath(), segmentFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      releaseSpare(buffer);
+      allocateNext();
+      throw new JournalException(e);
+    }
+
+    metrics.incSpareSegmentHit();
+    allocateNext();
+    return buffer;
+  }
+
+  boolean isSpareReady() {
+    return spare != null && spare.isDone() && !spare.isCompletedExceptionally();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+    if (spare != null) {
+      try {
+        releaseSpare(spare.join());
+      } catch (final Exception e) {
+        LOG.debug("Failed to allocate spare segment, nothing to release", e);
+      }
+      spare = null;
+    }
+  }
+
+  private void allocateNext() {
+    spare = CompletableFuture.supplyAsync(this::allocate, executor);
+  }
+
+  private MappedByteBuffer allocate() {
+    try (final RandomAccessFile raf = new RandomAccessFile(spareFile, "rw")) {
+      raf.setLength(segmentSize);
+    } catch (final IOException e) {
+      LOG.warn("Failed to allocate spare segment {}", spareFile, e);
+      throw new JournalException(e);
+    }
+
+    final MappedByteBuffer buffer =
+        IoUtil.mapExistingFile(spareFile, MapMode.READ_WRITE, spareFile.getName(), 0, segmentSize);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+    if (preTouch) {
+      // writing to every page forces the file system to allocate the blocks and the page cache to
+      // map the pages now, instead of page faulting on the append path
+      for (int position = 0; position < segmentSize; position += PAGE_SIZE) {
+        buffer.put(position, (byte) 0);
+      }
+    }
+
+    return buffer;
+  }
+
+  private void releaseSpare(final MappedByteBuffer buffer) {
+    IoUtil.unmap(buffer);
+    deleteSpareFile();
+  }
+
+  private void deleteSpareFile() {
+    try {
+      Files.deleteIfExists(spareFile.toPath());
+    } catch (final IOException e) {
+      LOG.warn("Failed to delete spare segment {}", spareFile, e);
+    }
+  }
+}
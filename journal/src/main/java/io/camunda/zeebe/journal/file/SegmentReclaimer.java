@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closes and deletes compacted segments on a dedicated thread, such that compacting the journal
+ * does not block the caller on unmapping and deleting files. The segments are expected to be
+ * detached from the journal already, such that no new readers are opened on them.
+ *
+ * <p>A segment is only deleted once all readers which are still open on it moved on to another
+ * segment. Segments are deleted in the order in which they were detached, so the remaining segment
+ * files never have a gap, even if the journal is not closed properly.
+ */
+final class SegmentReclaimer implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SegmentReclaimer.class);
+  private static final long RETRY_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final JournalMetrics metrics;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition segmentsDetached = lock.newCondition();
+  // held while a segment is deleted, such that segments are deleted one at a time and in order
+  private final Object deletionLock = new Object();
+  private final Thread reclaimerThread;
+
+  // guarded by lock
+  private final Deque<DetachedSegment> detachedSegments = new ArrayDeque<>();
+  private boolean closed;
+
+  SegmentReclaimer(final String name, final JournalMetrics metrics) {
+    this.metrics = metrics;
+    reclaimerThread = new Thread(this::runReclaimLoop, "journal-segment-reclaimer-" + name);
+    reclaimerThread.setDaemon(true);
+    reclaimerThread.start();
+  }
+
+  /** Schedules the deletion of a segment which was detached from the journal. */
+  void reclaim(final JournalSegment segment) {
+    lock.lock();
+    try {
+      detachedSegments.add(new DetachedSegment(segment, System.nanoTime()));
+      metrics.setPendingSegmentDeletions(detachedSegments.size());
+      segmentsDetached.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes and deletes all detached segments on the caller's thread, even if readers are still open
+   * on them. Must be called before segment files with the same ids may be created again, e.g. when
+   * the journal is reset.
+   */
+  void reclaimAll() {
+    synchronized (deletionLock) {
+      DetachedSegment detached;
+      while ((detached = peek()) != null) {
+        detached.segment.close();
+        delete(detached);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      segmentsDetached.signal();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      reclaimerThread.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    reclaimAll();
+  }
+
+  private void runReclaimLoop() {
+    while (true) {
+      lock.lock();
+      try {
+        while (!closed && detachedSegments.isEmpty()) {
+          segmentsDetached.awaitUninterruptibly();
+        }
+
+        if (closed) {
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+
+      if (!tryReclaimNext()) {
+        awaitRetry();
+      }
+    }
+  }
+
+  /** Returns false if the next segment is still in use, or could not be deleted. */
+  private boolean tryReclaimNext() {
+    synchronized (deletionLock) {
+      final DetachedSegment detached = peek();
+      if (detached == null) {
+        return true;
+      }
+
+      if (!detached.segment.closeIfUnused()) {
+        return false;
+      }
+
+      try {
+        delete(detached);
+        return true;
+      } catch (final Exception e) {
+        LOG.warn("Failed to delete compacted segment {}, retrying", detached.segment, e);
+        return false;
+      }
+    }
+  }
+
+  private void delete(final DetachedSegment detached) {
+    detached.segment.delete();
+    metrics.observeSegmentDeletionLag(System.nanoTime() - detached.detachedAtNanos);
+
+    lock.lock();
+    try {
+      detachedSegments.remove(detached);
+      metrics.setPendingSegmentDeletions(detachedSegments.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private DetachedSegment peek() {
+    lock.lock();
+    try {
+      return detachedSegments.peek();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void awaitRetry() {
+    lock.lock();
+    try {
+      if (!closed) {
+        segmentsDetached.awaitNanos(RETRY_INTERVAL_NANOS);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class DetachedSegment {
+    private final JournalSegment segment;
+    private final long detachedAtNanos;
+
+    private DetachedSegment(final JournalSegment segment, final long detachedAtNanos) {
+      this.segment = segment;
+      this.detachedAtNanos = detachedAtNanos;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.collect.Sets;
+import io.camunda.zeebe.journal.DurableIndexListener;
 import io.camunda.zeebe.journal.Journal;
 import io.camunda.zeebe.journal.JournalException;
 import io.camunda.zeebe.journal.JournalReader;
@@ -29,6 +30,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
@@ -40,9 +42,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +62,7 @@ public class SegmentedJournal implements Journal {
   private static final int SEGMENT_BUFFER_FACTOR = 3;
   private static final int FIRST_SEGMENT_ID = 1;
   private static final int INITIAL_INDEX = 1;
+  private static final long INDEX_FILE_WRITER_TIMEOUT_SECONDS = 10;
   private final JournalMetrics journalMetrics;
   private final Logger log = LoggerFactory.getLogger(getClass());
   private final String name;
@@ -67,6 +77,15 @@ public class SegmentedJournal implements Journal {
   private final SegmentedJournalWriter writer;
   private final long lastWrittenIndex;
   private final StampedLock rwlock = new StampedLock();
+  private final JournalFlusher flusher;
+  private final SegmentPreallocator preallocator;
+  private final boolean segmentIndexFiles;
+  private final int recoveryThreads;
+  private final Supplier<JournalIndex> recoveryIndexFactory;
+  private final SegmentMappingWindow mappingWindow;
+  private final JournalSegmentType segmentType;
+  private final SegmentReclaimer reclaimer;
+  private final ExecutorService indexFileWriter;
 
   public SegmentedJournal(
       final String name,
@@ -74,7 +93,16 @@ public class SegmentedJournal implements Journal {
       final int maxSegmentSize,
       final long minFreeSpace,
       final JournalIndex journalIndex,
-      final long lastWrittenIndex) {
+      final long lastWrittenIndex,
+      final boolean asyncFlush,
+      final boolean preallocateSegments,
+      final boolean preTouchSegments,
+      final boolean segmentIndexFiles,
+      final int recoveryThreads,
+      final Supplier<JournalIndex> recoveryIndexFactory,
+      final int maxIdleMappedSegments,
+      final JournalSegmentType segmentType,
+      final boolean backgroundSegmentDeletion) {
     this.name = checkNotNull(name, "name cannot be null");
     this.directory = checkNotNull(directory, "directory cannot be null");
     this.maxSegmentSize = maxSegmentSize;
@@ -82,8 +110,39 @@ public class SegmentedJournal implements Journal {
     minFreeDiskSpace = minFreeSpace;
     this.journalIndex = journalIndex;
     this.lastWrittenIndex = lastWrittenIndex;
+    this.segmentIndexFiles = segmentIndexFiles;
+    this.recoveryThreads = recoveryThreads;
+    this.recoveryIndexFactory = recoveryIndexFactory;
+    mappingWindow = new SegmentMappingWindow(maxIdleMappedSegments, journalMetrics);
+    this.segmentType = segmentType;
     open();
     writer = new SegmentedJournalWriter(this);
+
+    // as before the durable index was tracked, records which were recovered from the segment files
+    // are considered to be persisted
+    flusher =
+        new JournalFlusher(
+            name,
+            writer::flush,
+            this::flushIfOpen,
+            journalMetrics,
+            writer.getLastIndex(),
+            asyncFlush);
+    preallocator =
+        preallocateSegments
+            ? new SegmentPreallocator(
+                name, directory, maxSegmentSize, preTouchSegments, journalMetrics)
+            : null;
+    reclaimer = backgroundSegmentDeletion ? new SegmentReclaimer(name, journalMetrics) : null;
+    indexFileWriter =
+        segmentIndexFiles
+            ? Executors.newSingleThreadExecutor(
+                runnable -> {
+                  final var thread = new Thread(runnable, "journal-index-writer-" + name);
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
   }
 
   /**
@@ -110,6 +169,11 @@ public class SegmentedJournal implements Journal {
     writer.append(record);
   }
 
+  @Override
+  public void append(final List<? extends JournalRecord> records) {
+    writer.append(records);
+  }
+
   @Override
   public void deleteAfter(final long indexExclusive) {
     journalMetrics.observeSegmentTruncation(
@@ -117,11 +181,14 @@ public class SegmentedJournal implements Journal {
           final var stamp = rwlock.writeLock();
           try {
             writer.deleteAfter(indexExclusive);
+            flusher.onTruncated(writer.getLastIndex());
             // Reset segment readers.
             resetAdvancedReaders(indexExclusive + 1);
           } finally {
             rwlock.unlockWrite(stamp);
           }
+
+          flusher.awaitPendingNotifications();
         });
   }
 
@@ -145,6 +212,11 @@ public class SegmentedJournal implements Journal {
           getFirstIndex(),
           compactSegments.get(compactSegments.lastKey()).index(),
           compactSegments.size());
+      if (reclaimer != null) {
+        detachSegments(compactSegments, index);
+        return;
+      }
+
       for (final JournalSegment segment : compactSegments.values()) {
         log.trace("{} - Deleting segment: {}", name, segment);
         segment.close();
@@ -160,16 +232,47 @@ public class SegmentedJournal implements Journal {
     }
   }
 
+  /**
+   * Removes the given segments from the journal and hands them to the reclaimer, which deletes them
+   * once no reader uses them anymore. Readers which are still before the new first segment are
+   * moved to it while holding the write lock, such that they release the detached segments.
+   */
+  private void detachSegments(
+      final SortedMap<Long, JournalSegment> compactSegments, final long index) {
+    final var stamp = rwlock.writeLock();
+    try {
+      final List<JournalSegment> detached = new ArrayList<>(compactSegments.values());
+      compactSegments.clear();
+      journalIndex.deleteUntil(index);
+      resetHead(getFirstSegment().index());
+
+      for (final JournalSegment segment : detached) {
+        log.trace("{} - Detaching segment: {}", name, segment);
+        journalMetrics.decSegmentCount();
+        reclaimer.reclaim(segment);
+      }
+    } finally {
+      rwlock.unlockWrite(stamp);
+    }
+  }
+
   @Override
   public void reset(final long nextIndex) {
     final var stamp = rwlock.writeLock();
     try {
+      if (reclaimer != null) {
+        // the new segments reuse the ids, and thus the file names, of the detached ones
+        reclaimer.reclaimAll();
+      }
       journalIndex.clear();
       writer.reset(nextIndex);
+      flusher.onReset(nextIndex - 1);
       resetHead(nextIndex);
     } finally {
       rwlock.unlockWrite(stamp);
     }
+
+    flusher.awaitPendingNotifications();
   }
 
   @Override
@@ -193,7 +296,27 @@ public class SegmentedJournal implements Journal {
 
   @Override
   public void flush() {
-    writer.flush();
+    flusher.flush(writer.getLastIndex());
+  }
+
+  @Override
+  public void flushAsync() {
+    flusher.requestFlush(writer.getLastIndex());
+  }
+
+  @Override
+  public long getDurableIndex() {
+    return flusher.getDurableIndex();
+  }
+
+  @Override
+  public void addDurableIndexListener(final DurableIndexListener listener) {
+    flusher.addListener(listener);
+  }
+
+  @Override
+  public void removeDurableIndexListener(final DurableIndexListener listener) {
+    flusher.removeListener(listener);
   }
 
   @Override
@@ -210,6 +333,16 @@ public class SegmentedJournal implements Journal {
 
   @Override
   public void close() {
+    flusher.close();
+    if (preallocator != null) {
+      preallocator.close();
+    }
+    if (reclaimer != null) {
+      reclaimer.close();
+    }
+    if (indexFileWriter != null) {
+      closeIndexFileWriter();
+    }
     segments
         .values()
         .forEach(
@@ -221,6 +354,19 @@ public class SegmentedJournal implements Journal {
     open = false;
   }
 
+  /** Waits for the pending index files to be written, such that they are used on the next open. */
+  private void closeIndexFileWriter() {
+    indexFileWriter.shutdown();
+    try {
+      if (!indexFileWriter.awaitTermination(INDEX_FILE_WRITER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        log.warn("Timed out writing the index files of sealed segments, they will be rebuilt");
+        indexFileWriter.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   /** Opens the segments. */
   private synchronized void open() {
     final long startTime = System.currentTimeMillis();
@@ -233,6 +379,8 @@ public class SegmentedJournal implements Journal {
     // If a segment doesn't already exist, create an initial segment starting at index 1.
     if (!segments.isEmpty()) {
       currentSegment = segments.lastEntry().getValue();
+      // all loaded segments are mapped; the last one is kept mapped by the writer
+      segments.headMap(currentSegment.index()).values().forEach(mappingWindow::onIdle);
     } else {
       final JournalSegmentDescriptor descriptor =
           JournalSegmentDescriptor.builder()
@@ -363,7 +511,7 @@ public class SegmentedJournal implements Journal {
             .withMaxSegmentSize(maxSegmentSize)
             .build();
 
-    currentSegment = createSegment(descriptor);
+    currentSegment = createNextSegment(descriptor);
 
     segments.put(descriptor.index(), currentSegment);
     journalMetrics.incSegmentCount();
@@ -416,6 +564,54 @@ public class SegmentedJournal implements Journal {
     resetCurrentSegment();
   }
 
+  /**
+   * Persists the index of a segment which the journal rolled over from, if enabled. The segment
+   * must have been flushed before, such that the persisted index never describes records which are
+   * not durable yet.
+   */
+  void sealSegment(final JournalSegment segment) {
+    if (indexFileWriter == null) {
+      return;
+    }
+
+    final long generation = segment.getIndexFileGeneration();
+    final SegmentIndexFile indexFile = segment.createIndexFile();
+    if (indexFile != null) {
+      // creating, writing and flushing the file is done off the append path
+      indexFileWriter.execute(() -> segment.writeIndexFile(indexFile, generation));
+    }
+  }
+
+  /** Creates the next segment, reusing the pre-allocated spare segment if it is ready. */
+  private JournalSegment createNextSegment(final JournalSegmentDescriptor descriptor) {
+    if (preallocator == null) {
+      return createSegment(descriptor);
+    }
+
+    final File segmentFile = JournalSegmentFile.createSegmentFile(name, directory, descriptor.id());
+    final MappedByteBuffer buffer = preallocator.takeSpare(descriptor, segmentFile);
+    if (buffer == null) {
+      return createSegment(descriptor);
+    }
+
+    if (segmentType == JournalSegmentType.FILE_CHANNEL) {
+      // the spare file is ready to use, but the segment accesses it via a channel
+      IoUtil.unmap(buffer);
+      return loadSegment(segmentFile, descriptor);
+    }
+
+    final JournalSegment segment =
+        new JournalSegment(
+            new JournalSegmentFile(segmentFile),
+            descriptor,
+            buffer,
+            lastWrittenIndex,
+            journalIndex,
+            mappingWindow);
+    log.debug("Created segment from pre-allocated spare: {}", segment);
+    return segment;
+  }
+
   /** Creates a new segment. */
   JournalSegment createSegment(final JournalSegmentDescriptor descriptor) {
     final File segmentFile = JournalSegmentFile.createSegmentFile(name, directory, descriptor.id());
@@ -457,8 +653,64 @@ public class SegmentedJournal implements Journal {
    * @return The segment instance.
    */
   protected JournalSegment loadSegment(final File file, final JournalSegmentDescriptor descriptor) {
+    return loadSegment(file, descriptor, null, journalIndex);
+  }
+
+  /**
+   * Creates a new segment instance, restoring its state from the given persisted index if possible.
+   *
+   * @param file The segment file.
+   * @param descriptor The segment descriptor.
+   * @param indexFile The persisted index of the segment, or null to scan the segment.
+   * @return The segment instance.
+   */
+  private JournalSegment loadSegment(
+      final File file,
+      final JournalSegmentDescriptor descriptor,
+      final SegmentIndexFile indexFile,
+      final JournalIndex recoveryIndex) {
     final JournalSegmentFile segmentFile = new JournalSegmentFile(file);
-    return new JournalSegment(segmentFile, descriptor, lastWrittenIndex, journalIndex);
+    if (segmentType == JournalSegmentType.FILE_CHANNEL) {
+      return new JournalSegment(
+          segmentFile,
+          descriptor,
+          openChannel(file),
+          lastWrittenIndex,
+          journalIndex,
+          indexFile,
+          recoveryIndex,
+          mappingWindow);
+    }
+
+    return new JournalSegment(
+        segmentFile,
+        descriptor,
+        lastWrittenIndex,
+        journalIndex,
+        indexFile,
+        recoveryIndex,
+        mappingWindow);
+  }
+
+  /**
+   * Returns the persisted index of a sealed segment, or null if there is none or if the segment has
+   * to be scanned anyway. The last segment is always scanned, as it may be written to after its
+   * index was persisted, e.g. after a truncation.
+   */
+  private SegmentIndexFile readIndexFile(
+      final File file, final JournalSegmentDescriptor descriptor, final boolean isLastSegment) {
+    if (!segmentIndexFiles || isLastSegment) {
+      return null;
+    }
+
+    final SegmentIndexFile indexFile =
+        SegmentIndexFile.read(JournalSegmentFile.createIndexFile(file));
+    if (indexFile == null || indexFile.segmentId() != descriptor.id()) {
+      log.debug("No valid index file found for segment {}, scanning it", file.getName());
+      return null;
+    }
+
+    return indexFile;
   }
 
   private FileChannel openChannel(final File file) {
@@ -481,16 +733,15 @@ public class SegmentedJournal implements Journal {
   protected Collection<JournalSegment> loadSegments() {
     // Ensure log directories are created.
     directory.mkdirs();
-    final List<JournalSegment> segments = new ArrayList<>();
-
     final List<File> files = getSortedLogSegments();
-    for (int i = 0; i < files.size(); i++) {
-      final File file = files.get(i);
+    if (recoveryThreads > 1 && files.size() > 1) {
+      return loadSegmentsConcurrently(files);
+    }
 
+    final List<JournalSegment> segments = new ArrayList<>();
+    for (int i = 0; i < files.size(); i++) {
       try {
-        log.debug("Found segment file: {}", file.getName());
-        final JournalSegmentDescriptor descriptor = readDescriptor(file);
-        final JournalSegment segment = loadSegment(file, descriptor);
+        final JournalSegment segment = recoverSegment(files, i, journalIndex);
 
         if (i > 0) {
           checkForIndexGaps(segments.get(i - 1), segment);
@@ -509,6 +760,101 @@ public class SegmentedJournal implements Journal {
     return segments;
   }
 
+  /**
+   * Loads the segments on a bounded pool, where each segment is validated and indexed into its own
+   * index. The results are then merged in segment order, such that segments are checked for gaps
+   * and corruption is handled exactly as when loading them one after another.
+   */
+  private Collection<JournalSegment> loadSegmentsConcurrently(final List<File> files) {
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(recoveryThreads, files.size()),
+            runnable -> {
+              final var thread = new Thread(runnable, "journal-recovery-" + name);
+              thread.setDaemon(true);
+              return thread;
+            });
+    final List<CompletableFuture<RecoveredSegment>> recoveredSegments = new ArrayList<>();
+    for (int i = 0; i < files.size(); i++) {
+      final int segmentIndex = i;
+      recoveredSegments.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                final JournalIndex recoveryIndex = recoveryIndexFactory.get();
+                return new RecoveredSegment(
+                    recoverSegment(files, segmentIndex, recoveryIndex), recoveryIndex);
+              },
+              executor));
+    }
+    executor.shutdown();
+
+    final List<JournalSegment> segments = new ArrayList<>();
+    int i = 0;
+    try {
+      for (; i < files.size(); i++) {
+        final RecoveredSegment recovered = join(recoveredSegments.get(i));
+        final JournalSegment segment = recovered.segment;
+        recovered.index.forEach(segment.index(), segment.lastIndex(), journalIndex::index);
+
+        if (i > 0) {
+          checkForIndexGaps(segments.get(i - 1), segment);
+        }
+
+        segments.add(segment);
+      }
+    } catch (final CorruptedLogException e) {
+      closeRecoveredSegments(recoveredSegments, i);
+      if (handleSegmentCorruption(files, segments, i)) {
+        return segments;
+      }
+
+      throw e;
+    } catch (final RuntimeException e) {
+      closeRecoveredSegments(recoveredSegments, i);
+      throw e;
+    }
+
+    return segments;
+  }
+
+  /** Reads the descriptor of the i-th segment file and opens the segment. */
+  private JournalSegment recoverSegment(
+      final List<File> files, final int i, final JournalIndex recoveryIndex) {
+    final File file = files.get(i);
+    log.debug("Found segment file: {}", file.getName());
+    final JournalSegmentDescriptor descriptor = readDescriptor(file);
+    return loadSegment(
+        file, descriptor, readIndexFile(file, descriptor, i == files.size() - 1), recoveryIndex);
+  }
+
+  /**
+   * Closes the segments which were loaded concurrently, starting from the given one, as they are
+   * not part of the journal. Waits for the segments which are still being loaded, as their files
+   * may be deleted afterwards.
+   */
+  private void closeRecoveredSegments(
+      final List<CompletableFuture<RecoveredSegment>> recoveredSegments, final int from) {
+    for (int i = from; i < recoveredSegments.size(); i++) {
+      try {
+        recoveredSegments.get(i).join().segment.close();
+      } catch (final CompletionException e) {
+        log.trace("Segment {} failed to load, nothing to close", i, e.getCause());
+      }
+    }
+  }
+
+  private static <T> T join(final CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+
+      throw new JournalException(e.getCause());
+    }
+  }
+
   private void checkForIndexGaps(final JournalSegment prevSegment, final JournalSegment segment) {
     if (prevSegment.lastIndex() != segment.index() - 1) {
       throw new CorruptedLogException(
@@ -541,6 +887,7 @@ public class SegmentedJournal implements Journal {
     for (int i = failedIndex; i < files.size(); i++) {
       final File file = files.get(i);
       try {
+        Files.deleteIfExists(JournalSegmentFile.createIndexFile(file).toPath());
         Files.delete(file.toPath());
       } catch (IOException e) {
         throw new JournalException(
@@ -656,6 +1003,25 @@ public class SegmentedJournal implements Journal {
     }
   }
 
+  /**
+   * Flushes the current segment from the flusher thread, unless the journal was closed in the
+   * meantime. Holding the read lock guarantees that the segment is not closed and unmapped while it
+   * is being flushed, as truncating or resetting the journal requires the write lock. Only the
+   * flusher thread uses this; synchronous flushes, including {@link #flush()} in async mode, run on
+   * the thread which also truncates and resets the journal and flush the writer directly, since the
+   * lock is not reentrant and taking it there could deadlock against a waiting writer.
+   */
+  private void flushIfOpen() {
+    final var stamp = rwlock.readLock();
+    try {
+      if (open) {
+        writer.flush();
+      }
+    } finally {
+      rwlock.unlockRead(stamp);
+    }
+  }
+
   public JournalMetrics getJournalMetrics() {
     return journalMetrics;
   }
@@ -671,4 +1037,15 @@ public class SegmentedJournal implements Journal {
   void releaseReadlock(final long stamp) {
     rwlock.unlockRead(stamp);
   }
+
+  private static final class RecoveredSegment {
+
+    private final JournalSegment segment;
+    private final JournalIndex index;
+
+    private RecoveredSegment(final JournalSegment segment, final JournalIndex index) {
+      this.segment = segment;
+      this.index = index;
+    }
+  }
 }
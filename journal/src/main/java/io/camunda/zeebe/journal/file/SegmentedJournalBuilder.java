@@ -29,6 +29,10 @@ public class SegmentedJournalBuilder {
   private static final int DEFAULT_MAX_SEGMENT_SIZE = 1024 * 1024 * 32;
   private static final long DEFAULT_MIN_FREE_DISK_SPACE = 1024L * 1024 * 1024;
   private static final int DEFAULT_JOURNAL_INDEX_DENSITY = 100;
+  private static final JournalIndexType DEFAULT_JOURNAL_INDEX_TYPE = JournalIndexType.SPARSE_TREE;
+  private static final int DEFAULT_RECOVERY_THREADS = 1;
+  private static final int DEFAULT_MAX_IDLE_MAPPED_SEGMENTS = Integer.MAX_VALUE;
+  private static final JournalSegmentType DEFAULT_SEGMENT_TYPE = JournalSegmentType.MAPPED;
 
   protected String name = DEFAULT_NAME;
   protected File directory = new File(DEFAULT_DIRECTORY);
@@ -36,7 +40,16 @@ public class SegmentedJournalBuilder {
 
   private long freeDiskSpace = DEFAULT_MIN_FREE_DISK_SPACE;
   private int journalIndexDensity = DEFAULT_JOURNAL_INDEX_DENSITY;
+  private JournalIndexType journalIndexType = DEFAULT_JOURNAL_INDEX_TYPE;
   private long lastWrittenIndex = -1L;
+  private boolean asyncFlush = false;
+  private boolean preallocateSegments = false;
+  private boolean preTouchSegments = false;
+  private boolean segmentIndexFiles = false;
+  private int recoveryThreads = DEFAULT_RECOVERY_THREADS;
+  private int maxIdleMappedSegments = DEFAULT_MAX_IDLE_MAPPED_SEGMENTS;
+  private JournalSegmentType segmentType = DEFAULT_SEGMENT_TYPE;
+  private boolean backgroundSegmentDeletion = false;
 
   protected SegmentedJournalBuilder() {}
 
@@ -117,6 +130,20 @@ public class SegmentedJournalBuilder {
     return this;
   }
 
+  /**
+   * Sets the implementation of the journal index, returning the builder for method chaining.
+   *
+   * <p>By default, the index is {@link JournalIndexType#SPARSE_TREE}.
+   *
+   * @param journalIndexType the type of the journal index
+   * @return the journal builder
+   * @throws NullPointerException if the {@code journalIndexType} is {@code null}
+   */
+  public SegmentedJournalBuilder withJournalIndexType(final JournalIndexType journalIndexType) {
+    this.journalIndexType = checkNotNull(journalIndexType, "journalIndexType cannot be null");
+    return this;
+  }
+
   /**
    * Writes the last index to have been persisted to the metastore.
    *
@@ -128,9 +155,167 @@ public class SegmentedJournalBuilder {
     return this;
   }
 
+  /**
+   * Sets whether {@link SegmentedJournal#flushAsync()} flushes on a dedicated flusher thread,
+   * returning the builder for method chaining.
+   *
+   * <p>When enabled, flush requests which arrive while a flush is in progress are coalesced into a
+   * single flush, and the journal's {@link io.camunda.zeebe.journal.DurableIndexListener}s are
+   * notified from the flusher thread. When disabled, {@link SegmentedJournal#flushAsync()} flushes
+   * synchronously on the caller's thread. By default, this is disabled.
+   *
+   * @param asyncFlush whether to flush on a dedicated thread
+   * @return the journal builder
+   */
+  public SegmentedJournalBuilder withAsyncFlush(final boolean asyncFlush) {
+    this.asyncFlush = asyncFlush;
+    return this;
+  }
+
+  /**
+   * Sets whether the next segment is created ahead of time, returning the builder for method
+   * chaining.
+   *
+   * <p>When enabled, the journal keeps one spare segment file which is created and mapped in the
+   * background, such that rolling over to a new segment does not create or map a file on the append
+   * path. By default, this is disabled.
+   *
+   * @param preallocateSegments whether to pre-allocate the next segment
+   * @return the journal builder
+   */
+  public SegmentedJournalBuilder withPreallocateSegments(final boolean preallocateSegments) {
+    this.preallocateSegments = preallocateSegments;
+    return this;
+  }
+
+  /**
+   * Sets whether the pages of a pre-allocated segment are touched after mapping it, returning the
+   * builder for method chaining.
+   *
+   * <p>Touching every page forces the file system to allocate the file's blocks in the background
+   * instead of on the first write to each page, at the cost of allocating the whole segment up
+   * front. Only has an effect if {@link #withPreallocateSegments(boolean)} is enabled. By default,
+   * this is disabled.
+   *
+   * @param preTouchSegments whether to touch the pages of pre-allocated segments
+   * @return the journal builder
+   */
+  public SegmentedJournalBuilder withPreTouchSegments(final boolean preTouchSegments) {
+    this.preTouchSegments = preTouchSegments;
+    return this;
+  }
+
+  /**
+   * Sets whether the index of a segment is persisted once the journal rolls over to the next
+   * segment, returning the builder for method chaining.
+   *
+   * <p>When enabled, the sampled index entries and the position and checksum of the last record of
+   * a sealed segment are written to a file next to the segment. When the journal is opened, these
+   * segments are then not read record by record; only the last segment, and segments whose index
+   * file is missing or invalid, are scanned. By default, this is disabled.
+   *
+   * @param segmentIndexFiles whether to persist the index of sealed segments
+   * @return the journal builder
+   */
+  public SegmentedJournalBuilder withSegmentIndexFiles(final boolean segmentIndexFiles) {
+    this.segmentIndexFiles = segmentIndexFiles;
+    return this;
+  }
+
+  /**
+   * Sets the number of threads which load the existing segments when the journal is opened,
+   * returning the builder for method chaining.
+   *
+   * <p>Loading a segment reads and verifies every record of it, unless its index was persisted (see
+   * {@link #withSegmentIndexFiles(boolean)}). With more than one thread, segments are loaded
+   * concurrently on a pool of at most this many threads, which is shut down once the journal is
+   * opened. By default, segments are loaded one after another on the calling thread.
+   *
+   * @param recoveryThreads the maximum number of threads loading segments
+   * @return the journal builder
+   * @throws IllegalArgumentException if the {@code recoveryThreads} is not positive
+   */
+  public SegmentedJournalBuilder withRecoveryThreads(final int recoveryThreads) {
+    checkArgument(recoveryThreads > 0, "recoveryThreads must be positive");
+    this.recoveryThreads = recoveryThreads;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of segments which stay memory-mapped while they are not used, returning
+   * the builder for method chaining.
+   *
+   * <p>The segment which is appended to and segments on which a reader is open are always mapped.
+   * Of the other segments, only the most recently used ones are kept mapped, up to this number; the
+   * others are unmapped, and mapped again when a reader seeks into them. Since records may be used
+   * after their segment was unmapped, the data of every record read or appended is then copied. By
+   * default, all segments stay mapped and records refer to the mapped segments.
+   *
+   * @param maxIdleMappedSegments the maximum number of mapped segments which are not in use
+   * @return the journal builder
+   * @throws IllegalArgumentException if the {@code maxIdleMappedSegments} is negative
+   */
+  public SegmentedJournalBuilder withMaxIdleMappedSegments(final int maxIdleMappedSegments) {
+    checkArgument(maxIdleMappedSegments >= 0, "maxIdleMappedSegments must not be negative");
+    this.maxIdleMappedSegments = maxIdleMappedSegments;
+    return this;
+  }
+
+  /**
+   * Sets how the segment files are read and written, returning the builder for method chaining.
+   *
+   * <p>With {@link JournalSegmentType#FILE_CHANNEL}, records are written with explicit file channel
+   * writes and read through a small read-ahead buffer, and the data of every record read is copied.
+   * The page cache is then only written back when the journal is flushed or by the operating
+   * system, and not on page faults of a mapping. {@link #withMaxIdleMappedSegments(int)} has no
+   * effect in this mode. By default, the segments are {@link JournalSegmentType#MAPPED}.
+   *
+   * @param segmentType how the segment files are accessed
+   * @return the journal builder
+   * @throws NullPointerException if the {@code segmentType} is {@code null}
+   */
+  public SegmentedJournalBuilder withSegmentType(final JournalSegmentType segmentType) {
+    this.segmentType = checkNotNull(segmentType, "segmentType cannot be null");
+    return this;
+  }
+
+  /**
+   * Sets whether compacted segments are deleted on a background thread, returning the builder for
+   * method chaining.
+   *
+   * <p>When enabled, {@link SegmentedJournal#deleteUntil(long)} only removes the compacted segments
+   * from the journal, and a dedicated thread closes and deletes them once no reader is open on them
+   * anymore. Readers which are not closed keep their current segment from being deleted. By
+   * default, this is disabled and segments are deleted on the caller's thread.
+   *
+   * @param backgroundSegmentDeletion whether to delete compacted segments in the background
+   * @return the journal builder
+   */
+  public SegmentedJournalBuilder withBackgroundSegmentDeletion(
+      final boolean backgroundSegmentDeletion) {
+    this.backgroundSegmentDeletion = backgroundSegmentDeletion;
+    return this;
+  }
+
   public SegmentedJournal build() {
-    final JournalIndex journalIndex = new SparseJournalIndex(journalIndexDensity);
+    final JournalIndexType indexType = journalIndexType;
+    final int indexDensity = journalIndexDensity;
+    final JournalIndex journalIndex = indexType.createIndex(indexDensity);
     return new SegmentedJournal(
-        name, directory, maxSegmentSize, freeDiskSpace, journalIndex, lastWrittenIndex);
+        name,
+        directory,
+        maxSegmentSize,
+        freeDiskSpace,
+        journalIndex,
+        lastWrittenIndex,
+        asyncFlush,
+        preallocateSegments,
+        preTouchSegments,
+        segmentIndexFiles,
+        recoveryThreads,
+        () -> indexType.createIndex(indexDensity),
+        maxIdleMappedSegments,
+        segmentType,
+        backgroundSegmentDeletion);
   }
 }
@@ -26,7 +26,7 @@ class SegmentedJournalReader implements JournalReader {
 
   private final SegmentedJournal journal;
   private JournalSegment currentSegment;
-  private MappedJournalSegmentReader currentReader;
+  private JournalSegmentReader currentReader;
 
   SegmentedJournalReader(final SegmentedJournal journal) {
     this.journal = journal;
@@ -165,7 +165,7 @@ class SegmentedJournalReader implements JournalReader {
   }
 
   long unsafeSeek(final long index) {
-    if (!currentSegment.isOpen()) {
+    if (!currentSegment.isOpen() || isDetached(currentSegment)) {
       unsafeSeekToFirst();
     }
 
@@ -180,6 +180,15 @@ class SegmentedJournalReader implements JournalReader {
     return getNextIndex();
   }
 
+  /**
+   * Returns whether the segment was compacted, but not yet closed, e.g. because it is deleted in
+   * the background. Readers must release such segments, even if they are at the end of them and
+   * their next index is already the first index of the journal.
+   */
+  private boolean isDetached(final JournalSegment segment) {
+    return segment.index() < journal.getFirstSegment().index();
+  }
+
   private long unsafeSeekToFirst() {
     replaceCurrentSegment(journal.getFirstSegment());
     return journal.getFirstIndex();
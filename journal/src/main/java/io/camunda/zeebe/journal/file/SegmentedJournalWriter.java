@@ -18,18 +18,21 @@ package io.camunda.zeebe.journal.file;
 
 import io.camunda.zeebe.journal.JournalRecord;
 import java.nio.BufferOverflowException;
+import java.util.List;
 import org.agrona.DirectBuffer;
 
 class SegmentedJournalWriter {
   private final SegmentedJournal journal;
   private final JournalMetrics journalMetrics;
   private JournalSegment currentSegment;
-  private MappedJournalSegmentWriter currentWriter;
+  // volatile, as the journal may be flushed from a separate thread
+  private volatile JournalSegmentWriter currentWriter;
 
   public SegmentedJournalWriter(final SegmentedJournal journal) {
     this.journal = journal;
     journalMetrics = journal.getJournalMetrics();
     currentSegment = journal.getLastSegment();
+    currentSegment.activate();
     currentWriter = currentSegment.writer();
   }
 
@@ -72,17 +75,31 @@ class SegmentedJournalWriter {
     }
   }
 
+  public void append(final List<? extends JournalRecord> records) {
+    int appended = 0;
+    while (appended < records.size()) {
+      final int count = currentWriter.append(records, appended);
+      if (count == 0) {
+        if (currentSegment.index() == currentWriter.getNextIndex()) {
+          throw new BufferOverflowException();
+        }
+
+        journalMetrics.observeSegmentCreation(this::createNewSegment);
+      }
+
+      appended += count;
+    }
+  }
+
   public void reset(final long index) {
-    currentSegment = journal.resetSegments(index);
-    currentWriter = currentSegment.writer();
+    switchTo(journal.resetSegments(index));
   }
 
   public void deleteAfter(final long index) {
     // Delete all segments with first indexes greater than the given index.
     while (index < currentSegment.index() && currentSegment != journal.getFirstSegment()) {
       journal.removeSegment(currentSegment);
-      currentSegment = journal.getLastSegment();
-      currentWriter = currentSegment.writer();
+      switchTo(journal.getLastSegment());
     }
 
     // Truncate the current index.
@@ -99,7 +116,18 @@ class SegmentedJournalWriter {
 
   private void createNewSegment() {
     currentWriter.flush();
-    currentSegment = journal.getNextSegment();
-    currentWriter = currentSegment.writer();
+    journal.sealSegment(currentSegment);
+    switchTo(journal.getNextSegment());
+  }
+
+  /**
+   * Continues writing to the given segment. The previous segment is deactivated, such that it can
+   * be unmapped, and the given segment is kept mapped while it is written to.
+   */
+  private void switchTo(final JournalSegment segment) {
+    segment.activate();
+    currentSegment.deactivate();
+    currentSegment = segment;
+    currentWriter = segment.writer();
   }
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalRecord;
+import java.util.Arrays;
+
+/**
+ * A sparse {@link JournalIndex} which keeps its entries in sorted primitive arrays instead of boxed
+ * tree maps. Records are indexed in increasing index order, and asqns are expected to increase with
+ * the index, so both the index and the asqn entries can be appended at the end and looked up via
+ * binary search.
+ *
+ * <p>Entries are stored between a head and a tail offset, such that {@link #deleteUntil(long)} and
+ * {@link #deleteAfter(long)} only move these offsets. The arrays grow in fixed size chunks, and
+ * space freed at the head is reclaimed before growing.
+ *
+ * <p>If a record is indexed whose index is not greater than the last indexed one (e.g. when a
+ * segment is re-read after a truncation), every entry from this index onwards is dropped first.
+ */
+class SparseArrayJournalIndex implements JournalIndex {
+
+  static final int CHUNK_SIZE = 1024;
+
+  private final int density;
+
+  // index -> position
+  private long[] indexes = new long[0];
+  private int[] positions = new int[0];
+  private int indexHead;
+  private int indexTail;
+
+  // asqn -> index
+  private long[] asqns = new long[0];
+  private long[] asqnIndexes = new long[0];
+  private int asqnHead;
+  private int asqnTail;
+
+  SparseArrayJournalIndex(final int density) {
+    this.density = density;
+  }
+
+  @Override
+  public void index(final JournalRecord indexedEntry, final int position) {
+    index(indexedEntry.index(), position, indexedEntry.asqn());
+  }
+
+  @Override
+  public void index(final long index, final int position, final long asqn) {
+    if (index % density != 0) {
+      return;
+    }
+
+    if (indexTail > indexHead && indexes[indexTail - 1] >= index) {
+      deleteAfter(index - 1);
+    }
+
+    ensureIndexCapacity();
+    indexes[indexTail] = index;
+    positions[indexTail] = position;
+    indexTail++;
+
+    if (asqn != SegmentedJournal.ASQN_IGNORE) {
+      // keep the asqns sorted even if the application did not provide increasing asqns
+      asqnTail = asqnHead + floor(asqns, asqnHead, asqnTail, asqn - 1) + 1;
+
+      ensureAsqnCapacity();
+      asqns[asqnTail] = asqn;
+      asqnIndexes[asqnTail] = index;
+      asqnTail++;
+    }
+  }
+
+  @Override
+  public long nextIndexedIndex(final long index) {
+    final long remainder = index % density;
+    return remainder == 0 ? index : index + density - remainder;
+  }
+
+  @Override
+  public IndexInfo lookup(final long index) {
+    final int offset = floor(indexes, indexHead, indexTail, index);
+    if (offset < 0) {
+      return null;
+    }
+
+    return new IndexInfo(indexes[indexHead + offset], positions[indexHead + offset]);
+  }
+
+  @Override
+  public Long lookupAsqn(final long asqn) {
+    return lookupAsqn(asqn, Long.MAX_VALUE);
+  }
+
+  @Override
+  public Long lookupAsqn(final long asqn, final long indexUpperBound) {
+    final int offset = floor(asqns, asqnHead, asqnTail, asqn);
+    if (offset < 0) {
+      return null;
+    }
+
+    final long index = asqnIndexes[asqnHead + offset];
+    if (index <= indexUpperBound) {
+      return index;
+    }
+
+    final int boundedOffset = floor(asqnIndexes, asqnHead, asqnTail, indexUpperBound);
+    return boundedOffset >= 0 ? asqnIndexes[asqnHead + boundedOffset] : null;
+  }
+
+  @Override
+  public void deleteAfter(final long indexExclusive) {
+    indexTail = indexHead + floor(indexes, indexHead, indexTail, indexExclusive) + 1;
+    asqnTail = asqnHead + floor(asqnIndexes, asqnHead, asqnTail, indexExclusive) + 1;
+  }
+
+  @Override
+  public void deleteUntil(final long indexExclusive) {
+    indexHead += floor(indexes, indexHead, indexTail, indexExclusive - 1) + 1;
+    asqnHead += floor(asqnIndexes, asqnHead, asqnTail, indexExclusive - 1) + 1;
+  }
+
+  @Override
+  public void clear() {
+    indexHead = 0;
+    indexTail = 0;
+    asqnHead = 0;
+    asqnTail = 0;
+  }
+
+  @Override
+  public void forEach(final long fromIndex, final long toIndex, final IndexEntryConsumer consumer) {
+    int asqnOffset = asqnHead + floor(asqnIndexes, asqnHead, asqnTail, fromIndex - 1) + 1;
+    for (int offset = indexHead + floor(indexes, indexHead, indexTail, fromIndex - 1) + 1;
+        offset < indexTail && indexes[offset] <= toIndex;
+        offset++) {
+      final long index = indexes[offset];
+      while (asqnOffset < asqnTail && asqnIndexes[asqnOffset] < index) {
+        asqnOffset++;
+      }
+
+      final boolean hasAsqn = asqnOffset < asqnTail && asqnIndexes[asqnOffset] == index;
+      consumer.accept(
+          index, positions[offset], hasAsqn ? asqns[asqnOffset] : SegmentedJournal.ASQN_IGNORE);
+    }
+  }
+
+  /** Returns the number of index entries currently stored. */
+  int size() {
+    return indexTail - indexHead;
+  }
+
+  private void ensureIndexCapacity() {
+    if (indexTail < indexes.length) {
+      return;
+    }
+
+    final int size = indexTail - indexHead;
+    if (indexHead >= CHUNK_SIZE || size + CHUNK_SIZE / 2 < indexes.length) {
+      System.arraycopy(indexes, indexHead, indexes, 0, size);
+      System.arraycopy(positions, indexHead, positions, 0, size);
+    } else {
+      final int capacity = indexes.length + CHUNK_SIZE;
+      indexes = copyOf(indexes, indexHead, size, capacity);
+      positions = copyOf(positions, indexHead, size, capacity);
+    }
+
+    indexHead = 0;
+    indexTail = size;
+  }
+
+  private void ensureAsqnCapacity() {
+    if (asqnTail < asqns.length) {
+      return;
+    }
+
+    final int size = asqnTail - asqnHead;
+    if (asqnHead >= CHUNK_SIZE || size + CHUNK_SIZE / 2 < asqns.length) {
+      System.arraycopy(asqns, asqnHead, asqns, 0, size);
+      System.arraycopy(asqnIndexes, asqnHead, asqnIndexes, 0, size);
+    } else {
+      final int capacity = asqns.length + CHUNK_SIZE;
+      asqns = copyOf(asqns, asqnHead, size, capacity);
+      asqnIndexes = copyOf(asqnIndexes, asqnHead, size, capacity);
+    }
+
+    asqnHead = 0;
+    asqnTail = size;
+  }
+
+  private static long[] copyOf(
+      final long[] array, final int from, final int size, final int capacity) {
+    final long[] copy = new long[capacity];
+    System.arraycopy(array, from, copy, 0, size);
+    return copy;
+  }
+
+  private static int[] copyOf(
+      final int[] array, final int from, final int size, final int capacity) {
+    final int[] copy = new int[capacity];
+    System.arraycopy(array, from, copy, 0, size);
+    return copy;
+  }
+
+  /**
+   * Returns the offset (relative to {@code head}) of the greatest value which is less than or equal
+   * to the given key, or -1 if there is none.
+   */
+  private static int floor(final long[] array, final int head, final int tail, final long key) {
+    final int position = Arrays.binarySearch(array, head, tail, key);
+    if (position >= 0) {
+      return position - head;
+    }
+
+    // the insertion point is the first element greater than the key
+    return -position - 1 - head - 1;
+  }
+}
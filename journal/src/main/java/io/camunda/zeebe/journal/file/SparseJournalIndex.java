@@ -34,10 +34,13 @@ class SparseJournalIndex implements JournalIndex {
 
   @Override
   public void index(final JournalRecord indexedEntry, final int position) {
-    final long index = indexedEntry.index();
+    index(indexedEntry.index(), position, indexedEntry.asqn());
+  }
+
+  @Override
+  public void index(final long index, final int position, final long asqn) {
     if (index % density == 0) {
       indexToPosition.put(index, position);
-      final long asqn = indexedEntry.asqn();
       if (asqn != SegmentedJournal.ASQN_IGNORE) {
         asqnToIndex.put(asqn, index);
         indexToAsqn.put(index, asqn);
@@ -45,6 +48,12 @@ class SparseJournalIndex implements JournalIndex {
     }
   }
 
+  @Override
+  public long nextIndexedIndex(final long index) {
+    final long remainder = index % density;
+    return remainder == 0 ? index : index + density - remainder;
+  }
+
   @Override
   public IndexInfo lookup(final long index) {
     final Map.Entry<Long, Integer> entry = indexToPosition.floorEntry(index);
@@ -99,4 +108,20 @@ class SparseJournalIndex implements JournalIndex {
     indexToAsqn.clear();
     asqnToIndex.clear();
   }
+
+  @Override
+  public void forEach(final long fromIndex, final long toIndex, final IndexEntryConsumer consumer) {
+    if (fromIndex > toIndex) {
+      return;
+    }
+
+    indexToPosition
+        .subMap(fromIndex, true, toIndex, true)
+        .forEach(
+            (index, position) ->
+                consumer.accept(
+                    index,
+                    position,
+                    indexToAsqn.getOrDefault(index, SegmentedJournal.ASQN_IGNORE)));
+  }
 }
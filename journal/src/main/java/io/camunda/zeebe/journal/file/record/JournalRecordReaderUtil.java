@@ -16,7 +16,6 @@
 package io.camunda.zeebe.journal.file.record;
 
 import io.camunda.zeebe.journal.JournalException.InvalidIndex;
-import io.camunda.zeebe.journal.JournalRecord;
 import io.camunda.zeebe.journal.file.ChecksumGenerator;
 import java.nio.ByteBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -35,7 +34,7 @@ public final class JournalRecordReaderUtil {
    * Reads the JournalRecord in the buffer at the current position. After the methods returns, the
    * position of {@code buffer} will be advanced to the next record.
    */
-  public JournalRecord read(final ByteBuffer buffer, final long expectedIndex) {
+  public PersistedJournalRecord read(final ByteBuffer buffer, final long expectedIndex) {
     // Mark the buffer so it can be reset if necessary.
     buffer.mark();
 
@@ -58,7 +57,8 @@ public final class JournalRecordReaderUtil {
       // each record.
       throw new CorruptedLogException(
           String.format(
-              "Expected to read a record at position %d, with metadata %s, but reached the end of the segment.",
+              "Expected to read a record at position %d, with metadata %s, but reached the end of"
+                  + " the segment.",
               buffer.position(), metadata));
     }
 
@@ -31,6 +31,29 @@ public interface JournalRecordSerializer {
    */
   int writeData(RecordData record, MutableDirectBuffer buffer, int offset);
 
+  /**
+   * Writes a record with the given fields to the buffer, exactly like {@link #writeData(RecordData,
+   * MutableDirectBuffer, int)}, but without having to create a {@link RecordData} first.
+   *
+   * @param index the index of the record
+   * @param asqn the application sequence number of the record
+   * @param data the data of the record
+   * @param buffer to which the record will be written
+   * @param offset the offset in the buffer at which the data will be written
+   * @return the number of bytes that were written to the buffer
+   */
+  int writeData(long index, long asqn, DirectBuffer data, MutableDirectBuffer buffer, int offset);
+
+  /**
+   * Returns the number of bytes required to write a {@link RecordData} with the given data to a
+   * buffer. It is equal to the length returned by {@link #writeData(RecordData,
+   * MutableDirectBuffer, int)} for such a record.
+   *
+   * @param data the data of the record
+   * @return the expected length of the serialized record
+   */
+  int getSerializedLength(DirectBuffer data);
+
   /**
    * Writes a {@link RecordMetadata} to the buffer)
    *
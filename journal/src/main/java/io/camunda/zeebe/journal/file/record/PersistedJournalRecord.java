@@ -18,6 +18,7 @@ package io.camunda.zeebe.journal.file.record;
 import io.camunda.zeebe.journal.JournalRecord;
 import java.util.Objects;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 /**
  * A JournalRecord stored in a buffer.
@@ -54,6 +55,18 @@ public class PersistedJournalRecord implements JournalRecord {
     return record.data();
   }
 
+  /**
+   * Returns a copy of this record whose data is stored on the heap, such that it stays valid after
+   * the buffer this record was read from is reused or unmapped.
+   *
+   * @return a copy of this record
+   */
+  public PersistedJournalRecord copy() {
+    final var data = new UnsafeBuffer(new byte[record.data().capacity()]);
+    data.putBytes(0, record.data(), 0, data.capacity());
+    return new PersistedJournalRecord(metadata, new RecordData(index(), asqn(), data));
+  }
+
   @Override
   public int hashCode() {
     return Objects.hash(record);
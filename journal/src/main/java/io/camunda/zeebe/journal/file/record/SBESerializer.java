@@ -40,7 +40,17 @@ public final class SBESerializer implements JournalRecordSerializer {
   @Override
   public int writeData(
       final RecordData record, final MutableDirectBuffer buffer, final int offset) {
-    if (offset + getSerializedLength(record) > buffer.capacity()) {
+    return writeData(record.index(), record.asqn(), record.data(), buffer, offset);
+  }
+
+  @Override
+  public int writeData(
+      final long index,
+      final long asqn,
+      final DirectBuffer data,
+      final MutableDirectBuffer buffer,
+      final int offset) {
+    if (offset + getSerializedLength(data) > buffer.capacity()) {
       throw new BufferOverflowException();
     }
 
@@ -53,10 +63,7 @@ public final class SBESerializer implements JournalRecordSerializer {
 
     recordEncoder.wrap(buffer, offset + headerEncoder.encodedLength());
 
-    recordEncoder
-        .index(record.index())
-        .asqn(record.asqn())
-        .putData(record.data(), 0, record.data().capacity());
+    recordEncoder.index(index).asqn(asqn).putData(data, 0, data.capacity());
 
     return headerEncoder.encodedLength() + recordEncoder.encodedLength();
   }
@@ -127,10 +134,11 @@ public final class SBESerializer implements JournalRecordSerializer {
     return headerDecoder.encodedLength() + headerDecoder.blockLength();
   }
 
-  private int getSerializedLength(final RecordData record) {
+  @Override
+  public int getSerializedLength(final DirectBuffer data) {
     return headerEncoder.encodedLength()
         + recordEncoder.sbeBlockLength()
         + RecordDataEncoder.dataHeaderLength()
-        + record.data().capacity();
+        + data.capacity();
   }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.camunda.zeebe.journal.file.record.CorruptedLogException;
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConcurrentSegmentRecoveryTest {
+
+  private static final int ENTRIES_PER_SEGMENT = 3;
+  private static final int RECOVERY_THREADS = 4;
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("test".getBytes(StandardCharsets.UTF_8));
+
+  @Test
+  void shouldLoadSegmentsConcurrently() {
+    // given
+    var journal = openJournal(1, -1);
+    for (int i = 1; i <= 20; i++) {
+      journal.append(i * 10L, data);
+    }
+    journal.close();
+
+    // when
+    journal = openJournal(RECOVERY_THREADS, -1);
+
+    // then
+    assertThat(journal.getFirstIndex()).isEqualTo(1);
+    assertThat(journal.getLastIndex()).isEqualTo(20);
+    assertThat(journal.getJournalIndex().lookup(14).index()).isEqualTo(14);
+    assertThat(journal.getJournalIndex().lookupAsqn(145)).isEqualTo(14);
+
+    final var reader = journal.openReader();
+    for (int i = 1; i <= 20; i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var record = reader.next();
+      assertThat(record.index()).isEqualTo(i);
+      assertThat(record.asqn()).isEqualTo(i * 10L);
+      assertThat(record.data()).isEqualTo(data);
+    }
+    assertThat(reader.hasNext()).isFalse();
+    assertThat(journal.append(210, data).index()).isEqualTo(21);
+    journal.close();
+  }
+
+  @Test
+  void shouldDeleteCorruptedSegmentAndFollowingSegmentsWithoutAckedEntries() throws Exception {
+    // given - segments [1, 3], [4, 6], [7, 9], [10]
+    var journal = openJournal(1, -1);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+    LogCorrupter.corruptDescriptor(segmentFile(2));
+
+    // when
+    journal = openJournal(RECOVERY_THREADS, 3);
+
+    // then
+    assertThat(journal.getFirstIndex()).isEqualTo(1);
+    assertThat(journal.getLastIndex()).isEqualTo(3);
+    assertThat(segmentFile(2)).doesNotExist();
+    assertThat(segmentFile(3)).doesNotExist();
+    assertThat(segmentFile(4)).doesNotExist();
+    assertThat(journal.append(4, data).index()).isEqualTo(4);
+    journal.close();
+  }
+
+  @Test
+  void shouldDetectCorruptedSegmentWithAckedEntries() throws Exception {
+    // given
+    final var journal = openJournal(1, -1);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+    LogCorrupter.corruptDescriptor(segmentFile(2));
+
+    // when/then
+    assertThatThrownBy(() -> openJournal(RECOVERY_THREADS, 10))
+        .isInstanceOf(CorruptedLogException.class);
+  }
+
+  private SegmentedJournal openJournal(final int recoveryThreads, final long lastWrittenIndex) {
+    return SegmentedJournal.builder()
+        .withDirectory(directory.toFile())
+        .withMaxSegmentSize(
+            getSerializedSize(data) * ENTRIES_PER_SEGMENT
+                + JournalSegmentDescriptor.getEncodingLength())
+        .withJournalIndexDensity(1)
+        .withLastWrittenIndex(lastWrittenIndex)
+        .withRecoveryThreads(recoveryThreads)
+        .build();
+  }
+
+  private File segmentFile(final long segmentId) {
+    return JournalSegmentFile.createSegmentFile("journal", directory.toFile(), segmentId);
+  }
+
+  private int getSerializedSize(final DirectBuffer data) {
+    final var record = new RecordData(1, 1, data);
+    final var serializer = new SBESerializer();
+    return serializer.writeData(record, new UnsafeBuffer(ByteBuffer.allocate(128)), 0)
+        + FrameUtil.getLength()
+        + serializer.getMetadataLength();
+  }
+}
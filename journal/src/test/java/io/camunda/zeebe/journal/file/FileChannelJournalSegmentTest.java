@@ -0,0 +1,320 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.management.ThreadMXBean;
+import io.camunda.zeebe.journal.JournalReader;
+import io.camunda.zeebe.journal.JournalRecord;
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChannelJournalSegmentTest {
+
+  private static final int ENTRIES_PER_SEGMENT = 4;
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("test".getBytes(StandardCharsets.UTF_8));
+  private final SBESerializer serializer = new SBESerializer();
+  private final ChecksumGenerator checksumGenerator = new ChecksumGenerator();
+  private final ByteBuffer serializeBuffer = ByteBuffer.allocateDirect(64 * 1024);
+  private SegmentedJournal journal;
+
+  @AfterEach
+  void tearDown() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  @Test
+  void shouldAppendAndReadRecordsOverSegments() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+
+    // when
+    for (int i = 1; i <= 10; i++) {
+      assertThat(journal.append(i, data).index()).isEqualTo(i);
+    }
+
+    // then
+    assertRecords(journal.openReader(), 1, 10);
+  }
+
+  @Test
+  void shouldKeepDataOfReadRecords() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    final var appended = journal.append(1, data);
+    for (int i = 2; i <= 10; i++) {
+      journal.append(i, new UnsafeBuffer(("other-" + i).getBytes(StandardCharsets.UTF_8)));
+    }
+    final var reader = journal.openReader();
+
+    // when
+    final var first = reader.next();
+    while (reader.hasNext()) {
+      reader.next();
+    }
+
+    // then
+    assertThat(first).isEqualTo(appended);
+    assertThat(first.data()).isEqualTo(data);
+  }
+
+  @Test
+  void shouldReadRecordsLargerThanReadAheadBuffer() {
+    // given
+    final var largeData = new UnsafeBuffer(new byte[256 * 1024]);
+    largeData.setMemory(0, largeData.capacity(), (byte) 7);
+    journal =
+        SegmentedJournal.builder()
+            .withDirectory(directory.toFile())
+            .withMaxSegmentSize(1024 * 1024)
+            .withSegmentType(JournalSegmentType.FILE_CHANNEL)
+            .build();
+
+    // when
+    journal.append(1, largeData);
+    journal.append(2, data);
+
+    // then
+    final var reader = journal.openReader();
+    assertThat(reader.next().data()).isEqualTo(largeData);
+    assertThat(reader.next().data()).isEqualTo(data);
+    assertThat(reader.hasNext()).isFalse();
+  }
+
+  @Test
+  void shouldNotReadTruncatedRecordsFromReadAheadBuffer() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    for (int i = 1; i <= 3; i++) {
+      journal.append(i, data);
+    }
+    final var reader = journal.openReader();
+    assertThat(reader.next().index()).isEqualTo(1);
+
+    // when
+    journal.deleteAfter(2);
+    final var otherData = new UnsafeBuffer("other".getBytes(StandardCharsets.UTF_8));
+    journal.append(30, otherData);
+
+    // then
+    assertThat(reader.next().index()).isEqualTo(2);
+    final var record = reader.next();
+    assertThat(record.index()).isEqualTo(3);
+    assertThat(record.asqn()).isEqualTo(30);
+    assertThat(record.data()).isEqualTo(otherData);
+    assertThat(reader.hasNext()).isFalse();
+  }
+
+  @Test
+  void shouldReadRecordsAppendedAfterReaderReachedTheEnd() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    journal.append(1, data);
+    final var reader = journal.openReader();
+    reader.next();
+    assertThat(reader.hasNext()).isFalse();
+
+    // when
+    journal.append(2, data);
+
+    // then
+    assertThat(reader.hasNext()).isTrue();
+    assertThat(reader.next().index()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRecoverSegmentsAfterRestart() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+
+    // when
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+
+    // then
+    assertThat(journal.getLastIndex()).isEqualTo(10);
+    assertThat(journal.append(11, data).index()).isEqualTo(11);
+    assertRecords(journal.openReader(), 1, 11);
+  }
+
+  @Test
+  void shouldDiscardCorruptedRecordWhichWasNotAcknowledged() throws Exception {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    for (int i = 1; i <= 3; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+    assertThat(LogCorrupter.corruptRecord(segmentFile(1), 3)).isTrue();
+
+    // when
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+
+    // then
+    assertThat(journal.getLastIndex()).isEqualTo(2);
+    assertThat(journal.append(3, data).index()).isEqualTo(3);
+    assertRecords(journal.openReader(), 1, 3);
+  }
+
+  @Test
+  void shouldOpenMappedSegmentsWithFileChannel() {
+    // given
+    journal = openJournal(JournalSegmentType.MAPPED);
+    for (int i = 1; i <= 6; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+
+    // when
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    journal.append(7, data);
+    journal.close();
+    journal = openJournal(JournalSegmentType.MAPPED);
+
+    // then
+    assertThat(journal.getLastIndex()).isEqualTo(7);
+    assertRecords(journal.openReader(), 1, 7);
+  }
+
+  @Test
+  void shouldKeepRecordReturnedByAppendAfterReplicatedAppends() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    final var appended = journal.append(1, data);
+
+    // when
+    final var otherData = new UnsafeBuffer("other".getBytes(StandardCharsets.UTF_8));
+    journal.append(replicatedRecord(2, otherData));
+
+    // then
+    assertThat(appended.index()).isEqualTo(1);
+    assertThat(appended.data()).isEqualTo(data);
+  }
+
+  @Test
+  void shouldRecoverReplicatedRecordsAfterRestart() {
+    // given
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(replicatedRecord(i, data));
+    }
+    journal.close();
+
+    // when
+    journal = openJournal(JournalSegmentType.FILE_CHANNEL);
+
+    // then
+    assertThat(journal.getLastIndex()).isEqualTo(10);
+    assertThat(journal.append(11, data).index()).isEqualTo(11);
+    assertRecords(journal.openReader(), 1, 11);
+  }
+
+  @Test
+  void shouldNotCopyReplicatedRecords() {
+    // given
+    journal =
+        SegmentedJournal.builder()
+            .withDirectory(directory.toFile())
+            .withSegmentType(JournalSegmentType.FILE_CHANNEL)
+            .build();
+    final var threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final var smallData = new UnsafeBuffer(new byte[1024]);
+    final var largeData = new UnsafeBuffer(new byte[8 * 1024]);
+
+    // when
+    final long allocatedPerSmallRecord = measureAllocatedBytesPerAppend(threadBean, 1, smallData);
+    final long allocatedPerLargeRecord =
+        measureAllocatedBytesPerAppend(threadBean, 2001, largeData);
+
+    // then - copying each record would allocate at least the difference of the record sizes
+    assertThat(allocatedPerLargeRecord - allocatedPerSmallRecord).isLessThan(smallData.capacity());
+  }
+
+  private long measureAllocatedBytesPerAppend(
+      final ThreadMXBean threadBean, final long firstIndex, final DirectBuffer data) {
+    final long threadId = Thread.currentThread().getId();
+    for (long i = firstIndex; i < firstIndex + 1000; i++) {
+      journal.append(replicatedRecord(i, data));
+    }
+
+    final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+    for (long i = firstIndex + 1000; i < firstIndex + 2000; i++) {
+      journal.append(replicatedRecord(i, data));
+    }
+    return (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1000;
+  }
+
+  private JournalRecord replicatedRecord(final long index, final DirectBuffer data) {
+    final int length =
+        serializer.writeData(index, index, data, new UnsafeBuffer(serializeBuffer), 0);
+    final long checksum = checksumGenerator.compute(serializeBuffer, 0, length);
+    return new TestJournalRecord(index, index, checksum, data);
+  }
+
+  private void assertRecords(final JournalReader reader, final long from, final long to) {
+    for (long i = from; i <= to; i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var record = reader.next();
+      assertThat(record.index()).isEqualTo(i);
+      assertThat(record.asqn()).isEqualTo(i);
+      assertThat(record.data()).isEqualTo(data);
+    }
+    assertThat(reader.hasNext()).isFalse();
+    reader.close();
+  }
+
+  private SegmentedJournal openJournal(final JournalSegmentType segmentType) {
+    return SegmentedJournal.builder()
+        .withDirectory(directory.toFile())
+        .withMaxSegmentSize(
+            getSerializedSize(data) * ENTRIES_PER_SEGMENT
+                + JournalSegmentDescriptor.getEncodingLength())
+        .withJournalIndexDensity(1)
+        .withSegmentType(segmentType)
+        .build();
+  }
+
+  private File segmentFile(final long segmentId) {
+    return JournalSegmentFile.createSegmentFile("journal", directory.toFile(), segmentId);
+  }
+
+  private int getSerializedSize(final DirectBuffer data) {
+    final var record = new RecordData(1, 1, data);
+    final var serializer = new SBESerializer();
+    return serializer.writeData(record, new UnsafeBuffer(ByteBuffer.allocate(128)), 0)
+        + FrameUtil.getLength()
+        + serializer.getMetadataLength();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all journal benchmarks and writes the results as JSON to {@code target/jmh-journal.json},
+ * such that the results of different versions can be compared. Any JMH command line option can be
+ * passed to override the defaults, e.g. {@code -rff other.json} to change the result file, or a
+ * regular expression to only run some of the benchmarks.
+ */
+public final class JournalBenchmarks {
+
+  private static final String RESULT_FILE = "target/jmh-journal.json";
+
+  private JournalBenchmarks() {}
+
+  public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+    final var commandLineOptions = new CommandLineOptions(args);
+    final var options =
+        new OptionsBuilder()
+            .parent(commandLineOptions)
+            .resultFormat(ResultFormatType.JSON)
+            .result(commandLineOptions.getResult().orElse(RESULT_FILE));
+
+    if (commandLineOptions.getIncludes().isEmpty()) {
+      options.include(JournalBenchmarks.class.getPackageName() + "\\..*Benchmark");
+    }
+
+    new Runner(options.build()).run();
+  }
+}
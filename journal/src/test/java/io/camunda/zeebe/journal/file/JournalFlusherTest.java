@@ -0,0 +1,338 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.camunda.zeebe.journal.DurableIndexListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalFlusherTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("TestData".getBytes());
+  private SegmentedJournal journal;
+
+  @AfterEach
+  void tearDown() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  @Test
+  void shouldFlushSynchronouslyByDefault() {
+    // given
+    journal = openJournal(false);
+    final List<Long> durableIndexes = new CopyOnWriteArrayList<>();
+    journal.addDurableIndexListener(durableIndexes::add);
+    journal.append(1, data);
+    journal.append(2, data);
+
+    // when
+    journal.flushAsync();
+
+    // then
+    assertThat(journal.getDurableIndex()).isEqualTo(2);
+    assertThat(durableIndexes).containsExactly(2L);
+  }
+
+  @Test
+  void shouldNotifyListenerAfterAsyncFlush() throws InterruptedException {
+    // given
+    journal = openJournal(true);
+    final var flushed = new CountDownLatch(1);
+    journal.addDurableIndexListener(
+        durableIndex -> {
+          if (durableIndex == 3) {
+            flushed.countDown();
+          }
+        });
+    journal.append(1, data);
+    journal.append(2, data);
+    journal.append(3, data);
+
+    // when
+    journal.flushAsync();
+
+    // then
+    assertThat(flushed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+    assertThat(journal.getDurableIndex()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldNotifyListenerWithMonotonicDurableIndex() throws InterruptedException {
+    // given
+    journal = openJournal(true);
+    final var flushed = new CountDownLatch(1);
+    final List<Long> durableIndexes = new CopyOnWriteArrayList<>();
+    final DurableIndexListener listener =
+        durableIndex -> {
+          durableIndexes.add(durableIndex);
+          if (durableIndex == 100) {
+            flushed.countDown();
+          }
+        };
+    journal.addDurableIndexListener(listener);
+
+    // when
+    for (int i = 1; i <= 100; i++) {
+      journal.append(i, data);
+      journal.flushAsync();
+    }
+
+    // then
+    assertThat(flushed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+    assertThat(durableIndexes).isSorted().doesNotHaveDuplicates().endsWith(100L);
+  }
+
+  @Test
+  void shouldNotifyListenerWithoutBlockingTruncation() throws Exception {
+    // given
+    journal = openJournal(true);
+    final var notified = new CountDownLatch(1);
+    final var truncationStarted = new CountDownLatch(1);
+    final var reader = journal.openReader();
+    final CompletableFuture<Boolean> readInListener = new CompletableFuture<>();
+    journal.addDurableIndexListener(
+        durableIndex -> {
+          notified.countDown();
+          try {
+            truncationStarted.await();
+            // give the truncation time to take the write lock
+            Thread.sleep(100);
+            readInListener.complete(reader.hasNext());
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    journal.append(1, data);
+    journal.append(2, data);
+    journal.flushAsync();
+    assertThat(notified.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+    // when
+    final var truncation =
+        CompletableFuture.runAsync(
+            () -> {
+              truncationStarted.countDown();
+              journal.deleteAfter(1);
+            });
+
+    // then
+    truncation.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    assertThat(readInListener.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+    assertThat(journal.getDurableIndex()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotNotifyTruncatedIndexOfConcurrentFlush() throws Exception {
+    // given - the flusher thread is blocked in the listener, such that a concurrent flush has to
+    // wait before it can notify the index it flushed
+    journal = openJournal(true);
+    final var notifying = new CountDownLatch(1);
+    final var releaseListener = new CountDownLatch(1);
+    final List<Long> durableIndexes = new CopyOnWriteArrayList<>();
+    journal.addDurableIndexListener(
+        durableIndex -> {
+          durableIndexes.add(durableIndex);
+          if (durableIndex == 2) {
+            notifying.countDown();
+            awaitUninterruptibly(releaseListener);
+          }
+        });
+    journal.append(1, data);
+    journal.append(2, data);
+    journal.flushAsync();
+    assertThat(notifying.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+    journal.append(3, data);
+    final var flush = CompletableFuture.runAsync(journal::flush);
+    Awaitility.await("until index 3 was flushed").until(journal::getDurableIndex, i -> i == 3);
+
+    // when
+    final var truncation = CompletableFuture.runAsync(() -> journal.deleteAfter(1));
+    Awaitility.await("until the journal was truncated").until(journal::getLastIndex, i -> i == 1);
+    releaseListener.countDown();
+
+    // then
+    truncation.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    flush.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    assertThat(durableIndexes).containsExactly(2L);
+    assertThat(journal.getDurableIndex()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotifyListenerOfFailedAsyncFlushAndRetryOnNextRequest() throws InterruptedException {
+    // given
+    final var attempts = new AtomicInteger();
+    final var failed = new CountDownLatch(1);
+    final var flushed = new CountDownLatch(1);
+    final Runnable backgroundFlushAction =
+        () -> {
+          if (attempts.incrementAndGet() == 1) {
+            throw new UncheckedIOException(new IOException("expected"));
+          }
+        };
+
+    try (final var flusher =
+        new JournalFlusher(
+            "failing", () -> {}, backgroundFlushAction, new JournalMetrics("failing"), 0, true)) {
+      flusher.addListener(
+          new DurableIndexListener() {
+            @Override
+            public void onDurableIndexUpdated(final long durableIndex) {
+              flushed.countDown();
+            }
+
+            @Override
+            public void onFlushFailed(final Throwable error) {
+              failed.countDown();
+            }
+          });
+
+      // when
+      flusher.requestFlush(1);
+
+      // then
+      assertThat(failed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+      assertThat(flusher.getDurableIndex()).isZero();
+
+      // when
+      flusher.requestFlush(1);
+
+      // then
+      assertThat(flushed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+      assertThat(flusher.getDurableIndex()).isEqualTo(1);
+      assertThat(attempts).hasValue(2);
+    }
+  }
+
+  @Test
+  void shouldFlushSynchronouslyInAsyncMode() {
+    // given
+    journal = openJournal(true);
+    journal.append(1, data);
+
+    // when
+    journal.flush();
+
+    // then
+    assertThat(journal.getDurableIndex()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldFlushSynchronouslyInAsyncModeWithoutTakingReadLock() throws Exception {
+    // given - a reader holds the read lock while a truncation waits for the write lock, such that
+    // any further read lock would block until the reader is done
+    journal = openJournal(true);
+    journal.append(1, data);
+    journal.append(2, data);
+    final long stamp = journal.acquireReadlock();
+    final var truncation = CompletableFuture.runAsync(() -> journal.deleteAfter(1));
+    Thread.sleep(100);
+
+    // when
+    final var flush = CompletableFuture.runAsync(journal::flush);
+
+    // then
+    try {
+      flush.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    } finally {
+      journal.releaseReadlock(stamp);
+    }
+    truncation.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    assertThat(journal.getDurableIndex()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldLowerDurableIndexOnTruncation() {
+    // given
+    journal = openJournal(true);
+    journal.append(1, data);
+    journal.append(2, data);
+    journal.append(3, data);
+    journal.flush();
+
+    // when
+    journal.deleteAfter(1);
+
+    // then
+    assertThat(journal.getDurableIndex()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldSetDurableIndexOnReset() {
+    // given
+    journal = openJournal(true);
+    journal.append(1, data);
+
+    // when
+    journal.reset(10);
+
+    // then
+    assertThat(journal.getDurableIndex()).isEqualTo(9);
+  }
+
+  @Test
+  void shouldConsiderExistingRecordsDurableOnOpen() {
+    // given
+    journal = openJournal(true);
+    journal.append(1, data);
+    journal.append(2, data);
+    journal.close();
+
+    // when
+    journal = openJournal(true);
+
+    // then
+    assertThat(journal.getDurableIndex()).isEqualTo(2);
+  }
+
+  private static void awaitUninterruptibly(final CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private SegmentedJournal openJournal(final boolean asyncFlush) {
+    return SegmentedJournal.builder()
+        .withDirectory(directory.resolve("data").toFile())
+        .withJournalIndexDensity(5)
+        .withAsyncFlush(asyncFlush)
+        .build();
+  }
+}
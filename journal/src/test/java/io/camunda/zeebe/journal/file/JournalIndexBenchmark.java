@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link JournalIndex} implementations. The {@link GCProfiler} is enabled when run via
+ * {@link #main(String[])}; the normalized allocation rate of {@link #buildIndex()} approximates the
+ * memory footprint of a fully built index, while the lookup benchmarks report the latency of floor
+ * lookups on it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalIndexBenchmark {
+
+  private static final int DENSITY = 100;
+
+  @Param({"SPARSE_TREE", "SPARSE_ARRAY"})
+  private JournalIndexType type;
+
+  @Param({"100000", "10000000"})
+  private int records;
+
+  private TestJournalRecord[] indexedRecords;
+  private JournalIndex index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // only every DENSITY-th record ends up in the index, so there is no need to create the others
+    indexedRecords = new TestJournalRecord[records / DENSITY];
+    for (int i = 0; i < indexedRecords.length; i++) {
+      final long recordIndex = (i + 1L) * DENSITY;
+      indexedRecords[i] = new TestJournalRecord(recordIndex, recordIndex * 2, 0, null);
+    }
+
+    index = buildIndex();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public JournalIndex buildIndex() {
+    final var journalIndex = type.createIndex(DENSITY);
+    for (final TestJournalRecord record : indexedRecords) {
+      journalIndex.index(record, (int) record.index());
+    }
+    return journalIndex;
+  }
+
+  @Benchmark
+  public IndexInfo lookup() {
+    return index.lookup(ThreadLocalRandom.current().nextLong(1, records + 1));
+  }
+
+  @Benchmark
+  public Long lookupAsqn() {
+    return index.lookupAsqn(ThreadLocalRandom.current().nextLong(1, records * 2L + 1));
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(JournalIndexBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -30,7 +30,9 @@ import io.camunda.zeebe.journal.file.record.RecordMetadata;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -434,6 +436,80 @@ class JournalTest {
         .isInstanceOf(InvalidChecksum.class);
   }
 
+  @Test
+  void shouldAppendJournalRecordsInBatch() {
+    // given - segments which hold only a few records, such that the batch spans several segments
+    final var receiverJournal =
+        SegmentedJournal.builder()
+            .withDirectory(directory.resolve("data-2").toFile())
+            .withMaxSegmentSize(JournalSegmentDescriptor.getEncodingLength() + 256)
+            .withJournalIndexDensity(5)
+            .build();
+    final List<JournalRecord> records = new ArrayList<>();
+    for (int i = 1; i <= 20; i++) {
+      records.add(copyRecord(journal.append(i * 10L, data)));
+    }
+
+    // when
+    receiverJournal.append(records);
+
+    // then
+    assertThat(receiverJournal.getLastIndex()).isEqualTo(20);
+    final var reader = receiverJournal.openReader();
+    for (final JournalRecord expected : records) {
+      assertThat(reader.hasNext()).isTrue();
+      assertThat(reader.next()).isEqualTo(expected);
+    }
+    assertThat(reader.hasNext()).isFalse();
+    assertThat(reader.seekToAsqn(155)).isEqualTo(15);
+    assertThat(receiverJournal.append(210, data).index()).isEqualTo(21);
+  }
+
+  @Test
+  void shouldKeepRecordsBeforeInvalidRecordInBatch() {
+    // given
+    final var receiverJournal =
+        SegmentedJournal.builder()
+            .withDirectory(directory.resolve("data-2").toFile())
+            .withJournalIndexDensity(5)
+            .build();
+    final var first = copyRecord(journal.append(1, data));
+    final var second = copyRecord(journal.append(2, data));
+    final var third = journal.append(3, data);
+    final var invalidChecksumRecord =
+        new TestJournalRecord(third.index(), third.asqn(), -1, third.data());
+
+    // when
+    assertThatThrownBy(() -> receiverJournal.append(List.of(first, second, invalidChecksumRecord)))
+        .isInstanceOf(InvalidChecksum.class);
+
+    // then
+    assertThat(receiverJournal.getLastIndex()).isEqualTo(2);
+    final var reader = receiverJournal.openReader();
+    assertThat(reader.next()).isEqualTo(first);
+    assertThat(reader.next()).isEqualTo(second);
+    assertThat(reader.hasNext()).isFalse();
+    assertThat(receiverJournal.append(3, data).index()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldNotAppendBatchWithGapInIndex() {
+    // given
+    final var receiverJournal =
+        SegmentedJournal.builder()
+            .withDirectory(directory.resolve("data-2").toFile())
+            .withJournalIndexDensity(5)
+            .build();
+    final var first = copyRecord(journal.append(1, data));
+    journal.append(2, data);
+    final var third = copyRecord(journal.append(3, data));
+
+    // when/then
+    assertThatThrownBy(() -> receiverJournal.append(List.of(first, third)))
+        .isInstanceOf(InvalidIndex.class);
+    assertThat(receiverJournal.getLastIndex()).isEqualTo(1);
+  }
+
   @Test
   void shouldReturnFirstIndex() {
     // when
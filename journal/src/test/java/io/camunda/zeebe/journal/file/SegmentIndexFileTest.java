@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentIndexFileTest {
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("test".getBytes(StandardCharsets.UTF_8));
+  private SegmentedJournalBuilder builder;
+
+  @BeforeEach
+  void setup() {
+    final int entrySize = getSerializedSize(data);
+    builder =
+        SegmentedJournal.builder()
+            .withDirectory(directory.toFile())
+            .withMaxSegmentSize(entrySize * 2 + JournalSegmentDescriptor.getEncodingLength())
+            .withJournalIndexDensity(1)
+            .withSegmentIndexFiles(true);
+  }
+
+  @Test
+  void shouldWriteIndexFileOfSealedSegments() {
+    // given
+    final var journal = builder.build();
+
+    // when
+    for (int i = 1; i <= 5; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+
+    // then - the segments contain [1, 2], [3, 4] and [5]
+    assertThat(indexFile(1)).exists();
+    assertThat(indexFile(2)).exists();
+    assertThat(indexFile(3)).doesNotExist();
+
+    final var indexFile = SegmentIndexFile.read(indexFile(2));
+    assertThat(indexFile).isNotNull();
+    assertThat(indexFile.segmentId()).isEqualTo(2);
+    assertThat(indexFile.firstIndex()).isEqualTo(3);
+    assertThat(indexFile.lastIndex()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldRestoreSealedSegmentsFromIndexFiles() {
+    // given
+    var journal = builder.build();
+    for (int i = 1; i <= 5; i++) {
+      journal.append(i * 10L, data);
+    }
+    journal.close();
+
+    // when
+    journal = builder.build();
+
+    // then
+    assertThat(journal.getFirstIndex()).isEqualTo(1);
+    assertThat(journal.getLastIndex()).isEqualTo(5);
+    assertRecords(journal, 1, 5);
+
+    final var reader = journal.openReader();
+    assertThat(reader.seekToAsqn(35)).isEqualTo(3);
+    assertThat(reader.next().asqn()).isEqualTo(30);
+    assertThat(journal.append(60, data).index()).isEqualTo(6);
+    journal.close();
+  }
+
+  @Test
+  void shouldScanSegmentIfIndexFileIsCorrupted() throws IOException {
+    // given
+    var journal = builder.build();
+    for (int i = 1; i <= 5; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+    final byte[] content = Files.readAllBytes(indexFile(1).toPath());
+    content[content.length - 1] ^= 0xFF;
+    Files.write(indexFile(1).toPath(), content);
+
+    // when
+    journal = builder.build();
+
+    // then
+    assertThat(SegmentIndexFile.read(indexFile(1))).isNull();
+    assertThat(journal.getLastIndex()).isEqualTo(5);
+    assertRecords(journal, 1, 5);
+    journal.close();
+  }
+
+  @Test
+  void shouldDeleteIndexFileOnTruncation() {
+    // given
+    var journal = builder.build();
+    for (int i = 1; i <= 5; i++) {
+      journal.append(i, data);
+    }
+
+    // when
+    journal.deleteAfter(3);
+    journal.close();
+
+    // then
+    assertThat(indexFile(1)).exists();
+    assertThat(indexFile(2)).doesNotExist();
+
+    journal = builder.build();
+    assertThat(journal.getLastIndex()).isEqualTo(3);
+    assertRecords(journal, 1, 3);
+    journal.close();
+  }
+
+  @Test
+  void shouldWriteIndexFileInBackground() {
+    // given
+    final var journal = builder.build();
+    journal.append(1, data);
+    journal.append(2, data);
+
+    // when - rolling over to the next segment seals the first one
+    journal.append(3, data);
+
+    // then
+    Awaitility.await("index file was written in the background")
+        .untilAsserted(() -> assertThat(SegmentIndexFile.read(indexFile(1))).isNotNull());
+    assertThat(indexFile(2)).doesNotExist();
+    journal.close();
+  }
+
+  @Test
+  void shouldDeleteIndexFilesWithSegments() {
+    // given
+    final var journal = builder.build();
+    for (int i = 1; i <= 5; i++) {
+      journal.append(i, data);
+    }
+
+    Awaitility.await("index files were written in the background")
+        .untilAsserted(() -> assertThat(indexFile(2)).exists());
+
+    // when
+    journal.deleteUntil(3);
+
+    // then
+    assertThat(indexFile(1)).doesNotExist();
+    assertThat(indexFile(2)).exists();
+    journal.close();
+  }
+
+  private void assertRecords(final SegmentedJournal journal, final long from, final long to) {
+    final var reader = journal.openReader();
+    for (long i = from; i <= to; i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var record = reader.next();
+      assertThat(record.index()).isEqualTo(i);
+      assertThat(record.data()).isEqualTo(data);
+    }
+    assertThat(reader.hasNext()).isFalse();
+    reader.close();
+  }
+
+  private File indexFile(final long segmentId) {
+    return JournalSegmentFile.createIndexFile(
+        JournalSegmentFile.createSegmentFile("journal", directory.toFile(), segmentId));
+  }
+
+  private int getSerializedSize(final DirectBuffer data) {
+    final var record = new RecordData(1, 1, data);
+    final var serializer = new SBESerializer();
+    return serializer.writeData(record, new UnsafeBuffer(ByteBuffer.allocate(128)), 0)
+        + FrameUtil.getLength()
+        + serializer.getMetadataLength();
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentMappingWindowTest {
+
+  private static final int ENTRIES_PER_SEGMENT = 2;
+  private static final int MAX_IDLE_MAPPED_SEGMENTS = 1;
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("test".getBytes(StandardCharsets.UTF_8));
+  private SegmentedJournalBuilder builder;
+  private SegmentedJournal journal;
+
+  @BeforeEach
+  void setup() {
+    builder =
+        SegmentedJournal.builder()
+            .withDirectory(directory.toFile())
+            .withMaxSegmentSize(
+                getSerializedSize(data) * ENTRIES_PER_SEGMENT
+                    + JournalSegmentDescriptor.getEncodingLength())
+            .withJournalIndexDensity(1)
+            .withMaxIdleMappedSegments(MAX_IDLE_MAPPED_SEGMENTS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  @Test
+  void shouldUnmapSealedSegments() {
+    // given
+    journal = builder.build();
+
+    // when - the segments contain [1, 2], [3, 4], [5, 6] and [7]
+    for (int i = 1; i <= 7; i++) {
+      journal.append(i, data);
+    }
+
+    // then - only the active segment and the most recently sealed one stay mapped
+    assertThat(segment(1).isMapped()).isFalse();
+    assertThat(segment(3).isMapped()).isFalse();
+    assertThat(segment(5).isMapped()).isTrue();
+    assertThat(segment(7).isMapped()).isTrue();
+  }
+
+  @Test
+  void shouldUnmapLoadedSegments() {
+    // given
+    journal = builder.build();
+    for (int i = 1; i <= 7; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+
+    // when
+    journal = builder.build();
+
+    // then
+    assertThat(segment(1).isMapped()).isFalse();
+    assertThat(segment(3).isMapped()).isFalse();
+    assertThat(segment(5).isMapped()).isTrue();
+    assertThat(segment(7).isMapped()).isTrue();
+  }
+
+  @Test
+  void shouldMapSegmentWhenReaderSeeksIntoIt() {
+    // given
+    journal = builder.build();
+    for (int i = 1; i <= 7; i++) {
+      journal.append(i, data);
+    }
+    final var reader = journal.openReader();
+
+    // when
+    reader.seek(3);
+
+    // then
+    assertThat(segment(3).isMapped()).isTrue();
+    final var record = reader.next();
+    assertThat(record.index()).isEqualTo(3);
+    assertThat(record.asqn()).isEqualTo(3);
+    assertThat(record.data()).isEqualTo(data);
+    reader.close();
+  }
+
+  @Test
+  void shouldNotUnmapSegmentWhileReaderIsOpenOnIt() {
+    // given
+    journal = builder.build();
+    for (int i = 1; i <= 7; i++) {
+      journal.append(i, data);
+    }
+    final var firstReader = journal.openReader();
+    final var secondReader = journal.openReader();
+    firstReader.seek(1);
+
+    // when - the second reader moves through all segments
+    secondReader.seek(3);
+    secondReader.seek(5);
+    secondReader.seek(7);
+
+    // then
+    assertThat(segment(1).isMapped()).isTrue();
+    assertThat(segment(3).isMapped()).isFalse();
+    assertThat(firstReader.next().data()).isEqualTo(data);
+    firstReader.close();
+    secondReader.close();
+  }
+
+  @Test
+  void shouldReadAllRecordsWithBoundedWindow() {
+    // given
+    journal = builder.withMaxIdleMappedSegments(0).build();
+    for (int i = 1; i <= 10; i++) {
+      journal.append(i, data);
+    }
+
+    // when
+    final var reader = journal.openReader();
+
+    // then
+    for (int i = 1; i <= 10; i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var record = reader.next();
+      assertThat(record.index()).isEqualTo(i);
+      assertThat(record.data()).isEqualTo(data);
+    }
+    assertThat(reader.hasNext()).isFalse();
+    assertThat(segment(1).isMapped()).isFalse();
+    reader.close();
+  }
+
+  @Test
+  void shouldAppendAfterTruncatingIntoUnmappedSegment() {
+    // given
+    journal = builder.withMaxIdleMappedSegments(0).build();
+    for (int i = 1; i <= 7; i++) {
+      journal.append(i, data);
+    }
+
+    // when
+    journal.deleteAfter(3);
+    final var record = journal.append(40, data);
+
+    // then
+    assertThat(record.index()).isEqualTo(4);
+    final var reader = journal.openReader();
+    reader.seek(3);
+    assertThat(reader.next().asqn()).isEqualTo(3);
+    assertThat(reader.next().asqn()).isEqualTo(40);
+    assertThat(reader.hasNext()).isFalse();
+    reader.close();
+  }
+
+  @Test
+  void shouldKeepRecordsValidAfterTheirSegmentIsUnmapped() {
+    // given
+    journal = builder.withMaxIdleMappedSegments(0).build();
+    final var appended = journal.append(1, data);
+    journal.append(2, data);
+    final var reader = journal.openReader();
+    final var read = reader.next();
+
+    // when - the reader and the writer move on to the next segment
+    for (int i = 3; i <= 5; i++) {
+      journal.append(i, data);
+    }
+    reader.seek(3);
+
+    // then
+    assertThat(segment(1).isMapped()).isFalse();
+    assertThat(appended.data()).isEqualTo(data);
+    assertThat(read.data()).isEqualTo(data);
+    reader.close();
+  }
+
+  @Test
+  void shouldNotCopyRecordsIfAllSegmentsStayMapped() {
+    // given
+    journal = builder.withMaxIdleMappedSegments(Integer.MAX_VALUE).build();
+    final var appended = journal.append(1, data);
+    final var reader = journal.openReader();
+
+    // when
+    final var read = reader.next();
+
+    // then - both records are views into the same mapped segment
+    assertThat(read.data().addressOffset()).isEqualTo(appended.data().addressOffset());
+    assertThat(read.data().byteArray()).isNull();
+    reader.close();
+  }
+
+  private JournalSegment segment(final long index) {
+    return journal.getSegment(index);
+  }
+
+  private int getSerializedSize(final DirectBuffer data) {
+    final var record = new RecordData(1, 1, data);
+    final var serializer = new SBESerializer();
+    return serializer.writeData(record, new UnsafeBuffer(ByteBuffer.allocate(128)), 0)
+        + FrameUtil.getLength()
+        + serializer.getMetadataLength();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentPreallocatorTest {
+
+  private static final int SEGMENT_SIZE = 4096;
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("test".getBytes(StandardCharsets.UTF_8));
+
+  @Test
+  void shouldTurnSpareIntoSegment() throws IOException {
+    // given
+    final var preallocator = newPreallocator(true);
+    awaitSpare(preallocator);
+    final var descriptor =
+        JournalSegmentDescriptor.builder()
+            .withId(2)
+            .withIndex(10)
+            .withMaxSegmentSize(SEGMENT_SIZE)
+            .build();
+    final File segmentFile = JournalSegmentFile.createSegmentFile("journal", directory.toFile(), 2);
+
+    // when
+    final var buffer = preallocator.takeSpare(descriptor, segmentFile);
+
+    // then
+    assertThat(buffer).isNotNull();
+    assertThat(buffer.capacity()).isEqualTo(SEGMENT_SIZE);
+    assertThat(segmentFile).exists().hasSize(SEGMENT_SIZE);
+    final var written =
+        ByteBuffer.wrap(Files.readAllBytes(segmentFile.toPath()), 0, descriptor.length());
+    assertThat(new JournalSegmentDescriptor(written)).isEqualTo(descriptor);
+
+    preallocator.close();
+  }
+
+  @Test
+  void shouldDeleteSpareOnClose() {
+    // given
+    final var preallocator = newPreallocator(false);
+    awaitSpare(preallocator);
+
+    // when
+    preallocator.close();
+
+    // then
+    assertThat(directory.toFile().listFiles()).isEmpty();
+  }
+
+  @Test
+  void shouldRollOverToPreallocatedSegments() {
+    // given
+    final int entrySize = getSerializedSize(data);
+    final var builder =
+        SegmentedJournal.builder()
+            .withDirectory(directory.resolve("data").toFile())
+            .withMaxSegmentSize(entrySize * 2 + JournalSegmentDescriptor.getEncodingLength())
+            .withJournalIndexDensity(1)
+            .withPreallocateSegments(true);
+    var journal = builder.build();
+
+    // when
+    for (int i = 1; i <= 10; i++) {
+      journal.append(i, data);
+    }
+    journal.close();
+    journal = builder.build();
+
+    // then
+    assertThat(journal.getFirstIndex()).isEqualTo(1);
+    assertThat(journal.getLastIndex()).isEqualTo(10);
+    final var reader = journal.openReader();
+    for (int i = 1; i <= 10; i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var record = reader.next();
+      assertThat(record.index()).isEqualTo(i);
+      assertThat(record.asqn()).isEqualTo(i);
+      assertThat(record.data()).isEqualTo(data);
+    }
+    assertThat(reader.hasNext()).isFalse();
+    journal.close();
+  }
+
+  @Test
+  void shouldIgnoreLeftOverSpareOnOpen() throws IOException {
+    // given
+    final File dataDirectory = directory.resolve("data").toFile();
+    Files.createDirectories(dataDirectory.toPath());
+    Files.write(new File(dataDirectory, "journal-spare.tmp").toPath(), new byte[SEGMENT_SIZE]);
+
+    // when
+    final var journal =
+        SegmentedJournal.builder()
+            .withDirectory(dataDirectory)
+            .withPreallocateSegments(true)
+            .build();
+
+    // then
+    assertThat(journal.isEmpty()).isTrue();
+    assertThat(journal.append(1, data).index()).isEqualTo(1);
+    journal.close();
+  }
+
+  private SegmentPreallocator newPreallocator(final boolean preTouch) {
+    return new SegmentPreallocator(
+        "journal", directory.toFile(), SEGMENT_SIZE, preTouch, new JournalMetrics("journal"));
+  }
+
+  private void awaitSpare(final SegmentPreallocator preallocator) {
+    final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (!preallocator.isSpareReady()) {
+      assertThat(System.nanoTime()).describedAs("spare segment ready in time").isLessThan(deadline);
+      Thread.onSpinWait();
+    }
+  }
+
+  private int getSerializedSize(final DirectBuffer data) {
+    final var record = new RecordData(1, 1, data);
+    final var serializer = new SBESerializer();
+    return serializer.writeData(record, new UnsafeBuffer(ByteBuffer.allocate(128)), 0)
+        + FrameUtil.getLength()
+        + serializer.getMetadataLength();
+  }
+}
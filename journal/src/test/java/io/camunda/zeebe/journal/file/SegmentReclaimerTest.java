@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.camunda.zeebe.journal.file.record.RecordData;
+import io.camunda.zeebe.journal.file.record.SBESerializer;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentReclaimerTest {
+
+  private static final int ENTRIES_PER_SEGMENT = 2;
+
+  @TempDir Path directory;
+
+  private final DirectBuffer data = new UnsafeBuffer("test".getBytes(StandardCharsets.UTF_8));
+  private SegmentedJournal journal;
+
+  @BeforeEach
+  void setup() {
+    journal =
+        SegmentedJournal.builder()
+            .withDirectory(directory.toFile())
+            .withMaxSegmentSize(
+                getSerializedSize(data) * ENTRIES_PER_SEGMENT
+                    + JournalSegmentDescriptor.getEncodingLength())
+            .withJournalIndexDensity(1)
+            .withBackgroundSegmentDeletion(true)
+            .build();
+
+    // the segments contain [1, 2], [3, 4], [5, 6] and [7]
+    for (int i = 1; i <= 7; i++) {
+      journal.append(i, data);
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+  }
+
+  @Test
+  void shouldDeleteCompactedSegmentsInBackground() {
+    // when
+    journal.deleteUntil(5);
+
+    // then
+    assertThat(journal.getFirstIndex()).isEqualTo(5);
+    Awaitility.await("until the compacted segments are deleted")
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () -> {
+              assertThat(segmentFile(1)).doesNotExist();
+              assertThat(segmentFile(2)).doesNotExist();
+            });
+    assertThat(segmentFile(3)).exists();
+  }
+
+  @Test
+  void shouldMoveReadersToFirstSegment() {
+    // given
+    final var reader = journal.openReader();
+    assertThat(reader.next().index()).isEqualTo(1);
+
+    // when
+    journal.deleteUntil(5);
+
+    // then
+    assertThat(reader.next().index()).isEqualTo(5);
+    Awaitility.await("until the compacted segments are deleted")
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(() -> assertThat(segmentFile(1)).doesNotExist());
+    reader.close();
+  }
+
+  @Test
+  void shouldMoveReadersAtTheEndOfCompactedSegment() {
+    // given - the reader read all records of the compacted segments
+    final var reader = journal.openReader();
+    for (int i = 1; i <= 4; i++) {
+      assertThat(reader.next().index()).isEqualTo(i);
+    }
+
+    // when
+    journal.deleteUntil(5);
+
+    // then
+    Awaitility.await("until the compacted segments are deleted")
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () -> {
+              assertThat(segmentFile(1)).doesNotExist();
+              assertThat(segmentFile(2)).doesNotExist();
+            });
+    assertThat(reader.next().index()).isEqualTo(5);
+    reader.close();
+  }
+
+  @Test
+  void shouldNotDeleteSegmentWhileReaderIsOpenOnIt() {
+    // given
+    final var segmentReader = journal.getSegment(1).createReader();
+
+    // when
+    journal.deleteUntil(5);
+
+    // then
+    Awaitility.await("while the segment is still read")
+        .during(Duration.ofMillis(300))
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(() -> assertThat(segmentFile(1)).exists());
+    assertThat(segmentFile(2)).exists();
+    assertThat(segmentReader.next().index()).isEqualTo(1);
+
+    segmentReader.close();
+    Awaitility.await("until the compacted segments are deleted")
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () -> {
+              assertThat(segmentFile(1)).doesNotExist();
+              assertThat(segmentFile(2)).doesNotExist();
+            });
+  }
+
+  @Test
+  void shouldDeletePendingSegmentsOnClose() {
+    // given
+    journal.getSegment(1).createReader();
+    journal.deleteUntil(5);
+
+    // when
+    journal.close();
+
+    // then
+    assertThat(segmentFile(1)).doesNotExist();
+    assertThat(segmentFile(2)).doesNotExist();
+    assertThat(segmentFile(3)).exists();
+  }
+
+  @Test
+  void shouldResetWithPendingSegments() {
+    // given
+    journal.getSegment(1).createReader();
+    journal.deleteUntil(5);
+
+    // when
+    journal.reset(100);
+
+    // then
+    assertThat(journal.getFirstIndex()).isEqualTo(100);
+    assertThat(journal.append(100, data).index()).isEqualTo(100);
+    assertThat(segmentFile(2)).doesNotExist();
+  }
+
+  private File segmentFile(final long segmentId) {
+    return JournalSegmentFile.createSegmentFile("journal", directory.toFile(), segmentId);
+  }
+
+  private int getSerializedSize(final DirectBuffer data) {
+    final var record = new RecordData(1, 1, data);
+    final var serializer = new SBESerializer();
+    return serializer.writeData(record, new UnsafeBuffer(ByteBuffer.allocate(128)), 0)
+        + FrameUtil.getLength()
+        + serializer.getMetadataLength();
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import io.camunda.zeebe.journal.JournalReader;
+import io.camunda.zeebe.journal.JournalRecord;
+import io.camunda.zeebe.util.FileUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the hot paths of the {@link SegmentedJournal}: appending (with and without flushing),
+ * reading sequentially, seeking by index and by asqn, opening an existing journal, and truncating
+ * or compacting it. Run all journal benchmarks via {@link JournalBenchmarks#main(String[])} to get
+ * the results as JSON.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmentedJournalBenchmark {
+
+  private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  @Benchmark
+  public JournalRecord append(final AppendState state) {
+    return state.journal.append(state.data);
+  }
+
+  @Benchmark
+  public JournalRecord appendAndFlush(final AppendState state) {
+    final var record = state.journal.append(state.data);
+    state.journal.flush();
+    return record;
+  }
+
+  @Benchmark
+  public JournalRecord readNext(final ReadState state) {
+    if (!state.reader.hasNext()) {
+      state.reader.seekToFirst();
+    }
+    return state.reader.next();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long seek(final ReadState state) {
+    return state.reader.seek(ThreadLocalRandom.current().nextLong(1, state.records + 1));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long seekToAsqn(final ReadState state) {
+    return state.reader.seekToAsqn(ThreadLocalRandom.current().nextLong(1, state.records + 1));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public long open(final OpenState state) {
+    try (final var journal = state.builder.build()) {
+      return journal.getLastIndex();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public long deleteAfter(final DeleteState state) {
+    state.journal.deleteAfter(state.records / 2);
+    return state.journal.getLastIndex();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public long deleteUntil(final DeleteState state) {
+    state.journal.deleteUntil(state.records / 2);
+    return state.journal.getFirstIndex();
+  }
+
+  private static DirectBuffer createData(final int size) {
+    final byte[] bytes = new byte[size];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    return new UnsafeBuffer(bytes);
+  }
+
+  private static void fill(final SegmentedJournal journal, final int records, final int size) {
+    final DirectBuffer data = createData(size);
+    for (int i = 1; i <= records; i++) {
+      journal.append(i, data);
+    }
+    journal.flush();
+  }
+
+  /** Opens an empty journal for every iteration, such that it does not grow unbounded. */
+  @State(Scope.Thread)
+  public static class AppendState {
+
+    @Param({"128", "1024", "16384"})
+    private int recordSize;
+
+    private DirectBuffer data;
+    private Path directory;
+    private SegmentedJournal journal;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+      data = createData(recordSize);
+      directory = Files.createTempDirectory("journal-append");
+      journal =
+          SegmentedJournal.builder()
+              .withDirectory(directory.toFile())
+              .withMaxSegmentSize(SEGMENT_SIZE)
+              .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+      journal.close();
+      FileUtil.deleteFolder(directory);
+    }
+  }
+
+  /** A large journal, which is written once and then read by a single reader. */
+  @State(Scope.Thread)
+  public static class ReadState {
+
+    @Param({"1000000"})
+    private int records;
+
+    @Param({"128"})
+    private int recordSize;
+
+    private Path directory;
+    private SegmentedJournal journal;
+    private JournalReader reader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      directory = Files.createTempDirectory("journal-read");
+      journal =
+          SegmentedJournal.builder()
+              .withDirectory(directory.toFile())
+              .withMaxSegmentSize(SEGMENT_SIZE)
+              .build();
+      fill(journal, records, recordSize);
+      reader = journal.openReader();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      reader.close();
+      journal.close();
+      FileUtil.deleteFolder(directory);
+    }
+  }
+
+  /** A closed journal spanning many segments, which every invocation opens again. */
+  @State(Scope.Thread)
+  public static class OpenState {
+
+    @Param({"1000000"})
+    private int records;
+
+    @Param({"false", "true"})
+    private boolean segmentIndexFiles;
+
+    @Param({"1", "4"})
+    private int recoveryThreads;
+
+    private Path directory;
+    private SegmentedJournalBuilder builder;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      directory = Files.createTempDirectory("journal-open");
+      builder =
+          SegmentedJournal.builder()
+              .withDirectory(directory.toFile())
+              .withMaxSegmentSize(SEGMENT_SIZE / 16)
+              .withSegmentIndexFiles(segmentIndexFiles)
+              .withRecoveryThreads(recoveryThreads);
+
+      try (final var journal = builder.build()) {
+        fill(journal, records, 128);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      FileUtil.deleteFolder(directory);
+    }
+  }
+
+  /**
+   * A journal spanning many segments, which is written again before every invocation since the
+   * benchmarks remove half of it.
+   */
+  @State(Scope.Thread)
+  public static class DeleteState {
+
+    @Param({"200000"})
+    private int records;
+
+    private Path directory;
+    private SegmentedJournal journal;
+
+    @Setup(Level.Invocation)
+    public void setup() throws IOException {
+      directory = Files.createTempDirectory("journal-delete");
+      journal =
+          SegmentedJournal.builder()
+              .withDirectory(directory.toFile())
+              .withMaxSegmentSize(SEGMENT_SIZE / 64)
+              .build();
+      fill(journal, records, 128);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+      journal.close();
+      FileUtil.deleteFolder(directory);
+    }
+  }
+}
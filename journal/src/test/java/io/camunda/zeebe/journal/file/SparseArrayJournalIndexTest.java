@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.camunda.zeebe.journal.file;
+
+import static io.camunda.zeebe.journal.file.SparseJournalIndexTest.asJournalRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SparseArrayJournalIndexTest {
+
+  @Test
+  void shouldLookupLowerIndex() {
+    // given
+    final var index = new SparseArrayJournalIndex(5);
+    for (int i = 1; i <= 12; i++) {
+      index.index(asJournalRecord(i, i * 10L), i * 2);
+    }
+
+    // then
+    assertThat(index.lookup(4)).isNull();
+    assertThat(index.lookup(7).index()).isEqualTo(5);
+    assertThat(index.lookup(7).position()).isEqualTo(10);
+    assertThat(index.lookup(12).index()).isEqualTo(10);
+    assertThat(index.lookupAsqn(49)).isNull();
+    assertThat(index.lookupAsqn(75)).isEqualTo(5);
+    assertThat(index.lookupAsqn(Long.MAX_VALUE)).isEqualTo(10);
+  }
+
+  @Test
+  void shouldNotIndexIgnoredAsqn() {
+    // given
+    final var index = new SparseArrayJournalIndex(1);
+
+    // when
+    index.index(asJournalRecord(1, 10), 1);
+    index.index(asJournalRecord(2, SegmentedJournal.ASQN_IGNORE), 2);
+    index.index(asJournalRecord(3, 30), 3);
+
+    // then
+    assertThat(index.lookup(2).position()).isEqualTo(2);
+    assertThat(index.lookupAsqn(20)).isEqualTo(1);
+    assertThat(index.lookupAsqn(30, 2)).isEqualTo(1);
+    assertThat(index.lookupAsqn(30)).isEqualTo(3);
+  }
+
+  @Test
+  void shouldGrowBeyondChunkSize() {
+    // given
+    final var index = new SparseArrayJournalIndex(1);
+    final int count = SparseArrayJournalIndex.CHUNK_SIZE * 3 + 7;
+
+    // when
+    for (int i = 1; i <= count; i++) {
+      index.index(asJournalRecord(i, i * 2L), i * 4);
+    }
+
+    // then
+    assertThat(index.size()).isEqualTo(count);
+    for (int i = 1; i <= count; i++) {
+      assertThat(index.lookup(i).position()).isEqualTo(i * 4);
+      assertThat(index.lookupAsqn(i * 2L + 1)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  void shouldReuseSpaceFreedByCompaction() {
+    // given
+    final var index = new SparseArrayJournalIndex(1);
+    final int count = SparseArrayJournalIndex.CHUNK_SIZE * 2;
+    for (int i = 1; i <= count; i++) {
+      index.index(asJournalRecord(i, i), i);
+    }
+
+    // when
+    index.deleteUntil(count);
+    for (int i = count + 1; i <= count * 2; i++) {
+      index.index(asJournalRecord(i, i), i);
+    }
+
+    // then
+    assertThat(index.size()).isEqualTo(count + 1);
+    assertThat(index.lookup(count - 1)).isNull();
+    assertThat(index.lookup(count).position()).isEqualTo(count);
+    assertThat(index.lookup(count * 2).position()).isEqualTo(count * 2);
+    assertThat(index.lookupAsqn(count - 1)).isNull();
+    assertThat(index.lookupAsqn(count * 2)).isEqualTo(count * 2);
+  }
+
+  @Test
+  void shouldDropNewerEntriesWhenReindexing() {
+    // given
+    final var index = new SparseArrayJournalIndex(1);
+    for (int i = 1; i <= 10; i++) {
+      index.index(asJournalRecord(i, i * 10L), i);
+    }
+
+    // when
+    index.index(asJournalRecord(6, 60), 100);
+
+    // then
+    assertThat(index.size()).isEqualTo(6);
+    assertThat(index.lookup(10).index()).isEqualTo(6);
+    assertThat(index.lookup(10).position()).isEqualTo(100);
+    assertThat(index.lookupAsqn(100)).isEqualTo(6);
+  }
+
+  @Test
+  void shouldTruncateAsqnIndexTogetherWithIndex() {
+    // given
+    final var index = new SparseArrayJournalIndex(2);
+    for (int i = 1; i <= 10; i++) {
+      index.index(asJournalRecord(i, i * 10L), i);
+    }
+
+    // when
+    index.deleteAfter(7);
+
+    // then
+    assertThat(index.lookup(10).index()).isEqualTo(6);
+    assertThat(index.lookupAsqn(100)).isEqualTo(6);
+  }
+
+  @Test
+  void shouldIndexAfterClear() {
+    // given
+    final var index = new SparseArrayJournalIndex(1);
+    for (int i = 1; i <= 10; i++) {
+      index.index(asJournalRecord(i, i), i);
+    }
+
+    // when
+    index.clear();
+    index.index(asJournalRecord(20, 20), 1);
+
+    // then
+    assertThat(index.lookup(10)).isNull();
+    assertThat(index.lookupAsqn(10)).isNull();
+    assertThat(index.lookup(20).position()).isEqualTo(1);
+    assertThat(index.lookupAsqn(20)).isEqualTo(20);
+  }
+
+  @Test
+  void shouldIterateEntriesInRange() {
+    // given
+    final var index = new SparseArrayJournalIndex(2);
+    index.index(asJournalRecord(2, 20), 4);
+    index.index(asJournalRecord(4, SegmentedJournal.ASQN_IGNORE), 8);
+    index.index(asJournalRecord(6, 60), 12);
+    index.index(asJournalRecord(8, 80), 16);
+    final List<String> entries = new ArrayList<>();
+
+    // when
+    index.forEach(3, 7, (i, position, asqn) -> entries.add(i + ":" + position + ":" + asqn));
+
+    // then
+    assertThat(entries).containsExactly("4:8:-1", "6:12:60");
+  }
+}
@@ -20,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import io.camunda.zeebe.journal.JournalRecord;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /** Sparse journal index test. */
@@ -238,4 +240,43 @@ class SparseJournalIndexTest {
     assertEquals(4, index.lookupAsqn(Long.MAX_VALUE, 5));
     assertEquals(6, index.lookupAsqn(Long.MAX_VALUE, 6));
   }
+
+  @Test
+  void shouldIterateEntriesInRange() {
+    // given - every 2nd index is added
+    final JournalIndex index = new SparseJournalIndex(2);
+    index.index(asJournalRecord(2, 20), 4);
+    index.index(asJournalRecord(4, SegmentedJournal.ASQN_IGNORE), 8);
+    index.index(asJournalRecord(6, 60), 12);
+    index.index(asJournalRecord(8, 80), 16);
+    final List<String> entries = new ArrayList<>();
+
+    // when
+    index.forEach(3, 7, (i, position, asqn) -> entries.add(i + ":" + position + ":" + asqn));
+
+    // then
+    assertEquals(List.of("4:8:-1", "6:12:60"), entries);
+  }
+
+  @Test
+  void shouldIndexBatchOnlyAtDensitySteps() {
+    // given - every 5 index is added
+    final JournalIndex index = new SparseJournalIndex(5);
+    final List<JournalRecord> records = new ArrayList<>();
+    for (int i = 1; i <= 12; i++) {
+      records.add(asJournalRecord(i, i * 10L));
+    }
+    final int[] positions = new int[] {8, 16, 24, 32, 40, 48, 56, 64, 72, 80};
+
+    // when - records 3 to 12 are appended in a batch
+    index.index(records, 2, 10, positions);
+
+    // then
+    assertEquals(5, index.lookup(9).index());
+    assertEquals(24, index.lookup(9).position());
+    assertEquals(10, index.lookup(12).index());
+    assertEquals(64, index.lookup(12).position());
+    assertEquals(10, index.lookupAsqn(100));
+    assertNull(index.lookup(4));
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Licensed under the Zeebe Community License 1.1. You may not use this file
+ * except in compliance with the Zeebe Community License 1.1.
+ */
+package io.camunda.zeebe.logstreams.impl.log;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether the {@link LogStorageAppender} should wait for more events before it appends the
+ * block which is currently available, so that fewer but bigger blocks are appended under load.
+ *
+ * <p>The appender lingers until the block reaches the target size, or until the linger budget is
+ * spent. The budget adapts to the current load: it is at most the configured maximum, and at most
+ * half of the average commit latency, such that lingering never dominates the latency of an append.
+ * Furthermore, the appender only lingers if, at the current rate at which events are written,
+ * waiting is expected to at least double the block. On an idle system this is never the case, so
+ * blocks are appended right away.
+ *
+ * <p>The appender is woken up by an actor timer, which only has a resolution of a millisecond, so
+ * the budget is rounded down to whole milliseconds. If commits take less than two milliseconds on
+ * average, the appender therefore does not linger at all, as the timer could not fire within half
+ * of the commit latency.
+ *
+ * <p>Averages are exponentially weighted moving averages; all times are given in nanoseconds. This
+ * class is not thread safe and must only be used by the appender.
+ */
+final class AppendLinger {
+
+  /** The resolution of the actor timers, below which the appender cannot linger. */
+  static final long TIMER_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final double SMOOTHING_FACTOR = 0.2;
+
+  private final long maxLingerNanos;
+  private final int targetBlockSize;
+
+  // NaN until the first sample, as samples may be zero
+  private double averageBlockSize = Double.NaN;
+  private double averageAppendIntervalNanos = Double.NaN;
+  private double averageCommitLatencyNanos = Double.NaN;
+  private long lastAppendNanos = -1;
+  private long lingeringSinceNanos = -1;
+
+  /**
+   * @param maxLingerNanos the maximum time to wait for more events; zero disables lingering
+   * @param targetBlockSize the block size at which a block is appended without lingering
+   */
+  AppendLinger(final long maxLingerNanos, final int targetBlockSize) {
+    this.maxLingerNanos = maxLingerNanos;
+    this.targetBlockSize = targetBlockSize;
+  }
+
+  boolean isEnabled() {
+    return maxLingerNanos > 0;
+  }
+
+  /**
+   * Returns true if the appender should wait before appending a block of the given size, which is
+   * the case until either the target block size is reached or the linger budget is spent.
+   *
+   * @param blockSize the size of the block which is currently available
+   * @param nowNanos the current time
+   * @return true if the block should not be appended yet
+   */
+  boolean shouldLinger(final int blockSize, final long nowNanos) {
+    if (!isEnabled() || blockSize >= targetBlockSize) {
+      return false;
+    }
+
+    if (lingeringSinceNanos < 0) {
+      lingeringSinceNanos = nowNanos;
+    }
+
+    final long remainingNanos = getRemainingNanos(nowNanos);
+    return remainingNanos > 0 && getExpectedBytes(remainingNanos) >= blockSize;
+  }
+
+  /**
+   * Returns how much longer the appender may linger, which is the budget less the time spent
+   * lingering since the last append.
+   *
+   * @param nowNanos the current time
+   * @return the remaining linger time in nanoseconds, or zero if the budget is spent
+   */
+  long getRemainingNanos(final long nowNanos) {
+    final long lingeredNanos = lingeringSinceNanos < 0 ? 0 : nowNanos - lingeringSinceNanos;
+    return Math.max(0, getBudgetNanos() - lingeredNanos);
+  }
+
+  /**
+   * Records that a block was appended, which ends the current linger period.
+   *
+   * @param blockSize the size of the appended block
+   * @param nowNanos the current time
+   */
+  void onAppend(final int blockSize, final long nowNanos) {
+    // blocks grow with the time spent lingering, so the estimated rate is not skewed by it
+    if (lastAppendNanos >= 0) {
+      averageAppendIntervalNanos = average(averageAppendIntervalNanos, nowNanos - lastAppendNanos);
+    }
+    averageBlockSize = average(averageBlockSize, blockSize);
+
+    lastAppendNanos = nowNanos;
+    lingeringSinceNanos = -1;
+  }
+
+  /**
+   * Records the latency of a committed block.
+   *
+   * @param latencyNanos the time between appending and committing the block
+   */
+  void onCommit(final long latencyNanos) {
+    averageCommitLatencyNanos = average(averageCommitLatencyNanos, latencyNanos);
+  }
+
+  /** @return the current linger budget in nanoseconds, a multiple of the timer resolution */
+  long getBudgetNanos() {
+    if (Double.isNaN(averageCommitLatencyNanos)) {
+      return 0;
+    }
+
+    final long budgetNanos = Math.min(maxLingerNanos, (long) (averageCommitLatencyNanos / 2));
+    return budgetNanos - budgetNanos % TIMER_RESOLUTION_NANOS;
+  }
+
+  private double getExpectedBytes(final long nanos) {
+    if (Double.isNaN(averageAppendIntervalNanos) || averageAppendIntervalNanos <= 0) {
+      return 0;
+    }
+
+    return averageBlockSize / averageAppendIntervalNanos * nanos;
+  }
+
+  private static double average(final double average, final double value) {
+    if (Double.isNaN(average)) {
+      return value;
+    }
+
+    return average + SMOOTHING_FACTOR * (value - average);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Licensed under the Zeebe Community License 1.1. You may not use this file
+ * except in compliance with the Zeebe Community License 1.1.
+ */
+package io.camunda.zeebe.logstreams.impl.log;
+
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+
+/**
+ * Recycles the listeners of the appends of a {@link LogStorageAppender}, together with the buffers
+ * into which their blocks are copied. Listeners are acquired by the appender and released by the
+ * thread of the log storage which completes the append, so the pool is a many-to-one queue which
+ * does not allocate on either side.
+ *
+ * <p>If more appends are in flight than the pool can hold, the surplus listeners are simply left to
+ * the garbage collector. Buffers which grew beyond the maximum pooled size, e.g. for an unusually
+ * large block, are dropped as well, so that the memory retained by the pool stays bounded.
+ */
+final class AppendListenerPool {
+
+  private final LogStorageAppender appender;
+  private final int maxPooledBlockSize;
+  private final ManyToOneConcurrentArrayQueue<Listener> listeners;
+
+  AppendListenerPool(
+      final LogStorageAppender appender, final int capacity, final int maxPooledBlockSize) {
+    this.appender = appender;
+    this.maxPooledBlockSize = maxPooledBlockSize;
+    listeners = new ManyToOneConcurrentArrayQueue<>(capacity);
+  }
+
+  /**
+   * Returns a listener for a new append. Must only be called by the appender.
+   *
+   * @return a recycled listener, or a new one if none is available
+   */
+  Listener acquire() {
+    final Listener listener = listeners.poll();
+    return listener != null ? listener : new Listener(appender, this);
+  }
+
+  /**
+   * Returns the listener of a completed append to the pool. The listener must not be used anymore
+   * by the caller afterwards.
+   *
+   * @param listener the listener to recycle
+   */
+  void release(final Listener listener) {
+    listener.releaseBlockLargerThan(maxPooledBlockSize);
+    listeners.offer(listener);
+  }
+}
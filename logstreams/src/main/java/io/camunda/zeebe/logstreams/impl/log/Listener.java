@@ -9,18 +9,69 @@ package io.camunda.zeebe.logstreams.impl.log;
 
 import io.atomix.raft.RaftException.NoLeader;
 import io.camunda.zeebe.logstreams.storage.LogStorage.AppendListener;
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
+import org.agrona.BitUtil;
 
+/**
+ * Listener of a single append of the {@link LogStorageAppender}. It owns the buffer into which the
+ * appended block is copied, and returns itself to its {@link AppendListenerPool} once the append is
+ * completed, i.e. committed or failed, so that both are reused by later appends.
+ */
 public final class Listener implements AppendListener {
   private final LogStorageAppender appender;
-  private final long highestPosition;
-  private final long startTime;
+  private final AppendListenerPool pool;
+  private ByteBuffer block;
+  private ByteBuffer copiedBlock;
+  private long highestPosition;
+  private long startTime;
+  private long startNanos;
 
-  public Listener(
-      final LogStorageAppender appender, final long highestPosition, final long startTime) {
+  Listener(final LogStorageAppender appender, final AppendListenerPool pool) {
     this.appender = appender;
+    this.pool = pool;
+  }
+
+  /**
+   * Copies the remaining bytes of the given buffer into the block buffer of this listener, which is
+   * grown if it is too small.
+   *
+   * <p>The returned buffer is a view of the copy whose capacity is exactly the length of the block,
+   * as the log storage wraps the whole buffer and must not see the spare capacity of the block
+   * buffer. The view is reused as long as consecutive blocks have the same length.
+   *
+   * @param rawBuffer the buffer containing the block to append
+   * @return the copied block, ready to be read
+   */
+  ByteBuffer copyBlock(final ByteBuffer rawBuffer) {
+    final int length = rawBuffer.remaining();
+    if (block == null || block.capacity() < length) {
+      block = ByteBuffer.allocate(BitUtil.findNextPositivePowerOfTwo(length));
+      copiedBlock = null;
+    }
+
+    block.clear();
+    block.put(rawBuffer).flip();
+    if (copiedBlock == null || copiedBlock.capacity() != length) {
+      copiedBlock = block.slice();
+    } else {
+      copiedBlock.clear();
+    }
+
+    return copiedBlock;
+  }
+
+  void reset(final long highestPosition, final long startTime, final long startNanos) {
     this.highestPosition = highestPosition;
     this.startTime = startTime;
+    this.startNanos = startNanos;
+  }
+
+  void releaseBlockLargerThan(final int maxBlockSize) {
+    if (block != null && block.capacity() > maxBlockSize) {
+      block = null;
+      copiedBlock = null;
+    }
   }
 
   @Override
@@ -36,18 +87,21 @@ public final class Listener implements AppendListener {
           "Failed to append block with last event position {}. This can happen during a leader change.",
           highestPosition,
           error);
+      pool.release(this);
       return;
     }
 
     LogStorageAppender.LOG.error(
         "Failed to append block with last event position {}.", highestPosition, error);
     appender.runOnFailure(error);
+    pool.release(this);
   }
 
   @Override
   public void onCommit(final long address) {
     releaseBackPressure();
-    appender.notifyCommitPosition(highestPosition, startTime);
+    appender.notifyCommitPosition(highestPosition, startTime, startNanos);
+    pool.release(this);
   }
 
   @Override
@@ -56,6 +110,7 @@ public final class Listener implements AppendListener {
         "Failed to commit block with last event position {}.", highestPosition, error);
     releaseBackPressure();
     appender.runOnFailure(error);
+    pool.release(this);
   }
 
   private void releaseBackPressure() {
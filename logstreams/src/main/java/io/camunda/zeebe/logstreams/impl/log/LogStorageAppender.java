@@ -22,26 +22,30 @@ import io.camunda.zeebe.logstreams.impl.backpressure.BackpressureConstants;
 import io.camunda.zeebe.logstreams.impl.backpressure.NoopAppendLimiter;
 import io.camunda.zeebe.logstreams.storage.LogStorage;
 import io.camunda.zeebe.util.Environment;
-import io.camunda.zeebe.util.collection.Tuple;
 import io.camunda.zeebe.util.health.FailureListener;
 import io.camunda.zeebe.util.health.HealthMonitorable;
 import io.camunda.zeebe.util.health.HealthStatus;
 import io.camunda.zeebe.util.sched.Actor;
+import io.camunda.zeebe.util.sched.channel.ChannelSubscription;
 import io.camunda.zeebe.util.sched.clock.ActorClock;
 import io.camunda.zeebe.util.sched.future.ActorFuture;
 import io.camunda.zeebe.util.sched.future.CompletableActorFuture;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.LongConsumer;
-import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.DirectBuffer;
 import org.slf4j.Logger;
 
 /** Consume the write buffer and append the blocks to the distributedlog. */
 public class LogStorageAppender extends Actor implements HealthMonitorable {
 
   public static final Logger LOG = Loggers.LOGSTREAMS_LOGGER;
+  // bounds the memory retained by recycled block buffers to a few MB per partition
+  private static final int MAX_POOLED_LISTENERS = 64;
+  private static final int MAX_POOLED_BLOCK_SIZE = 64 * 1024;
   private static final Map<String, AlgorithmCfg> ALGORITHM_CFG =
       Map.of("vegas", new AppenderVegasCfg(), "gradient2", new AppenderGradient2Cfg());
 
@@ -53,10 +57,17 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
   private final AppendBackpressureMetrics appendBackpressureMetrics;
   private final Environment env;
   private final LoggedEventImpl positionReader = new LoggedEventImpl();
+  private final BlockPeek blockPeek = new BlockPeek();
+  private final AppendListenerPool listenerPool;
+  private final AppendLinger linger;
   private final AppenderMetrics appenderMetrics;
   private final Set<FailureListener> failureListeners = new HashSet<>();
   private final ActorFuture<Void> closeFuture;
   private final LongConsumer commitPositionListener;
+  private ChannelSubscription writeBufferConsumer;
+  // positions of the block which is currently appended, see readLowestHighestPosition
+  private long lowestPosition;
+  private long highestPosition;
 
   public LogStorageAppender(
       final String name,
@@ -65,6 +76,26 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
       final Subscription writeBufferSubscription,
       final int maxBlockSize,
       final LongConsumer commitPositionListener) {
+    this(
+        name,
+        partitionId,
+        logStorage,
+        writeBufferSubscription,
+        maxBlockSize,
+        commitPositionListener,
+        Duration.ZERO,
+        maxBlockSize);
+  }
+
+  public LogStorageAppender(
+      final String name,
+      final int partitionId,
+      final LogStorage logStorage,
+      final Subscription writeBufferSubscription,
+      final int maxBlockSize,
+      final LongConsumer commitPositionListener,
+      final Duration maxLinger,
+      final int lingerBlockSize) {
     appenderMetrics = new AppenderMetrics(Integer.toString(partitionId));
     this.commitPositionListener = commitPositionListener;
     env = new Environment();
@@ -79,6 +110,8 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
     appendEntryLimiter =
         isBackpressureEnabled ? initBackpressure(partitionId) : initNoBackpressure(partitionId);
     closeFuture = new CompletableActorFuture<>();
+    listenerPool = new AppendListenerPool(this, MAX_POOLED_LISTENERS, MAX_POOLED_BLOCK_SIZE);
+    linger = new AppendLinger(maxLinger.toNanos(), Math.min(lingerBlockSize, maxBlockSize));
   }
 
   private AppendLimiter initBackpressure(final int partitionId) {
@@ -110,17 +143,20 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
     return new NoopAppendLimiter();
   }
 
-  private void appendBlock(final BlockPeek blockPeek) {
-    final ByteBuffer rawBuffer = blockPeek.getRawBuffer();
-    final int bytes = rawBuffer.remaining();
-    final ByteBuffer copiedBuffer = ByteBuffer.allocate(bytes).put(rawBuffer).flip();
-    final Tuple<Long, Long> positions = readLowestHighestPosition(copiedBuffer);
+  private void appendBlock(final int blockSize) {
+    readLowestHighestPosition(blockPeek.getBuffer());
 
     // Commit position is the position of the last event.
     appendBackpressureMetrics.newEntryToAppend();
-    if (appendEntryLimiter.tryAcquire(positions.getRight())) {
-      final var listener = new Listener(this, positions.getRight(), ActorClock.currentTimeMillis());
-      logStorage.append(positions.getLeft(), positions.getRight(), copiedBuffer, listener);
+    if (appendEntryLimiter.tryAcquire(highestPosition)) {
+      // the block must be copied, as the dispatcher reuses its memory once it is marked completed,
+      // while the log storage appends it asynchronously; the listener recycles the copy
+      final Listener listener = listenerPool.acquire();
+      final ByteBuffer copiedBuffer = listener.copyBlock(blockPeek.getRawBuffer());
+      final long nowNanos = currentNanoTime();
+      listener.reset(highestPosition, ActorClock.currentTimeMillis(), nowNanos);
+      logStorage.append(lowestPosition, highestPosition, copiedBuffer, listener);
+      linger.onAppend(blockSize, nowNanos);
 
       blockPeek.markCompleted();
     } else {
@@ -140,7 +176,11 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
 
   @Override
   protected void onActorStarting() {
-    actor.consume(writeBufferSubscription, this::onWriteBufferAvailable);
+    consumeWriteBuffer();
+  }
+
+  private void consumeWriteBuffer() {
+    writeBufferConsumer = actor.consume(writeBufferSubscription, this::onWriteBufferAvailable);
   }
 
   @Override
@@ -168,28 +208,47 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
   }
 
   private void onWriteBufferAvailable() {
-    final BlockPeek blockPeek = new BlockPeek();
-    if (writeBufferSubscription.peekBlock(blockPeek, maxAppendBlockSize, true) > 0) {
-      appendBlock(blockPeek);
-    } else {
+    final int blockSize = writeBufferSubscription.peekBlock(blockPeek, maxAppendBlockSize, true);
+    if (blockSize <= 0) {
       actor.yield();
+      return;
+    }
+
+    final long nowNanos = currentNanoTime();
+    if (linger.shouldLinger(blockSize, nowNanos)) {
+      lingerFor(linger.getRemainingNanos(nowNanos));
+    } else {
+      appendBlock(blockSize);
     }
   }
 
-  private Tuple<Long, Long> readLowestHighestPosition(final ByteBuffer buffer) {
-    final var view = new UnsafeBuffer(buffer);
-    final var positions = new Tuple<>(Long.MAX_VALUE, Long.MIN_VALUE);
+  /**
+   * The consumer is invoked again as long as the write buffer has events available, so it is
+   * cancelled while lingering and only registered again once the linger timer fires. The block is
+   * then peeked again, including the events written meanwhile.
+   */
+  private void lingerFor(final long nanos) {
+    writeBufferConsumer.cancel();
+    actor.runDelayed(Duration.ofNanos(nanos), this::consumeWriteBuffer);
+  }
+
+  private static long currentNanoTime() {
+    final ActorClock clock = ActorClock.current();
+    return clock != null ? clock.getNanoTime() : System.nanoTime();
+  }
+
+  private void readLowestHighestPosition(final DirectBuffer block) {
+    lowestPosition = Long.MAX_VALUE;
+    highestPosition = Long.MIN_VALUE;
     var offset = 0;
 
     do {
-      positionReader.wrap(view, offset);
+      positionReader.wrap(block, offset);
       final long pos = positionReader.getPosition();
-      positions.setLeft(Math.min(positions.getLeft(), pos));
-      positions.setRight(Math.max(positions.getRight(), pos));
+      lowestPosition = Math.min(lowestPosition, pos);
+      highestPosition = Math.max(highestPosition, pos);
       offset += positionReader.getLength();
-    } while (offset < view.capacity());
-
-    return positions;
+    } while (offset < block.capacity());
   }
 
   @Override
@@ -229,12 +288,15 @@ public class LogStorageAppender extends Actor implements HealthMonitorable {
         });
   }
 
-  void notifyCommitPosition(final long highestPosition, final long startTime) {
+  void notifyCommitPosition(
+      final long highestPosition, final long startTime, final long startNanos) {
     actor.run(
         () -> {
+          final long currentTime = ActorClock.currentTimeMillis();
           commitPositionListener.accept(highestPosition);
           appenderMetrics.setLastCommittedPosition(highestPosition);
-          appenderMetrics.commitLatency(startTime, ActorClock.currentTimeMillis());
+          appenderMetrics.commitLatency(startTime, currentTime);
+          linger.onCommit(currentNanoTime() - startNanos);
         });
   }
 }
@@ -14,6 +14,7 @@ import io.camunda.zeebe.util.sched.ActorScheduler;
 import io.camunda.zeebe.util.sched.channel.ActorConditions;
 import io.camunda.zeebe.util.sched.future.ActorFuture;
 import io.camunda.zeebe.util.sched.future.CompletableActorFuture;
+import java.time.Duration;
 import java.util.Objects;
 
 public final class LogStreamBuilderImpl implements LogStreamBuilder {
@@ -24,6 +25,8 @@ public final class LogStreamBuilderImpl implements LogStreamBuilder {
   private LogStorage logStorage;
   private String logName;
   private int nodeId = 0;
+  private Duration maxAppendLinger = Duration.ZERO;
+  private int appendLingerBlockSize = 64 * 1024;
 
   @Override
   public LogStreamBuilder withActorScheduler(final ActorScheduler actorScheduler) {
@@ -37,6 +40,18 @@ public final class LogStreamBuilderImpl implements LogStreamBuilder {
     return this;
   }
 
+  @Override
+  public LogStreamBuilder withMaxAppendLinger(final Duration maxAppendLinger) {
+    this.maxAppendLinger = maxAppendLinger;
+    return this;
+  }
+
+  @Override
+  public LogStreamBuilder withAppendLingerBlockSize(final int appendLingerBlockSize) {
+    this.appendLingerBlockSize = appendLingerBlockSize;
+    return this;
+  }
+
   @Override
   public LogStreamBuilder withLogStorage(final LogStorage logStorage) {
     this.logStorage = logStorage;
@@ -73,7 +88,9 @@ public final class LogStreamBuilderImpl implements LogStreamBuilder {
             partitionId,
             nodeId,
             maxFragmentSize,
-            logStorage);
+            logStorage,
+            maxAppendLinger,
+            appendLingerBlockSize);
 
     final var logstreamInstallFuture = new CompletableActorFuture<LogStream>();
     actorScheduler
@@ -93,6 +110,7 @@ public final class LogStreamBuilderImpl implements LogStreamBuilder {
   private void validate() {
     Objects.requireNonNull(actorScheduler, "Must specify a actor scheduler");
     Objects.requireNonNull(logStorage, "Must specify a log storage");
+    Objects.requireNonNull(maxAppendLinger, "Must specify a maximum append linger");
 
     if (maxFragmentSize < MINIMUM_FRAGMENT_SIZE) {
       throw new IllegalArgumentException(
@@ -100,5 +118,19 @@ public final class LogStreamBuilderImpl implements LogStreamBuilder {
               "Expected fragment size to be at least '%d', but was '%d'",
               MINIMUM_FRAGMENT_SIZE, maxFragmentSize));
     }
+
+    if (maxAppendLinger.isNegative()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected maximum append linger to be non-negative, but was '%s'", maxAppendLinger));
+    }
+
+    if (!maxAppendLinger.isZero()
+        && maxAppendLinger.toNanos() < AppendLinger.TIMER_RESOLUTION_NANOS) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected maximum append linger to be either zero or at least '%s', but was '%s'",
+              Duration.ofNanos(AppendLinger.TIMER_RESOLUTION_NANOS), maxAppendLinger));
+    }
   }
 }
@@ -26,6 +26,7 @@ import io.camunda.zeebe.util.sched.ActorScheduler;
 import io.camunda.zeebe.util.sched.channel.ActorConditions;
 import io.camunda.zeebe.util.sched.future.ActorFuture;
 import io.camunda.zeebe.util.sched.future.CompletableActorFuture;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -44,6 +45,8 @@ public final class LogStreamImpl extends Actor implements LogStream, FailureList
   private final String logName;
   private final int partitionId;
   private final int maxFrameLength;
+  private final Duration maxAppendLinger;
+  private final int appendLingerBlockSize;
   private final ActorScheduler actorScheduler;
   private final List<LogStreamReader> readers;
   private final LogStorage logStorage;
@@ -65,7 +68,9 @@ public final class LogStreamImpl extends Actor implements LogStream, FailureList
       final int partitionId,
       final int nodeId,
       final int maxFrameLength,
-      final LogStorage logStorage) {
+      final LogStorage logStorage,
+      final Duration maxAppendLinger,
+      final int appendLingerBlockSize) {
     this.actorScheduler = actorScheduler;
     this.onCommitPositionUpdatedConditions = onCommitPositionUpdatedConditions;
     this.logName = logName;
@@ -76,6 +81,8 @@ public final class LogStreamImpl extends Actor implements LogStream, FailureList
 
     this.maxFrameLength = maxFrameLength;
     this.logStorage = logStorage;
+    this.maxAppendLinger = maxAppendLinger;
+    this.appendLingerBlockSize = appendLingerBlockSize;
     closeFuture = new CompletableActorFuture<>();
 
     commitPosition = INVALID_ADDRESS;
@@ -304,7 +311,9 @@ public final class LogStreamImpl extends Actor implements LogStream, FailureList
                         logStorage,
                         subscription,
                         maxFrameLength,
-                        this::setCommitPosition);
+                        this::setCommitPosition,
+                        maxAppendLinger,
+                        appendLingerBlockSize);
 
                 actorScheduler
                     .submitActor(appender)
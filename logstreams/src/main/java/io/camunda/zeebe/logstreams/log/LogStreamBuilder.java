@@ -10,6 +10,7 @@ package io.camunda.zeebe.logstreams.log;
 import io.camunda.zeebe.logstreams.storage.LogStorage;
 import io.camunda.zeebe.util.sched.ActorScheduler;
 import io.camunda.zeebe.util.sched.future.ActorFuture;
+import java.time.Duration;
 
 /** Builder pattern for the {@link LogStream} */
 public interface LogStreamBuilder {
@@ -31,6 +32,27 @@ public interface LogStreamBuilder {
    */
   LogStreamBuilder withMaxFragmentSize(int maxFragmentSize);
 
+  /**
+   * The maximum time the appender waits for more events before it appends a block which is smaller
+   * than the linger block size. The actual time adapts to the current append rate and commit
+   * latency, such that an idle log stream does not wait at all. Defaults to zero, i.e. blocks are
+   * appended as soon as they are available. Otherwise it must be at least a millisecond, the
+   * resolution of the timer which ends the wait.
+   *
+   * @param maxAppendLinger the maximum time to wait for more events
+   * @return this builder
+   */
+  LogStreamBuilder withMaxAppendLinger(Duration maxAppendLinger);
+
+  /**
+   * The block size at which the appender stops waiting for more events; it is capped by the maximum
+   * fragment size. Only used if {@link #withMaxAppendLinger(Duration)} is not zero.
+   *
+   * @param appendLingerBlockSize the target block size in bytes
+   * @return this builder
+   */
+  LogStreamBuilder withAppendLingerBlockSize(int appendLingerBlockSize);
+
   /**
    * The underlying log storage to read from/write to.
    *
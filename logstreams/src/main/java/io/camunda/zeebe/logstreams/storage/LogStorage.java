@@ -39,6 +39,10 @@ public interface LogStorage {
    * <p>The caller of this method must guarantee that the provided block contains unfragmented log
    * entries.
    *
+   * <p>The block buffer may be reused by the caller once the listener was notified that the block
+   * was written, or that it could not be written. Implementations which need the block afterwards
+   * must copy it.
+   *
    * @param lowestPosition the lowest record position of all records in the block buffer
    * @param highestPosition the highest record position of all records in the block buffer
    * @param blockBuffer the buffer containing a block of log entries to be written into storage
@@ -0,0 +1,195 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Licensed under the Zeebe Community License 1.1. You may not use this file
+ * except in compliance with the Zeebe Community License 1.1.
+ */
+package io.camunda.zeebe.logstreams.impl.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public final class AppendLingerTest {
+
+  private static final long MAX_LINGER = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long COMMIT_LATENCY = TimeUnit.MILLISECONDS.toNanos(4);
+  private static final int TARGET_BLOCK_SIZE = 4 * 1024;
+  private static final int BLOCK_SIZE = 128;
+
+  private final AppendLinger linger = new AppendLinger(MAX_LINGER, TARGET_BLOCK_SIZE);
+  private long now = 1;
+
+  @Test
+  public void shouldNotLingerIfDisabled() {
+    // given
+    final AppendLinger disabled = new AppendLinger(0, TARGET_BLOCK_SIZE);
+    appendAndCommit(disabled, 100, TimeUnit.MICROSECONDS.toNanos(10));
+
+    // when - then
+    assertThat(disabled.isEnabled()).isFalse();
+    assertThat(disabled.shouldLinger(BLOCK_SIZE, now)).isFalse();
+  }
+
+  @Test
+  public void shouldNotLingerWithoutCommitLatency() {
+    // given
+    linger.onAppend(BLOCK_SIZE, now);
+    now += TimeUnit.MICROSECONDS.toNanos(10);
+    linger.onAppend(BLOCK_SIZE, now);
+
+    // when - then
+    assertThat(linger.getBudgetNanos()).isZero();
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isFalse();
+  }
+
+  @Test
+  public void shouldLingerUnderLoad() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10));
+
+    // when - then
+    assertThat(linger.getBudgetNanos()).isEqualTo(MAX_LINGER);
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isTrue();
+  }
+
+  @Test
+  public void shouldLimitBudgetByCommitLatency() {
+    // given
+    final AppendLinger fastCommits = new AppendLinger(COMMIT_LATENCY, TARGET_BLOCK_SIZE);
+
+    // when
+    appendAndCommit(fastCommits, 100, TimeUnit.MICROSECONDS.toNanos(10));
+
+    // then
+    assertThat(fastCommits.getBudgetNanos()).isEqualTo(COMMIT_LATENCY / 2);
+  }
+
+  @Test
+  public void shouldNotLingerWithSubMillisecondCommitLatency() {
+    // given
+    final AppendLinger fastCommits = new AppendLinger(COMMIT_LATENCY, TARGET_BLOCK_SIZE);
+
+    // when
+    appendAndCommit(
+        fastCommits, 100, TimeUnit.MICROSECONDS.toNanos(10), TimeUnit.MICROSECONDS.toNanos(300));
+
+    // then - the linger timer cannot fire within half of the commit latency
+    assertThat(fastCommits.getBudgetNanos()).isZero();
+    assertThat(fastCommits.shouldLinger(BLOCK_SIZE, now)).isFalse();
+  }
+
+  @Test
+  public void shouldRoundBudgetDownToTimerResolution() {
+    // given
+    final AppendLinger fastCommits = new AppendLinger(COMMIT_LATENCY, TARGET_BLOCK_SIZE);
+
+    // when
+    appendAndCommit(
+        fastCommits, 100, TimeUnit.MICROSECONDS.toNanos(10), TimeUnit.MICROSECONDS.toNanos(3500));
+
+    // then
+    assertThat(fastCommits.getBudgetNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  @Test
+  public void shouldAverageCommitLatenciesOfZero() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10), 0);
+
+    // when
+    linger.onCommit(COMMIT_LATENCY);
+
+    // then - a single slow commit is smoothed instead of replacing the average
+    assertThat(linger.getBudgetNanos()).isZero();
+  }
+
+  @Test
+  public void shouldNotLingerIfTargetBlockSizeIsReached() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10));
+
+    // when - then
+    assertThat(linger.shouldLinger(TARGET_BLOCK_SIZE, now)).isFalse();
+  }
+
+  @Test
+  public void shouldNotLingerLongerThanBudget() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10));
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isTrue();
+
+    // when
+    now += MAX_LINGER;
+
+    // then
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isFalse();
+  }
+
+  @Test
+  public void shouldReturnRemainingLingerTime() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10));
+    assertThat(linger.getRemainingNanos(now)).isEqualTo(MAX_LINGER);
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isTrue();
+
+    // when
+    now += MAX_LINGER / 4;
+
+    // then
+    assertThat(linger.getRemainingNanos(now)).isEqualTo(MAX_LINGER - MAX_LINGER / 4);
+  }
+
+  @Test
+  public void shouldNotReturnNegativeRemainingLingerTime() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10));
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isTrue();
+
+    // when
+    now += 2 * MAX_LINGER;
+
+    // then
+    assertThat(linger.getRemainingNanos(now)).isZero();
+  }
+
+  @Test
+  public void shouldLingerAgainAfterAppend() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MICROSECONDS.toNanos(10));
+    linger.shouldLinger(BLOCK_SIZE, now);
+    now += MAX_LINGER;
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isFalse();
+
+    // when
+    linger.onAppend(BLOCK_SIZE, now);
+
+    // then
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isTrue();
+  }
+
+  @Test
+  public void shouldNotLingerIfIdle() {
+    // given
+    appendAndCommit(linger, 100, TimeUnit.MILLISECONDS.toNanos(100));
+
+    // when - then
+    assertThat(linger.getBudgetNanos()).isEqualTo(MAX_LINGER);
+    assertThat(linger.shouldLinger(BLOCK_SIZE, now)).isFalse();
+  }
+
+  private void appendAndCommit(final AppendLinger linger, final int appends, final long interval) {
+    appendAndCommit(linger, appends, interval, COMMIT_LATENCY);
+  }
+
+  private void appendAndCommit(
+      final AppendLinger linger, final int appends, final long interval, final long latency) {
+    for (int i = 0; i < appends; i++) {
+      now += interval;
+      linger.onAppend(BLOCK_SIZE, now);
+      linger.onCommit(latency);
+    }
+  }
+}
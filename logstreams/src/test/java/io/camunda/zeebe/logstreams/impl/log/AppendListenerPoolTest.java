@@ -0,0 +1,77 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Licensed under the Zeebe Community License 1.1. You may not use this file
+ * except in compliance with the Zeebe Community License 1.1.
+ */
+package io.camunda.zeebe.logstreams.impl.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public final class AppendListenerPoolTest {
+
+  private static final int BLOCK_SIZE = 1024;
+
+  private final AppendListenerPool pool = new AppendListenerPool(null, 4, 2 * BLOCK_SIZE);
+  private final ByteBuffer rawBuffer = ByteBuffer.allocate(BLOCK_SIZE);
+
+  @Test
+  public void shouldCopyBlock() {
+    // given
+    rawBuffer.putInt(0, 1).putInt(BLOCK_SIZE - Integer.BYTES, 2);
+
+    // when
+    final ByteBuffer block = pool.acquire().copyBlock(rawBuffer.duplicate());
+
+    // then
+    assertThat(block.remaining()).isEqualTo(BLOCK_SIZE);
+    assertThat(block.getInt(0)).isEqualTo(1);
+    assertThat(block.getInt(BLOCK_SIZE - Integer.BYTES)).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCopyBlockWithExactCapacity() {
+    // given - a block whose length is not a power of two
+    final int length = BLOCK_SIZE - 3;
+    rawBuffer.limit(length);
+
+    // when
+    final ByteBuffer block = pool.acquire().copyBlock(rawBuffer);
+
+    // then
+    assertThat(block.remaining()).isEqualTo(length);
+    assertThat(block.capacity()).isEqualTo(length);
+  }
+
+  @Test
+  public void shouldReuseReleasedListenerAndBlock() {
+    // given
+    final Listener listener = pool.acquire();
+    final ByteBuffer block = listener.copyBlock(rawBuffer.duplicate());
+
+    // when
+    pool.release(listener);
+    final Listener reused = pool.acquire();
+
+    // then
+    assertThat(reused).isSameAs(listener);
+    assertThat(reused.copyBlock(rawBuffer.duplicate())).isSameAs(block);
+  }
+
+  @Test
+  public void shouldNotReuseBlocksLargerThanMaxPooledSize() {
+    // given
+    final Listener listener = pool.acquire();
+    final ByteBuffer block = listener.copyBlock(ByteBuffer.allocate(4 * BLOCK_SIZE));
+
+    // when
+    pool.release(listener);
+
+    // then
+    assertThat(pool.acquire().copyBlock(rawBuffer.duplicate())).isNotSameAs(block);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Licensed under the Zeebe Community License 1.1. You may not use this file
+ * except in compliance with the Zeebe Community License 1.1.
+ */
+package io.camunda.zeebe.logstreams.impl.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.management.ThreadMXBean;
+import io.camunda.zeebe.dispatcher.Dispatcher;
+import io.camunda.zeebe.dispatcher.Dispatchers;
+import io.camunda.zeebe.logstreams.storage.LogStorage;
+import io.camunda.zeebe.logstreams.storage.LogStorageReader;
+import io.camunda.zeebe.util.ByteValue;
+import io.camunda.zeebe.util.sched.testing.ControlledActorSchedulerRule;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Measures the memory allocated by the actor thread of the {@link LogStorageAppender} while it
+ * appends a steady stream of blocks. All actors of the test run on that single controlled thread,
+ * and the log storage completes every append right away on the same thread.
+ *
+ * <p>The actor framework, the metrics and the back pressure limiter allocate a few small objects
+ * per append, so the test checks that the memory allocated per block does not depend on the size of
+ * the block, i.e. that blocks are not copied into new buffers.
+ */
+public final class LogStorageAppenderAllocationTest {
+
+  private static final int PARTITION_ID = 0;
+  private static final int MAX_FRAGMENT_SIZE = 32 * 1024;
+  private static final int SMALL_EVENT_SIZE = 1024;
+  private static final int LARGE_EVENT_SIZE = 16 * 1024;
+  private static final int WARM_UP_BLOCKS = 10_000;
+  private static final int MEASURED_BLOCKS = 10_000;
+
+  @Rule
+  public final ControlledActorSchedulerRule schedulerRule = new ControlledActorSchedulerRule();
+
+  private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private Dispatcher dispatcher;
+  private LogStorageAppender appender;
+  private LogStreamWriterImpl writer;
+
+  @Before
+  public void setUp() {
+    dispatcher =
+        Dispatchers.create("0")
+            .actorScheduler(schedulerRule.get())
+            .bufferSize((int) ByteValue.ofMegabytes(16))
+            .maxFragmentLength(MAX_FRAGMENT_SIZE)
+            .build();
+    final var subscription = dispatcher.openSubscriptionAsync("log");
+    schedulerRule.workUntilDone();
+    appender =
+        new LogStorageAppender(
+            "appender",
+            PARTITION_ID,
+            new CommittingLogStorage(),
+            subscription.join(),
+            MAX_FRAGMENT_SIZE,
+            l -> {});
+    writer = new LogStreamWriterImpl(PARTITION_ID, dispatcher);
+
+    schedulerRule.submitActor(appender);
+    schedulerRule.workUntilDone();
+  }
+
+  @After
+  public void tearDown() {
+    appender.closeAsync();
+    schedulerRule.workUntilDone();
+    dispatcher.closeAsync();
+    schedulerRule.workUntilDone();
+  }
+
+  @Test
+  public void shouldNotAllocateBlockCopiesInSteadyState() {
+    // given
+    final var actorThreadId = schedulerRule.call(() -> Thread.currentThread().getId());
+    schedulerRule.workUntilDone();
+    final long threadId = actorThreadId.join();
+
+    // when
+    final long allocatedPerSmallBlock = measureAllocatedBytesPerBlock(threadId, SMALL_EVENT_SIZE);
+    final long allocatedPerLargeBlock = measureAllocatedBytesPerBlock(threadId, LARGE_EVENT_SIZE);
+
+    // then - copying each block would allocate at least the difference of the event sizes
+    assertThat(allocatedPerLargeBlock - allocatedPerSmallBlock).isLessThan(SMALL_EVENT_SIZE);
+  }
+
+  private long measureAllocatedBytesPerBlock(final long threadId, final int eventSize) {
+    final var event = new UnsafeBuffer(new byte[eventSize]);
+    appendBlocks(event, WARM_UP_BLOCKS);
+
+    final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+    appendBlocks(event, MEASURED_BLOCKS);
+    return (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_BLOCKS;
+  }
+
+  private void appendBlocks(final UnsafeBuffer event, final int count) {
+    for (int i = 0; i < count; i++) {
+      assertThat(writer.value(event).tryWrite()).isPositive();
+      schedulerRule.workUntilDone();
+    }
+  }
+
+  private static final class CommittingLogStorage implements LogStorage {
+
+    @Override
+    public LogStorageReader newReader() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void append(
+        final long lowestPosition,
+        final long highestPosition,
+        final ByteBuffer blockBuffer,
+        final AppendListener listener) {
+      listener.onWrite(highestPosition);
+      listener.onCommit(highestPosition);
+    }
+  }
+}
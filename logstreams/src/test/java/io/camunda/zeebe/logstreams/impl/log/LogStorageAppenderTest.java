@@ -11,7 +11,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -32,19 +34,25 @@ import io.camunda.zeebe.util.buffer.BufferReader;
 import io.camunda.zeebe.util.buffer.BufferWriter;
 import io.camunda.zeebe.util.sched.testing.ActorSchedulerRule;
 import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.awaitility.Awaitility;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
 
 public final class LogStorageAppenderTest {
 
@@ -200,6 +208,129 @@ public final class LogStorageAppenderTest {
     assertThat(reader.hasNext()).isFalse();
   }
 
+  @Test
+  public void shouldAppendEventsWhenLingering() {
+    // given - the appender from the setup was not started yet, so it is simply replaced
+    appender =
+        new LogStorageAppender(
+            "appender",
+            PARTITION_ID,
+            logStorage,
+            subscription,
+            MAX_FRAGMENT_SIZE,
+            l -> {},
+            Duration.ofMillis(10),
+            MAX_FRAGMENT_SIZE);
+    final var values = List.of(new Value(1), new Value(2), new Value(3), new Value(4));
+    final var committedPosition = new AtomicLong(-1);
+    logStorageRule.setPositionListener(committedPosition::set);
+    schedulerRule.submitActor(appender).join();
+
+    // when
+    final var positions = new ArrayList<Long>();
+    for (final var value : values) {
+      final long position = writer.valueWriter(value).tryWrite();
+      positions.add(position);
+      Awaitility.await("until position " + position + " is committed")
+          .until(() -> committedPosition.get() >= position);
+    }
+
+    // then
+    final Value expected = new Value();
+    assertThat(reader.seek(positions.get(0))).isTrue();
+    for (int i = 0; i < values.size(); i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var event = reader.next();
+      assertThat(event.getPosition()).isEqualTo(positions.get(i));
+      event.readValue(expected);
+      assertThat(expected).isEqualTo(values.get(i));
+    }
+    assertThat(reader.hasNext()).isFalse();
+  }
+
+  @Test
+  public void shouldAppendStreamOfEventsWhenLingering() {
+    // given - the appender from the setup was not started yet, so it is simply replaced
+    appender =
+        new LogStorageAppender(
+            "appender",
+            PARTITION_ID,
+            logStorage,
+            subscription,
+            MAX_FRAGMENT_SIZE,
+            l -> {},
+            Duration.ofMillis(5),
+            MAX_FRAGMENT_SIZE);
+    final var committedPosition = new AtomicLong(-1);
+    logStorageRule.setPositionListener(committedPosition::set);
+    final var commitExecutor = Executors.newSingleThreadScheduledExecutor();
+    doAnswer(invocation -> appendWithDelayedCommit(invocation, commitExecutor))
+        .when(logStorage)
+        .append(anyLong(), anyLong(), any(ByteBuffer.class), any(AppendListener.class));
+    schedulerRule.submitActor(appender).join();
+
+    // when - events are written faster than they are committed, so the appender lingers
+    final var positions = new ArrayList<Long>();
+    for (int i = 0; i < 1_000; i++) {
+      final var value = new Value(i);
+      positions.add(
+          Awaitility.await("until value " + i + " is written")
+              .pollDelay(Duration.ZERO)
+              .pollInterval(Duration.ofMillis(1))
+              .until(() -> writer.valueWriter(value).tryWrite(), position -> position >= 0));
+    }
+    final long lastPosition = positions.get(positions.size() - 1);
+    Awaitility.await("until position " + lastPosition + " is committed")
+        .until(() -> committedPosition.get() >= lastPosition);
+
+    // then
+    final Value expected = new Value();
+    assertThat(reader.seek(positions.get(0))).isTrue();
+    for (int i = 0; i < positions.size(); i++) {
+      assertThat(reader.hasNext()).isTrue();
+      final var event = reader.next();
+      assertThat(event.getPosition()).isEqualTo(positions.get(i));
+      event.readValue(expected);
+      assertThat(expected).isEqualTo(new Value(i));
+    }
+    assertThat(reader.hasNext()).isFalse();
+    commitExecutor.shutdownNow();
+  }
+
+  private Void appendWithDelayedCommit(
+      final InvocationOnMock invocation, final ScheduledExecutorService commitExecutor) {
+    final AppendListener listener = invocation.getArgument(3);
+    logStorageRule
+        .get()
+        .append(
+            invocation.getArgument(0),
+            invocation.getArgument(1),
+            invocation.getArgument(2),
+            new AppendListener() {
+              @Override
+              public void onWrite(final long address) {
+                listener.onWrite(address);
+              }
+
+              @Override
+              public void onWriteError(final Throwable error) {
+                listener.onWriteError(error);
+              }
+
+              @Override
+              public void onCommit(final long address) {
+                // the appender only lingers if appends take a while to be committed
+                commitExecutor.schedule(() -> listener.onCommit(address), 5, TimeUnit.MILLISECONDS);
+              }
+
+              @Override
+              public void onCommitError(final long address, final Throwable error) {
+                listener.onCommitError(address, error);
+              }
+            });
+    return null;
+  }
+
   private static final class Value implements BufferWriter, BufferReader {
     private int value;
 
@@ -146,6 +146,21 @@ final class AtomixLogStorageReaderTest {
     assertThat(reader.next()).isEqualTo(mapIntegerToBuffer(1));
   }
 
+  @Test
+  void shouldReadBlockAppendedFromViewOfLargerBuffer() {
+    // given - a block which only covers a part of its backing array
+    final ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES).putInt(0, 1).putInt(4, 2);
+    final ByteBuffer block = buffer.limit(Integer.BYTES).slice();
+
+    // when
+    logStorage.append(1, 1, block, new AppendListener() {});
+
+    // then
+    assertThat(reader).hasNext();
+    assertThat(reader.next()).isEqualTo(mapIntegerToBuffer(1));
+    assertThat(reader.hasNext()).isFalse();
+  }
+
   private void appendIntegerBlock(final int positionAndValue) {
     appendIntegerBlock(positionAndValue, positionAndValue, positionAndValue);
   }
@@ -14,6 +14,7 @@ import io.camunda.zeebe.util.sched.Actor;
 import io.camunda.zeebe.util.sched.ActorScheduler;
 import io.camunda.zeebe.util.sched.future.ActorFuture;
 import io.camunda.zeebe.util.sched.future.CompletableActorFuture;
+import java.time.Duration;
 import java.util.Objects;
 
 public final class SyncLogStreamBuilder implements LogStreamBuilder {
@@ -41,6 +42,18 @@ public final class SyncLogStreamBuilder implements LogStreamBuilder {
     return this;
   }
 
+  @Override
+  public SyncLogStreamBuilder withMaxAppendLinger(final Duration maxAppendLinger) {
+    delegate.withMaxAppendLinger(maxAppendLinger);
+    return this;
+  }
+
+  @Override
+  public SyncLogStreamBuilder withAppendLingerBlockSize(final int appendLingerBlockSize) {
+    delegate.withAppendLingerBlockSize(appendLingerBlockSize);
+    return this;
+  }
+
   @Override
   public SyncLogStreamBuilder withLogStorage(final LogStorage logStorage) {
     delegate.withLogStorage(logStorage);
@@ -61,11 +61,8 @@ public final class AtomixClientTransportAdapter extends Actor implements ClientT
       final boolean shouldRetry,
       final Duration timeout) {
 
-    // copy once
-    final var length = clientRequest.getLength();
-    final var requestBytes = new byte[length];
-    final var buffer = new UnsafeBuffer(requestBytes);
-    clientRequest.write(buffer, 0);
+    // copy once, into a pooled buffer which is released when the request is done
+    final var requestBuffer = PooledBuffers.write(clientRequest);
 
     final var partitionId = clientRequest.getPartitionId();
 
@@ -75,7 +72,7 @@ public final class AtomixClientTransportAdapter extends Actor implements ClientT
             requestFuture,
             nodeAddressSupplier,
             partitionId,
-            requestBytes,
+            requestBuffer,
             responseValidator,
             shouldRetry,
             timeout);
@@ -143,9 +140,11 @@ public final class AtomixClientTransportAdapter extends Actor implements ClientT
           requestContext.getTopicName());
     }
 
-    final var requestBytes = requestContext.getRequestBytes();
+    // every attempt hands its own reference to the messaging service, which releases it once sent
+    final var requestBuffer = requestContext.getRequestBuffer().retainedDuplicate();
     messagingService
-        .sendAndReceive(nodeAddress, requestContext.getTopicName(), requestBytes, calculateTimeout)
+        .sendAndReceive(
+            nodeAddress, requestContext.getTopicName(), requestBuffer, true, calculateTimeout)
         .whenComplete(
             (response, errorOnRequest) ->
                 actor.run(() -> handleResponse(requestContext, response, errorOnRequest)));
@@ -13,6 +13,7 @@ import io.camunda.zeebe.transport.ServerResponse;
 import io.camunda.zeebe.transport.ServerTransport;
 import io.camunda.zeebe.util.sched.Actor;
 import io.camunda.zeebe.util.sched.future.ActorFuture;
+import io.netty.buffer.ByteBuf;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 import org.agrona.DirectBuffer;
@@ -24,11 +25,17 @@ import org.slf4j.Logger;
 public class AtomixServerTransport extends Actor implements ServerTransport {
 
   private static final Logger LOG = Loggers.TRANSPORT_LOGGER;
-  private static final String API_TOPIC_FORMAT = "command-api-%d";
+  /**
+   * Prefix of the subjects of all command API requests. The requests are independent of each other,
+   * so they may be received in another order than they were sent.
+   */
+  public static final String API_TOPIC_PREFIX = "command-api-";
+
+  private static final String API_TOPIC_FORMAT = API_TOPIC_PREFIX + "%d";
   private static final String ERROR_MSG_MISSING_PARTITON_MAP =
       "Node already unsubscribed from partition %d, this can only happen when atomix does not cleanly remove its handlers.";
 
-  private final Int2ObjectHashMap<Long2ObjectHashMap<CompletableFuture<byte[]>>>
+  private final Int2ObjectHashMap<Long2ObjectHashMap<CompletableFuture<ByteBuf>>>
       partitionsRequestMap;
   private final AtomicLong requestCount;
   private final DirectBuffer reusableRequestBuffer;
@@ -70,7 +77,7 @@ public class AtomixServerTransport extends Actor implements ServerTransport {
             LOG.trace("Subscribe for topic {}", topicName);
           }
           partitionsRequestMap.put(partitionId, new Long2ObjectHashMap<>());
-          messagingService.registerHandler(
+          messagingService.registerBufferHandler(
               topicName,
               (sender, request) -> handleAtomixRequest(request, partitionId, requestHandler));
         });
@@ -95,9 +102,9 @@ public class AtomixServerTransport extends Actor implements ServerTransport {
     }
   }
 
-  private CompletableFuture<byte[]> handleAtomixRequest(
+  private CompletableFuture<ByteBuf> handleAtomixRequest(
       final byte[] requestBytes, final int partitionId, final RequestHandler requestHandler) {
-    final var completableFuture = new CompletableFuture<byte[]>();
+    final var completableFuture = new CompletableFuture<ByteBuf>();
     actor.call(
         () -> {
           final var requestId = requestCount.getAndIncrement();
@@ -134,17 +141,16 @@ public class AtomixServerTransport extends Actor implements ServerTransport {
   public void sendResponse(final ServerResponse response) {
     final var requestId = response.getRequestId();
     final var partitionId = response.getPartitionId();
-    final var length = response.getLength();
-    final var bytes = new byte[length];
 
-    // here we can't reuse an buffer, because sendResponse can be called concurrently
-    final var unsafeBuffer = new UnsafeBuffer(bytes);
-    response.write(unsafeBuffer, 0);
+    // here we can't reuse an buffer, because sendResponse can be called concurrently; the pooled
+    // buffer is released by the messaging service once the response was sent
+    final var responseBuffer = PooledBuffers.write(response);
 
     actor.run(
         () -> {
           final var requestMap = partitionsRequestMap.get(partitionId);
           if (requestMap == null) {
+            responseBuffer.release();
             LOG.warn(
                 "Node is no longer leader for partition {}, tried to respond on request with id {}",
                 partitionId,
@@ -159,12 +165,15 @@ public class AtomixServerTransport extends Actor implements ServerTransport {
                   "Send response to request {} for topic {}", requestId, topicName(partitionId));
             }
 
-            completableFuture.complete(bytes);
-          } else if (LOG.isTraceEnabled()) {
-            LOG.trace(
-                "Wasn't able to send response to request {} for topic {}",
-                requestId,
-                topicName(partitionId));
+            completableFuture.complete(responseBuffer);
+          } else {
+            responseBuffer.release();
+            if (LOG.isTraceEnabled()) {
+              LOG.trace(
+                  "Wasn't able to send response to request {} for topic {}",
+                  requestId,
+                  topicName(partitionId));
+            }
           }
         });
   }
@@ -0,0 +1,39 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Licensed under the Zeebe Community License 1.1. You may not use this file
+ * except in compliance with the Zeebe Community License 1.1.
+ */
+package io.camunda.zeebe.transport.impl;
+
+import io.camunda.zeebe.util.buffer.BufferWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Writes requests and responses into pooled buffers, which are handed over to the messaging service
+ * instead of copying them into short-lived arrays.
+ */
+final class PooledBuffers {
+
+  private PooledBuffers() {}
+
+  /**
+   * @param writer the writer of the message
+   * @return a pooled buffer containing the written message, which must be released by the caller
+   */
+  static ByteBuf write(final BufferWriter writer) {
+    final int length = writer.getLength();
+    final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer(length);
+    try {
+      writer.write(new UnsafeBuffer(buffer.nioBuffer(0, length)), 0);
+      buffer.writerIndex(length);
+      return buffer;
+    } catch (final RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
+  }
+}
@@ -13,6 +13,7 @@ import io.atomix.utils.net.Address;
 import io.camunda.zeebe.util.sched.ScheduledTimer;
 import io.camunda.zeebe.util.sched.clock.ActorClock;
 import io.camunda.zeebe.util.sched.future.CompletableActorFuture;
+import io.netty.buffer.ByteBuf;
 import java.time.Duration;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
@@ -24,26 +25,27 @@ final class RequestContext {
   private final CompletableActorFuture<DirectBuffer> currentFuture;
   private final Supplier<String> nodeAddressSupplier;
   private final int partitionId;
-  private final byte[] requestBytes;
+  private final ByteBuf requestBuffer;
   private final boolean shouldRetry;
   private final long startTime;
   private final Duration timeout;
   private final Predicate<DirectBuffer> responseValidator;
 
   private ScheduledTimer scheduledTimer;
+  private boolean requestReleased;
 
   RequestContext(
       final CompletableActorFuture<DirectBuffer> currentFuture,
       final Supplier<String> nodeAddressSupplier,
       final int partitionId,
-      final byte[] requestBytes,
+      final ByteBuf requestBuffer,
       final Predicate<DirectBuffer> responseValidator,
       final boolean shouldRetry,
       final Duration timeout) {
     this.currentFuture = currentFuture;
     this.nodeAddressSupplier = nodeAddressSupplier;
     this.partitionId = partitionId;
-    this.requestBytes = requestBytes;
+    this.requestBuffer = requestBuffer;
     this.shouldRetry = shouldRetry;
     startTime = ActorClock.currentTimeMillis();
     this.responseValidator = responseValidator;
@@ -63,8 +65,8 @@ final class RequestContext {
     return topicName(partitionId);
   }
 
-  byte[] getRequestBytes() {
-    return requestBytes;
+  ByteBuf getRequestBuffer() {
+    return requestBuffer;
   }
 
   public Duration getTimeout() {
@@ -90,11 +92,13 @@ final class RequestContext {
   public void complete(final DirectBuffer buffer) {
     currentFuture.complete(buffer);
     cancelTimer();
+    releaseRequest();
   }
 
   public void completeExceptionally(final Throwable throwable) {
     currentFuture.completeExceptionally(throwable);
     cancelTimer();
+    releaseRequest();
   }
 
   private void cancelTimer() {
@@ -110,6 +114,14 @@ final class RequestContext {
   public void timeout() {
     currentFuture.completeExceptionally(
         new TimeoutException("Request timed out after " + timeout.toString()));
+    releaseRequest();
+  }
+
+  private void releaseRequest() {
+    if (!requestReleased) {
+      requestReleased = true;
+      requestBuffer.release();
+    }
   }
 
   public boolean shouldRetry() {